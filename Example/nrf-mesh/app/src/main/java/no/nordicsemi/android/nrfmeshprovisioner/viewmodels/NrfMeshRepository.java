@@ -14,7 +14,6 @@ import android.util.Log;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 import no.nordicsemi.android.log.LogSession;
@@ -1075,22 +1074,10 @@ public class NrfMeshRepository implements MeshProvisioningStatusCallbacks, MeshS
      */
     private void loadGroups() {
         final String uuid = mMeshNetwork.getMeshUUID();
-        final List<Group> groups = new ArrayList<>();
-        for (final ProvisionedMeshNode node : mMeshNetwork.getProvisionedNodes()) {
-            for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
-                final Element element = elementEntry.getValue();
-                for (Map.Entry<Integer, MeshModel> modelEntry : element.getMeshModels().entrySet()) {
-                    final MeshModel model = modelEntry.getValue();
-                    if (model != null) {
-                        final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
-                        for (Integer address : subscriptionAddresses) {
-                            if (!mMeshNetwork.isGroupExist(address)) {
-                                final Group group = new Group(address, uuid);
-                                mMeshNetwork.addGroup(group);
-                            }
-                        }
-                    }
-                }
+        for (Integer address : mMeshNetwork.getSubscriptionAddresses()) {
+            if (!mMeshNetwork.isGroupExist(address)) {
+                final Group group = new Group(address, uuid);
+                mMeshNetwork.addGroup(group);
             }
         }
         mGroups.postValue(mMeshNetwork.getGroups());
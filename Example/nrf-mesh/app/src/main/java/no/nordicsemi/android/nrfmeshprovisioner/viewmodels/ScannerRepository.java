@@ -38,8 +38,6 @@ import java.util.UUID;
 import javax.inject.Inject;
 
 import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
-import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
-import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.nrfmeshprovisioner.ble.BleMeshManager;
 import no.nordicsemi.android.nrfmeshprovisioner.utils.Utils;
 import no.nordicsemi.android.support.v18.scanner.BluetoothLeScannerCompat;
@@ -56,7 +54,6 @@ public class ScannerRepository {
     private static final String TAG = ScannerRepository.class.getSimpleName();
     private final Context mContext;
     private final MeshManagerApi mMeshManagerApi;
-    private String mNetworkId;
 
     /**
      * MutableLiveData containing the scanner state to notify MainActivity.
@@ -80,16 +77,8 @@ public class ScannerRepository {
                     }
                 } else if (mFilterUuid.equals(BleMeshManager.MESH_PROXY_UUID)) {
                     final byte[] serviceData = Utils.getServiceData(result, BleMeshManager.MESH_PROXY_UUID);
-                    if (mMeshManagerApi != null) {
-                        if (mMeshManagerApi.isAdvertisingWithNetworkIdentity(serviceData)) {
-                            if (mMeshManagerApi.networkIdMatches(mNetworkId, serviceData)) {
-                                updateScannerLiveData(result);
-                            }
-                        } else if (mMeshManagerApi.isAdvertisedWithNodeIdentity(serviceData)) {
-                            if (checkIfNodeIdentityMatches(serviceData)) {
-                                updateScannerLiveData(result);
-                            }
-                        }
+                    if (mMeshManagerApi != null && mMeshManagerApi.getMeshNetwork().getAdvertisementMatcher().matches(serviceData)) {
+                        updateScannerLiveData(result);
                     }
                 }
             } catch (Exception ex) {
@@ -100,6 +89,22 @@ public class ScannerRepository {
         @Override
         public void onBatchScanResults(final List<ScanResult> results) {
             // Batch scan is disabled (report delay = 0)
+            try {
+                if (mMeshManagerApi != null && mFilterUuid.equals(BleMeshManager.MESH_PROXY_UUID)) {
+                    final List<byte[]> serviceData = new ArrayList<>(results.size());
+                    for (ScanResult result : results) {
+                        serviceData.add(Utils.getServiceData(result, BleMeshManager.MESH_PROXY_UUID));
+                    }
+                    final boolean[] matches = mMeshManagerApi.getMeshNetwork().getAdvertisementMatcher().matches(serviceData);
+                    for (int i = 0; i < matches.length; i++) {
+                        if (matches[i]) {
+                            updateScannerLiveData(results.get(i));
+                        }
+                    }
+                }
+            } catch (Exception ex) {
+                Log.v(TAG, ex.getMessage());
+            }
         }
 
         @Override
@@ -206,13 +211,6 @@ public class ScannerRepository {
             return;
         }
 
-        if (mFilterUuid.equals(BleMeshManager.MESH_PROXY_UUID)) {
-            final List<NetworkKey> networkKeys = mMeshManagerApi.getMeshNetwork().getNetKeys();
-            if (!networkKeys.isEmpty()) {
-                mNetworkId = mMeshManagerApi.generateNetworkId(networkKeys.get(0).getKey());
-            }
-        }
-
         mScannerLiveData.scanningStarted();
         //Scanning settings
         final ScanSettings settings = new ScanSettings.Builder()
@@ -242,20 +240,4 @@ public class ScannerRepository {
         scanner.stopScan(mScanCallbacks);
         mScannerLiveData.scanningStopped();
     }
-
-    /**
-     * Check if node identity matches
-     *
-     * @param serviceData service data received from the advertising data
-     * @return true if the node identity matches or false otherwise
-     */
-    private boolean checkIfNodeIdentityMatches(final byte[] serviceData) {
-        for (ProvisionedMeshNode node : mMeshManagerApi.getMeshNetwork().getProvisionedNodes()) {
-            if (mMeshManagerApi.nodeIdentityMatches(node, serviceData)) {
-                return true;
-            }
-        }
-        return false;
-
-    }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of importing and exporting a synthetic Mesh Provisioning/Configuration Database of the given number of nodes.
+ * <p>
+ * {@link #importNetwork()} parses the document into a complete json tree first, {@link #streamImportNetwork()} is the streaming
+ * import used by the library. Run with -prof gc to compare the allocations.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkImportBenchmark {
+
+    private static final int ELEMENTS_PER_NODE = 4;
+    private static final String DEVICE_KEY = "9D6DD0E96EB25DC19A40ED9914F8F03F";
+
+    @Param({"100", "1000", "5000"})
+    public int nodeCount;
+
+    private Gson mGson;
+    private String mJson;
+    private MeshNetwork mNetwork;
+
+    @Setup
+    public void setup() {
+        mGson = NetworkImportExportUtils.createGsonBuilder().create();
+        mJson = createNetworkJson(nodeCount).toString();
+        mNetwork = mGson.fromJson(mJson, MeshNetwork.class);
+    }
+
+    @Benchmark
+    public MeshNetwork importNetwork() {
+        return mGson.fromJson(mJson, MeshNetwork.class);
+    }
+
+    @Benchmark
+    public MeshNetwork streamImportNetwork() throws IOException {
+        return NetworkImportExportUtils.readMeshNetwork(mGson, new StringReader(mJson));
+    }
+
+    @Benchmark
+    public String exportNetwork() {
+        return mGson.toJson(mNetwork, MeshNetwork.class);
+    }
+
+    @Benchmark
+    public StringWriter streamExportNetwork() throws IOException {
+        final StringWriter writer = new StringWriter(mJson.length());
+        NetworkImportExportUtils.writeMeshNetwork(mGson, mNetwork, writer);
+        return writer;
+    }
+
+    private static JsonObject createNetworkJson(final int nodeCount) {
+        final JsonObject network = new JsonObject();
+        network.addProperty("$schema", "http://json-schema.org/draft-04/schema#");
+        network.addProperty("id", "TBD");
+        network.addProperty("version", "1.0");
+        network.addProperty("meshUUID", "70CF7C9732A345B691494810D2E9CBF4");
+        network.addProperty("meshName", "Benchmark");
+        network.addProperty("timestamp", "0");
+
+        final JsonObject netKey = new JsonObject();
+        netKey.addProperty("name", "Network Key 1");
+        netKey.addProperty("index", 0);
+        netKey.addProperty("key", "7DD7364CD842AD18C17C2B820C84C3D6");
+        netKey.addProperty("phase", 0);
+        netKey.addProperty("minSecurity", "secure");
+        netKey.addProperty("timestamp", "0");
+        final JsonArray netKeys = new JsonArray();
+        netKeys.add(netKey);
+        network.add("netKeys", netKeys);
+
+        final JsonObject appKey = new JsonObject();
+        appKey.addProperty("name", "Application Key 1");
+        appKey.addProperty("index", 0);
+        appKey.addProperty("boundNetKey", 0);
+        appKey.addProperty("key", "63964771734FBD76E3B40519D1D94A48");
+        final JsonArray appKeys = new JsonArray();
+        appKeys.add(appKey);
+        network.add("appKeys", appKeys);
+
+        final JsonObject unicastRange = new JsonObject();
+        unicastRange.addProperty("lowAddress", "0001");
+        unicastRange.addProperty("highAddress", "7FFF");
+        final JsonArray unicastRanges = new JsonArray();
+        unicastRanges.add(unicastRange);
+        final JsonObject provisioner = new JsonObject();
+        provisioner.addProperty("provisionerName", "nRF Mesh Provisioner");
+        provisioner.addProperty("UUID", "70CF7C9732A345B691494810D2E9CBF5");
+        provisioner.add("allocatedUnicastRange", unicastRanges);
+        final JsonArray provisioners = new JsonArray();
+        provisioners.add(provisioner);
+        network.add("provisioners", provisioners);
+
+        final JsonArray nodes = new JsonArray();
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(createNodeJson(2 + i * ELEMENTS_PER_NODE));
+        }
+        network.add("nodes", nodes);
+        return network;
+    }
+
+    private static JsonObject createNodeJson(final int unicastAddress) {
+        final JsonObject node = new JsonObject();
+        node.addProperty("UUID", UUID.randomUUID().toString().replace("-", "").toUpperCase(Locale.US));
+        node.addProperty("name", "Node " + unicastAddress);
+        node.addProperty("deviceKey", DEVICE_KEY);
+        node.addProperty("unicastAddress", String.format(Locale.US, "%04X", unicastAddress));
+        node.addProperty("security", "secure");
+        node.addProperty("configComplete", true);
+        node.addProperty("cid", "0059");
+        node.addProperty("pid", "0001");
+        node.addProperty("vid", "0001");
+        node.addProperty("crpl", "0028");
+        node.addProperty("defaultTTL", 5);
+
+        final JsonObject features = new JsonObject();
+        features.addProperty("friend", 2);
+        features.addProperty("lowPower", 2);
+        features.addProperty("relay", 1);
+        features.addProperty("proxy", 1);
+        node.add("features", features);
+
+        final JsonObject keyIndex = new JsonObject();
+        keyIndex.addProperty("index", 0);
+        final JsonArray netKeys = new JsonArray();
+        netKeys.add(keyIndex);
+        node.add("netKeys", netKeys);
+        final JsonArray appKeys = new JsonArray();
+        appKeys.add(keyIndex);
+        node.add("appKeys", appKeys);
+
+        final JsonArray elements = new JsonArray();
+        for (int i = 0; i < ELEMENTS_PER_NODE; i++) {
+            final JsonObject element = new JsonObject();
+            element.addProperty("index", i);
+            element.addProperty("location", "0000");
+            final JsonArray models = new JsonArray();
+            models.add(createModelJson(i == 0 ? "0000" : "1000"));
+            models.add(createModelJson(i == 0 ? "0002" : "1001"));
+            element.add("models", models);
+            elements.add(element);
+        }
+        node.add("elements", elements);
+        return node;
+    }
+
+    private static JsonObject createModelJson(final String modelId) {
+        final JsonObject model = new JsonObject();
+        model.addProperty("modelId", modelId);
+        final JsonArray bind = new JsonArray();
+        bind.add(0);
+        model.add("bind", bind);
+        final JsonArray subscribe = new JsonArray();
+        subscribe.add("C000");
+        model.add("subscribe", subscribe);
+        return model;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the proxy protocol segmentation applied to outgoing pdus and removed from incoming pdus for a given mtu, and of
+ * reassembling the segments received as notifications
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxySarBenchmark {
+
+    @Param({"20", "69"})
+    public int mtu;
+
+    @Param({"29", "384"})
+    public int pduLength;
+
+    private byte[] mPdu;
+    private byte[] mSegmentedPdu;
+    private byte[][] mSegments;
+    private ProxySarReassembler mReassembler;
+    private byte[] mReassembledPdu;
+
+    @Setup
+    public void setup() {
+        mPdu = new byte[pduLength];
+        new Random(pduLength).nextBytes(mPdu);
+        mPdu[0] = MeshManagerApi.PDU_TYPE_NETWORK;
+        mSegmentedPdu = MeshManagerApi.applySegmentation(mtu, mPdu);
+
+        final int segmentCount = (mSegmentedPdu.length + mtu - 1) / mtu;
+        mSegments = new byte[segmentCount][];
+        for (int i = 0; i < segmentCount; i++) {
+            mSegments[i] = Arrays.copyOfRange(mSegmentedPdu, i * mtu, Math.min(mSegmentedPdu.length, (i + 1) * mtu));
+        }
+        mReassembler = new ProxySarReassembler(new MeshScheduler() {
+            @Override
+            public void postDelayed(@NonNull final Runnable task, final long delayMillis) {
+            }
+
+            @Override
+            public void removeCallbacks(@NonNull final Runnable task) {
+            }
+        }, new ProxySarReassembler.ProxySarCallbacks() {
+            @Override
+            public void onPduReassembled(@NonNull final byte[] pdu) {
+                mReassembledPdu = pdu;
+            }
+
+            @Override
+            public void onSarTimeout(final int pduType) {
+            }
+        });
+    }
+
+    @Benchmark
+    public byte[] applySegmentation() {
+        return MeshManagerApi.applySegmentation(mtu, mPdu);
+    }
+
+    @Benchmark
+    public byte[] removeSegmentation() {
+        return MeshManagerApi.removeSegmentation(mtu, mSegmentedPdu);
+    }
+
+    @Benchmark
+    public byte[] reassemble() {
+        for (byte[] segment : mSegments) {
+            mReassembler.onPduReceived(segment);
+        }
+        return mReassembledPdu;
+    }
+}
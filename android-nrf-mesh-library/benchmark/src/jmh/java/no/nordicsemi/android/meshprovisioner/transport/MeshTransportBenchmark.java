@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.content.Context;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import no.nordicsemi.android.meshprovisioner.ManualMeshScheduler;
+import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
+import no.nordicsemi.android.meshprovisioner.utils.ExtendedInvalidCipherTextException;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+
+/**
+ * Benchmarks of encrypting and obfuscating a network pdu as done by the network layer for every pdu sent, and of de-obfuscating and
+ * decrypting it again for every pdu received, values are taken from message #16 of the sample data of the mesh profile.
+ * <p>
+ * Encoding an access message through all layers with {@link MeshTransport#createMeshMessage} and decoding it with
+ * {@link MeshTransport#parsePdu} can't be measured yet. The transport layers keep the segments and network pdus in
+ * android.util.SparseArray, which holds nothing in the mockable android.jar the benchmarks run with, so those paths would skip the
+ * network layer entirely.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshTransportBenchmark {
+
+    private static final byte CTL_TTL = 0x0b;
+    private static final byte IVI_NID = 0x68;
+    private static final int SRC = 0x1201;
+    private static final int DST = 0x0003;
+    private static final int NET_MIC_LENGTH = 4;
+
+    private final byte[] encryptionKey = MeshParserUtils.toByteArray("0953fa93e7caac9638f58820220a398e");
+    private final byte[] privacyKey = MeshParserUtils.toByteArray("8b84eedec100067d670971dd2aa700cf");
+    private final byte[] ivIndex = MeshParserUtils.toByteArray("12345678");
+    private final byte[] sequenceNumber = MeshParserUtils.toByteArray("000006");
+    private final byte[] lowerTransportPdu = MeshParserUtils.toByteArray("0089511bf1d1a81c11dcef");
+    private final byte[] networkPdu = MeshParserUtils.toByteArray("0068e80e5da5af0e6b9be7f5a642f2f98680e61c3a8b47f228");
+    private final MeshTransport mMeshTransport = new MeshTransport(Mockito.mock(Context.class), new ManualMeshScheduler());
+
+    @Benchmark
+    public byte[] encodeNetworkPdu() {
+        final byte[] nonce = mMeshTransport.createNetworkNonce(CTL_TTL, sequenceNumber, SRC, ivIndex);
+        return mMeshTransport.createNetworkPdu(MeshManagerApi.PDU_TYPE_NETWORK, IVI_NID, CTL_TTL, nonce, sequenceNumber, SRC, DST,
+                ivIndex, lowerTransportPdu, encryptionKey, privacyKey);
+    }
+
+    @Benchmark
+    public byte[] decodeNetworkPdu() throws ExtendedInvalidCipherTextException {
+        final byte[] networkHeader = mMeshTransport.deobfuscateNetworkHeader(networkPdu, privacyKey, ivIndex);
+        final byte[] nonce = mMeshTransport.createNetworkNonce(networkHeader[0], sequenceNumber, SRC, ivIndex);
+        return mMeshTransport.decryptNetworkPdu(networkPdu, networkHeader, encryptionKey, nonce, NET_MIC_LENGTH);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongycastle.crypto.InvalidCipherTextException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the key derivation functions and ciphers used for every pdu, values are taken from the sample data of the mesh profile
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecureUtilsBenchmark {
+
+    private final byte[] netKey = MeshParserUtils.toByteArray("7dd7364cd842ad18c17c2b820c84c3d6");
+    private final byte[] appKey = MeshParserUtils.toByteArray("3216d1509884b533248541792b877f98");
+    private final byte[] salt = SecureUtils.calculateSalt("nhbk".getBytes());
+    private final byte[] p = MeshParserUtils.toByteArray("010203040506070809");
+    private final byte[] encryptionKey = MeshParserUtils.toByteArray("0953fa93e7caac9638f58820220a398e");
+    private final byte[] networkNonce = MeshParserUtils.toByteArray("000b0000061201000012345678");
+    private final byte[] networkPayload = MeshParserUtils.toByteArray("00030089511bf1d1a81c11dcef");
+    private final byte[] encryptedNetworkPayload = SecureUtils.encryptCCM(networkPayload, encryptionKey, networkNonce, 4);
+    private final byte[] pdu = new byte[8 + networkPayload.length + 4];
+
+    @Benchmark
+    public byte[] k1() {
+        return SecureUtils.calculateK1(netKey, salt, p);
+    }
+
+    @Benchmark
+    public SecureUtils.K2Output k2() {
+        return SecureUtils.calculateK2(netKey, SecureUtils.K2_MASTER_INPUT);
+    }
+
+    @Benchmark
+    public byte[] k3() {
+        return SecureUtils.calculateK3(netKey);
+    }
+
+    @Benchmark
+    public byte k4() {
+        return SecureUtils.calculateK4(appKey);
+    }
+
+    @Benchmark
+    public byte[] cmac() {
+        return SecureUtils.calculateCMAC(networkPayload, netKey);
+    }
+
+    @Benchmark
+    public byte[] encryptCCM() {
+        return SecureUtils.encryptCCM(networkPayload, encryptionKey, networkNonce, 4);
+    }
+
+    @Benchmark
+    public byte[] encryptCCMInPlace() throws InvalidCipherTextException {
+        System.arraycopy(networkPayload, 0, pdu, 8, networkPayload.length);
+        SecureUtils.encryptCCM(pdu, 8, networkPayload.length, encryptionKey, networkNonce, 4, pdu, 8);
+        return pdu;
+    }
+
+    @Benchmark
+    public byte[] decryptCCM() throws InvalidCipherTextException {
+        return SecureUtils.decryptCCM(encryptedNetworkPayload, encryptionKey, networkNonce, 4);
+    }
+}
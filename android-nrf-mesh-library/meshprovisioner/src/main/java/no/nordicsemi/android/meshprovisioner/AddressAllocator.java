@@ -0,0 +1,281 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+
+/**
+ * Allocator of the unicast addresses, group addresses and scene numbers of a mesh network within the ranges allocated to a
+ * {@link Provisioner}.
+ * <p>
+ * The addresses in use are tracked in an {@link AddressSpace} each, the unicast addresses are occupied by the elements of the nodes and
+ * by the provisioners, the group addresses by the groups and the scene numbers by the scenes. Nodes and groups added to or removed from
+ * the network update the spaces incrementally, so the address of a node that was removed is reused by the next node that fits. A space
+ * is rebuilt lazily whenever the allocator was invalidated, i.e. after the network was loaded or imported, or when the list it was
+ * built from has been replaced or changed in size without the allocator being notified.
+ * </p>
+ */
+final class AddressAllocator {
+
+    static final int START_UNICAST_ADDRESS = 0x0001;
+    static final int END_UNICAST_ADDRESS = 0x7FFF;
+    static final int START_SCENE_NUMBER = 0x0001;
+    static final int END_SCENE_NUMBER = 0xFFFF;
+
+    private final BaseMeshNetwork mMeshNetwork;
+    private final AddressSpace mUnicastAddresses = new AddressSpace(START_UNICAST_ADDRESS, END_UNICAST_ADDRESS);
+    private final AddressSpace mGroupAddresses = new AddressSpace(MeshAddress.START_GROUP_ADDRESS, MeshAddress.END_GROUP_ADDRESS);
+    private final AddressSpace mSceneNumbers = new AddressSpace(START_SCENE_NUMBER, END_SCENE_NUMBER);
+    private final Map<Integer, Integer> mNodeRanges = new HashMap<>();
+    private int[] mProvisionerAddresses = new int[0];
+    private List<ProvisionedMeshNode> mIndexedNodes;
+    private int mIndexedNodeCount;
+    private List<Provisioner> mIndexedProvisioners;
+    private List<Group> mIndexedGroups;
+    private int mIndexedGroupCount;
+    private List<Scene> mIndexedScenes;
+    private int mIndexedSceneCount;
+    private boolean mInvalidated = true;
+
+    AddressAllocator(@NonNull final BaseMeshNetwork meshNetwork) {
+        this.mMeshNetwork = meshNetwork;
+    }
+
+    /**
+     * Marks all address spaces as stale, they will be rebuilt on the next allocation
+     */
+    synchronized void invalidate() {
+        mInvalidated = true;
+        mIndexedGroups = null;
+        mIndexedScenes = null;
+    }
+
+    /**
+     * Marks the unicast addresses of a node that was added to the network as used
+     *
+     * @param node node that was added
+     */
+    synchronized void onNodeAdded(@NonNull final ProvisionedMeshNode node) {
+        if (!isUnicastSpaceValid(mMeshNetwork.nodes.size() - 1))
+            return;
+
+        useNode(node);
+        mIndexedNodeCount = mMeshNetwork.nodes.size();
+    }
+
+    /**
+     * Frees the unicast addresses of a node that was removed from the network
+     *
+     * @param node node that was removed
+     */
+    synchronized void onNodeRemoved(@NonNull final ProvisionedMeshNode node) {
+        if (!isUnicastSpaceValid(mMeshNetwork.nodes.size() + 1))
+            return;
+
+        final Integer lastAddress = mNodeRanges.remove(node.getUnicastAddress());
+        if (lastAddress != null) {
+            mUnicastAddresses.free(node.getUnicastAddress(), lastAddress);
+            useProvisionerAddresses();
+        }
+        mIndexedNodeCount = mMeshNetwork.nodes.size();
+    }
+
+    /**
+     * Updates the unicast addresses of a node whose number of elements may have changed, i.e. after the composition data was received
+     *
+     * @param node node that was updated
+     */
+    synchronized void onNodeUpdated(@NonNull final ProvisionedMeshNode node) {
+        if (!isUnicastSpaceValid(mMeshNetwork.nodes.size()))
+            return;
+
+        final Integer lastAddress = mNodeRanges.get(node.getUnicastAddress());
+        if (lastAddress == null || lastAddress != getLastAddress(node)) {
+            if (lastAddress != null) {
+                mUnicastAddresses.free(node.getUnicastAddress(), lastAddress);
+                useProvisionerAddresses();
+            }
+            useNode(node);
+        }
+    }
+
+    /**
+     * Marks the address of a group that was added to the network as used
+     *
+     * @param group group that was added
+     */
+    synchronized void onGroupAdded(@NonNull final Group group) {
+        if (mIndexedGroups != mMeshNetwork.groups || mIndexedGroupCount != mMeshNetwork.groups.size() - 1)
+            return;
+
+        mGroupAddresses.use(group.getGroupAddress(), group.getGroupAddress());
+        mIndexedGroupCount = mMeshNetwork.groups.size();
+    }
+
+    /**
+     * Frees the address of a group that was removed from the network
+     *
+     * @param group group that was removed
+     */
+    synchronized void onGroupRemoved(@NonNull final Group group) {
+        if (mIndexedGroups != mMeshNetwork.groups || mIndexedGroupCount != mMeshNetwork.groups.size() + 1)
+            return;
+
+        mGroupAddresses.free(group.getGroupAddress(), group.getGroupAddress());
+        mIndexedGroupCount = mMeshNetwork.groups.size();
+    }
+
+    /**
+     * Returns the first unicast address of the first free range of addresses for a node within the unicast ranges of the provisioner
+     *
+     * @param elementCount number of elements of the node
+     * @param provisioner  provisioner
+     * @return unicast address or -1 if there is no free range of the given size
+     */
+    synchronized int nextAvailableUnicastAddress(final int elementCount, @NonNull final Provisioner provisioner) {
+        validateUnicastSpace();
+        for (AllocatedUnicastRange range : provisioner.getAllocatedUnicastRanges()) {
+            final int address = mUnicastAddresses.find(elementCount, range.getLowAddress(), range.getHighAddress());
+            if (address != -1)
+                return address;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first unicast address of the first free range of addresses for a node within the whole unicast address space
+     *
+     * @param elementCount number of elements of the node
+     * @return unicast address or -1 if there is no free range of the given size
+     */
+    synchronized int nextAvailableUnicastAddress(final int elementCount) {
+        validateUnicastSpace();
+        return mUnicastAddresses.find(elementCount, START_UNICAST_ADDRESS, END_UNICAST_ADDRESS);
+    }
+
+    /**
+     * Returns true if any of the unicast addresses of the range is used by a node or a provisioner
+     *
+     * @param address      first unicast address of the range
+     * @param elementCount number of addresses in the range
+     */
+    synchronized boolean isUnicastAddressInUse(final int address, final int elementCount) {
+        validateUnicastSpace();
+        return !mUnicastAddresses.isFree(address, address + elementCount - 1);
+    }
+
+    /**
+     * Returns the first free group address within the group ranges of the provisioner
+     *
+     * @param provisioner provisioner
+     * @return group address or -1 if all group addresses of the ranges are in use
+     */
+    synchronized int nextAvailableGroupAddress(@NonNull final Provisioner provisioner) {
+        validateGroupSpace();
+        for (AllocatedGroupRange range : provisioner.getAllocatedGroupRanges()) {
+            final int address = mGroupAddresses.find(1, range.getLowAddress(), range.getHighAddress());
+            if (address != -1)
+                return address;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first free scene number within the scene ranges of the provisioner
+     *
+     * @param provisioner provisioner
+     * @return scene number or -1 if all scene numbers of the ranges are in use
+     */
+    synchronized int nextAvailableSceneNumber(@NonNull final Provisioner provisioner) {
+        validateSceneSpace();
+        for (AllocatedSceneRange range : provisioner.getAllocatedSceneRanges()) {
+            final int number = mSceneNumbers.find(1, range.getFirstScene(), range.getLastScene());
+            if (number != -1)
+                return number;
+        }
+        return -1;
+    }
+
+    private boolean isUnicastSpaceValid(final int nodeCount) {
+        if (mInvalidated || mIndexedNodes != mMeshNetwork.nodes || mIndexedNodeCount != nodeCount ||
+                mIndexedProvisioners != mMeshNetwork.provisioners || mProvisionerAddresses.length != mMeshNetwork.provisioners.size())
+            return false;
+
+        //The address of a provisioner may be changed at any time
+        for (int i = 0; i < mProvisionerAddresses.length; i++) {
+            if (mMeshNetwork.provisioners.get(i).getProvisionerAddress() != mProvisionerAddresses[i])
+                return false;
+        }
+        return true;
+    }
+
+    private void validateUnicastSpace() {
+        if (isUnicastSpaceValid(mMeshNetwork.nodes.size()))
+            return;
+
+        mUnicastAddresses.clear();
+        mNodeRanges.clear();
+        final List<ProvisionedMeshNode> nodes = mMeshNetwork.nodes;
+        for (ProvisionedMeshNode node : nodes) {
+            useNode(node);
+        }
+        final List<Provisioner> provisioners = mMeshNetwork.provisioners;
+        mProvisionerAddresses = new int[provisioners.size()];
+        for (int i = 0; i < mProvisionerAddresses.length; i++) {
+            mProvisionerAddresses[i] = provisioners.get(i).getProvisionerAddress();
+        }
+        useProvisionerAddresses();
+        mIndexedNodes = nodes;
+        mIndexedNodeCount = nodes.size();
+        mIndexedProvisioners = provisioners;
+        mInvalidated = false;
+    }
+
+    private void validateGroupSpace() {
+        final List<Group> groups = mMeshNetwork.groups;
+        if (groups == mIndexedGroups && groups.size() == mIndexedGroupCount)
+            return;
+
+        mGroupAddresses.clear();
+        for (Group group : groups) {
+            mGroupAddresses.use(group.getGroupAddress(), group.getGroupAddress());
+        }
+        mIndexedGroups = groups;
+        mIndexedGroupCount = groups.size();
+    }
+
+    private void validateSceneSpace() {
+        final List<Scene> scenes = mMeshNetwork.scenes;
+        if (scenes == mIndexedScenes && scenes.size() == mIndexedSceneCount)
+            return;
+
+        mSceneNumbers.clear();
+        for (Scene scene : scenes) {
+            mSceneNumbers.use(scene.getNumber(), scene.getNumber());
+        }
+        mIndexedScenes = scenes;
+        mIndexedSceneCount = scenes.size();
+    }
+
+    private void useNode(@NonNull final ProvisionedMeshNode node) {
+        final int lastAddress = getLastAddress(node);
+        mUnicastAddresses.use(node.getUnicastAddress(), lastAddress);
+        mNodeRanges.put(node.getUnicastAddress(), lastAddress);
+    }
+
+    private void useProvisionerAddresses() {
+        for (int address : mProvisionerAddresses) {
+            mUnicastAddresses.use(address, address);
+        }
+    }
+
+    private static int getLastAddress(@NonNull final ProvisionedMeshNode node) {
+        //A node without any known elements still occupies its primary address
+        return Math.max(node.getUnicastAddress(), node.getLastUnicastAddress());
+    }
+}
@@ -0,0 +1,140 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Free intervals of an address space, i.e. the unicast or group addresses or the scene numbers of a mesh network.
+ * <p>
+ * The free addresses are kept as disjoint intervals in a tree keyed by their first address. Adjacent free intervals are merged, so
+ * addresses allocated back to back occupy no entry at all and the number of entries only grows with the number of gaps. Marking a range
+ * as used or free and checking a range are a lookup of the neighbouring intervals, finding a free range returns the first interval large
+ * enough, which is the first interval looked at unless the space is fragmented by gaps smaller than the requested range.
+ * </p>
+ */
+final class AddressSpace {
+
+    private final int mLowAddress;
+    private final int mHighAddress;
+    private final TreeMap<Integer, Integer> mFreeIntervals = new TreeMap<>();
+
+    /**
+     * Constructs an address space where all addresses are free
+     *
+     * @param lowAddress  first address of the space
+     * @param highAddress last address of the space
+     */
+    AddressSpace(final int lowAddress, final int highAddress) {
+        if (lowAddress > highAddress)
+            throw new IllegalArgumentException("Low address must not be greater than the high address");
+        this.mLowAddress = lowAddress;
+        this.mHighAddress = highAddress;
+        clear();
+    }
+
+    /**
+     * Marks all addresses as free
+     */
+    void clear() {
+        mFreeIntervals.clear();
+        mFreeIntervals.put(mLowAddress, mHighAddress);
+    }
+
+    /**
+     * Marks the addresses of a range as used. Addresses already in use or outside of the space are ignored.
+     *
+     * @param lowAddress  first address of the range
+     * @param highAddress last address of the range
+     */
+    void use(final int lowAddress, final int highAddress) {
+        final int low = Math.max(lowAddress, mLowAddress);
+        final int high = Math.min(highAddress, mHighAddress);
+        if (low > high)
+            return;
+
+        //Free intervals starting before the range may overlap with its start
+        final Map.Entry<Integer, Integer> floor = mFreeIntervals.lowerEntry(low);
+        if (floor != null && floor.getValue() >= low) {
+            mFreeIntervals.put(floor.getKey(), low - 1);
+            if (floor.getValue() > high) {
+                mFreeIntervals.put(high + 1, floor.getValue());
+                return;
+            }
+        }
+        Map.Entry<Integer, Integer> entry = mFreeIntervals.ceilingEntry(low);
+        while (entry != null && entry.getKey() <= high) {
+            mFreeIntervals.remove(entry.getKey());
+            if (entry.getValue() > high) {
+                mFreeIntervals.put(high + 1, entry.getValue());
+                return;
+            }
+            entry = mFreeIntervals.higherEntry(entry.getKey());
+        }
+    }
+
+    /**
+     * Marks the addresses of a range as free. Addresses outside of the space are ignored.
+     *
+     * @param lowAddress  first address of the range
+     * @param highAddress last address of the range
+     */
+    void free(final int lowAddress, final int highAddress) {
+        int low = Math.max(lowAddress, mLowAddress);
+        int high = Math.min(highAddress, mHighAddress);
+        if (low > high)
+            return;
+
+        //Merge with the free intervals adjacent to or overlapping with the range
+        final Map.Entry<Integer, Integer> floor = mFreeIntervals.floorEntry(low);
+        if (floor != null && floor.getValue() >= low - 1) {
+            low = floor.getKey();
+            high = Math.max(high, floor.getValue());
+        }
+        Map.Entry<Integer, Integer> entry = mFreeIntervals.higherEntry(low);
+        while (entry != null && entry.getKey() <= high + 1) {
+            high = Math.max(high, entry.getValue());
+            mFreeIntervals.remove(entry.getKey());
+            entry = mFreeIntervals.higherEntry(low);
+        }
+        mFreeIntervals.put(low, high);
+    }
+
+    /**
+     * Returns true if all addresses of the range are free
+     *
+     * @param lowAddress  first address of the range
+     * @param highAddress last address of the range
+     */
+    boolean isFree(final int lowAddress, final int highAddress) {
+        final Map.Entry<Integer, Integer> floor = mFreeIntervals.floorEntry(lowAddress);
+        return floor != null && floor.getValue() >= highAddress;
+    }
+
+    /**
+     * Returns the first address of the first free range of the given size within the given bounds
+     *
+     * @param count       number of consecutive addresses
+     * @param lowAddress  first address the range may start at
+     * @param highAddress last address the range may end at
+     * @return first address of the range or -1 if there is no free range of the given size within the bounds
+     */
+    int find(final int count, final int lowAddress, final int highAddress) {
+        final Map.Entry<Integer, Integer> floor = mFreeIntervals.floorEntry(lowAddress);
+        Map.Entry<Integer, Integer> entry = floor != null && floor.getValue() >= lowAddress ? floor : mFreeIntervals.higherEntry(lowAddress);
+        while (entry != null && entry.getKey() <= highAddress) {
+            final int start = Math.max(entry.getKey(), lowAddress);
+            final int end = Math.min(entry.getValue(), highAddress);
+            if (end - start + 1 >= count)
+                return start;
+            entry = mFreeIntervals.higherEntry(entry.getKey());
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of free intervals, i.e. the fragmentation of the space
+     */
+    int getFreeIntervalCount() {
+        return mFreeIntervals.size();
+    }
+}
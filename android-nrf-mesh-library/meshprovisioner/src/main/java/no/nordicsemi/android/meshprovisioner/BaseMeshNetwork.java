@@ -16,6 +16,7 @@ import com.google.gson.annotations.SerializedName;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -78,6 +79,12 @@ abstract class BaseMeshNetwork {
     @Expose
     int ivUpdateState = NORMAL_OPERATION;
 
+    @Ignore
+    Calendar ivIndexTransitionDate;
+
+    @Ignore
+    boolean ivRecoveryActive;
+
     @Ignore
     @SerializedName("netKeys")
     @Expose
@@ -123,6 +130,24 @@ abstract class BaseMeshNetwork {
     @Ignore
     protected MeshNetworkCallbacks mCallbacks;
 
+    @Ignore
+    final MeshKeyCache mKeyCache = new MeshKeyCache();
+
+    @Ignore
+    final NodeAddressIndex mNodeAddressIndex = new NodeAddressIndex();
+
+    @Ignore
+    final SubscriptionIndex mSubscriptionIndex = new SubscriptionIndex();
+
+    @Ignore
+    final AddressAllocator mAddressAllocator = new AddressAllocator(this);
+
+    @Ignore
+    final ProxyAdvertisementMatcher mAdvertisementMatcher = new ProxyAdvertisementMatcher(this);
+
+    @Ignore
+    final NetworkKeyIndex mNetworkKeyIndex = new NetworkKeyIndex(this);
+
     @Ignore
     private final Comparator<ApplicationKey> appKeyComparator = (key1, key2) -> Integer.compare(key1.getKeyIndex(), key2.getKeyIndex());
 
@@ -152,6 +177,7 @@ abstract class BaseMeshNetwork {
             final NetworkKey key = new NetworkKey(getAvailableNetKeyIndex(), MeshParserUtils.toByteArray(netKey));
             key.setMeshUuid(meshUUID);
             netKeys.add(key);
+            mKeyCache.invalidate(key);
             notifyNetKeyAdded(key);
         }
     }
@@ -177,6 +203,7 @@ abstract class BaseMeshNetwork {
             final NetworkKey networkKey = new NetworkKey(keyIndex, MeshParserUtils.toByteArray(newNetworkKey));
             networkKey.setMeshUuid(meshUUID);
             netKeys.add(networkKey);
+            mKeyCache.invalidate(networkKey);
             return;
         }
 
@@ -187,6 +214,7 @@ abstract class BaseMeshNetwork {
             final NetworkKey networkKey = netKeys.get(i);
             if (keyIndex == networkKey.getKeyIndex()) {
                 networkKey.setKey(MeshParserUtils.toByteArray(newNetworkKey));
+                mKeyCache.invalidate(networkKey);
                 notifyNetKeyAdded(networkKey);
                 break;
             }
@@ -207,12 +235,27 @@ abstract class BaseMeshNetwork {
             final NetworkKey networkKey = netKeys.get(i);
             if (keyIndex == networkKey.getKeyIndex()) {
                 networkKey.setKey(MeshParserUtils.toByteArray(netKey));
+                mKeyCache.invalidate(networkKey);
                 notifyNetKeyUpdated(networkKey);
                 break;
             }
         }
     }
 
+    /**
+     * Persists a net key of the mesh network that was changed in place, i.e. by a {@link no.nordicsemi.android.meshprovisioner.transport.KeyRefreshProcedure}.
+     *
+     * @param networkKey network key
+     * @throws IllegalArgumentException if the key is not a key of the mesh network
+     */
+    public void updateNetKey(@NonNull final NetworkKey networkKey) {
+        if (!netKeys.contains(networkKey))
+            throw new IllegalArgumentException("Net key does not belong to the network");
+
+        mKeyCache.invalidate(networkKey);
+        notifyNetKeyUpdated(networkKey);
+    }
+
     /**
      * Removes a network key from the network key list
      *
@@ -220,6 +263,7 @@ abstract class BaseMeshNetwork {
      */
     public void removeNetKey(final NetworkKey networkKey) {
         netKeys.remove(networkKey);
+        mKeyCache.invalidate(networkKey);
         notifyNetKeyDeleted(networkKey);
     }
 
@@ -249,6 +293,7 @@ abstract class BaseMeshNetwork {
             final ApplicationKey applicationKey = new ApplicationKey(getAvailableAppKeyIndex(), MeshParserUtils.toByteArray(appKey));
             applicationKey.setMeshUuid(meshUUID);
             appKeys.add(applicationKey);
+            mKeyCache.invalidate(applicationKey);
             notifyAppKeyAdded(applicationKey);
         }
     }
@@ -299,6 +344,7 @@ abstract class BaseMeshNetwork {
             final ApplicationKey applicationKey = new ApplicationKey(keyIndex, MeshParserUtils.toByteArray(newAppKey));
             applicationKey.setMeshUuid(meshUUID);
             appKeys.add(applicationKey);
+            mKeyCache.invalidate(applicationKey);
             return;
         }
 
@@ -307,6 +353,7 @@ abstract class BaseMeshNetwork {
         } else {
             final ApplicationKey applicationKey = new ApplicationKey(keyIndex, MeshParserUtils.toByteArray(newAppKey));
             appKeys.add(keyIndex, applicationKey);
+            mKeyCache.invalidate(applicationKey);
             notifyAppKeyAdded(applicationKey);
         }
     }
@@ -321,6 +368,7 @@ abstract class BaseMeshNetwork {
         newAppKey.setMeshUuid(meshUUID);
         if (appKeys.isEmpty()) {
             appKeys.add(newAppKey);
+            mKeyCache.invalidate(newAppKey);
             return;
         }
 
@@ -328,6 +376,7 @@ abstract class BaseMeshNetwork {
             throw new IllegalArgumentException("App key already exists");
         } else {
             appKeys.add(newAppKey);
+            mKeyCache.invalidate(newAppKey);
             notifyAppKeyAdded(newAppKey);
         }
     }
@@ -346,12 +395,27 @@ abstract class BaseMeshNetwork {
             final ApplicationKey applicationKey = appKeys.get(i);
             if (keyIndex == applicationKey.getKeyIndex()) {
                 applicationKey.setKey(MeshParserUtils.toByteArray(appKey));
+                mKeyCache.invalidate(applicationKey);
                 notifyAppKeyUpdated(applicationKey);
                 break;
             }
         }
     }
 
+    /**
+     * Persists an app key of the mesh network that was changed in place, i.e. by a {@link no.nordicsemi.android.meshprovisioner.transport.KeyRefreshProcedure}.
+     *
+     * @param appKey application key
+     * @throws IllegalArgumentException if the key is not a key of the mesh network
+     */
+    public void updateAppKey(@NonNull final ApplicationKey appKey) {
+        if (!appKeys.contains(appKey))
+            throw new IllegalArgumentException("App key does not belong to the network");
+
+        mKeyCache.invalidate(appKey);
+        notifyAppKeyUpdated(appKey);
+    }
+
     /**
      * Removes an app key from the app key list
      *
@@ -359,6 +423,7 @@ abstract class BaseMeshNetwork {
      */
     public void removeAppKey(final ApplicationKey appKey) {
         if (appKeys.remove(appKey)) {
+            mKeyCache.invalidate(appKey);
             notifyAppKeyDeleted(appKey);
         }
     }
@@ -388,7 +453,7 @@ abstract class BaseMeshNetwork {
      * @return true if success, false if the address is in use by another device
      */
     public boolean setProvisionerAddress(final int address) {
-        if (!isAddressInUse(address)) {
+        if (address == getProvisionerAddress() || !isAddressInUse(address)) {
             final Provisioner provisioner = getSelectedProvisioner();
             provisioner.setProvisionerAddress(address);
             notifyProvisionerUpdated(provisioner);
@@ -398,55 +463,48 @@ abstract class BaseMeshNetwork {
         }
     }
 
+    /**
+     * Returns the first unicast address of the first free range of addresses for a node within the unicast ranges of the provisioner.
+     * Addresses freed by removing a node are reused.
+     *
+     * @param elementCount number of elements of the node
+     * @param provisioner  provisioner
+     * @return unicast address or -1 if there is no free range of the given size
+     * @throws IllegalArgumentException if no unicast range is allocated to the provisioner
+     */
     public int nextAvailableUnicastAddress(final int elementCount, @NonNull final Provisioner provisioner) throws IllegalArgumentException {
         if (provisioner.getAllocatedUnicastRanges().isEmpty()) {
             throw new IllegalArgumentException("Please allocate a unicast address range to the provisioner");
         }
+        return mAddressAllocator.nextAvailableUnicastAddress(elementCount, provisioner);
+    }
 
-        Collections.sort(nodes, (node1, node2) ->
-                Integer.compare(node1.getUnicastAddress(), node2.getUnicastAddress()));
-        // Iterate through all nodes just once, while iterating over ranges.
-        int index = 0;
-        for (AllocatedUnicastRange range : provisioner.getAllocatedUnicastRanges()) {
-            // Start from the beginning of the current range.
-            int address = range.getLowAddress();
-
-            // FIX: iOS export 0 as low which is invalid, so fix it here
-            if (address == 0) address = 1;
-
-            // Iterate through nodes that weren't checked yet.
-            int currentIndex = index;
-            for (int i = currentIndex; i < nodes.size(); i++) {
-                final ProvisionedMeshNode node = nodes.get(i);
-                index += i;
-                final int lastUnicastInNode = node.getLastUnicastAddress();
-
-                // Skip nodes with addresses below the range.
-                if (address > lastUnicastInNode) {
-                    continue;
-                }
-
-                // If we found a space before the current node, return the address.
-                if (node.getUnicastAddress() > address + (elementCount - 1)) {
-                    return address;
-                }
-
-                // Else, move the address to the next available address.
-                address = lastUnicastInNode + 1;
-
-                // If the new address is outside of the range, go to the next one.
-                if (range.getHighAddress() < address + (elementCount - 1)) {
-                    break;
-                }
-            }
-
-            if (range.getHighAddress() >= address + (elementCount - 1)) {
-                return address;
-            }
+    /**
+     * Returns the first group address within the group ranges of the provisioner that is not used by a group
+     *
+     * @param provisioner provisioner
+     * @return group address or -1 if all group addresses of the ranges are in use
+     * @throws IllegalArgumentException if no group range is allocated to the provisioner
+     */
+    public int nextAvailableGroupAddress(@NonNull final Provisioner provisioner) throws IllegalArgumentException {
+        if (provisioner.getAllocatedGroupRanges().isEmpty()) {
+            throw new IllegalArgumentException("Please allocate a group address range to the provisioner");
         }
+        return mAddressAllocator.nextAvailableGroupAddress(provisioner);
+    }
 
-        // No address was found :(
-        return -1;
+    /**
+     * Returns the first scene number within the scene ranges of the provisioner that is not used by a scene
+     *
+     * @param provisioner provisioner
+     * @return scene number or -1 if all scene numbers of the ranges are in use
+     * @throws IllegalArgumentException if no scene range is allocated to the provisioner
+     */
+    public int nextAvailableSceneNumber(@NonNull final Provisioner provisioner) throws IllegalArgumentException {
+        if (provisioner.getAllocatedSceneRanges().isEmpty()) {
+            throw new IllegalArgumentException("Please allocate a scene range to the provisioner");
+        }
+        return mAddressAllocator.nextAvailableSceneNumber(provisioner);
     }
 
     /**
@@ -479,12 +537,7 @@ abstract class BaseMeshNetwork {
     }
 
     private boolean isAddressInUse(final int address) {
-        for (ProvisionedMeshNode node : nodes) {
-            if (address == node.getUnicastAddress()) {
-                return true;
-            }
-        }
-        return false;
+        return mAddressAllocator.isUnicastAddressInUse(address, 1);
     }
 
     public int getGlobalTtl() {
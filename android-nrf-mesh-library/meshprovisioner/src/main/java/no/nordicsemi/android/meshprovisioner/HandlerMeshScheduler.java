@@ -0,0 +1,40 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link MeshScheduler} running the tasks on the looper of an Android {@link Handler}
+ */
+public final class HandlerMeshScheduler implements MeshScheduler {
+
+    private final Handler mHandler;
+
+    /**
+     * Constructs a scheduler running the tasks on the main looper
+     */
+    public HandlerMeshScheduler() {
+        this(new Handler(Looper.getMainLooper()));
+    }
+
+    /**
+     * Constructs a scheduler running the tasks on the looper of the given handler
+     *
+     * @param handler handler
+     */
+    public HandlerMeshScheduler(@NonNull final Handler handler) {
+        this.mHandler = handler;
+    }
+
+    @Override
+    public void postDelayed(@NonNull final Runnable task, final long delayMillis) {
+        mHandler.postDelayed(task, delayMillis);
+    }
+
+    @Override
+    public void removeCallbacks(@NonNull final Runnable task) {
+        mHandler.removeCallbacks(task);
+    }
+}
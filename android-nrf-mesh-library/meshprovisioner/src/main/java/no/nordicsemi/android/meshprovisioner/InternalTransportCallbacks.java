@@ -76,6 +76,16 @@ public interface InternalTransportCallbacks {
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     void sendMeshPdu(final int dst, final byte[] pdu);
 
+    /**
+     * Send mesh pdu
+     *
+     * @param dst      Destination address to be sent
+     * @param pdu      mesh pdu to be sent
+     * @param priority priority class the pdu is queued with, see {@link OutboundPduScheduler}
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    void sendMeshPdu(final int dst, final byte[] pdu, final int priority);
+
     /**
      * Update mesh network
      *
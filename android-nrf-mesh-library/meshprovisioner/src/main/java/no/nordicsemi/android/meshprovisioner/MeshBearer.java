@@ -0,0 +1,35 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Connection to a proxy node the mesh pdus are sent and received through, i.e. a GATT connection to the mesh proxy service.
+ * <p>
+ * Several bearers may be open at the same time, see {@link MeshBearerManager}. Pdus received by a bearer must be passed to
+ * {@link MeshBearerManager#onPduReceived(MeshBearer, byte[])}.
+ * </p>
+ */
+public interface MeshBearer {
+
+    /**
+     * Returns the maximum size of a pdu segment written to the proxy node
+     */
+    int getMtu();
+
+    /**
+     * Returns true if the bearer is connected and pdus may be sent
+     */
+    boolean isOpen();
+
+    /**
+     * Sends a pdu to the proxy node
+     * <p>
+     * The pdu has already been segmented for the mtu of the bearer and must be written in chunks of {@link #getMtu()} bytes, like the
+     * pdus passed to {@link MeshManagerCallbacks#sendMeshPdu(byte[])}.
+     * </p>
+     *
+     * @param pdu segmented pdu
+     * @return true if the pdu was queued to be written or false if the bearer was unable to send it, i.e. if the connection was lost
+     */
+    boolean sendPdu(@NonNull final byte[] pdu);
+}
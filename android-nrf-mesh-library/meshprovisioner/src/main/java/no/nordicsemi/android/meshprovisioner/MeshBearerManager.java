@@ -0,0 +1,302 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Manager of the connections to several proxy nodes of a mesh network at the same time.
+ * <p>
+ * Each {@link MeshBearer} has its own proxy SAR reassembler, so that segments received from several proxy nodes at the same time are
+ * not mixed up. For every network pdu received the TTL left when it arrived is recorded per bearer and source address, a higher TTL
+ * meaning fewer hops between the node and the proxy node. A pdu to a unicast address is sent through the open bearer that last
+ * received a pdu from that address with the highest TTL, pdus to other addresses and to nodes not heard from yet are sent through
+ * the first open bearer. If a bearer is unable to send a pdu, i.e. because the connection was lost, the pdu is sent through the next
+ * open bearer instead. Proxy configuration pdus are sent through all open bearers, as each proxy node has its own filter.
+ * </p>
+ * <p>
+ * Copies of a pdu received through several bearers are discarded by the network layer, byte identical copies by the
+ * {@link NetworkMessageCache} and copies relayed with a different TTL by the {@link ReplayProtectionList}.
+ * </p>
+ * <p>
+ * The manager is not thread safe, bearers must be added and pdus received on the thread the {@link MeshScheduler} runs on.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MeshBearerManager {
+
+    private static final String TAG = MeshBearerManager.class.getSimpleName();
+
+    /**
+     * Callbacks notifying the pdus received through the bearers
+     */
+    interface BearerCallbacks {
+
+        /**
+         * Notifies that a pdu was received completely
+         *
+         * @param bearer bearer the pdu was received through
+         * @param pdu    complete pdu without the SAR bits
+         */
+        void onPduReceived(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu);
+
+        /**
+         * Notifies that a segmented pdu was not completed within the SAR timeout and has been discarded
+         *
+         * @param bearer  bearer the pdu was received through
+         * @param pduType pdu type of the discarded pdu
+         */
+        void onSarTimeout(@NonNull final MeshBearer bearer, final int pduType);
+
+        /**
+         * Notifies that a pdu or a segment of a pdu has been written to a bearer
+         *
+         * @param bearer bearer the pdu was written to
+         * @param pdu    pdu or segment of a pdu including the SAR bits
+         */
+        void onPduWritten(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu);
+
+        /**
+         * Notifies that a bearer was removed
+         *
+         * @param bearer bearer
+         */
+        void onBearerRemoved(@NonNull final MeshBearer bearer);
+    }
+
+    private final MeshScheduler mScheduler;
+    private final BearerCallbacks mCallbacks;
+    private final List<BearerState> mBearers = new ArrayList<>();
+    private BearerState mReceivingBearer;
+    private long mFailoverCount;
+
+    MeshBearerManager(@NonNull final MeshScheduler scheduler, @NonNull final BearerCallbacks callbacks) {
+        this.mScheduler = scheduler;
+        this.mCallbacks = callbacks;
+    }
+
+    /**
+     * Adds a bearer, i.e. once the connection to a proxy node has been established. Adding a bearer twice has no effect.
+     *
+     * @param bearer bearer
+     */
+    public void addBearer(@NonNull final MeshBearer bearer) {
+        if (getState(bearer) != null)
+            return;
+
+        mBearers.add(new BearerState(bearer));
+    }
+
+    /**
+     * Removes a bearer, i.e. once the connection to a proxy node was closed. Incomplete pdus received through the bearer are discarded.
+     *
+     * @param bearer bearer
+     */
+    public void removeBearer(@NonNull final MeshBearer bearer) {
+        final BearerState state = getState(bearer);
+        if (state == null)
+            return;
+
+        mBearers.remove(state);
+        state.mReassembler.clear();
+        mCallbacks.onBearerRemoved(bearer);
+    }
+
+    /**
+     * Returns the bearers that have been added, in the order they were added
+     */
+    @NonNull
+    public List<MeshBearer> getBearers() {
+        final List<MeshBearer> bearers = new ArrayList<>(mBearers.size());
+        for (BearerState state : mBearers) {
+            bearers.add(state.mBearer);
+        }
+        return Collections.unmodifiableList(bearers);
+    }
+
+    /**
+     * Returns true if at least one bearer has been added, whether it is open or not
+     */
+    public boolean hasBearers() {
+        return !mBearers.isEmpty();
+    }
+
+    /**
+     * Returns true if at least one of the bearers is open
+     */
+    public boolean hasOpenBearer() {
+        for (BearerState state : mBearers) {
+            if (state.mBearer.isOpen())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the open bearer a pdu to the given address is sent through
+     *
+     * @param dst destination address
+     * @return bearer or null if none of the bearers is open
+     */
+    @Nullable
+    public MeshBearer getBearer(final int dst) {
+        final BearerState state = getRoute(dst);
+        return state == null ? null : state.mBearer;
+    }
+
+    /**
+     * Returns the number of times a pdu had to be sent through another bearer than the one chosen
+     */
+    public long getFailoverCount() {
+        return mFailoverCount;
+    }
+
+    /**
+     * Handles a pdu received through a bearer
+     *
+     * @param bearer bearer the pdu was received through
+     * @param pdu    pdu or segment of a pdu including the SAR bits
+     * @throws IllegalArgumentException if the bearer has not been added
+     */
+    public void onPduReceived(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu) {
+        final BearerState state = getState(bearer);
+        if (state == null)
+            throw new IllegalArgumentException("Bearer has not been added");
+
+        state.mReassembler.onPduReceived(pdu);
+    }
+
+    /**
+     * Handles the completion of a write to a bearer, pdus waiting to be sent are written to the bearer as soon as the pdus written
+     * before have completed. Writes to a bearer that has been removed are ignored.
+     *
+     * @param bearer bearer the pdu was written to
+     * @param pdu    pdu or segment of a pdu including the SAR bits that was written
+     */
+    public void onPduWritten(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu) {
+        if (getState(bearer) != null) {
+            mCallbacks.onPduWritten(bearer, pdu);
+        }
+    }
+
+    /**
+     * Sends a pdu through the bearer with the best path to the destination, or through all open bearers for a proxy configuration pdu
+     *
+     * @param dst destination address
+     * @param pdu pdu without the SAR bits
+     * @return true if the pdu was sent through at least one bearer
+     */
+    boolean send(final int dst, @NonNull final byte[] pdu) {
+        if (pdu[0] == MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION) {
+            boolean sent = false;
+            for (BearerState state : new ArrayList<>(mBearers)) {
+                sent |= send(state, pdu);
+            }
+            return sent;
+        }
+
+        final BearerState route = getRoute(dst);
+        if (route == null)
+            return false;
+        if (send(route, pdu))
+            return true;
+
+        for (BearerState state : new ArrayList<>(mBearers)) {
+            if (state != route && state.mBearer.isOpen()) {
+                mFailoverCount++;
+                MeshLogger.w(TAG, "Bearer unable to send pdu to " + MeshAddress.formatAddress(dst, true) + ", sending through the next bearer");
+                if (send(state, pdu))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the TTL of a network pdu received through the bearer the pdu currently being parsed was received through
+     *
+     * @param src source address of the pdu
+     * @param ttl TTL of the pdu when it was received
+     */
+    void onNetworkPduReceived(final int src, final int ttl) {
+        if (mReceivingBearer != null) {
+            mReceivingBearer.mTtls.put(src, ttl);
+        }
+    }
+
+    private boolean send(@NonNull final BearerState state, @NonNull final byte[] pdu) {
+        final MeshBearer bearer = state.mBearer;
+        return bearer.isOpen() && bearer.sendPdu(MeshManagerApi.applySegmentation(bearer.getMtu(), pdu));
+    }
+
+    @Nullable
+    private BearerState getRoute(final int dst) {
+        BearerState route = null;
+        int bestTtl = -1;
+        for (BearerState state : mBearers) {
+            if (!state.mBearer.isOpen())
+                continue;
+
+            if (route == null)
+                route = state;
+            if (!MeshAddress.isValidUnicastAddress(dst))
+                break;
+
+            final Integer ttl = state.mTtls.get(dst);
+            if (ttl != null && ttl > bestTtl) {
+                route = state;
+                bestTtl = ttl;
+            }
+        }
+        return route;
+    }
+
+    @Nullable
+    private BearerState getState(@NonNull final MeshBearer bearer) {
+        for (BearerState state : mBearers) {
+            if (state.mBearer == bearer)
+                return state;
+        }
+        return null;
+    }
+
+    /**
+     * Reassembler and measured paths of a bearer
+     */
+    private final class BearerState implements ProxySarReassembler.ProxySarCallbacks {
+
+        private final MeshBearer mBearer;
+        private final ProxySarReassembler mReassembler;
+        private final Map<Integer, Integer> mTtls = new HashMap<>();
+
+        BearerState(@NonNull final MeshBearer bearer) {
+            this.mBearer = bearer;
+            this.mReassembler = new ProxySarReassembler(mScheduler, this);
+        }
+
+        @Override
+        public void onPduReassembled(@NonNull final byte[] pdu) {
+            //The network layer reports the TTL of the pdu while it is being parsed
+            final BearerState previous = mReceivingBearer;
+            mReceivingBearer = this;
+            try {
+                mCallbacks.onPduReceived(mBearer, pdu);
+            } finally {
+                mReceivingBearer = previous;
+            }
+        }
+
+        @Override
+        public void onSarTimeout(final int pduType) {
+            mCallbacks.onSarTimeout(mBearer, pduType);
+        }
+    }
+}
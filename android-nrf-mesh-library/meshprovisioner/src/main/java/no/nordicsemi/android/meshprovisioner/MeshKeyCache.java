@@ -0,0 +1,197 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.transport.ApplicationKey;
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+/**
+ * Cache of the key material derived from the network and application keys of a mesh network.
+ * <p>
+ * Deriving K2, K3, K4, the identity key and the beacon key requires several AES-CMAC rounds, so they are computed once per key and
+ * reused for every pdu sent or received. Entries are keyed by key index and hold a copy of the key they were derived from, so a key
+ * that was changed in place (i.e. during a key refresh) is derived again on the next lookup even if it was not invalidated explicitly.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class MeshKeyCache {
+
+    private final Map<Integer, NetworkKeyMaterial> mNetworkKeyMaterial = new HashMap<>();
+    private final Map<Integer, NetworkKeyMaterial> mOldNetworkKeyMaterial = new HashMap<>();
+    private final Map<Integer, ApplicationKeyMaterial> mApplicationKeyMaterial = new HashMap<>();
+
+    /**
+     * Returns the master credentials {@link SecureUtils.K2Output} derived from the network key
+     *
+     * @param networkKey network key
+     */
+    public SecureUtils.K2Output getK2Output(@NonNull final NetworkKey networkKey) {
+        return getNetworkKeyMaterial(networkKey).k2Output;
+    }
+
+    /**
+     * Returns the master credentials {@link SecureUtils.K2Output} derived from the old key of a network key being refreshed
+     *
+     * @param networkKey network key
+     * @return master credentials or null if the network key has no old key
+     */
+    @Nullable
+    public SecureUtils.K2Output getOldK2Output(@NonNull final NetworkKey networkKey) {
+        final byte[] oldKey = networkKey.getOldKey();
+        if (oldKey == null)
+            return null;
+
+        synchronized (this) {
+            return getNetworkKeyMaterial(mOldNetworkKeyMaterial, networkKey.getKeyIndex(), oldKey).k2Output;
+        }
+    }
+
+    /**
+     * Returns the network id (K3) derived from the network key
+     *
+     * @param networkKey network key
+     */
+    public byte[] getNetworkId(@NonNull final NetworkKey networkKey) {
+        return getNetworkKeyMaterial(networkKey).networkId;
+    }
+
+    /**
+     * Returns the identity key derived from the network key
+     *
+     * @param networkKey network key
+     */
+    public byte[] getIdentityKey(@NonNull final NetworkKey networkKey) {
+        return getNetworkKeyMaterial(networkKey).identityKey;
+    }
+
+    /**
+     * Returns the beacon key derived from the network key
+     *
+     * @param networkKey network key
+     */
+    public byte[] getBeaconKey(@NonNull final NetworkKey networkKey) {
+        return getNetworkKeyMaterial(networkKey).beaconKey;
+    }
+
+    /**
+     * Returns the application key identifier (K4) derived from the application key
+     *
+     * @param applicationKey application key
+     */
+    public int getAid(@NonNull final ApplicationKey applicationKey) {
+        final byte[] key = applicationKey.getKey();
+        synchronized (this) {
+            ApplicationKeyMaterial material = mApplicationKeyMaterial.get(applicationKey.getKeyIndex());
+            if (material == null || !Arrays.equals(material.key, key)) {
+                material = new ApplicationKeyMaterial(key);
+                mApplicationKeyMaterial.put(applicationKey.getKeyIndex(), material);
+            }
+            return material.aid;
+        }
+    }
+
+    /**
+     * Returns the first application key in the list matching the application key identifier
+     *
+     * @param applicationKeys application keys to look up
+     * @param aid             application key identifier
+     * @return application key or null if there is no matching key
+     */
+    @Nullable
+    public ApplicationKey getApplicationKey(@NonNull final List<ApplicationKey> applicationKeys, final int aid) {
+        for (int i = 0; i < applicationKeys.size(); i++) {
+            final ApplicationKey applicationKey = applicationKeys.get(i);
+            if (aid == getAid(applicationKey)) {
+                return applicationKey;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the derived material of a network key
+     *
+     * @param networkKey network key
+     */
+    public synchronized void invalidate(@NonNull final NetworkKey networkKey) {
+        mNetworkKeyMaterial.remove(networkKey.getKeyIndex());
+        mOldNetworkKeyMaterial.remove(networkKey.getKeyIndex());
+    }
+
+    /**
+     * Removes the derived material of an application key
+     *
+     * @param applicationKey application key
+     */
+    public synchronized void invalidate(@NonNull final ApplicationKey applicationKey) {
+        mApplicationKeyMaterial.remove(applicationKey.getKeyIndex());
+    }
+
+    /**
+     * Removes the derived material of all network keys
+     */
+    public synchronized void invalidateNetworkKeys() {
+        mNetworkKeyMaterial.clear();
+        mOldNetworkKeyMaterial.clear();
+    }
+
+    /**
+     * Removes the derived material of all application keys
+     */
+    public synchronized void invalidateApplicationKeys() {
+        mApplicationKeyMaterial.clear();
+    }
+
+    private NetworkKeyMaterial getNetworkKeyMaterial(@NonNull final NetworkKey networkKey) {
+        final byte[] key = networkKey.getKey();
+        synchronized (this) {
+            return getNetworkKeyMaterial(mNetworkKeyMaterial, networkKey.getKeyIndex(), key);
+        }
+    }
+
+    private static NetworkKeyMaterial getNetworkKeyMaterial(@NonNull final Map<Integer, NetworkKeyMaterial> materials,
+                                                            final int keyIndex,
+                                                            @NonNull final byte[] key) {
+        NetworkKeyMaterial material = materials.get(keyIndex);
+        if (material == null || !Arrays.equals(material.key, key)) {
+            material = new NetworkKeyMaterial(key);
+            materials.put(keyIndex, material);
+        }
+        return material;
+    }
+
+    private static final class NetworkKeyMaterial {
+        final byte[] key;
+        final SecureUtils.K2Output k2Output;
+        final byte[] networkId;
+        final byte[] identityKey;
+        final byte[] beaconKey;
+
+        NetworkKeyMaterial(@NonNull final byte[] key) {
+            this.key = key.clone();
+            this.k2Output = SecureUtils.calculateK2(key, SecureUtils.K2_MASTER_INPUT);
+            this.networkId = SecureUtils.calculateK3(key);
+            this.identityKey = SecureUtils.calculateIdentityKey(key);
+            this.beaconKey = SecureUtils.calculateBeaconKey(key);
+        }
+    }
+
+    private static final class ApplicationKeyMaterial {
+        final byte[] key;
+        final int aid;
+
+        ApplicationKeyMaterial(@NonNull final byte[] key) {
+            this.key = key.clone();
+            this.aid = SecureUtils.calculateK4(key);
+        }
+    }
+}
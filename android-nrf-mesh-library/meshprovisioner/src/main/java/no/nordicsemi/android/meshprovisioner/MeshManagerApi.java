@@ -29,6 +29,7 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -58,12 +59,16 @@ import no.nordicsemi.android.meshprovisioner.transport.MeshModel;
 import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
 import no.nordicsemi.android.meshprovisioner.transport.NetworkLayerCallbacks;
 import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.transport.StatusMessageRegistry;
 import no.nordicsemi.android.meshprovisioner.transport.UpperTransportLayerCallbacks;
+import no.nordicsemi.android.meshprovisioner.transport.VendorModelMessageStatus;
 import no.nordicsemi.android.meshprovisioner.utils.AddressUtils;
 import no.nordicsemi.android.meshprovisioner.utils.InputOOBAction;
 import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 import no.nordicsemi.android.meshprovisioner.utils.OutputOOBAction;
+import no.nordicsemi.android.meshprovisioner.utils.PduTraceBuffer;
 import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 
 
@@ -88,9 +93,11 @@ public class MeshManagerApi implements MeshMngrApi {
     private static final int GATT_SAR_MASK = 0xC0;
     private static final int GATT_SAR_UNMASK = 0x3F;
     private static final int SAR_BIT_OFFSET = 6;
+    /**
+     * Connection the pdus are written to through {@link MeshManagerCallbacks#sendMeshPdu(byte[])} when no bearer was added
+     */
+    private static final Object DEFAULT_CONNECTION = new Object();
 
-    //According to the spec the proxy protocol must contain an SAR timeout of 20 seconds.
-    private static final long PROXY_SAR_TRANSFER_TIME_OUT = 20 * 1000;
     /**
      * Length of the random number required to calculate the hash containing the node id
      */
@@ -122,17 +129,16 @@ public class MeshManagerApi implements MeshMngrApi {
      */
     private final static int ADVERTISED_NETWORK_ID_LENGTH = 8;
     private Context mContext;
-    private final Handler mHanlder;
+    private final MeshScheduler mScheduler;
     private MeshManagerCallbacks mTransportCallbacks;
     private MeshProvisioningHandler mMeshProvisioningHandler;
     private MeshMessageHandler mMeshMessageHandler;
-    private byte[] mIncomingBuffer;
-    private int mIncomingBufferOffset;
-    private byte[] mOutgoingBuffer;
-    private int mOutgoingBufferOffset;
+    private final ProxySarReassembler mProxySarReassembler;
+    private final MeshBearerManager mBearerManager;
+    private final OutboundPduScheduler mOutboundPduScheduler;
+    private final SecureNetworkBeaconProcessor mSecureNetworkBeaconProcessor = new SecureNetworkBeaconProcessor();
     private MeshNetwork mMeshNetwork;
     private Gson mGson;
-    public static Context context;
 
 
     private MeshNetworkDb mMeshNetworkDb;
@@ -144,11 +150,75 @@ public class MeshManagerApi implements MeshMngrApi {
     private GroupsDao mGroupsDao;
     private GroupDao mGroupDao;
     private SceneDao mSceneDao;
+    private MeshNetworkWriter mMeshNetworkWriter;
+    private SequenceNumberStore mSequenceNumberStore;
+    private final NetworkMessageCache mNetworkMessageCache = new NetworkMessageCache();
+    private ReplayProtectionList mReplayProtectionList;
+    private String mReplayProtectionListMeshUuid;
+
+    private final ProxySarReassembler.ProxySarCallbacks proxySarCallbacks = new ProxySarReassembler.ProxySarCallbacks() {
+        @Override
+        public void onPduReassembled(@NonNull final byte[] pdu) {
+            parseNotifications(pdu);
+        }
+
+        @Override
+        public void onSarTimeout(final int pduType) {
+            if (pduType == PDU_TYPE_PROXY_CONFIGURATION) {
+                mMeshMessageHandler.onIncompleteTimerExpired(true);
+            }
+        }
+    };
+
+    private final MeshBearerManager.BearerCallbacks bearerCallbacks = new MeshBearerManager.BearerCallbacks() {
+        @Override
+        public void onPduReceived(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu) {
+            parseNotifications(pdu);
+        }
+
+        @Override
+        public void onSarTimeout(@NonNull final MeshBearer bearer, final int pduType) {
+            proxySarCallbacks.onSarTimeout(pduType);
+        }
+
+        @Override
+        public void onPduWritten(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu) {
+            handleWriteCallbacks(bearer, bearer.getMtu(), pdu);
+        }
+
+        @Override
+        public void onBearerRemoved(@NonNull final MeshBearer bearer) {
+            mOutboundPduScheduler.onConnectionClosed(bearer);
+        }
+    };
+
+    private final OutboundPduScheduler.PduWriter pduWriter = new OutboundPduScheduler.PduWriter() {
+        @Override
+        public Object getConnection(final int dst) {
+            if (mBearerManager.hasBearers())
+                return mBearerManager.getBearer(dst);
+            return DEFAULT_CONNECTION;
+        }
 
-    private final Runnable mProxyProtocolTimeoutRunnable = new Runnable() {
         @Override
-        public void run() {
-            mMeshMessageHandler.onIncompleteTimerExpired(true);
+        public int getNodeAddress(final int dst) {
+            final ProvisionedMeshNode node = mMeshNetwork != null ? mMeshNetwork.getProvisionedNode(dst) : null;
+            return node != null ? node.getUnicastAddress() : dst;
+        }
+
+        @Override
+        public boolean write(@NonNull final Object connection, final int dst, @NonNull final byte[] pdu) {
+            MeshLogger.trace(PduTraceBuffer.DIRECTION_OUT, pdu);
+            if (connection == DEFAULT_CONNECTION) {
+                final int mtu = mTransportCallbacks.getMtu();
+                mTransportCallbacks.sendMeshPdu(applySegmentation(mtu, pdu));
+                return true;
+            }
+            if (!mBearerManager.send(dst, pdu)) {
+                MeshLogger.w(TAG, "No open bearer to send mesh pdu to " + MeshAddress.formatAddress(dst, true));
+                return false;
+            }
+            return true;
         }
     };
 
@@ -165,10 +235,12 @@ public class MeshManagerApi implements MeshMngrApi {
      */
     public MeshManagerApi(@NonNull final Context context) {
         this.mContext = context;
-        MeshManagerApi.context = context;
-        mHanlder = new Handler();
+        mScheduler = new HandlerMeshScheduler(new Handler(context.getMainLooper()));
+        mProxySarReassembler = new ProxySarReassembler(mScheduler, proxySarCallbacks);
+        mBearerManager = new MeshBearerManager(mScheduler, bearerCallbacks);
+        mOutboundPduScheduler = new OutboundPduScheduler(mScheduler, pduWriter);
         mMeshProvisioningHandler = new MeshProvisioningHandler(context, internalTransportCallbacks, internalMeshMgrCallbacks);
-        mMeshMessageHandler = new MeshMessageHandler(context, internalTransportCallbacks);
+        mMeshMessageHandler = new MeshMessageHandler(context, mScheduler, internalTransportCallbacks);
         mMeshMessageHandler.getMeshTransport().setNetworkLayerCallbacks(networkLayerCallbacks);
         mMeshMessageHandler.getMeshTransport().setUpperTransportLayerCallbacks(upperTransportLayerCallbacks);
 
@@ -207,6 +279,107 @@ public class MeshManagerApi implements MeshMngrApi {
         mMeshMessageHandler.setMeshStatusCallbacks(callbacks);
     }
 
+    /**
+     * Sets the number of acknowledged messages that may be waiting for a status at the same time, defaults to 4.
+     * <p>
+     * Further acknowledged messages are queued and sent as soon as an outstanding message is answered or times out.
+     * </p>
+     *
+     * @param transactionWindow maximum number of outstanding acknowledged messages
+     * @throws IllegalArgumentException if the window is less than 1
+     */
+    public void setTransactionWindow(final int transactionWindow) {
+        mMeshMessageHandler.setTransactionWindow(transactionWindow);
+    }
+
+    /**
+     * Sets the time to wait for a status message before an acknowledged message is resent, defaults to 10 seconds.
+     *
+     * @param timeout timeout in milliseconds
+     * @throws IllegalArgumentException if the timeout is not greater than 0
+     */
+    public void setTransactionTimeout(final long timeout) {
+        mMeshMessageHandler.setTransactionTimeout(timeout);
+    }
+
+    /**
+     * Sets the number of times an acknowledged message is resent if no status was received, defaults to 2.
+     * {@link MeshStatusCallbacks#onTransactionFailed(int, boolean)} is called once all retries have timed out.
+     *
+     * @param retries number of retries
+     * @throws IllegalArgumentException if the retry count is negative
+     */
+    public void setTransactionRetries(final int retries) {
+        mMeshMessageHandler.setTransactionRetries(retries);
+    }
+
+    /**
+     * Cancels all acknowledged messages that are waiting for a status or are queued to be sent
+     */
+    public void cancelTransactions() {
+        mMeshMessageHandler.cancelTransactions();
+    }
+
+    /**
+     * Registers a status message that is not supported by the library, replacing the status message registered previously.
+     * {@link MeshStatusCallbacks#onMeshMessageReceived(int, MeshMessage)} is called with the message created by the factory when the
+     * opcode is received.
+     *
+     * @param opCode  1 or 2 octet opcode of the status message
+     * @param factory factory creating the status message from the received access message
+     * @throws IllegalArgumentException if the opcode is invalid
+     */
+    public void registerStatusMessage(final int opCode, @NonNull final StatusMessageRegistry.StatusMessageFactory factory) {
+        mMeshMessageHandler.getStatusMessageRegistry().register(opCode, factory);
+    }
+
+    /**
+     * Registers a status message of a vendor model, replacing the status message registered previously.
+     * Status messages of vendor models that are not registered are returned as {@link VendorModelMessageStatus}.
+     *
+     * @param companyIdentifier 16-bit company identifier of the vendor model
+     * @param opCode            6-bit opcode of the status message
+     * @param factory           factory creating the status message from the received access message
+     * @throws IllegalArgumentException if the company identifier or the opcode is invalid
+     */
+    public void registerVendorModelStatusMessage(final int companyIdentifier, final int opCode,
+                                                 @NonNull final StatusMessageRegistry.StatusMessageFactory factory) {
+        mMeshMessageHandler.getStatusMessageRegistry().registerVendorModel(companyIdentifier, opCode, factory);
+    }
+
+    /**
+     * Sets the maximum time the state updated by sent and received messages, i.e. sequence numbers and node configuration, is kept in
+     * memory before it is written to the database, defaults to 1 second.
+     *
+     * @param flushInterval interval in milliseconds
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public void setPersistenceFlushInterval(final long flushInterval) {
+        mMeshNetworkWriter.setFlushInterval(flushInterval);
+    }
+
+    /**
+     * Sets the number of updated nodes after which the state is written to the database without waiting for the flush interval,
+     * defaults to 32.
+     *
+     * @param flushThreshold number of updated nodes
+     * @throws IllegalArgumentException if the threshold is less than 1
+     */
+    public void setPersistenceFlushThreshold(final int flushThreshold) {
+        mMeshNetworkWriter.setFlushThreshold(flushThreshold);
+    }
+
+    /**
+     * Writes pending changes of the mesh network to the database.
+     * <p>
+     * Changes caused by sent and received messages are written in batches, call this on lifecycle events such as onStop to make sure
+     * no changes are lost if the application is terminated.
+     * </p>
+     */
+    public void flush() {
+        mMeshNetworkWriter.flush();
+    }
+
     /**
      * Loads the mesh network from the local database.
      * <p>
@@ -215,6 +388,7 @@ public class MeshManagerApi implements MeshMngrApi {
      * </p>
      */
     public void loadMeshNetwork() {
+        mMeshNetworkWriter.flush();
         mMeshNetworkDb.loadNetwork(mMeshNetworkDao,
                 mNetworkKeyDao,
                 mApplicationKeyDao,
@@ -233,6 +407,54 @@ public class MeshManagerApi implements MeshMngrApi {
         return mMeshNetwork;
     }
 
+    /**
+     * Returns the manager of the connections to several proxy nodes.
+     * <p>
+     * Once a {@link MeshBearer} has been added, mesh pdus are sent through the bearers instead of
+     * {@link MeshManagerCallbacks#sendMeshPdu(byte[])} and the pdus received by a bearer must be passed to
+     * {@link MeshBearerManager#onPduReceived(MeshBearer, byte[])} instead of {@link #handleNotifications(int, byte[])}. Completed
+     * writes must be passed to {@link MeshBearerManager#onPduWritten(MeshBearer, byte[])} instead of {@link #handleWriteCallbacks(int, byte[])}.
+     * Provisioning pdus are always sent through {@link MeshManagerCallbacks#sendProvisioningPdu(UnprovisionedMeshNode, byte[])}.
+     * </p>
+     */
+    public MeshBearerManager getBearerManager() {
+        return mBearerManager;
+    }
+
+    /**
+     * Returns the queue of the mesh pdus waiting to be written, i.e. to configure the pacing of the writes or to read the queue depth.
+     * <p>
+     * The next pdu is written once the write of the previous one has been reported complete through
+     * {@link #handleWriteCallbacks(int, byte[])} or {@link MeshBearerManager#onPduWritten(MeshBearer, byte[])}.
+     * </p>
+     */
+    public OutboundPduScheduler getOutboundPduScheduler() {
+        return mOutboundPduScheduler;
+    }
+
+    /**
+     * Returns the cache of the network pdus received, i.e. to read the number of duplicate pdus discarded
+     */
+    public NetworkMessageCache getNetworkMessageCache() {
+        return mNetworkMessageCache;
+    }
+
+    /**
+     * Returns the replay protection list of the loaded mesh network, i.e. to read the number of replayed messages discarded
+     */
+    public ReplayProtectionList getReplayProtectionList() {
+        final String meshUuid = mMeshNetwork.getMeshUUID();
+        if (mReplayProtectionList == null || !meshUuid.equals(mReplayProtectionListMeshUuid)) {
+            //The network was replaced, i.e. imported or reset
+            if (mReplayProtectionList != null) {
+                mReplayProtectionList.flush();
+            }
+            mReplayProtectionList = new ReplayProtectionList(new SharedPreferencesReplayProtectionListStore(mContext, meshUuid), mScheduler);
+            mReplayProtectionListMeshUuid = meshUuid;
+        }
+        return mReplayProtectionList;
+    }
+
     private void initBouncyCastle(){
         Security.insertProviderAt(new org.spongycastle.jce.provider.BouncyCastleProvider(), 1);
     }
@@ -247,6 +469,8 @@ public class MeshManagerApi implements MeshMngrApi {
         mGroupsDao = mMeshNetworkDb.groupsDao();
         mGroupDao = mMeshNetworkDb.groupDao();
         mSceneDao = mMeshNetworkDb.sceneDao();
+        mMeshNetworkWriter = new MeshNetworkWriter(mMeshNetworkDb, mMeshNetworkDao, mProvisionerDao, mProvisionedNodeDao, mScheduler);
+        mSequenceNumberStore = new SharedPreferencesSequenceNumberStore(context);
     }
 
     private void initGson() {
@@ -310,43 +534,15 @@ public class MeshManagerApi implements MeshMngrApi {
     /**
      * Handles notifications received by the client.
      * <p>
-     * This method will check if the library should wait for more data in case of a gatt layer segmentation.
-     * If its required the method will remove the segmentation bytes and combine the data together.
+     * Pdus segmented at the gatt layer are reassembled per pdu type before they are parsed. Segments received out of order are
+     * discarded and incomplete pdus are dropped after the proxy protocol SAR timeout.
      * </p>
      *
      * @param data pdu received by the client
      */
     public final void handleNotifications(final int mtuSize, final byte[] data) {
-        byte[] unsegmentedPdu;
-		Log.v(TAG, "pdu: " + MeshParserUtils.bytesToHex(data, false));
-        if (!shouldWaitForMoreData(data)) {
-            unsegmentedPdu = data;
-        } else {
-            final byte[] combinedPdu = appendPdu(mtuSize, data);
-            if (combinedPdu == null) {
-                //Start the timer
-                toggleProxyProtocolSarTimeOut(data);
-                return;
-            } else {
-                toggleProxyProtocolSarTimeOut(data);
-                unsegmentedPdu = removeSegmentation(mtuSize, combinedPdu);
-            }
-        }
-        parseNotifications(unsegmentedPdu);
-    }
-
-    /**
-     * Toggles the Segmentation and Reassembly timeout for proxy configuration messages received via proxy protocol
-     *
-     * @param data pdu
-     */
-    private void toggleProxyProtocolSarTimeOut(final byte[] data) {
-        final int pduType = MeshParserUtils.unsignedByteToInt(data[0]);
-        if (pduType == ((GATT_SAR_START << SAR_BIT_OFFSET) | MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)) {
-            mHanlder.postDelayed(mProxyProtocolTimeoutRunnable, PROXY_SAR_TRANSFER_TIME_OUT);
-        } else if (pduType == ((GATT_SAR_END << SAR_BIT_OFFSET) | MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)) {
-            mHanlder.removeCallbacks(mProxyProtocolTimeoutRunnable);
-        }
+        MeshLogger.v(TAG, "pdu: ", data);
+        mProxySarReassembler.onPduReceived(data);
     }
 
     /**
@@ -355,53 +551,46 @@ public class MeshManagerApi implements MeshMngrApi {
      * @param unsegmentedPdu pdu received by the client.
      */
     private void parseNotifications(final byte[] unsegmentedPdu) {
+        MeshLogger.trace(PduTraceBuffer.DIRECTION_IN, unsegmentedPdu);
         switch (unsegmentedPdu[0]) {
             case PDU_TYPE_NETWORK:
                 //MeshNetwork PDU
-                Log.v(TAG, "Received network pdu: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
+                MeshLogger.v(TAG, "Received network pdu: ", unsegmentedPdu);
                 mMeshMessageHandler.parseMeshMsgNotifications(unsegmentedPdu);
                 break;
             case PDU_TYPE_MESH_BEACON:
                 //Mesh beacon
-                final byte[] n = mMeshNetwork.getPrimaryNetworkKey().getKey();
-                final byte[] flags = {(byte) mMeshNetwork.getProvisioningFlags()};
-                final byte[] networkId = SecureUtils.calculateK3(n);
-                final byte[] ivIndex = ByteBuffer.allocate(4).putInt(mMeshNetwork.getIvIndex()).array();
-                final byte[] localBeaconData = SecureUtils.calculateSecureNetworkBeacon(n, 1, flags, networkId, ivIndex);
-
-
-                final byte[] receivedBeaconData = new byte[unsegmentedPdu.length - 1];
-                System.arraycopy(unsegmentedPdu, 1, receivedBeaconData, 0, receivedBeaconData.length);
-
-                SecureNetworkBeacon localSecureNetworkBeacon = new SecureNetworkBeacon(localBeaconData);
-                SecureNetworkBeacon receivedBeacon = new SecureNetworkBeacon(receivedBeaconData);
-                Log.v(TAG, "Generated mesh beacon: " + MeshParserUtils.bytesToHex(localBeaconData, true) + " with index: " + localSecureNetworkBeacon.getIvIndex() + " with network id: " + MeshParserUtils.bytesToHex(localSecureNetworkBeacon.getNetworkId(), false));
-                Log.v(TAG, "Received mesh beacon: " + MeshParserUtils.bytesToHex(receivedBeaconData, true) + " with index: " + receivedBeacon.getIvIndex() + " with network id: " + MeshParserUtils.bytesToHex(receivedBeacon.getNetworkId(), false));
-                if (receivedBeacon.authenticate(n)) {
-                    Log.v(TAG, "Authentication matches");
-                    // TODO: also check if update is progress reset seq number if
-                    if (receivedBeacon.getIvIndex().getIvIndex() > mMeshNetwork.getIvIndex()) {
-                        Log.v(TAG, "Should override network ivindex");
-                        mMeshNetwork.setIvIndex(receivedBeacon.getIvIndex().getIvIndex());
-                    }
-                } else {
-                    Log.v(TAG, "Authentication does not match: " + MeshParserUtils.bytesToHex(localSecureNetworkBeacon.getAuthenticationValue(), true) + " != " + MeshParserUtils.bytesToHex(receivedBeacon.getAuthenticationValue(), true));
+                MeshLogger.v(TAG, "Received mesh beacon: ", unsegmentedPdu);
+                if (mSecureNetworkBeaconProcessor.onBeaconReceived(mMeshNetwork, unsegmentedPdu, 1)) {
+                    MeshLogger.i(TAG, "IV Index updated: " + mMeshNetwork.getIvIndexState());
+                    getReplayProtectionList().onIvIndexChanged(mMeshNetwork.getIvIndex());
                 }
                 break;
             case PDU_TYPE_PROXY_CONFIGURATION:
                 //Proxy configuration
-                Log.v(TAG, "Received proxy configuration message: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
+                MeshLogger.v(TAG, "Received proxy configuration message: ", unsegmentedPdu);
                 mMeshMessageHandler.parseMeshMsgNotifications(unsegmentedPdu);
                 break;
             case PDU_TYPE_PROVISIONING:
                 //Provisioning PDU
-                Log.v(TAG, "Received provisioning message: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
+                MeshLogger.v(TAG, "Received provisioning message: ", unsegmentedPdu);
                 mMeshProvisioningHandler.parseProvisioningNotifications(unsegmentedPdu);
                 break;
         }
     }
 
     public final void handleWriteCallbacks(final int mtuSize, final byte[] data) {
+        handleWriteCallbacks(DEFAULT_CONNECTION, mtuSize, data);
+    }
+
+    private void handleWriteCallbacks(final Object connection, final int mtuSize, final byte[] data) {
+        //The write of a pdu is complete once its last segment was written
+        final int gattSar = (data[0] & GATT_SAR_MASK) >> SAR_BIT_OFFSET;
+        final int pduType = data[0] & GATT_SAR_UNMASK;
+        if ((gattSar == GATT_SAR_COMPLETE || gattSar == GATT_SAR_END) &&
+                (pduType == PDU_TYPE_NETWORK || pduType == PDU_TYPE_PROXY_CONFIGURATION)) {
+            mOutboundPduScheduler.onPduWritten(connection);
+        }
         byte[] unsegmentedPdu;
         if (!shouldWaitForMoreData(data)) {
             unsegmentedPdu = data;
@@ -420,21 +609,21 @@ public class MeshManagerApi implements MeshMngrApi {
         switch (data[0]) {
             case PDU_TYPE_NETWORK:
                 //MeshNetwork PDU
-                Log.v(TAG, "MeshNetwork pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, "MeshNetwork pdu sent: ", data);
                 mMeshMessageHandler.handleMeshMsgWriteCallbacks(data);
                 break;
             case PDU_TYPE_MESH_BEACON:
                 //Mesh beacon
-                Log.v(TAG, "Mesh beacon pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, "Mesh beacon pdu sent: ", data);
                 break;
             case PDU_TYPE_PROXY_CONFIGURATION:
                 //Proxy configuration
-                Log.v(TAG, "Proxy configuration pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, "Proxy configuration pdu sent: ", data);
                 mMeshMessageHandler.handleMeshMsgWriteCallbacks(data);
                 break;
             case PDU_TYPE_PROVISIONING:
                 //Provisioning PDU
-                Log.v(TAG, "Provisioning pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, "Provisioning pdu sent: ", data);
                 mMeshProvisioningHandler.handleProvisioningWriteCallbacks();
                 break;
         }
@@ -444,79 +633,21 @@ public class MeshManagerApi implements MeshMngrApi {
         final int gattSar = (pdu[0] & GATT_SAR_MASK) >> SAR_BIT_OFFSET;
         switch (gattSar) {
             case GATT_SAR_START:
-                Log.v(TAG, "should wait for more data: GATT_SAR_START");
+                MeshLogger.v(TAG, "should wait for more data: GATT_SAR_START");
                 return true;
             case GATT_SAR_CONTINUATION:
-                Log.v(TAG, "should wait for more data: GATT_SAR_CONTINUATION");
+                MeshLogger.v(TAG, "should wait for more data: GATT_SAR_CONTINUATION");
                 return true;
             case GATT_SAR_END:
-                Log.v(TAG, "should wait for more data: GATT_SAR_END");
+                MeshLogger.v(TAG, "should wait for more data: GATT_SAR_END");
                 return true;
             default:
                 return false;
         }
     }
 
-    /**
-     * Appends the PDUs that are segmented at gatt layer.
-     *
-     * @param mtuSize mtu size supported by the device/node
-     * @param pdu     pdu received by the provisioner
-     * @return the combine pdu or returns null if not complete.
-     */
-    private byte[] appendPdu(final int mtuSize, final byte[] pdu) {
-        Log.v(TAG, "appendPdu (" + mtuSize + "): " + MeshParserUtils.bytesToHex(pdu, false));
-        if (mIncomingBuffer == null) {
-            final int length = Math.min(pdu.length, mtuSize);
-            mIncomingBufferOffset = 0;
-            mIncomingBufferOffset += length;
-            mIncomingBuffer = pdu;
-        } else {
-            final int length = Math.min(pdu.length, mtuSize);
-            final byte[] buffer = new byte[mIncomingBuffer.length + length];
-            System.arraycopy(mIncomingBuffer, 0, buffer, 0, mIncomingBufferOffset);
-            System.arraycopy(pdu, 0, buffer, mIncomingBufferOffset, length);
-            mIncomingBufferOffset += length;
-            mIncomingBuffer = buffer;
-            if (length < mtuSize) {
-                final byte packet[] = mIncomingBuffer;
-                mIncomingBuffer = null;
-                return packet;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Appends the PDUs that are segmented at gatt layer.
-     *
-     * @param mtuSize mtu size supported by the device/node
-     * @param pdu     pdu received by the provisioner
-     * @return the combine pdu or returns null if not complete.
-     */
-    private byte[] appendWritePdu(final int mtuSize, final byte[] pdu) {
-        if (mOutgoingBuffer == null) {
-            final int length = Math.min(pdu.length, mtuSize);
-            mOutgoingBufferOffset = 0;
-            mOutgoingBufferOffset += length;
-            mOutgoingBuffer = pdu;
-        } else {
-            final int length = Math.min(pdu.length, mtuSize);
-            final byte[] buffer = new byte[mOutgoingBuffer.length + length];
-            System.arraycopy(mOutgoingBuffer, 0, buffer, 0, mOutgoingBufferOffset);
-            System.arraycopy(pdu, 0, buffer, mOutgoingBufferOffset, length);
-            mOutgoingBufferOffset += length;
-            mOutgoingBuffer = buffer;
-            if (length < mtuSize) {
-                final byte[] packet = mOutgoingBuffer;
-                mOutgoingBuffer = null;
-                return packet;
-            }
-        }
-        return null;
-    }
-
-    private byte[] applySegmentation(final int mtuSize, final byte[] pdu) {
+    @VisibleForTesting
+    static byte[] applySegmentation(final int mtuSize, final byte[] pdu) {
         int srcOffset = 0;
         int dstOffset = 0;
         final int chunks = (pdu.length + (mtuSize - 1)) / mtuSize;
@@ -542,14 +673,15 @@ public class MeshManagerApi implements MeshMngrApi {
                 srcOffset += length;
                 dstOffset += mtuSize;
             }
-            Log.v(TAG, "apply segmentation input: " + MeshParserUtils.bytesToHex(pdu, false));
-            Log.v(TAG, "apply segmentation output: " + MeshParserUtils.bytesToHex(segmentedBuffer, false));
+            MeshLogger.v(TAG, "apply segmentation input: ", pdu);
+            MeshLogger.v(TAG, "apply segmentation output: ", segmentedBuffer);
             return segmentedBuffer;
         }
         return pdu;
     }
 
-    private byte[] removeSegmentation(final int mtuSize, final byte[] data) {
+    @VisibleForTesting
+    static byte[] removeSegmentation(final int mtuSize, final byte[] data) {
         int srcOffset = 0;
         int dstOffset = 0;
         final int chunks = (data.length + (mtuSize - 1)) / mtuSize;
@@ -873,6 +1005,7 @@ public class MeshManagerApi implements MeshMngrApi {
      * @param meshNetwork mesh network to be deleted
      */
     public final void deleteMeshNetworkFromDb(final MeshNetwork meshNetwork) {
+        mMeshNetworkWriter.discard();
         mMeshNetworkDb.deleteNetwork(mMeshNetworkDao, meshNetwork);
     }
 
@@ -927,6 +1060,7 @@ public class MeshManagerApi implements MeshMngrApi {
         @Override
         public void sendProvisioningPdu(final UnprovisionedMeshNode meshNode, final byte[] pdu) {
             final int mtu = mTransportCallbacks.getMtu();
+            MeshLogger.trace(PduTraceBuffer.DIRECTION_OUT, pdu);
             mTransportCallbacks.sendProvisioningPdu(meshNode, applySegmentation(mtu, pdu));
         }
 
@@ -935,19 +1069,22 @@ public class MeshManagerApi implements MeshMngrApi {
             //We must save the mesh network state for every message that is being sent out.
             //This will specifically save the sequence number for every message sent.
             final int dstAddress = AddressUtils.getUnicastAddressInt(dst);
-            final ProvisionedMeshNode meshNode = mMeshNetwork.getProvisionedNode(dstAddress);
-            updateNetwork(meshNode);
-            final int mtu = mTransportCallbacks.getMtu();
-            mTransportCallbacks.sendMeshPdu(applySegmentation(mtu, pdu));
+            sendMeshPdu(dstAddress, pdu);
         }
 
         @Override
         public void sendMeshPdu(final int dst, final byte[] pdu) {
+            sendMeshPdu(dst, pdu, OutboundPduScheduler.PRIORITY_INTERACTIVE);
+        }
+
+        @Override
+        public void sendMeshPdu(final int dst, final byte[] pdu, final int priority) {
             final ProvisionedMeshNode meshNode = mMeshNetwork.getProvisionedNode(dst);
             updateNetwork(meshNode);
-            final int mtu = mTransportCallbacks.getMtu();
-            Log.v(TAG, "Send mesh pdu to " + dst + ": " + MeshParserUtils.bytesToHex(pdu, false));
-            mTransportCallbacks.sendMeshPdu(applySegmentation(mtu, pdu));
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Send mesh pdu to " + MeshAddress.formatAddress(dst, true) + ": " + MeshParserUtils.bytesToHex(pdu, false));
+            }
+            mOutboundPduScheduler.enqueue(dst, pdu, priority);
         }
 
         @Override
@@ -960,6 +1097,7 @@ public class MeshManagerApi implements MeshMngrApi {
         public void onMeshNodeReset(final ProvisionedMeshNode meshNode) {
             if (meshNode != null) {
                 if (mMeshNetwork.deleteResetNode(meshNode)) {
+                    mMeshNetworkWriter.discardNode(meshNode);
                     mMeshNetworkDb.deleteNode(mProvisionedNodeDao, meshNode);
                     mTransportCallbacks.onNetworkUpdated(mMeshNetwork);
                 }
@@ -971,14 +1109,16 @@ public class MeshManagerApi implements MeshMngrApi {
                 for (int i = 0; i < mMeshNetwork.nodes.size(); i++) {
                     if (meshNode.getUnicastAddress() == mMeshNetwork.nodes.get(i).getUnicastAddress()) {
                         mMeshNetwork.nodes.set(i, meshNode);
-                        mMeshNetworkDb.updateNode(mProvisionedNodeDao, meshNode);
+                        mMeshNetworkWriter.updateNode(meshNode);
                         break;
                     }
                 }
+                mMeshNetwork.onNodeUpdated(meshNode);
             }
-            mMeshNetworkDb.updateProvisioner(mProvisionerDao, mMeshNetwork.getSelectedProvisioner());
+            //Writes are batched, a status storm from a group would otherwise start three database updates per message
+            mMeshNetworkWriter.updateProvisioner(mMeshNetwork.getSelectedProvisioner());
             mMeshNetwork.setTimestamp(MeshParserUtils.getInternationalAtomicTime(System.currentTimeMillis()));
-            mMeshNetworkDb.updateNetwork(mMeshNetworkDao, mMeshNetwork);
+            mMeshNetworkWriter.updateNetwork(mMeshNetwork);
             mTransportCallbacks.onNetworkUpdated(mMeshNetwork);
         }
     };
@@ -987,25 +1127,13 @@ public class MeshManagerApi implements MeshMngrApi {
     private final InternalMeshManagerCallbacks internalMeshMgrCallbacks = new InternalMeshManagerCallbacks() {
         @Override
         public void onNodeProvisioned(final ProvisionedMeshNode meshNode) {
-            updateProvisionedNodeList(meshNode);
+            mMeshNetwork.addProvisionedNode(meshNode);
             //Set the mesh network uuid to the node so we can identify nodes belonging to a network
             meshNode.setMeshUuid(mMeshNetwork.getMeshUUID());
             mMeshNetworkDb.insertNode(mProvisionedNodeDao, meshNode);
             mMeshNetworkDb.updateProvisioner(mProvisionerDao, mMeshNetwork.getSelectedProvisioner());
             mTransportCallbacks.onNetworkUpdated(mMeshNetwork);
         }
-
-        private void updateProvisionedNodeList(final ProvisionedMeshNode meshNode) {
-            for (int i = 0; i < mMeshNetwork.nodes.size(); i++) {
-                final ProvisionedMeshNode node = mMeshNetwork.nodes.get(i);
-                if (meshNode.getUuid().equals(node.getUuid())) {
-                    mMeshNetwork.nodes.remove(i);
-                    break;
-                }
-            }
-
-            mMeshNetwork.nodes.add(meshNode);
-        }
     };
 
     private ProvisionedMeshNode getMeshNode(final int unicast) {
@@ -1021,22 +1149,59 @@ public class MeshManagerApi implements MeshMngrApi {
 
         @Override
         public Provisioner getProvisioner() {
-            return mMeshNetwork.getSelectedProvisioner();
+            return attachSequenceNumberStore(mMeshNetwork.getSelectedProvisioner());
         }
 
         @Override
         public Provisioner getProvisioner(final int unicastAddress) {
             for (Provisioner provisioner : mMeshNetwork.getProvisioners()) {
                 if (provisioner.isLastSelected())
-                    return provisioner;
+                    return attachSequenceNumberStore(provisioner);
             }
             return null;
         }
 
+        /**
+         * Makes sure the sequence numbers of a provisioner sending messages are reserved in the sequence number store
+         */
+        private Provisioner attachSequenceNumberStore(final Provisioner provisioner) {
+            if (provisioner != null) {
+                provisioner.setSequenceNumberStore(mSequenceNumberStore);
+            }
+            return provisioner;
+        }
+
         @Override
         public NetworkKey getPrimaryNetworkKey() {
             return mMeshNetwork.getPrimaryNetworkKey();
         }
+
+        @NonNull
+        @Override
+        public SecureUtils.K2Output[] getReceiveCredentials(final int nid) {
+            return mMeshNetwork.getReceiveCredentials(nid);
+        }
+
+        @NonNull
+        @Override
+        public SecureUtils.K2Output getTransmitCredentials(final int dst) {
+            return mMeshNetwork.getTransmitCredentials(dst);
+        }
+
+        @Override
+        public ReplayProtectionList getReplayProtectionList() {
+            return MeshManagerApi.this.getReplayProtectionList();
+        }
+
+        @Override
+        public NetworkMessageCache getNetworkMessageCache() {
+            return mNetworkMessageCache;
+        }
+
+        @Override
+        public void onNetworkPduReceived(final int src, final int ttl) {
+            mBearerManager.onNetworkPduReceived(src, ttl);
+        }
     };
 
     @SuppressWarnings("FieldCanBeLocal")
@@ -1048,13 +1213,16 @@ public class MeshManagerApi implements MeshMngrApi {
             return ByteBuffer.allocate(4).putInt(mMeshNetwork.getIvIndex()).array();
         }
 
+        @Override
+        public byte[] getTransmitIvIndex() {
+            return ByteBuffer.allocate(4).putInt(mMeshNetwork.getTransmitIvIndex()).array();
+        }
+
         @Override
         public byte[] getApplicationKey(final int aid) {
-            for (ApplicationKey key : mMeshNetwork.getAppKeys()) {
-                final byte[] k = key.getKey();
-                if (aid == SecureUtils.calculateK4(k)) {
-                    return key.getKey();
-                }
+            final ApplicationKey key = mMeshNetwork.getApplicationKey(aid);
+            if (key != null) {
+                return key.getKey();
             }
             return null;
         }
@@ -1188,6 +1356,7 @@ public class MeshManagerApi implements MeshMngrApi {
 
         @Override
         public void onNodeDeleted(final ProvisionedMeshNode meshNode) {
+            mMeshNetworkWriter.discardNode(meshNode);
             mMeshNetworkDb.deleteNode(mProvisionedNodeDao, meshNode);
             mTransportCallbacks.onNetworkUpdated(mMeshNetwork);
         }
@@ -32,8 +32,8 @@ final class MeshMessageHandler extends BaseMeshMessageHandler {
     private static final String TAG = MeshMessageHandler.class.getSimpleName();
 
 
-    MeshMessageHandler(final Context context, final InternalTransportCallbacks internalTransportCallbacks) {
-        super(context, internalTransportCallbacks);
+    MeshMessageHandler(final Context context, final MeshScheduler scheduler, final InternalTransportCallbacks internalTransportCallbacks) {
+        super(context, scheduler, internalTransportCallbacks);
     }
 
     @Override
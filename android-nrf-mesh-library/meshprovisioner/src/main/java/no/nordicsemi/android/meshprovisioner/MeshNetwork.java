@@ -7,10 +7,8 @@ import androidx.room.Entity;
 
 import android.text.TextUtils;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import no.nordicsemi.android.meshprovisioner.transport.ApplicationKey;
 import no.nordicsemi.android.meshprovisioner.transport.Element;
@@ -18,6 +16,7 @@ import no.nordicsemi.android.meshprovisioner.transport.MeshModel;
 import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
 import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.meshprovisioner.utils.AddressUtils;
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 
@@ -47,6 +46,35 @@ public final class MeshNetwork extends BaseMeshNetwork {
         return ivIndex;
     }
 
+    /**
+     * Returns the IV Index used when transmitting messages, which is the previous IV Index while an IV Update is in progress
+     */
+    public int getTransmitIvIndex() {
+        return (ivUpdateState == IV_UPDATE_ACTIVE && ivIndex != 0) ? ivIndex - 1 : ivIndex;
+    }
+
+    /**
+     * Returns the IV Index state of the network including the IV Update flag and the time of the last transition
+     */
+    public IvIndex getIvIndexState() {
+        final IvIndex state = new IvIndex(ivIndex, ivUpdateState == IV_UPDATE_ACTIVE, ivIndexTransitionDate);
+        state.setIvRecoveryFlag(ivRecoveryActive);
+        return state;
+    }
+
+    /**
+     * Sets the IV Index state of the network after an IV Update or IV Index Recovery
+     *
+     * @param state IV Index state
+     */
+    void setIvIndexState(@NonNull final IvIndex state) {
+        this.ivIndex = state.getIvIndex();
+        this.ivUpdateState = state.isIvUpdateActive() ? IV_UPDATE_ACTIVE : NORMAL_OPERATION;
+        this.ivIndexTransitionDate = state.getTransitionDate();
+        this.ivRecoveryActive = state.getIvRecoveryFlag();
+        notifyNetworkUpdated();
+    }
+
     public String getSchema() {
         return schema;
     }
@@ -102,6 +130,43 @@ public final class MeshNetwork extends BaseMeshNetwork {
 
     void setNodes(List<ProvisionedMeshNode> nodes) {
         this.nodes = nodes;
+        mNodeAddressIndex.invalidate();
+        mAdvertisementMatcher.invalidate();
+        mSubscriptionIndex.invalidate();
+        mAddressAllocator.invalidate();
+    }
+
+    /**
+     * Adds a newly provisioned node to the network replacing any existing node with the same uuid
+     *
+     * @param meshNode provisioned node
+     */
+    void addProvisionedNode(@NonNull final ProvisionedMeshNode meshNode) {
+        for (int i = 0; i < nodes.size(); i++) {
+            final ProvisionedMeshNode node = nodes.get(i);
+            if (meshNode.getUuid() != null && meshNode.getUuid().equals(node.getUuid())) {
+                nodes.remove(i);
+                mAddressAllocator.onNodeRemoved(node);
+                break;
+            }
+        }
+        nodes.add(meshNode);
+        mNodeAddressIndex.invalidate();
+        mAdvertisementMatcher.invalidate();
+        mSubscriptionIndex.invalidate();
+        mAddressAllocator.onNodeAdded(meshNode);
+    }
+
+    /**
+     * Notifies the network that a node was updated so that the address index and the address allocator reflect any change in the
+     * address range of the node and the subscription index any change in the models or subscriptions of the node
+     *
+     * @param meshNode updated node
+     */
+    void onNodeUpdated(@NonNull final ProvisionedMeshNode meshNode) {
+        mNodeAddressIndex.onNodeUpdated(meshNode);
+        mSubscriptionIndex.onNodeUpdated(meshNode);
+        mAddressAllocator.onNodeUpdated(meshNode);
     }
 
     public List<Group> getGroups() {
@@ -110,6 +175,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
 
     void setGroups(final List<Group> groups) {
         this.groups = groups;
+        mAddressAllocator.invalidate();
     }
 
     /**
@@ -121,6 +187,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
     public boolean addGroup(@NonNull final Group group) {
         if (!isGroupExist(group)) {
             this.groups.add(group);
+            mAddressAllocator.onGroupAdded(group);
             if (mCallbacks != null) {
                 mCallbacks.onGroupAdded(group);
             }
@@ -143,6 +210,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
 
         if (!isGroupExist(group)) {
             this.groups.add(group);
+            mAddressAllocator.onGroupAdded(group);
             if (mCallbacks != null) {
                 mCallbacks.onGroupAdded(group);
             }
@@ -180,6 +248,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
      */
     public boolean removeGroup(@NonNull final Group group){
         if(groups.remove(group)){
+            mAddressAllocator.onGroupRemoved(group);
             if(mCallbacks != null) {
                 mCallbacks.onGroupDeleted(group);
             }
@@ -222,25 +291,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @param group group
      */
     public List<Element> getElements(final Group group) {
-        final List<Element> elements = new ArrayList<>();
-        for (final ProvisionedMeshNode node : nodes) {
-            for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
-                final Element element = elementEntry.getValue();
-                for (Map.Entry<Integer, MeshModel> modelEntry : element.getMeshModels().entrySet()) {
-                    final MeshModel model = modelEntry.getValue();
-                    if (model != null) {
-                        final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
-                        for (Integer subscriptionAddress : subscriptionAddresses) {
-                            if (group.getGroupAddress() == subscriptionAddress) {
-                                if (!elements.contains(element))
-                                    elements.add(element);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return elements;
+        return mSubscriptionIndex.getElements(nodes, group.getGroupAddress());
     }
 
     /**
@@ -249,25 +300,23 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @param group group
      */
     public List<MeshModel> getModels(final Group group) {
-        final List<MeshModel> models = new ArrayList<>();
-        for (final ProvisionedMeshNode node : nodes) {
-            for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
-                final Element element = elementEntry.getValue();
-                for (Map.Entry<Integer, MeshModel> modelEntry : element.getMeshModels().entrySet()) {
-                    final MeshModel model = modelEntry.getValue();
-                    if (model != null) {
-                        final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
-                        for (Integer subscriptionAddress : subscriptionAddresses) {
-                            if (group.getGroupAddress() == subscriptionAddress) {
-                                if(!models.contains(model))
-                                    models.add(model);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return models;
+        return mSubscriptionIndex.getModels(nodes, group.getGroupAddress());
+    }
+
+    /**
+     * Returns the elements containing a model with the given model identifier, in the order of their unicast addresses
+     *
+     * @param modelId 16-bit sig model identifier or 32-bit vendor model identifier
+     */
+    public List<Element> getElementsWithModel(final int modelId) {
+        return mSubscriptionIndex.getElementsWithModel(nodes, modelId);
+    }
+
+    /**
+     * Returns the group and virtual addresses the models of the network are subscribed to, in ascending order
+     */
+    public List<Integer> getSubscriptionAddresses() {
+        return mSubscriptionIndex.getSubscriptionAddresses(nodes);
     }
 
     public List<Scene> getScenes() {
@@ -276,6 +325,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
 
     void setScenes(List<Scene> scenes) {
         this.scenes = scenes;
+        mAddressAllocator.invalidate();
     }
 
     public boolean isLastSelected() {
@@ -308,6 +358,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
 
     void setNetKeys(List<NetworkKey> netKeys) {
         this.netKeys = netKeys;
+        mKeyCache.invalidateNetworkKeys();
     }
 
     public List<ApplicationKey> getAppKeys() {
@@ -316,32 +367,129 @@ public final class MeshNetwork extends BaseMeshNetwork {
 
     void setAppKeys(List<ApplicationKey> appKeys) {
         this.appKeys = appKeys;
+        mKeyCache.invalidateApplicationKeys();
     }
 
     /**
-     * Returns the mesh node with the corresponding unicast address
+     * Returns the cache of the key material derived from the keys of this network
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public MeshKeyCache getKeyCache() {
+        return mKeyCache;
+    }
+
+    /**
+     * Returns the matcher of Mesh Proxy Service advertisements of this network, to be used when scanning for proxy nodes
+     */
+    public ProxyAdvertisementMatcher getAdvertisementMatcher() {
+        return mAdvertisementMatcher;
+    }
+
+    /**
+     * Returns the master credentials {@link SecureUtils.K2Output} derived from the network key
      *
-     * @param unicastAddress unicast address of the node
+     * @param networkKey network key
      */
-    public ProvisionedMeshNode getProvisionedNode(@NonNull final byte[] unicastAddress) {
-        for (ProvisionedMeshNode node : nodes) {
-            if (node.hasUnicastAddress(AddressUtils.getUnicastAddressInt(unicastAddress))) {
-                return node;
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public SecureUtils.K2Output getK2Output(@NonNull final NetworkKey networkKey) {
+        return mKeyCache.getK2Output(networkKey);
+    }
+
+    /**
+     * Returns the master credentials of the network keys whose NID matches the NID of a received network pdu, including the old keys
+     * of the network keys being refreshed
+     *
+     * @param nid network identifier
+     * @return credentials, or an empty array if no network key matches the NID
+     */
+    @NonNull
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public SecureUtils.K2Output[] getReceiveCredentials(final int nid) {
+        return mNetworkKeyIndex.get(nid);
+    }
+
+    /**
+     * Returns the master credentials a message is sent with to the destination address. Messages to a node that does not know the
+     * primary network key are sent on the subnet of the first network key added to the node, all other messages on the primary subnet.
+     *
+     * @param dst destination address
+     */
+    @NonNull
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public SecureUtils.K2Output getTransmitCredentials(final int dst) {
+        NetworkKey networkKey = null;
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            final ProvisionedMeshNode node = getProvisionedNode(dst);
+            if (node != null) {
+                networkKey = getSubnetKey(node);
             }
         }
+        if (networkKey == null) {
+            networkKey = getPrimaryNetworkKey();
+        }
+        return mNetworkKeyIndex.getTransmitCredentials(networkKey);
+    }
+
+    /**
+     * Returns the network key of the subnet a node is reached on, or null to use the primary subnet
+     */
+    private NetworkKey getSubnetKey(@NonNull final ProvisionedMeshNode node) {
+        final List<NetworkKey> addedNetworkKeys = node.getAddedNetworkKeys();
+        if (addedNetworkKeys == null || addedNetworkKeys.isEmpty())
+            return null;
+
+        for (NetworkKey addedNetworkKey : addedNetworkKeys) {
+            if (addedNetworkKey.getKeyIndex() == 0)
+                return null;
+        }
+
+        //The node may hold a copy of the key, the key material is taken from the key of the network
+        final int keyIndex = addedNetworkKeys.get(0).getKeyIndex();
+        for (NetworkKey networkKey : netKeys) {
+            if (networkKey.getKeyIndex() == keyIndex)
+                return networkKey;
+        }
         return null;
     }
 
+    /**
+     * Returns the application key matching the application key identifier
+     *
+     * @param aid application key identifier
+     * @return application key or null if no key matches the identifier
+     */
+    public ApplicationKey getApplicationKey(final int aid) {
+        return mKeyCache.getApplicationKey(appKeys, aid);
+    }
+
+    /**
+     * Returns the mesh node with the corresponding unicast address
+     *
+     * @param unicastAddress unicast address of the node
+     */
+    public ProvisionedMeshNode getProvisionedNode(@NonNull final byte[] unicastAddress) {
+        return getProvisionedNode(AddressUtils.getUnicastAddressInt(unicastAddress));
+    }
+
     /**
      * Returns the mesh node with the corresponding unicast address
      *
      * @param unicastAddress unicast address of the node
      */
     public ProvisionedMeshNode getProvisionedNode(final int unicastAddress) {
-        for (ProvisionedMeshNode node : nodes) {
-            if (node.hasUnicastAddress(unicastAddress)) {
-                return node;
-            }
+        return mNodeAddressIndex.get(nodes, unicastAddress);
+    }
+
+    /**
+     * Returns the element with the corresponding unicast address
+     *
+     * @param unicastAddress unicast address of the element
+     * @return element or null if the address does not belong to a known element
+     */
+    public Element getElement(final int unicastAddress) {
+        final ProvisionedMeshNode node = getProvisionedNode(unicastAddress);
+        if (node != null) {
+            return node.getElements().get(unicastAddress);
         }
         return null;
     }
@@ -362,6 +510,10 @@ public final class MeshNetwork extends BaseMeshNetwork {
         for (ProvisionedMeshNode node : nodes) {
             if (meshNode.getUnicastAddress() == node.getUnicastAddress()) {
                 nodes.remove(node);
+                mNodeAddressIndex.invalidate();
+                mAdvertisementMatcher.invalidate();
+                mSubscriptionIndex.onNodeRemoved(node);
+                mAddressAllocator.onNodeRemoved(node);
                 notifyNodeDeleted(meshNode);
                 return true;
             }
@@ -373,6 +525,10 @@ public final class MeshNetwork extends BaseMeshNetwork {
         for (ProvisionedMeshNode node : nodes) {
             if (meshNode.getUnicastAddress() == node.getUnicastAddress()) {
                 nodes.remove(node);
+                mNodeAddressIndex.invalidate();
+                mAdvertisementMatcher.invalidate();
+                mSubscriptionIndex.onNodeRemoved(node);
+                mAddressAllocator.onNodeRemoved(node);
                 return true;
             }
         }
@@ -392,7 +548,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
     /**
      * Sets the iv update state.
      * <p>
-     * This is not currently supported by the library
+     * The iv update state is updated by the library when secure network beacons are received, see {@link #getIvIndexState()}
      * </p>
      *
      * @param ivUpdateState 0 if normal operation and 1 if iv update is active
@@ -113,7 +113,8 @@ abstract class MeshNetworkDb extends RoomDatabase {
                        final GroupDao groupDao,
                        final SceneDao sceneDao,
                        final MeshNetwork meshNetwork) {
-        new InsertNetworkAsyncTask(dao,
+        new InsertNetworkAsyncTask(this,
+                dao,
                 netKeyDao,
                 appKeyDao,
                 provisionerDao,
@@ -229,8 +230,18 @@ abstract class MeshNetworkDb extends RoomDatabase {
         new DeleteSceneKeyAsyncTask(dao).execute(scene);
     }
 
+    void updateNetworkState(final MeshNetworkDao networkDao,
+                            final ProvisionerDao provisionerDao,
+                            final ProvisionedMeshNodeDao nodeDao,
+                            final MeshNetwork meshNetwork,
+                            final List<Provisioner> provisioners,
+                            final List<ProvisionedMeshNode> nodes) {
+        new UpdateNetworkStateAsyncTask(this, networkDao, provisionerDao, nodeDao, meshNetwork, provisioners, nodes).execute();
+    }
+
     private static class InsertNetworkAsyncTask extends AsyncTask<Void, Void, Void> {
 
+        private final MeshNetworkDb db;
         private final MeshNetwork meshNetwork;
         private final MeshNetworkDao meshNetworkDao;
         private final NetworkKeyDao netKeyDao;
@@ -240,7 +251,8 @@ abstract class MeshNetworkDb extends RoomDatabase {
         private final GroupDao groupDao;
         private final SceneDao sceneDao;
 
-        InsertNetworkAsyncTask(final MeshNetworkDao meshNetworkDao,
+        InsertNetworkAsyncTask(final MeshNetworkDb db,
+                               final MeshNetworkDao meshNetworkDao,
                                final NetworkKeyDao netKeyDao,
                                final ApplicationKeyDao appKeyDao,
                                final ProvisionerDao provisionerDao,
@@ -248,6 +260,7 @@ abstract class MeshNetworkDb extends RoomDatabase {
                                final GroupDao groupDao,
                                final SceneDao sceneDao,
                                final MeshNetwork meshNetwork) {
+            this.db = db;
             this.meshNetworkDao = meshNetworkDao;
             this.netKeyDao = netKeyDao;
             this.appKeyDao = appKeyDao;
@@ -260,21 +273,24 @@ abstract class MeshNetworkDb extends RoomDatabase {
 
         @Override
         protected Void doInBackground(final Void... params) {
-            meshNetworkDao.insert(meshNetwork);
-            netKeyDao.insert(meshNetwork.netKeys);
-            appKeyDao.insert(meshNetwork.appKeys);
-            provisionerDao.insert(meshNetwork.provisioners);
-            if (!meshNetwork.nodes.isEmpty()) {
-                nodeDao.insert(meshNetwork.nodes);
-            }
+            //The whole network is written in a single transaction so that it is committed once and never left half imported
+            db.runInTransaction(() -> {
+                meshNetworkDao.insert(meshNetwork);
+                netKeyDao.insert(meshNetwork.netKeys);
+                appKeyDao.insert(meshNetwork.appKeys);
+                provisionerDao.insert(meshNetwork.provisioners);
+                if (!meshNetwork.nodes.isEmpty()) {
+                    nodeDao.insert(meshNetwork.nodes);
+                }
 
-            if (meshNetwork.groups != null) {
-                groupDao.insert(meshNetwork.groups);
-            }
+                if (meshNetwork.groups != null) {
+                    groupDao.insert(meshNetwork.groups);
+                }
 
-            if (meshNetwork.scenes != null) {
-                sceneDao.insert(meshNetwork.scenes);
-            }
+                if (meshNetwork.scenes != null) {
+                    sceneDao.insert(meshNetwork.scenes);
+                }
+            });
             return null;
         }
     }
@@ -559,6 +575,52 @@ abstract class MeshNetworkDb extends RoomDatabase {
         }
     }
 
+    /**
+     * Writes a batch of node, provisioner and network updates in a single transaction
+     */
+    private static class UpdateNetworkStateAsyncTask extends AsyncTask<Void, Void, Void> {
+
+        private final MeshNetworkDb db;
+        private final MeshNetworkDao networkDao;
+        private final ProvisionerDao provisionerDao;
+        private final ProvisionedMeshNodeDao nodeDao;
+        private final MeshNetwork meshNetwork;
+        private final List<Provisioner> provisioners;
+        private final List<ProvisionedMeshNode> nodes;
+
+        UpdateNetworkStateAsyncTask(final MeshNetworkDb db,
+                                    final MeshNetworkDao networkDao,
+                                    final ProvisionerDao provisionerDao,
+                                    final ProvisionedMeshNodeDao nodeDao,
+                                    final MeshNetwork meshNetwork,
+                                    final List<Provisioner> provisioners,
+                                    final List<ProvisionedMeshNode> nodes) {
+            this.db = db;
+            this.networkDao = networkDao;
+            this.provisionerDao = provisionerDao;
+            this.nodeDao = nodeDao;
+            this.meshNetwork = meshNetwork;
+            this.provisioners = provisioners;
+            this.nodes = nodes;
+        }
+
+        @Override
+        protected Void doInBackground(final Void... params) {
+            db.runInTransaction(() -> {
+                if (!nodes.isEmpty()) {
+                    nodeDao.update(nodes);
+                }
+                if (!provisioners.isEmpty()) {
+                    provisionerDao.update(provisioners);
+                }
+                if (meshNetwork != null) {
+                    networkDao.update(meshNetwork);
+                }
+            });
+            return null;
+        }
+    }
+
     private static class DeleteNodeAsyncTask extends AsyncTask<ProvisionedMeshNode, Void, Void> {
 
         private ProvisionedMeshNodeDao mAsyncTaskDao;
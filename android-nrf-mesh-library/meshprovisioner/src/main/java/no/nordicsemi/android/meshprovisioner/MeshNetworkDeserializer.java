@@ -58,23 +58,45 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
                 firstProvisioner.setProvisionerAddress(MeshParserUtils.hexToInt(provisionerMeshAddress.getAsString()));
             }
         }
-        if (jsonObject.has("nodes"))
-            network.nodes = deserializeNodes(context, jsonObject.getAsJsonArray("nodes"), network.meshUUID);
+        final List<ProvisionedMeshNode> nodes;
+        if (jsonObject.has("nodes")) {
+            nodes = deserializeNodes(context, jsonObject.getAsJsonArray("nodes"));
+        } else {
+            nodes = network.nodes;
+        }
 
         if (jsonObject.has("groups"))
             network.groups = deserializeGroups(jsonObject, network.meshUUID);
         if (jsonObject.has("scenes"))
             network.scenes = deserializeScenes(jsonObject, network.meshUUID);
 
-		// we calculate the next available address here, probably will do this
-		// in app side
-        network.unicastAddress = getNextAvailableAddress(network.nodes);
-        populateNetworkKeys(network.getNodes(), network.getNetKeys());
-        populateAddedAppKeysInNodes(network.getNodes(), network.getAppKeys());
-        populateBoundAppKeysInNodes(network.getNodes(), network.getAppKeys());
+        setNodes(network, nodes);
         return network;
     }
 
+    /**
+     * Sets the nodes of a deserialized network and links them to the keys of the network
+     * <p>
+     * The nodes are deserialized independently of the keys, so the nodes may be read from the json file before the keys are.
+     * </p>
+     *
+     * @param network network containing the keys
+     * @param nodes   deserialized nodes
+     */
+    static void setNodes(final MeshNetwork network, final List<ProvisionedMeshNode> nodes) {
+        for (ProvisionedMeshNode node : nodes) {
+            node.setMeshUuid(network.meshUUID);
+        }
+        network.nodes = nodes;
+        //The next available address is the first gap left by the imported nodes that fits a node with a single element
+        network.mAddressAllocator.invalidate();
+        final int unicastAddress = network.mAddressAllocator.nextAvailableUnicastAddress(1);
+        network.unicastAddress = unicastAddress == -1 ? AddressAllocator.START_UNICAST_ADDRESS : unicastAddress;
+        populateNetworkKeys(nodes, network.getNetKeys());
+        populateAddedAppKeysInNodes(nodes, network.getAppKeys());
+        populateBoundAppKeysInNodes(nodes, network.getAppKeys());
+    }
+
     @Override
     public JsonElement serialize(final MeshNetwork network, final Type typeOfSrc, final JsonSerializationContext context) {
         final JsonObject jsonObject = new JsonObject();
@@ -226,19 +248,14 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
     /**
      * Returns a list of nodes deserializing the json array containing the provisioned mesh nodes
      *
-     * @param context  deserializer context
-     * @param json     json array containing the nodes
-     * @param meshUuid network provisionerUuid
+     * @param context deserializer context
+     * @param json    json array containing the nodes
      * @return List of nodes
      */
-    private List<ProvisionedMeshNode> deserializeNodes(final JsonDeserializationContext context, final JsonArray json, final String meshUuid) {
+    private List<ProvisionedMeshNode> deserializeNodes(final JsonDeserializationContext context, final JsonArray json) {
         final Type nodeList = new TypeToken<List<ProvisionedMeshNode>>() {
         }.getType();
-        final List<ProvisionedMeshNode> nodes = context.deserialize(json, nodeList);
-        for (ProvisionedMeshNode node : nodes) {
-            node.setMeshUuid(meshUuid);
-        }
-        return nodes;
+        return context.deserialize(json, nodeList);
     }
 
     /**
@@ -331,34 +348,13 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
         return scenes;
     }
 
-    /**
-     * Returns the next available address based on the nodes/elements in the network
-     *
-     * @param nodes provisioned nodes
-     */
-    private int getNextAvailableAddress(final List<ProvisionedMeshNode> nodes) {
-        //We set the next available unicast address here, this is a library attribute
-        int unicast = 1;
-        if (nodes != null && !nodes.isEmpty()) {
-            final int index = nodes.size() - 1;
-            final ProvisionedMeshNode node = nodes.get(index);
-            Map<Integer, Element> elements = node.getElements();
-            if (elements != null && !elements.isEmpty()) {
-                unicast = node.getUnicastAddress() + elements.size();
-            } else {
-                unicast = node.getUnicastAddress() + 1;
-            }
-        }
-        return unicast;
-    }
-
     /**
      * Populates the added net keys for nodes
      *
      * @param nodes       list of nodes
      * @param networkKeys list of keys
      */
-    private void populateNetworkKeys(final List<ProvisionedMeshNode> nodes, final List<NetworkKey> networkKeys) {
+    private static void populateNetworkKeys(final List<ProvisionedMeshNode> nodes, final List<NetworkKey> networkKeys) {
         for (ProvisionedMeshNode node : nodes) {
             for (NetworkKey networkKey : networkKeys) {
                 node.getAddedNetworkKeys().add(networkKey);
@@ -372,7 +368,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param nodes           list of nodes
      * @param applicationKeys list of keys
      */
-    private void populateAddedAppKeysInNodes(final List<ProvisionedMeshNode> nodes, final List<ApplicationKey> applicationKeys) {
+    private static void populateAddedAppKeysInNodes(final List<ProvisionedMeshNode> nodes, final List<ApplicationKey> applicationKeys) {
         for (ProvisionedMeshNode node : nodes) {
             final Map<Integer, ApplicationKey> applicationKeyMap = new LinkedHashMap<>();
             for (Integer index : node.getAddedAppKeyIndexes()) {
@@ -391,7 +387,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param nodes           list of nodes
      * @param applicationKeys list of keys
      */
-    private void populateBoundAppKeysInNodes(final List<ProvisionedMeshNode> nodes, final List<ApplicationKey> applicationKeys) {
+    private static void populateBoundAppKeysInNodes(final List<ProvisionedMeshNode> nodes, final List<ApplicationKey> applicationKeys) {
         for (ProvisionedMeshNode node : nodes) {
             for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
                 final Element element = elementEntry.getValue();
@@ -0,0 +1,171 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.data.MeshNetworkDao;
+import no.nordicsemi.android.meshprovisioner.data.ProvisionedMeshNodeDao;
+import no.nordicsemi.android.meshprovisioner.data.ProvisionerDao;
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Write-behind stage for the state that changes with every message sent or received.
+ * <p>
+ * Nodes, provisioners and the network marked as dirty are coalesced in memory and written in a single Room transaction once the flush
+ * interval has elapsed or the number of dirty nodes reaches the flush threshold, instead of starting an update for each message.
+ * {@link #flush()} writes pending changes immediately and should be called on lifecycle events.
+ * </p>
+ */
+final class MeshNetworkWriter {
+
+    private static final String TAG = MeshNetworkWriter.class.getSimpleName();
+    static final long DEFAULT_FLUSH_INTERVAL = 1000; //ms
+    static final int DEFAULT_FLUSH_THRESHOLD = 32;
+
+    private final MeshNetworkDb mMeshNetworkDb;
+    private final MeshNetworkDao mMeshNetworkDao;
+    private final ProvisionerDao mProvisionerDao;
+    private final ProvisionedMeshNodeDao mProvisionedNodeDao;
+    private final MeshScheduler mScheduler;
+    private final Map<String, ProvisionedMeshNode> mDirtyNodes = new LinkedHashMap<>();
+    private final Map<String, Provisioner> mDirtyProvisioners = new LinkedHashMap<>();
+    private MeshNetwork mDirtyNetwork;
+    private long mFlushInterval = DEFAULT_FLUSH_INTERVAL;
+    private int mFlushThreshold = DEFAULT_FLUSH_THRESHOLD;
+    private boolean mFlushScheduled;
+
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    MeshNetworkWriter(@NonNull final MeshNetworkDb meshNetworkDb,
+                      @NonNull final MeshNetworkDao meshNetworkDao,
+                      @NonNull final ProvisionerDao provisionerDao,
+                      @NonNull final ProvisionedMeshNodeDao provisionedNodeDao,
+                      @NonNull final MeshScheduler scheduler) {
+        this.mMeshNetworkDb = meshNetworkDb;
+        this.mMeshNetworkDao = meshNetworkDao;
+        this.mProvisionerDao = provisionerDao;
+        this.mProvisionedNodeDao = provisionedNodeDao;
+        this.mScheduler = scheduler;
+    }
+
+    /**
+     * Sets the maximum time changes are kept in memory before they are written to the database
+     *
+     * @param flushInterval interval in milliseconds
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    synchronized void setFlushInterval(final long flushInterval) {
+        if (flushInterval < 0)
+            throw new IllegalArgumentException("Flush interval must not be negative");
+        mFlushInterval = flushInterval;
+    }
+
+    /**
+     * Sets the number of dirty nodes after which changes are written to the database without waiting for the flush interval
+     *
+     * @param flushThreshold number of dirty nodes
+     * @throws IllegalArgumentException if the threshold is less than 1
+     */
+    synchronized void setFlushThreshold(final int flushThreshold) {
+        if (flushThreshold < 1)
+            throw new IllegalArgumentException("Flush threshold must be at least 1");
+        mFlushThreshold = flushThreshold;
+    }
+
+    /**
+     * Marks a node as changed
+     *
+     * @param node provisioned node
+     */
+    synchronized void updateNode(@NonNull final ProvisionedMeshNode node) {
+        mDirtyNodes.put(node.getUuid(), node);
+        scheduleFlush();
+    }
+
+    /**
+     * Marks a provisioner as changed
+     *
+     * @param provisioner provisioner
+     */
+    synchronized void updateProvisioner(@NonNull final Provisioner provisioner) {
+        mDirtyProvisioners.put(provisioner.getProvisionerUuid(), provisioner);
+        scheduleFlush();
+    }
+
+    /**
+     * Marks the mesh network as changed
+     *
+     * @param meshNetwork mesh network
+     */
+    synchronized void updateNetwork(@NonNull final MeshNetwork meshNetwork) {
+        mDirtyNetwork = meshNetwork;
+        scheduleFlush();
+    }
+
+    /**
+     * Drops a pending update of a node that is being deleted
+     *
+     * @param node provisioned node
+     */
+    synchronized void discardNode(@NonNull final ProvisionedMeshNode node) {
+        mDirtyNodes.remove(node.getUuid());
+    }
+
+    /**
+     * Drops all pending updates, i.e. when the network they belong to is being deleted
+     */
+    synchronized void discard() {
+        cancelFlush();
+        mDirtyNodes.clear();
+        mDirtyProvisioners.clear();
+        mDirtyNetwork = null;
+    }
+
+    /**
+     * Writes all pending changes to the database in a single transaction
+     */
+    synchronized void flush() {
+        cancelFlush();
+        if (mDirtyNodes.isEmpty() && mDirtyProvisioners.isEmpty() && mDirtyNetwork == null)
+            return;
+
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>(mDirtyNodes.values());
+        final List<Provisioner> provisioners = new ArrayList<>(mDirtyProvisioners.values());
+        final MeshNetwork meshNetwork = mDirtyNetwork;
+        mDirtyNodes.clear();
+        mDirtyProvisioners.clear();
+        mDirtyNetwork = null;
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Writing " + nodes.size() + " node(s), " + provisioners.size() + " provisioner(s)" + (meshNetwork != null ? " and the network" : ""));
+        }
+        mMeshNetworkDb.updateNetworkState(mMeshNetworkDao, mProvisionerDao, mProvisionedNodeDao, meshNetwork, provisioners, nodes);
+    }
+
+    private void scheduleFlush() {
+        if (mDirtyNodes.size() >= mFlushThreshold) {
+            flush();
+        } else if (!mFlushScheduled) {
+            mFlushScheduled = true;
+            mScheduler.postDelayed(mFlushRunnable, mFlushInterval);
+        }
+    }
+
+    private void cancelFlush() {
+        if (mFlushScheduled) {
+            mFlushScheduled = false;
+            mScheduler.removeCallbacks(mFlushRunnable);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Schedules the timers of the mesh stack, i.e. the segmentation and transaction timeouts and the coalesced writes to the stores.
+ * <p>
+ * The protocol layers post their timers through this interface instead of a {@link android.os.Handler}, so that the timers can be
+ * driven by a manual clock in unit tests. {@link HandlerMeshScheduler} runs them on the main looper. Implementations must run the tasks
+ * sequentially, as the layers expect the timers to fire on the same thread the received pdus are handled on.
+ * </p>
+ */
+public interface MeshScheduler {
+
+    /**
+     * Runs a task once the given delay has elapsed
+     *
+     * @param task        task to run
+     * @param delayMillis delay in milliseconds
+     */
+    void postDelayed(@NonNull final Runnable task, final long delayMillis);
+
+    /**
+     * Cancels all pending runs of a task that has not been started yet
+     *
+     * @param task task to cancel
+     */
+    void removeCallbacks(@NonNull final Runnable task);
+}
@@ -10,17 +10,32 @@ import androidx.annotation.Nullable;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import no.nordicsemi.android.meshprovisioner.transport.ApplicationKey;
@@ -31,12 +46,17 @@ import no.nordicsemi.android.meshprovisioner.transport.MeshModelListDeserializer
 import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
 import no.nordicsemi.android.meshprovisioner.transport.NodeDeserializer;
 import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 
 /**
  * Utility class to handle network imports and exports
  */
 class NetworkImportExportUtils {
 
+    private static final Type NODE_LIST = new TypeToken<List<ProvisionedMeshNode>>() {
+    }.getType();
+    private static final String[] REQUIRED_NODE_PROPERTIES = {"UUID", "deviceKey", "unicastAddress", "security", "netKeys", "configComplete"};
+
     /**
      * Creates an AsyncTask to import the a mesh network
      *
@@ -70,6 +90,187 @@ class NetworkImportExportUtils {
         new NetworkExportAsyncTask(meshNetwork, path, callbacks).execute();
     }
 
+    /**
+     * Returns a {@link GsonBuilder} with the type adapters of the Mesh Provisioning/Configuration Database format registered
+     */
+    static GsonBuilder createGsonBuilder() {
+        final Type netKeyList = new TypeToken<List<NetworkKey>>() {
+        }.getType();
+        final Type appKeyList = new TypeToken<List<ApplicationKey>>() {
+        }.getType();
+        final Type allocatedUnicastRange = new TypeToken<List<AllocatedUnicastRange>>() {
+        }.getType();
+        final Type allocatedGroupRange = new TypeToken<List<AllocatedGroupRange>>() {
+        }.getType();
+        final Type allocatedSceneRange = new TypeToken<List<AllocatedSceneRange>>() {
+        }.getType();
+        final Type provisionerList = new TypeToken<List<Provisioner>>() {
+        }.getType();
+        final Type nodeList = new TypeToken<List<ProvisionedMeshNode>>() {
+        }.getType();
+        final Type meshModelList = new TypeToken<List<MeshModel>>() {
+        }.getType();
+        final Type elementList = new TypeToken<List<Element>>() {
+        }.getType();
+
+        final GsonBuilder gsonBuilder = new GsonBuilder();
+        gsonBuilder.registerTypeAdapter(MeshNetwork.class, new MeshNetworkDeserializer());
+        gsonBuilder.registerTypeAdapter(netKeyList, new NetKeyDeserializer());
+        gsonBuilder.registerTypeAdapter(appKeyList, new AppKeyDeserializer());
+        gsonBuilder.registerTypeAdapter(provisionerList, new ProvisionerDeserializer());
+        gsonBuilder.registerTypeAdapter(allocatedUnicastRange, new AllocatedUnicastRangeDeserializer());
+        gsonBuilder.registerTypeAdapter(allocatedGroupRange, new AllocatedGroupRangeDeserializer());
+        gsonBuilder.registerTypeAdapter(allocatedSceneRange, new AllocatedSceneRangeDeserializer());
+        gsonBuilder.registerTypeAdapter(nodeList, new NodeDeserializer());
+        gsonBuilder.registerTypeAdapter(elementList, new InternalElementListDeserializer());
+        gsonBuilder.registerTypeAdapter(meshModelList, new MeshModelListDeserializer());
+        return gsonBuilder;
+    }
+
+    /**
+     * Reads a mesh network from a Mesh Provisioning/Configuration Database json document.
+     * <p>
+     * The document is streamed. Nodes, which make up most of a large document, are validated and deserialized one at a time as they
+     * are read, so only a single node is held as a json tree at any time. The remaining properties of the network are small and are
+     * deserialized with {@link MeshNetworkDeserializer} once the document has been read.
+     * </p>
+     *
+     * @param gson   gson created with {@link #createGsonBuilder()}
+     * @param reader reader of the json document, not closed by this method
+     * @return mesh network
+     * @throws JsonParseException if the document does not follow the Mesh Provisioning/Configuration Database format
+     * @throws IOException        if reading the document fails
+     */
+    static MeshNetwork readMeshNetwork(@NonNull final Gson gson, @NonNull final Reader reader) throws IOException {
+        final JsonReader jsonReader = new JsonReader(reader);
+        final JsonObject networkJson = new JsonObject();
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        try {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                final String name = jsonReader.nextName();
+                if (name.equals("nodes")) {
+                    readNodes(gson, jsonReader, nodes);
+                } else {
+                    networkJson.add(name, gson.fromJson(jsonReader, JsonElement.class));
+                }
+            }
+            jsonReader.endObject();
+        } catch (final IllegalStateException ex) {
+            throw new JsonSyntaxException(ex.getMessage() + ", mesh network object must follow the Mesh Provisioning/Configuration Database format.", ex);
+        }
+
+        final MeshNetwork network = gson.fromJson(networkJson, MeshNetwork.class);
+        MeshNetworkDeserializer.setNodes(network, nodes);
+        return network;
+    }
+
+    /**
+     * Reads the nodes array of the json document, deserializing each node as soon as it has been read
+     *
+     * @param gson       gson created with {@link #createGsonBuilder()}
+     * @param jsonReader reader positioned at the nodes array
+     * @param nodes      list the nodes are added to
+     */
+    private static void readNodes(@NonNull final Gson gson, @NonNull final JsonReader jsonReader, @NonNull final List<ProvisionedMeshNode> nodes) throws IOException {
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            final JsonElement nodeJson = gson.fromJson(jsonReader, JsonElement.class);
+            if (!isValidNodeObject(nodeJson))
+                throw new JsonSyntaxException("Invalid node at index " + nodes.size() +
+                        ", nodes must follow the Mesh Provisioning/Configuration Database format.");
+
+            //NodeDeserializer is registered for lists of nodes
+            final JsonArray jsonArray = new JsonArray();
+            jsonArray.add(nodeJson);
+            try {
+                final List<ProvisionedMeshNode> node = gson.fromJson(jsonArray, NODE_LIST);
+                nodes.addAll(node);
+            } catch (final IllegalStateException | NumberFormatException ex) {
+                throw new JsonSyntaxException("Invalid node at index " + nodes.size() + ": " + ex.getMessage(), ex);
+            }
+        }
+        jsonReader.endArray();
+    }
+
+    /**
+     * Validates a node by checking if it contains the mandatory fields
+     *
+     * @param node json
+     * @return true if valid and false otherwise
+     */
+    private static boolean isValidNodeObject(@NonNull final JsonElement node) {
+        if (!node.isJsonObject())
+            return false;
+
+        final JsonObject nodeObject = node.getAsJsonObject();
+        for (String property : REQUIRED_NODE_PROPERTIES) {
+            if (!nodeObject.has(property))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes a mesh network as a Mesh Provisioning/Configuration Database json document.
+     * <p>
+     * The document is the one produced by {@link MeshNetworkDeserializer} but is streamed to the writer, serializing one node at a time
+     * instead of building the json tree of the whole network.
+     * </p>
+     *
+     * @param gson    gson created with {@link #createGsonBuilder()}
+     * @param network mesh network
+     * @param writer  writer of the json document, flushed but not closed by this method
+     * @throws IOException if writing the document fails
+     */
+    static void writeMeshNetwork(@NonNull final Gson gson, @NonNull final MeshNetwork network, @NonNull final Writer writer) throws IOException {
+        final JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        jsonWriter.beginObject();
+        jsonWriter.name("$schema").value(network.getSchema());
+        jsonWriter.name("id").value(network.getId());
+        jsonWriter.name("version").value(network.getVersion());
+        jsonWriter.name("meshUUID").value(network.getMeshUUID());
+        jsonWriter.name("meshName").value(network.getMeshName());
+        jsonWriter.name("unicastAddress").value(MeshParserUtils.bytesToHex(MeshParserUtils.intToBytes(network.getProvisionerAddress()), false));
+        jsonWriter.name("timestamp").value(Long.toString(network.getTimestamp(), 16));
+        jsonWriter.name("provisioners");
+        gson.toJson(network.getProvisioners(), new TypeToken<List<Provisioner>>() {
+        }.getType(), jsonWriter);
+        jsonWriter.name("netKeys");
+        gson.toJson(network.getNetKeys(), new TypeToken<List<NetworkKey>>() {
+        }.getType(), jsonWriter);
+        jsonWriter.name("appKeys");
+        gson.toJson(network.getAppKeys(), new TypeToken<List<ApplicationKey>>() {
+        }.getType(), jsonWriter);
+
+        //Optional properties
+        if (!network.getNodes().isEmpty()) {
+            jsonWriter.name("nodes");
+            jsonWriter.beginArray();
+            for (ProvisionedMeshNode node : network.getNodes()) {
+                final JsonArray jsonArray = gson.toJsonTree(Collections.singletonList(node), NODE_LIST).getAsJsonArray();
+                gson.toJson(jsonArray.get(0), jsonWriter);
+            }
+            jsonWriter.endArray();
+        }
+
+        //Optional properties
+        if (!network.getGroups().isEmpty()) {
+            jsonWriter.name("groups");
+            gson.toJson(network.getGroups(), new TypeToken<List<Group>>() {
+            }.getType(), jsonWriter);
+        }
+
+        //Optional properties
+        if (!network.getScenes().isEmpty()) {
+            jsonWriter.name("scenes");
+            gson.toJson(network.getScenes(), new TypeToken<List<Scene>>() {
+            }.getType(), jsonWriter);
+        }
+        jsonWriter.endObject();
+        jsonWriter.flush();
+    }
+
     /**
      * AsyncTask that reads and import a mesh network from the Mesh Provisioning/Configuration Database Json file
      */
@@ -136,75 +337,49 @@ class NetworkImportExportUtils {
          * Imports the network from the Mesh Provisioning/Configuration Database json file
          */
         private void importNetwork() {
+            Reader reader = null;
             try {
-
-                Type netKeyList = new TypeToken<List<NetworkKey>>() {
-                }.getType();
-                Type appKeyList = new TypeToken<List<ApplicationKey>>() {
-                }.getType();
-                Type allocatedUnicastRange = new TypeToken<List<AllocatedUnicastRange>>() {
-                }.getType();
-                Type allocatedGroupRange = new TypeToken<List<AllocatedGroupRange>>() {
-                }.getType();
-                Type allocatedSceneRange = new TypeToken<List<AllocatedSceneRange>>() {
-                }.getType();
-                Type provisionerList = new TypeToken<List<Provisioner>>() {
-                }.getType();
-                Type nodeList = new TypeToken<List<ProvisionedMeshNode>>() {
-                }.getType();
-                Type meshModelList = new TypeToken<List<MeshModel>>() {
-                }.getType();
-                Type elementList = new TypeToken<List<Element>>() {
-                }.getType();
-
-                final GsonBuilder gsonBuilder = new GsonBuilder();
-                gsonBuilder.registerTypeAdapter(MeshNetwork.class, new MeshNetworkDeserializer());
-                gsonBuilder.registerTypeAdapter(netKeyList, new NetKeyDeserializer());
-                gsonBuilder.registerTypeAdapter(appKeyList, new AppKeyDeserializer());
-                gsonBuilder.registerTypeAdapter(provisionerList, new ProvisionerDeserializer());
-                gsonBuilder.registerTypeAdapter(allocatedUnicastRange, new AllocatedUnicastRangeDeserializer());
-                gsonBuilder.registerTypeAdapter(allocatedGroupRange, new AllocatedGroupRangeDeserializer());
-                gsonBuilder.registerTypeAdapter(allocatedSceneRange, new AllocatedSceneRangeDeserializer());
-                gsonBuilder.registerTypeAdapter(nodeList, new NodeDeserializer());
-                gsonBuilder.registerTypeAdapter(elementList, new InternalElementListDeserializer());
-                gsonBuilder.registerTypeAdapter(meshModelList, new MeshModelListDeserializer());
-                final Gson gson = gsonBuilder.create();
-
-                final String json = this.networkJson != null ? this.networkJson : readJsonStringFromUri();
-				Log.d(TAG, "Importing: " + json);
-                final MeshNetwork network = gson.fromJson(json, MeshNetwork.class);
-                if (network != null) {
-                    this.network = network;
+                final Gson gson = createGsonBuilder().create();
+                reader = this.networkJson != null ? new StringReader(this.networkJson) : openUri();
+                if (reader != null) {
+                    this.network = readMeshNetwork(gson, reader);
+                } else {
+                    error = "Unable to open " + uri;
+                    Log.e(TAG, " " + error);
                 }
-            } catch (final com.google.gson.JsonSyntaxException ex) {
+            } catch (final JsonParseException ex) {
                 error = ex.getMessage();
                 Log.e(TAG, " " + error);
             } catch (final IOException e) {
                 error = e.getMessage();
                 Log.e(TAG, " " + error);
+            } finally {
+                if (reader != null) {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
             }
         }
 
         /**
-         * Reads the complete json string from URI
+         * Opens a reader of the json file, the file is streamed instead of being read into a string
          *
-         * @return json string
+         * @return reader or null if the content provider could not open the file
          * @throws IOException in case of failure
          */
-        private String readJsonStringFromUri() throws IOException {
-            final StringBuilder stringBuilder = new StringBuilder();
-            final InputStream inputStream = context.get().getContentResolver().openInputStream(uri);
-            if (inputStream != null) {
-                final BufferedReader reader = new BufferedReader(new InputStreamReader(
-                        inputStream));
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    stringBuilder.append(line);
-                }
-                reader.close();
-                inputStream.close();
-            }
-            return stringBuilder.toString();
+        @Nullable
+        private Reader openUri() throws IOException {
+            final Context context = this.context.get();
+            if (context == null)
+                throw new IOException("Context is no longer available");
+
+            final InputStream inputStream = context.getContentResolver().openInputStream(uri);
+            if (inputStream == null)
+                return null;
+            return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
         }
     }
 
@@ -262,57 +437,22 @@ class NetworkImportExportUtils {
          * Exports the network from the Mesh Provisioning/Configuration Database json file
          */
         private boolean exportNetwork() {
-            BufferedWriter br = null;
+            Writer writer = null;
             try {
-
-                Type netKeyList = new TypeToken<List<NetworkKey>>() {
-                }.getType();
-                Type appKeyList = new TypeToken<List<ApplicationKey>>() {
-                }.getType();
-                Type allocatedUnicastRange = new TypeToken<List<AllocatedUnicastRange>>() {
-                }.getType();
-                Type allocatedGroupRange = new TypeToken<List<AllocatedGroupRange>>() {
-                }.getType();
-                Type allocatedSceneRange = new TypeToken<List<AllocatedSceneRange>>() {
-                }.getType();
-                Type provisionerList = new TypeToken<List<Provisioner>>() {
-                }.getType();
-                Type nodeList = new TypeToken<List<ProvisionedMeshNode>>() {
-                }.getType();
-                Type meshModelList = new TypeToken<List<MeshModel>>() {
-                }.getType();
-                Type elementList = new TypeToken<List<Element>>() {
-                }.getType();
-
-                final GsonBuilder gsonBuilder = new GsonBuilder();
-
-                gsonBuilder.registerTypeAdapter(netKeyList, new NetKeyDeserializer());
-                gsonBuilder.registerTypeAdapter(appKeyList, new AppKeyDeserializer());
-                gsonBuilder.registerTypeAdapter(provisionerList, new ProvisionerDeserializer());
-                gsonBuilder.registerTypeAdapter(allocatedUnicastRange, new AllocatedUnicastRangeDeserializer());
-                gsonBuilder.registerTypeAdapter(allocatedGroupRange, new AllocatedGroupRangeDeserializer());
-                gsonBuilder.registerTypeAdapter(allocatedSceneRange, new AllocatedSceneRangeDeserializer());
-                gsonBuilder.registerTypeAdapter(nodeList, new NodeDeserializer());
-                gsonBuilder.registerTypeAdapter(elementList, new InternalElementListDeserializer());
-                gsonBuilder.registerTypeAdapter(meshModelList, new MeshModelListDeserializer());
-                gsonBuilder.registerTypeAdapter(MeshNetwork.class, new MeshNetworkDeserializer());
-
-                final Gson gson = gsonBuilder.create();
+                final Gson gson = createGsonBuilder().create();
 
                 if (this.path != null) {
-                    gsonBuilder.setPrettyPrinting();
-                    final String networkJson = gson.toJson(network);
                     final String fileName = network.getMeshUUID() + ".json";
                     final File f = new File(path, fileName);
-                    br = new BufferedWriter(new FileWriter(f));
-                    br.write(networkJson);
-                    br.flush();
-                    br.close();
+                    writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8));
+                    writeMeshNetwork(gson, network, writer);
                 } else {
-                    this.networkJson = gson.toJson(network);
+                    final StringWriter stringWriter = new StringWriter();
+                    writeMeshNetwork(gson, network, stringWriter);
+                    this.networkJson = stringWriter.toString();
                 }
                 return true;
-            } catch (final com.google.gson.JsonSyntaxException ex) {
+            } catch (final JsonParseException ex) {
                 error = ex.getMessage();
                 Log.e(TAG, " " + error);
                 return false;
@@ -321,9 +461,9 @@ class NetworkImportExportUtils {
                 Log.e(TAG, " " + error);
                 return false;
             } finally {
-                if (br != null) {
+                if (writer != null) {
                     try {
-                        br.close();
+                        writer.close();
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
@@ -0,0 +1,137 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+/**
+ * Index of the credentials derived from the network keys of a mesh network by NID.
+ * <p>
+ * A received network pdu only carries the 7-bit NID of the key it was sent with, so the pdu is decrypted with the credentials of the
+ * keys with that NID instead of trying every key of the network. During a key refresh both the old and the new key of a network key
+ * are indexed. The credentials are taken from the {@link MeshKeyCache} and the index is rebuilt lazily after a key was added, removed,
+ * changed or moved to another key refresh phase.
+ * </p>
+ */
+final class NetworkKeyIndex {
+
+    private static final int NID_COUNT = 0x80;
+    private static final SecureUtils.K2Output[] EMPTY = new SecureUtils.K2Output[0];
+
+    private final BaseMeshNetwork mMeshNetwork;
+    private final SecureUtils.K2Output[][] mCredentials = new SecureUtils.K2Output[NID_COUNT][];
+    private NetworkKey[] mNetworkKeys = new NetworkKey[0];
+    private int[] mPhases = new int[0];
+    private SecureUtils.K2Output[] mK2Outputs = EMPTY;
+    private SecureUtils.K2Output[] mOldK2Outputs = EMPTY;
+    private List<NetworkKey> mIndexedList;
+
+    NetworkKeyIndex(@NonNull final BaseMeshNetwork meshNetwork) {
+        this.mMeshNetwork = meshNetwork;
+    }
+
+    /**
+     * Returns the credentials of the network keys with the given NID
+     *
+     * @param nid network identifier of a received network pdu
+     * @return credentials, or an empty array if no key has the NID
+     */
+    @NonNull
+    synchronized SecureUtils.K2Output[] get(final int nid) {
+        validateIndex();
+        final SecureUtils.K2Output[] credentials = mCredentials[nid & 0x7F];
+        return credentials == null ? EMPTY : credentials;
+    }
+
+    /**
+     * Returns the credentials a message is sent with on the subnet of the network key. The old key is used until the new key is
+     * distributed to all nodes, i.e. during the first phase of a key refresh.
+     *
+     * @param networkKey network key
+     */
+    @NonNull
+    SecureUtils.K2Output getTransmitCredentials(@NonNull final NetworkKey networkKey) {
+        final MeshKeyCache keyCache = mMeshNetwork.mKeyCache;
+        if (networkKey.getPhase() == NetworkKey.PHASE_1) {
+            final SecureUtils.K2Output oldK2Output = keyCache.getOldK2Output(networkKey);
+            if (oldK2Output != null) {
+                return oldK2Output;
+            }
+        }
+        return keyCache.getK2Output(networkKey);
+    }
+
+    private void validateIndex() {
+        if (isIndexValid())
+            return;
+
+        final List<NetworkKey> networkKeys = mMeshNetwork.netKeys;
+        final MeshKeyCache keyCache = mMeshNetwork.mKeyCache;
+        final int count = networkKeys.size();
+        mNetworkKeys = networkKeys.toArray(new NetworkKey[0]);
+        mPhases = new int[count];
+        mK2Outputs = new SecureUtils.K2Output[count];
+        mOldK2Outputs = new SecureUtils.K2Output[count];
+        final List<List<SecureUtils.K2Output>> credentials = new ArrayList<>(NID_COUNT);
+        for (int i = 0; i < NID_COUNT; i++) {
+            credentials.add(null);
+        }
+        for (int i = 0; i < count; i++) {
+            final NetworkKey networkKey = mNetworkKeys[i];
+            mPhases[i] = networkKey.getPhase();
+            mK2Outputs[i] = keyCache.getK2Output(networkKey);
+            mOldK2Outputs[i] = getReceivableOldK2Output(keyCache, networkKey);
+            add(credentials, mK2Outputs[i]);
+            if (mOldK2Outputs[i] != null) {
+                add(credentials, mOldK2Outputs[i]);
+            }
+        }
+        for (int nid = 0; nid < NID_COUNT; nid++) {
+            final List<SecureUtils.K2Output> k2Outputs = credentials.get(nid);
+            mCredentials[nid] = k2Outputs == null ? null : k2Outputs.toArray(EMPTY);
+        }
+        mIndexedList = networkKeys;
+    }
+
+    private boolean isIndexValid() {
+        final List<NetworkKey> networkKeys = mMeshNetwork.netKeys;
+        if (networkKeys != mIndexedList || networkKeys.size() != mNetworkKeys.length)
+            return false;
+
+        //The key cache derives new credentials when a key was changed, so comparing references is sufficient
+        final MeshKeyCache keyCache = mMeshNetwork.mKeyCache;
+        for (int i = 0; i < mNetworkKeys.length; i++) {
+            final NetworkKey networkKey = networkKeys.get(i);
+            if (networkKey != mNetworkKeys[i] || networkKey.getPhase() != mPhases[i] ||
+                    keyCache.getK2Output(networkKey) != mK2Outputs[i] ||
+                    getReceivableOldK2Output(keyCache, networkKey) != mOldK2Outputs[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the credentials of the old key, which are accepted on receipt until the key refresh is completed
+     */
+    @Nullable
+    private static SecureUtils.K2Output getReceivableOldK2Output(@NonNull final MeshKeyCache keyCache, @NonNull final NetworkKey networkKey) {
+        if (networkKey.getPhase() == NetworkKey.PHASE_0)
+            return null;
+        return keyCache.getOldK2Output(networkKey);
+    }
+
+    private static void add(@NonNull final List<List<SecureUtils.K2Output>> credentials, @NonNull final SecureUtils.K2Output k2Output) {
+        final int nid = k2Output.getNid() & 0x7F;
+        List<SecureUtils.K2Output> k2Outputs = credentials.get(nid);
+        if (k2Outputs == null) {
+            k2Outputs = new ArrayList<>(1);
+            credentials.set(nid, k2Outputs);
+        }
+        k2Outputs.add(k2Output);
+    }
+}
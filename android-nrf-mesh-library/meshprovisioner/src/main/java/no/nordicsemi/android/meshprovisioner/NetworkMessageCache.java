@@ -0,0 +1,193 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Network message cache, used to discard copies of a network pdu that was already received before any cryptographic operation.
+ * <p>
+ * In a dense network the proxy node forwards the same network pdu several times as it is relayed by its neighbours. A pdu is
+ * identified by its IVI, NID and obfuscated network header together with the last 8 bytes, which contain the NetMIC, so two copies
+ * are only matched if they are byte-identical in those fields. Copies relayed with a different TTL differ in their obfuscated header
+ * and NetMIC, those are discarded by the {@link ReplayProtectionList} after the header has been deobfuscated.
+ * </p>
+ * <p>
+ * The entries are kept in a ring of a fixed capacity, replacing the oldest entry when full, and are indexed by a hash of the two
+ * 64-bit halves of the identifying bytes. Entries older than the lifetime of the cache are not matched.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class NetworkMessageCache {
+
+    static final int DEFAULT_CAPACITY = 128;
+    static final long DEFAULT_LIFETIME = 10 * 1000;
+    //IVI/NID and the obfuscated header
+    private static final int HEADER_OFFSET = 1;
+    private static final int HEADER_LENGTH = 7;
+    private static final int TAIL_LENGTH = 8;
+    private static final int MIN_PDU_LENGTH = 1 + HEADER_LENGTH + TAIL_LENGTH;
+
+    /**
+     * Source of the current time
+     */
+    interface Clock {
+
+        /**
+         * Returns the current time in milliseconds
+         */
+        long currentTimeMillis();
+    }
+
+    private final Clock mClock;
+    private final long mLifetime;
+    private final int mMask;
+    private final long[] mHeaders;
+    private final long[] mTails;
+    private final long[] mTimestamps;
+    private final int[] mBuckets;
+    private final int[] mChain;
+    private int mNext;
+    private int mSize;
+    private long mHitCount;
+    private long mMissCount;
+
+    NetworkMessageCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_LIFETIME, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a network message cache
+     *
+     * @param capacity maximum number of pdus remembered, rounded up to a power of two
+     * @param lifetime time in milliseconds a pdu is remembered
+     * @param clock    source of the current time
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    NetworkMessageCache(final int capacity, final long lifetime, @NonNull final Clock clock) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mClock = clock;
+        this.mLifetime = lifetime;
+        this.mMask = size - 1;
+        this.mHeaders = new long[size];
+        this.mTails = new long[size];
+        this.mTimestamps = new long[size];
+        this.mChain = new int[size];
+        this.mBuckets = new int[size * 2];
+        Arrays.fill(mBuckets, -1);
+    }
+
+    /**
+     * Checks if the network pdu was received within the lifetime of the cache and remembers it if it was not
+     *
+     * @param pdu network pdu including the pdu type
+     * @return true if the pdu is a copy of a pdu already received and must be discarded
+     */
+    public synchronized boolean isDuplicate(@NonNull final byte[] pdu) {
+        if (pdu.length < MIN_PDU_LENGTH)
+            return false;
+
+        final long header = readLong(pdu, HEADER_OFFSET, HEADER_LENGTH);
+        final long tail = readLong(pdu, pdu.length - TAIL_LENGTH, TAIL_LENGTH);
+        final long now = mClock.currentTimeMillis();
+        final int bucket = bucket(header, tail);
+        for (int entry = mBuckets[bucket]; entry != -1; entry = mChain[entry]) {
+            if (mHeaders[entry] == header && mTails[entry] == tail) {
+                if (now - mTimestamps[entry] <= mLifetime) {
+                    mHitCount++;
+                    return true;
+                }
+                //Expired, the pdu is accepted again and remembered from now on
+                mTimestamps[entry] = now;
+                mMissCount++;
+                return false;
+            }
+        }
+
+        mMissCount++;
+        insert(bucket, header, tail, now);
+        return false;
+    }
+
+    /**
+     * Returns the number of pdus discarded as duplicates
+     */
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Returns the number of pdus checked that were not duplicates
+     */
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Returns the number of pdus remembered, including the ones that have expired but were not replaced yet
+     */
+    public synchronized int size() {
+        return mSize;
+    }
+
+    /**
+     * Resets the hit and miss counters
+     */
+    public synchronized void resetCounters() {
+        mHitCount = 0;
+        mMissCount = 0;
+    }
+
+    /**
+     * Removes all pdus
+     */
+    public synchronized void clear() {
+        Arrays.fill(mBuckets, -1);
+        mNext = 0;
+        mSize = 0;
+    }
+
+    private void insert(final int bucket, final long header, final long tail, final long now) {
+        final int entry = mNext;
+        if (mSize > mMask) {
+            unlink(entry);
+        } else {
+            mSize++;
+        }
+        mHeaders[entry] = header;
+        mTails[entry] = tail;
+        mTimestamps[entry] = now;
+        mChain[entry] = mBuckets[bucket];
+        mBuckets[bucket] = entry;
+        mNext = (entry + 1) & mMask;
+    }
+
+    private void unlink(final int entry) {
+        final int bucket = bucket(mHeaders[entry], mTails[entry]);
+        if (mBuckets[bucket] == entry) {
+            mBuckets[bucket] = mChain[entry];
+            return;
+        }
+        for (int previous = mBuckets[bucket]; previous != -1; previous = mChain[previous]) {
+            if (mChain[previous] == entry) {
+                mChain[previous] = mChain[entry];
+                return;
+            }
+        }
+    }
+
+    private int bucket(final long header, final long tail) {
+        final long hash = (header ^ Long.rotateLeft(tail, 29)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 40) & (mBuckets.length - 1);
+    }
+
+    private static long readLong(@NonNull final byte[] data, final int offset, final int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
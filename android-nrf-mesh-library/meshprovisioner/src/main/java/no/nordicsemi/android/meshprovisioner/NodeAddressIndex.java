@@ -0,0 +1,127 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+
+/**
+ * Index of the unicast address ranges occupied by the provisioned nodes of a mesh network.
+ * <p>
+ * Each node occupies the range from its primary unicast address to the address of its last element. The ranges are kept in sorted
+ * primitive arrays so that resolving an address to a node is a binary search instead of a walk through every node and its elements.
+ * The highest end address up to each position is kept as well, so that a range overlapping the ranges after it, i.e. in an imported
+ * network, is still found.
+ * The index is rebuilt lazily whenever it was invalidated or when the list of nodes it was built from has been replaced.
+ * </p>
+ */
+final class NodeAddressIndex {
+
+    private static final int[] EMPTY = new int[0];
+    private static final Comparator<ProvisionedMeshNode> UNICAST_COMPARATOR =
+            (node1, node2) -> Integer.compare(node1.getUnicastAddress(), node2.getUnicastAddress());
+
+    private int[] mStartAddresses = EMPTY;
+    private int[] mEndAddresses = EMPTY;
+    private int[] mMaxEndAddresses = EMPTY;
+    private ProvisionedMeshNode[] mNodes = new ProvisionedMeshNode[0];
+    private List<ProvisionedMeshNode> mIndexedList;
+    private int mIndexedSize;
+    private boolean mInvalidated = true;
+
+    /**
+     * Marks the index as stale, it will be rebuilt on the next lookup
+     */
+    synchronized void invalidate() {
+        mInvalidated = true;
+    }
+
+    /**
+     * Checks if the address range of a node has changed since the index was built, i.e. after the composition data was received,
+     * and invalidates the index if so.
+     *
+     * @param node node that was updated
+     */
+    synchronized void onNodeUpdated(@NonNull final ProvisionedMeshNode node) {
+        if (mInvalidated)
+            return;
+
+        final int position = Arrays.binarySearch(mStartAddresses, node.getUnicastAddress());
+        if (position < 0 || mNodes[position] != node || mEndAddresses[position] != getEndAddress(node)) {
+            mInvalidated = true;
+        }
+    }
+
+    /**
+     * Returns the node occupying the given unicast address
+     *
+     * @param nodes   current list of nodes in the network
+     * @param address unicast address
+     * @return node or null if no node occupies the address
+     */
+    @Nullable
+    synchronized ProvisionedMeshNode get(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        if (mInvalidated || nodes != mIndexedList || nodes.size() != mIndexedSize) {
+            rebuild(nodes);
+        }
+
+        final ProvisionedMeshNode node = find(address);
+        if (node != null && (address < node.getUnicastAddress() || address > getEndAddress(node))) {
+            //The node was changed without the index being notified, rebuild once and look up again
+            rebuild(nodes);
+            return find(address);
+        }
+        return node;
+    }
+
+    private ProvisionedMeshNode find(final int address) {
+        //Last node starting at or below the address
+        int position = -1;
+        int low = 0;
+        int high = mStartAddresses.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (mStartAddresses[mid] <= address) {
+                position = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        //Ranges of imported nodes may overlap, a node starting further down may still cover the address
+        for (int i = position; i >= 0 && mMaxEndAddresses[i] >= address; i--) {
+            if (mEndAddresses[i] >= address)
+                return mNodes[i];
+        }
+        return null;
+    }
+
+    private void rebuild(@NonNull final List<ProvisionedMeshNode> nodes) {
+        final ProvisionedMeshNode[] sortedNodes = nodes.toArray(new ProvisionedMeshNode[0]);
+        Arrays.sort(sortedNodes, UNICAST_COMPARATOR);
+        final int[] startAddresses = new int[sortedNodes.length];
+        final int[] endAddresses = new int[sortedNodes.length];
+        final int[] maxEndAddresses = new int[sortedNodes.length];
+        for (int i = 0; i < sortedNodes.length; i++) {
+            startAddresses[i] = sortedNodes[i].getUnicastAddress();
+            endAddresses[i] = getEndAddress(sortedNodes[i]);
+            maxEndAddresses[i] = i == 0 ? endAddresses[i] : Math.max(maxEndAddresses[i - 1], endAddresses[i]);
+        }
+        mStartAddresses = startAddresses;
+        mEndAddresses = endAddresses;
+        mMaxEndAddresses = maxEndAddresses;
+        mNodes = sortedNodes;
+        mIndexedList = nodes;
+        mIndexedSize = nodes.size();
+        mInvalidated = false;
+    }
+
+    private static int getEndAddress(@NonNull final ProvisionedMeshNode node) {
+        //A node without any known elements still occupies its primary address
+        return Math.max(node.getUnicastAddress(), node.getLastUnicastAddress());
+    }
+}
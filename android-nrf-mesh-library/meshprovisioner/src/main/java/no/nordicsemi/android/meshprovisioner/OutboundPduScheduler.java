@@ -0,0 +1,503 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Queue of the mesh pdus waiting to be written to the proxy nodes.
+ * <p>
+ * Pdus are queued by priority class: control pdus such as segment acknowledgements and proxy configuration messages are written
+ * before interactive messages, which are written before bulk transfers such as segmented messages and BLOB chunks. A burst of bulk
+ * segments to one node therefore no longer delays a light command sent to another node after it. Pdus of the same priority are
+ * written in the order they were queued.
+ * </p>
+ * <p>
+ * The sequence number of a pdu is assigned and the pdu encrypted before it is queued. The replay protection of a node keeps the last
+ * sequence number received from each source, whichever of its elements a pdu was sent to, and discards a pdu overtaken by a pdu with a
+ * higher sequence number. Pdus that may be received by the same node are therefore always written in the order they were queued,
+ * whatever their priority:
+ * <ul>
+ * <li>Pdus to the elements of the same node are written in order. Pdus to different nodes may overtake each other.</li>
+ * <li>A pdu to a group or virtual address may be received by any node, it is not written before all pdus queued before it and no pdu
+ * queued after it is written before it.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Each connection accepts a limited number of pdus at a time, the write window, and a further pdu is only written to it once a previous
+ * write has completed, see {@link #onPduWritten(Object)}. A write that is not reported complete within the write timeout is
+ * considered lost. Writes to a connection may also be paced by a minimum interval between the start of two writes. A connection whose
+ * window is full or whose interval has not elapsed does not block the pdus written to other connections.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OutboundPduScheduler {
+
+    private static final String TAG = OutboundPduScheduler.class.getSimpleName();
+
+    /**
+     * Segment acknowledgements and proxy configuration messages
+     */
+    public static final int PRIORITY_CONTROL = 0;
+    /**
+     * Unsegmented access messages, i.e. commands sent by the user
+     */
+    public static final int PRIORITY_INTERACTIVE = 1;
+    /**
+     * Segmented access messages and BLOB transfers
+     */
+    public static final int PRIORITY_BULK = 2;
+    private static final int PRIORITY_COUNT = 3;
+
+    static final int DEFAULT_WRITE_WINDOW = 1;
+    static final long DEFAULT_WRITE_TIMEOUT = 1000; //ms
+
+    /**
+     * Writes the pdus to the connections
+     */
+    interface PduWriter {
+
+        /**
+         * Returns the connection a pdu to the destination address is written to
+         *
+         * @param dst destination address
+         * @return connection or null if there is no open connection
+         */
+        @Nullable
+        Object getConnection(final int dst);
+
+        /**
+         * Returns the address of the node a unicast address belongs to
+         *
+         * @param dst unicast address of an element
+         * @return unicast address of the primary element of the node, or dst if the node is not known
+         */
+        int getNodeAddress(final int dst);
+
+        /**
+         * Writes a pdu
+         *
+         * @param connection connection returned by {@link #getConnection(int)}
+         * @param dst        destination address
+         * @param pdu        pdu without the SAR bits
+         * @return true if the pdu was written
+         */
+        boolean write(@NonNull final Object connection, final int dst, @NonNull final byte[] pdu);
+    }
+
+    private final MeshScheduler mScheduler;
+    private final PduWriter mWriter;
+    private final NetworkMessageCache.Clock mClock;
+    private final int[] mQueueDepths = new int[PRIORITY_COUNT];
+    //Pdus to each node, and pdus to group and virtual addresses, in the order they were queued
+    private final Map<Integer, ArrayDeque<QueuedPdu>> mNodeQueues = new HashMap<>();
+    private final ArrayDeque<QueuedPdu> mGroupQueue = new ArrayDeque<>();
+    //All pdus in the order they were queued, dequeued pdus are removed once they reach the head
+    private final ArrayDeque<QueuedPdu> mPending = new ArrayDeque<>();
+    //First pdu of each of the queues above, i.e. the pdus that may be written next, by priority and then in the order they were queued
+    private final TreeSet<QueuedPdu> mHeads = new TreeSet<>(new Comparator<QueuedPdu>() {
+        @Override
+        public int compare(final QueuedPdu pdu1, final QueuedPdu pdu2) {
+            if (pdu1.mPriority != pdu2.mPriority)
+                return pdu1.mPriority - pdu2.mPriority;
+            return Long.compare(pdu1.mOrder, pdu2.mOrder);
+        }
+    });
+    //Connections that can not be written to during the current dispatch
+    private final Set<Object> mBlocked = new HashSet<>();
+    private final Map<Object, Connection> mConnections = new HashMap<>();
+    private final Map<Object, Long> mPacingIntervals = new HashMap<>();
+    private long mNextOrder;
+    private int mWriteWindow = DEFAULT_WRITE_WINDOW;
+    private long mWriteTimeout = DEFAULT_WRITE_TIMEOUT;
+    private long mPacingInterval;
+    private boolean mDispatching;
+    private boolean mDispatchScheduled;
+    private int mMaxQueueDepth;
+    private long mWrittenCount;
+    private long mDroppedCount;
+    private long mWriteTimeoutCount;
+
+    private final Runnable mDispatchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mDispatchScheduled = false;
+            dispatch();
+        }
+    };
+
+    OutboundPduScheduler(@NonNull final MeshScheduler scheduler, @NonNull final PduWriter writer) {
+        this(scheduler, writer, System::currentTimeMillis);
+    }
+
+    OutboundPduScheduler(@NonNull final MeshScheduler scheduler, @NonNull final PduWriter writer, @NonNull final NetworkMessageCache.Clock clock) {
+        this.mScheduler = scheduler;
+        this.mWriter = writer;
+        this.mClock = clock;
+    }
+
+    /**
+     * Sets the number of pdus that may be written to a connection before the first of them has been reported complete
+     *
+     * @param writeWindow number of pdus, must be at least 1
+     */
+    public void setWriteWindow(final int writeWindow) {
+        if (writeWindow < 1)
+            throw new IllegalArgumentException("Write window must be at least 1");
+        mWriteWindow = writeWindow;
+        dispatch();
+    }
+
+    /**
+     * Sets the time after which a write that was not reported complete is considered lost
+     *
+     * @param writeTimeout timeout in milliseconds
+     */
+    public void setWriteTimeout(final long writeTimeout) {
+        if (writeTimeout <= 0)
+            throw new IllegalArgumentException("Write timeout must be greater than 0");
+        mWriteTimeout = writeTimeout;
+    }
+
+    /**
+     * Sets the minimum interval between the start of two writes to a connection, unless set for the connection itself
+     *
+     * @param pacingInterval interval in milliseconds, 0 to write as soon as the write window allows
+     */
+    public void setPacingInterval(final long pacingInterval) {
+        if (pacingInterval < 0)
+            throw new IllegalArgumentException("Pacing interval must not be negative");
+        mPacingInterval = pacingInterval;
+        dispatch();
+    }
+
+    /**
+     * Sets the minimum interval between the start of two writes to a bearer
+     *
+     * @param bearer         bearer
+     * @param pacingInterval interval in milliseconds, 0 to write as soon as the write window allows
+     */
+    public void setPacingInterval(@NonNull final MeshBearer bearer, final long pacingInterval) {
+        if (pacingInterval < 0)
+            throw new IllegalArgumentException("Pacing interval must not be negative");
+        mPacingIntervals.put(bearer, pacingInterval);
+        dispatch();
+    }
+
+    /**
+     * Returns the number of pdus waiting to be written
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (int queueDepth : mQueueDepths) {
+            depth += queueDepth;
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of pdus of a priority class waiting to be written
+     *
+     * @param priority {@link #PRIORITY_CONTROL}, {@link #PRIORITY_INTERACTIVE} or {@link #PRIORITY_BULK}
+     */
+    public int getQueueDepth(final int priority) {
+        return mQueueDepths[checkPriority(priority)];
+    }
+
+    /**
+     * Returns the highest number of pdus that were waiting to be written at the same time
+     */
+    public int getMaxQueueDepth() {
+        return mMaxQueueDepth;
+    }
+
+    /**
+     * Returns the number of pdus written
+     */
+    public long getWrittenCount() {
+        return mWrittenCount;
+    }
+
+    /**
+     * Returns the number of pdus discarded because there was no open connection or the connection was unable to write them
+     */
+    public long getDroppedCount() {
+        return mDroppedCount;
+    }
+
+    /**
+     * Returns the number of writes that were not reported complete within the write timeout
+     */
+    public long getWriteTimeoutCount() {
+        return mWriteTimeoutCount;
+    }
+
+    /**
+     * Resets the maximum queue depth and the counters
+     */
+    public void resetCounters() {
+        mMaxQueueDepth = getQueueDepth();
+        mWrittenCount = 0;
+        mDroppedCount = 0;
+        mWriteTimeoutCount = 0;
+    }
+
+    /**
+     * Queues a pdu and writes it as soon as its connection accepts it
+     *
+     * @param dst      destination address
+     * @param pdu      pdu without the SAR bits
+     * @param priority {@link #PRIORITY_CONTROL}, {@link #PRIORITY_INTERACTIVE} or {@link #PRIORITY_BULK}
+     */
+    void enqueue(final int dst, @NonNull final byte[] pdu, final int priority) {
+        checkPriority(priority);
+        final QueuedPdu queuedPdu;
+        final ArrayDeque<QueuedPdu> queue;
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            final int node = mWriter.getNodeAddress(dst);
+            queuedPdu = new QueuedPdu(dst, node, pdu, priority, mNextOrder++);
+            ArrayDeque<QueuedPdu> nodeQueue = mNodeQueues.get(node);
+            if (nodeQueue == null) {
+                nodeQueue = new ArrayDeque<>();
+                mNodeQueues.put(node, nodeQueue);
+            }
+            queue = nodeQueue;
+        } else {
+            queuedPdu = new QueuedPdu(dst, MeshAddress.UNASSIGNED_ADDRESS, pdu, priority, mNextOrder++);
+            queue = mGroupQueue;
+        }
+        if (queue.isEmpty()) {
+            mHeads.add(queuedPdu);
+        }
+        queue.add(queuedPdu);
+        mPending.add(queuedPdu);
+        mQueueDepths[priority]++;
+        mMaxQueueDepth = Math.max(mMaxQueueDepth, getQueueDepth());
+        dispatch();
+    }
+
+    /**
+     * Notifies that a pdu has been written completely to a connection
+     *
+     * @param connection connection
+     */
+    void onPduWritten(@NonNull final Object connection) {
+        final Connection state = mConnections.get(connection);
+        if (state == null || state.mInFlight == 0)
+            return;
+
+        state.mInFlight--;
+        if (state.mInFlight == 0) {
+            mScheduler.removeCallbacks(state.mWriteTimeoutRunnable);
+        }
+        dispatch();
+    }
+
+    /**
+     * Forgets the writes in flight to a connection that was closed
+     *
+     * @param connection connection
+     */
+    void onConnectionClosed(@NonNull final Object connection) {
+        final Connection state = mConnections.remove(connection);
+        if (state != null) {
+            mScheduler.removeCallbacks(state.mWriteTimeoutRunnable);
+        }
+        mPacingIntervals.remove(connection);
+        dispatch();
+    }
+
+    /**
+     * Discards all queued pdus
+     */
+    void clear() {
+        mNodeQueues.clear();
+        mGroupQueue.clear();
+        mPending.clear();
+        mHeads.clear();
+        for (int i = 0; i < PRIORITY_COUNT; i++) {
+            mQueueDepths[i] = 0;
+        }
+    }
+
+    private void dispatch() {
+        //Writes completed synchronously while writing are picked up by the next pass
+        if (mDispatching)
+            return;
+
+        mDispatching = true;
+        try {
+            long nextDispatch = Long.MAX_VALUE;
+            final long now = mClock.currentTimeMillis();
+            //Only the connection written to changes state while dispatching, a connection found busy stays busy until the dispatch ends
+            mBlocked.clear();
+            boolean dequeued;
+            do {
+                dequeued = false;
+                for (QueuedPdu queuedPdu : mHeads) {
+                    if (!isInOrder(queuedPdu))
+                        continue;
+
+                    final Object connection = mWriter.getConnection(queuedPdu.mDst);
+                    if (connection == null) {
+                        MeshLogger.w(TAG, "No open connection, discarding pdu");
+                        dequeue(queuedPdu);
+                        mDroppedCount++;
+                        dequeued = true;
+                        break;
+                    }
+                    //Pdus to a connection that is not ready must not be overtaken by later pdus of the same priority
+                    if (mBlocked.contains(connection))
+                        continue;
+
+                    final Connection state = getConnection(connection);
+                    if (state.mInFlight >= mWriteWindow) {
+                        mBlocked.add(connection);
+                        continue;
+                    }
+                    final long readyTime = state.mLastWriteTime + getPacingInterval(connection);
+                    if (state.mWritten && readyTime > now) {
+                        nextDispatch = Math.min(nextDispatch, readyTime);
+                        mBlocked.add(connection);
+                        continue;
+                    }
+
+                    dequeue(queuedPdu);
+                    write(state, queuedPdu, now);
+                    dequeued = true;
+                    break;
+                }
+            } while (dequeued);
+
+            if (nextDispatch != Long.MAX_VALUE && !mDispatchScheduled) {
+                mDispatchScheduled = true;
+                mScheduler.postDelayed(mDispatchRunnable, nextDispatch - mClock.currentTimeMillis());
+            }
+        } finally {
+            mDispatching = false;
+        }
+    }
+
+    private void write(@NonNull final Connection state, @NonNull final QueuedPdu queuedPdu, final long now) {
+        state.mWritten = true;
+        state.mLastWriteTime = now;
+        if (!mWriter.write(state.mKey, queuedPdu.mDst, queuedPdu.mPdu)) {
+            mDroppedCount++;
+            return;
+        }
+        mWrittenCount++;
+        state.mInFlight++;
+        mScheduler.removeCallbacks(state.mWriteTimeoutRunnable);
+        mScheduler.postDelayed(state.mWriteTimeoutRunnable, mWriteTimeout);
+    }
+
+    /**
+     * Returns true if no pdu queued before the given head pdu may be received by the same node
+     *
+     * @param queuedPdu first pdu queued to a node or to the group and virtual addresses
+     */
+    private boolean isInOrder(@NonNull final QueuedPdu queuedPdu) {
+        if (queuedPdu.mNode == MeshAddress.UNASSIGNED_ADDRESS)
+            return mPending.peekFirst() == queuedPdu;
+
+        final QueuedPdu group = mGroupQueue.peekFirst();
+        return group == null || group.mOrder > queuedPdu.mOrder;
+    }
+
+    /**
+     * Removes a head pdu from its queue, the next pdu of the queue becomes the head
+     *
+     * @param queuedPdu first pdu queued to a node or to the group and virtual addresses
+     */
+    private void dequeue(@NonNull final QueuedPdu queuedPdu) {
+        final ArrayDeque<QueuedPdu> queue = queuedPdu.mNode == MeshAddress.UNASSIGNED_ADDRESS ? mGroupQueue : mNodeQueues.get(queuedPdu.mNode);
+        queue.pollFirst();
+        mHeads.remove(queuedPdu);
+        if (queue.isEmpty()) {
+            if (queue != mGroupQueue) {
+                mNodeQueues.remove(queuedPdu.mNode);
+            }
+        } else {
+            mHeads.add(queue.peekFirst());
+        }
+        queuedPdu.mDequeued = true;
+        while (!mPending.isEmpty() && mPending.peekFirst().mDequeued) {
+            mPending.pollFirst();
+        }
+        mQueueDepths[queuedPdu.mPriority]--;
+    }
+
+    @NonNull
+    private Connection getConnection(@NonNull final Object connection) {
+        Connection state = mConnections.get(connection);
+        if (state == null) {
+            state = new Connection(connection);
+            mConnections.put(connection, state);
+        }
+        return state;
+    }
+
+    private long getPacingInterval(@NonNull final Object connection) {
+        final Long pacingInterval = mPacingIntervals.get(connection);
+        return pacingInterval == null ? mPacingInterval : pacingInterval;
+    }
+
+    private static int checkPriority(final int priority) {
+        if (priority < 0 || priority >= PRIORITY_COUNT)
+            throw new IllegalArgumentException("Invalid priority: " + priority);
+        return priority;
+    }
+
+    /**
+     * Pdu waiting to be written
+     */
+    private static final class QueuedPdu {
+        private final int mDst;
+        private final int mNode;
+        private final byte[] mPdu;
+        private final int mPriority;
+        private final long mOrder;
+        private boolean mDequeued;
+
+        QueuedPdu(final int dst, final int node, @NonNull final byte[] pdu, final int priority, final long order) {
+            this.mDst = dst;
+            this.mNode = node;
+            this.mPdu = pdu;
+            this.mPriority = priority;
+            this.mOrder = order;
+        }
+    }
+
+    /**
+     * Writes in flight to a connection
+     */
+    private final class Connection {
+        private final Object mKey;
+        private int mInFlight;
+        private boolean mWritten;
+        private long mLastWriteTime;
+        private final Runnable mWriteTimeoutRunnable = new Runnable() {
+            @Override
+            public void run() {
+                MeshLogger.w(TAG, "Write not completed within " + mWriteTimeout + " ms, " + mInFlight + " pdu(s) considered lost");
+                mWriteTimeoutCount += mInFlight;
+                mInFlight = 0;
+                dispatch();
+            }
+        };
+
+        Connection(@NonNull final Object key) {
+            this.mKey = key;
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package no.nordicsemi.android.meshprovisioner;
 
 
-import android.content.Context;
-import android.content.SharedPreferences;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
@@ -80,6 +77,12 @@ public class Provisioner {
     @Expose
     private boolean lastSelected;
 
+    @Ignore
+    private SequenceNumberStore sequenceNumberStore;
+
+    @Ignore
+    private SequenceNumberAllocator sequenceNumberAllocator;
+
     /**
      * Constructs {@link Provisioner}
      */
@@ -93,11 +96,6 @@ public class Provisioner {
         this.allocatedGroupRanges = allocatedGroupRanges;
         this.allocatedSceneRanges = allocatedSceneRanges;
         this.meshUuid = meshUuid;
-
-        // load seq from shared settings
-        SharedPreferences sharedPreferences = MeshManagerApi.context.getSharedPreferences("thingosMesh", Context.MODE_PRIVATE);
-        int sharedSeq = sharedPreferences.getInt("seq", 0);
-        sequenceNumber = Math.max(sequenceNumber, sharedSeq);
     }
 
     @RestrictTo(RestrictTo.Scope.LIBRARY)
@@ -212,14 +210,36 @@ public class Provisioner {
 
 
     public int getSequenceNumber() {
-        return sequenceNumber;
+        final SequenceNumberAllocator allocator = sequenceNumberAllocator;
+        return allocator != null ? allocator.getSequenceNumber() : sequenceNumber;
     }
 
+    /**
+     * Sets the sequence number of the provisioner. The sequence number never moves backwards, as sending a sequence number again
+     * would cause the messages to be discarded by the nodes.
+     *
+     * @param sequenceNumber sequence number
+     */
     public void setSequenceNumber(final int sequenceNumber) {
-        // set the maximum from sequenceNumber and shared preferences
-        SharedPreferences sharedPreferences = MeshManagerApi.context.getSharedPreferences("thingosMesh", Context.MODE_PRIVATE);
-        int sharedSeq = sharedPreferences.getInt("seq", 0);
-        this.sequenceNumber = Math.max(sequenceNumber, sharedSeq);
+        final SequenceNumberAllocator allocator = sequenceNumberAllocator;
+        if (allocator != null) {
+            allocator.advanceTo(sequenceNumber);
+        } else {
+            this.sequenceNumber = Math.max(this.sequenceNumber, sequenceNumber);
+        }
+    }
+
+    /**
+     * Sets the store sequence numbers are reserved in, so they are never reused after the application is restarted
+     *
+     * @param store sequence number store
+     */
+    synchronized void setSequenceNumberStore(@NonNull final SequenceNumberStore store) {
+        if (sequenceNumberStore == store)
+            return;
+
+        sequenceNumberStore = store;
+        sequenceNumberAllocator = new SequenceNumberAllocator(store, provisionerUuid, getSequenceNumber(), SequenceNumberAllocator.DEFAULT_BLOCK_SIZE);
     }
 
     public int getProvisionerAddress() {
@@ -249,11 +269,22 @@ public class Provisioner {
         this.lastSelected = lastSelected;
     }
 
+    /**
+     * Increments the sequence number and returns the new sequence number.
+     * <p>
+     * Sequence numbers are handed out from memory and reserved in blocks in the {@link SequenceNumberStore}, so the store is not
+     * written for every pdu sent.
+     * </p>
+     */
     public int incrementSequenceNumber() {
-        sequenceNumber = sequenceNumber + 1;
-        // save to shared preferences
-        SharedPreferences sharedPreferences = MeshManagerApi.context.getSharedPreferences("thingosMesh", Context.MODE_PRIVATE);
-        sharedPreferences.edit().putInt("seq", sequenceNumber).apply();
-        return sequenceNumber;
+        return getSequenceNumberAllocator().next();
+    }
+
+    private synchronized SequenceNumberAllocator getSequenceNumberAllocator() {
+        if (sequenceNumberAllocator == null) {
+            //Without a store the sequence number is only persisted with the provisioner
+            sequenceNumberAllocator = new SequenceNumberAllocator(null, provisionerUuid, sequenceNumber, SequenceNumberAllocator.DEFAULT_BLOCK_SIZE);
+        }
+        return sequenceNumberAllocator;
     }
 }
@@ -0,0 +1,221 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+/**
+ * Matches the service data of Mesh Proxy Service advertisements against the network keys and nodes of a mesh network.
+ * <p>
+ * The network ids and identity keys of the network keys are taken from the {@link MeshKeyCache} and the unicast addresses of the nodes
+ * are kept in a snapshot, which is rebuilt lazily after the nodes or keys of the network changed. A Node Identity hash can only be
+ * checked by calculating it for every node, so each advertised random is resolved once and the result, including no match, is
+ * remembered. A proxy node repeats the same advertisement until it picks a new random, so repeated advertisements are matched without
+ * any AES operation.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ProxyAdvertisementMatcher {
+
+    static final int ADVERTISEMENT_TYPE_NETWORK_ID = 0x00;
+    static final int ADVERTISEMENT_TYPE_NODE_IDENTITY = 0x01;
+    static final int MAX_RESOLVED_IDENTITIES = 256;
+    private static final int NETWORK_ID_OFFSET = 1;
+    private static final int NETWORK_ID_LENGTH = 8;
+    private static final int HASH_OFFSET = 1;
+    private static final int RANDOM_OFFSET = 9;
+    private static final int NODE_IDENTITY_LENGTH = 17;
+    //The hash input is 48 bits of padding, the random and the unicast address of the node
+    private static final int HASH_INPUT_RANDOM_OFFSET = 6;
+    private static final int HASH_INPUT_ADDRESS_OFFSET = 14;
+    //The hash is the least significant 64 bits of the encrypted hash input
+    private static final int HASH_OUTPUT_OFFSET = 8;
+
+    private final BaseMeshNetwork mMeshNetwork;
+    private final byte[] mHashInput = new byte[16];
+    private final byte[] mHashOutput = new byte[16];
+    private final Map<Long, ResolvedIdentity> mResolvedIdentities = new LinkedHashMap<Long, ResolvedIdentity>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, ResolvedIdentity> eldest) {
+            return size() > MAX_RESOLVED_IDENTITIES;
+        }
+    };
+
+    private NetworkKey[] mNetworkKeys = new NetworkKey[0];
+    private byte[][] mNetworkIds = new byte[0][];
+    private byte[][] mIdentityKeys = new byte[0][];
+    private ProvisionedMeshNode[] mNodes = new ProvisionedMeshNode[0];
+    private List<ProvisionedMeshNode> mSnapshotList;
+    private int mSnapshotSize;
+    private boolean mInvalidated = true;
+
+    ProxyAdvertisementMatcher(@NonNull final BaseMeshNetwork meshNetwork) {
+        this.mMeshNetwork = meshNetwork;
+    }
+
+    /**
+     * Marks the snapshot of the nodes and keys as stale, it will be rebuilt on the next lookup
+     */
+    synchronized void invalidate() {
+        mInvalidated = true;
+    }
+
+    /**
+     * Returns true if the service data contains a network id or a node identity of this network
+     *
+     * @param serviceData service data of the Mesh Proxy Service
+     */
+    public synchronized boolean matches(@Nullable final byte[] serviceData) {
+        return matchNetworkId(serviceData) != null || matchNodeIdentity(serviceData) != null;
+    }
+
+    /**
+     * Matches a batch of advertisements, i.e. the results of onBatchScanResults
+     *
+     * @param serviceDataList service data of the Mesh Proxy Service of each advertisement, entries may be null
+     * @return an array containing for each advertisement true if it matches this network
+     */
+    @NonNull
+    public synchronized boolean[] matches(@NonNull final List<byte[]> serviceDataList) {
+        final boolean[] results = new boolean[serviceDataList.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = matches(serviceDataList.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the network key whose network id is advertised
+     *
+     * @param serviceData service data of the Mesh Proxy Service
+     * @return network key or null if the service data does not contain the network id of a key in this network
+     */
+    @Nullable
+    public synchronized NetworkKey matchNetworkId(@Nullable final byte[] serviceData) {
+        if (serviceData == null || serviceData.length < NETWORK_ID_OFFSET + NETWORK_ID_LENGTH ||
+                serviceData[0] != ADVERTISEMENT_TYPE_NETWORK_ID)
+            return null;
+
+        validateSnapshot();
+        for (int i = 0; i < mNetworkKeys.length; i++) {
+            if (regionEquals(mNetworkIds[i], 0, serviceData, NETWORK_ID_OFFSET, NETWORK_ID_LENGTH)) {
+                return mNetworkKeys[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the node whose node identity is advertised
+     *
+     * @param serviceData service data of the Mesh Proxy Service
+     * @return node or null if the service data does not contain the node identity of a node in this network
+     */
+    @Nullable
+    public synchronized ProvisionedMeshNode matchNodeIdentity(@Nullable final byte[] serviceData) {
+        if (serviceData == null || serviceData.length < NODE_IDENTITY_LENGTH || serviceData[0] != ADVERTISEMENT_TYPE_NODE_IDENTITY)
+            return null;
+
+        validateSnapshot();
+        final long hash = readLong(serviceData, HASH_OFFSET);
+        final long random = readLong(serviceData, RANDOM_OFFSET);
+        final ResolvedIdentity resolvedIdentity = mResolvedIdentities.get(random);
+        if (resolvedIdentity != null && resolvedIdentity.hash == hash) {
+            return resolvedIdentity.node;
+        }
+
+        final ProvisionedMeshNode node = resolveNodeIdentity(serviceData);
+        mResolvedIdentities.put(random, new ResolvedIdentity(hash, node));
+        return node;
+    }
+
+    @Nullable
+    private ProvisionedMeshNode resolveNodeIdentity(@NonNull final byte[] serviceData) {
+        System.arraycopy(serviceData, RANDOM_OFFSET, mHashInput, HASH_INPUT_RANDOM_OFFSET, 8);
+        //Keys in the outer loop, so the key schedule is calculated once per key
+        for (byte[] identityKey : mIdentityKeys) {
+            for (ProvisionedMeshNode node : mNodes) {
+                final int unicastAddress = node.getUnicastAddress();
+                mHashInput[HASH_INPUT_ADDRESS_OFFSET] = (byte) (unicastAddress >> 8);
+                mHashInput[HASH_INPUT_ADDRESS_OFFSET + 1] = (byte) unicastAddress;
+                SecureUtils.encryptWithAES(mHashInput, 0, identityKey, mHashOutput, 0);
+                if (regionEquals(mHashOutput, HASH_OUTPUT_OFFSET, serviceData, HASH_OFFSET, 8)) {
+                    return node;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void validateSnapshot() {
+        if (isSnapshotValid())
+            return;
+
+        final List<NetworkKey> networkKeys = mMeshNetwork.netKeys;
+        final MeshKeyCache keyCache = mMeshNetwork.mKeyCache;
+        mNetworkKeys = networkKeys.toArray(new NetworkKey[0]);
+        mNetworkIds = new byte[mNetworkKeys.length][];
+        mIdentityKeys = new byte[mNetworkKeys.length][];
+        for (int i = 0; i < mNetworkKeys.length; i++) {
+            mNetworkIds[i] = keyCache.getNetworkId(mNetworkKeys[i]);
+            mIdentityKeys[i] = keyCache.getIdentityKey(mNetworkKeys[i]);
+        }
+
+        final List<ProvisionedMeshNode> nodes = mMeshNetwork.nodes;
+        mNodes = nodes.toArray(new ProvisionedMeshNode[0]);
+        mSnapshotList = nodes;
+        mSnapshotSize = nodes.size();
+        mResolvedIdentities.clear();
+        mInvalidated = false;
+    }
+
+    private boolean isSnapshotValid() {
+        final List<ProvisionedMeshNode> nodes = mMeshNetwork.nodes;
+        if (mInvalidated || nodes != mSnapshotList || nodes.size() != mSnapshotSize)
+            return false;
+
+        //The key cache derives new material when a key was changed, i.e. during a key refresh
+        final List<NetworkKey> networkKeys = mMeshNetwork.netKeys;
+        if (networkKeys.size() != mNetworkKeys.length)
+            return false;
+        for (int i = 0; i < mNetworkKeys.length; i++) {
+            final NetworkKey networkKey = networkKeys.get(i);
+            if (networkKey != mNetworkKeys[i] || mMeshNetwork.mKeyCache.getIdentityKey(networkKey) != mIdentityKeys[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static long readLong(@NonNull final byte[] data, final int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static boolean regionEquals(@NonNull final byte[] a, final int aOffset, @NonNull final byte[] b, final int bOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] != b[bOffset + i])
+                return false;
+        }
+        return true;
+    }
+
+    private static final class ResolvedIdentity {
+        final long hash;
+        final ProvisionedMeshNode node;
+
+        ResolvedIdentity(final long hash, @Nullable final ProvisionedMeshNode node) {
+            this.hash = hash;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Reassembles pdus segmented by the proxy protocol.
+ * <p>
+ * Each pdu type has its own SAR stream so that a segmented network pdu does not corrupt a proxy configuration or provisioning pdu
+ * received at the same time. Segments are kept as received until the last segment arrives and are then copied once in to the
+ * reassembled pdu, instead of growing and copying a buffer for every segment. Segments received out of order are discarded and a
+ * stream that is not completed within the SAR timeout is dropped.
+ * </p>
+ * <p>
+ * The segments are referenced until the pdu is complete, so the arrays passed in must not be reused by the caller.
+ * </p>
+ */
+final class ProxySarReassembler {
+
+    private static final String TAG = ProxySarReassembler.class.getSimpleName();
+    //According to the spec the proxy protocol must contain an SAR timeout of 20 seconds.
+    static final long PROXY_SAR_TRANSFER_TIME_OUT = 20 * 1000;
+
+    static final int GATT_SAR_COMPLETE = 0b00;
+    static final int GATT_SAR_START = 0b01;
+    static final int GATT_SAR_CONTINUATION = 0b10;
+    static final int GATT_SAR_END = 0b11;
+    private static final int GATT_SAR_UNMASK = 0x3F;
+    private static final int SAR_BIT_OFFSET = 6;
+    private static final int PDU_TYPE_COUNT = GATT_SAR_UNMASK + 1;
+
+    /**
+     * Callbacks notifying reassembled pdus and streams that timed out
+     */
+    interface ProxySarCallbacks {
+
+        /**
+         * Notifies that a pdu was received completely
+         *
+         * @param pdu complete pdu without the SAR bits
+         */
+        void onPduReassembled(@NonNull final byte[] pdu);
+
+        /**
+         * Notifies that a segmented pdu was not completed within the SAR timeout and has been discarded
+         *
+         * @param pduType pdu type of the discarded pdu
+         */
+        void onSarTimeout(final int pduType);
+    }
+
+    private final MeshScheduler mScheduler;
+    private final ProxySarCallbacks mCallbacks;
+    private final SarStream[] mStreams = new SarStream[PDU_TYPE_COUNT];
+    private long mTimeout = PROXY_SAR_TRANSFER_TIME_OUT;
+
+    ProxySarReassembler(@NonNull final MeshScheduler scheduler, @NonNull final ProxySarCallbacks callbacks) {
+        this.mScheduler = scheduler;
+        this.mCallbacks = callbacks;
+    }
+
+    /**
+     * Sets the time a segmented pdu may take to be received completely
+     *
+     * @param timeout timeout in milliseconds
+     */
+    void setTimeout(final long timeout) {
+        if (timeout <= 0)
+            throw new IllegalArgumentException("SAR timeout must be greater than 0");
+        mTimeout = timeout;
+    }
+
+    /**
+     * Handles a pdu received via the proxy protocol
+     *
+     * @param pdu pdu or segment of a pdu including the SAR bits
+     */
+    void onPduReceived(@NonNull final byte[] pdu) {
+        if (pdu.length == 0)
+            return;
+
+        final int sar = (pdu[0] & 0xFF) >> SAR_BIT_OFFSET;
+        final int pduType = pdu[0] & GATT_SAR_UNMASK;
+        if (sar == GATT_SAR_COMPLETE) {
+            mCallbacks.onPduReassembled(pdu);
+            return;
+        }
+
+        final SarStream stream = getStream(pduType);
+        switch (sar) {
+            case GATT_SAR_START:
+                if (stream.isActive()) {
+                    if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                        MeshLogger.v(TAG, "New segmented pdu of type " + pduType + " started before the previous one ended, discarding " + stream.mLength + " bytes");
+                    }
+                    stream.reset();
+                }
+                stream.append(pdu);
+                mScheduler.postDelayed(stream.mTimeoutRunnable, mTimeout);
+                break;
+            case GATT_SAR_CONTINUATION:
+                if (!stream.isActive()) {
+                    MeshLogger.v(TAG, "Continuation segment received without a start segment, discarding type: ", pduType);
+                    return;
+                }
+                stream.append(pdu);
+                break;
+            case GATT_SAR_END:
+                if (!stream.isActive()) {
+                    MeshLogger.v(TAG, "Last segment received without a start segment, discarding type: ", pduType);
+                    return;
+                }
+                stream.append(pdu);
+                final byte[] reassembledPdu = stream.reassemble();
+                stream.reset();
+                mCallbacks.onPduReassembled(reassembledPdu);
+                break;
+        }
+    }
+
+    /**
+     * Discards all incomplete pdus, i.e. when the connection to the proxy node is lost
+     */
+    void clear() {
+        for (SarStream stream : mStreams) {
+            if (stream != null) {
+                stream.reset();
+            }
+        }
+    }
+
+    /**
+     * Returns true if a segmented pdu of the given type is being received
+     *
+     * @param pduType pdu type
+     */
+    boolean isReassembling(final int pduType) {
+        final SarStream stream = mStreams[pduType & GATT_SAR_UNMASK];
+        return stream != null && stream.isActive();
+    }
+
+    private SarStream getStream(final int pduType) {
+        SarStream stream = mStreams[pduType];
+        if (stream == null) {
+            stream = new SarStream(pduType);
+            mStreams[pduType] = stream;
+        }
+        return stream;
+    }
+
+    /**
+     * Segments of a pdu type received so far
+     */
+    private final class SarStream {
+
+        private final int mPduType;
+        private final List<byte[]> mSegments = new ArrayList<>();
+        private int mLength;
+        private final Runnable mTimeoutRunnable = new Runnable() {
+            @Override
+            public void run() {
+                if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                    MeshLogger.v(TAG, "SAR timeout of pdu type " + mPduType + ", discarding " + mLength + " bytes");
+                }
+                reset();
+                mCallbacks.onSarTimeout(mPduType);
+            }
+        };
+
+        SarStream(final int pduType) {
+            this.mPduType = pduType;
+        }
+
+        boolean isActive() {
+            return !mSegments.isEmpty();
+        }
+
+        void append(@NonNull final byte[] segment) {
+            mSegments.add(segment);
+            //The pdu type of the segment is not part of the payload
+            mLength += segment.length - 1;
+        }
+
+        byte[] reassemble() {
+            final byte[] pdu = new byte[1 + mLength];
+            pdu[0] = (byte) mPduType;
+            int offset = 1;
+            for (byte[] segment : mSegments) {
+                System.arraycopy(segment, 1, pdu, offset, segment.length - 1);
+                offset += segment.length - 1;
+            }
+            return pdu;
+        }
+
+        void reset() {
+            mScheduler.removeCallbacks(mTimeoutRunnable);
+            mSegments.clear();
+            mLength = 0;
+        }
+    }
+}
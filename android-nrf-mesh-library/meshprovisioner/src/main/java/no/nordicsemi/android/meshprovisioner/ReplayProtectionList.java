@@ -0,0 +1,184 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Replay protection list of the provisioner, holding the IV Index and sequence number of the last message received from each unicast
+ * address.
+ * <p>
+ * The IV Index and the 24-bit sequence number of an entry are packed into a long so that a message is new if and only if its packed
+ * value is greater than the entry, and the entries are kept in a primitive array indexed by unicast address. A message can therefore be
+ * checked with {@link #isReplay(int, int, int)} before any decryption, while the entry is only updated with
+ * {@link #update(int, int, int)} once the message has been authenticated.
+ * </p>
+ * <p>
+ * Updated entries are persisted in batches, at most once per {@link #FLUSH_DELAY} ms, and entries older than the previous IV Index are
+ * removed when the IV Index changes, see {@link #onIvIndexChanged(int)}.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ReplayProtectionList {
+
+    static final int MAX_UNICAST_ADDRESS = 0x7FFF;
+    static final long FLUSH_DELAY = 1000;
+    private static final long EMPTY = -1;
+
+    private final ReplayProtectionListStore mStore;
+    private final MeshScheduler mScheduler;
+    private final long[] mEntries = new long[MAX_UNICAST_ADDRESS + 1];
+    private final boolean[] mDirty = new boolean[MAX_UNICAST_ADDRESS + 1];
+    private final int[] mDirtyAddresses = new int[MAX_UNICAST_ADDRESS + 1];
+    private int mDirtyCount;
+    private boolean mFlushScheduled;
+    private long mHitCount;
+    private long mMissCount;
+
+    private final Runnable mFlushRunnable = this::flush;
+
+    /**
+     * Constructs a replay protection list and loads the stored entries
+     *
+     * @param store   store the entries are persisted in or null to keep them in memory only
+     * @param scheduler scheduler the coalesced writes are scheduled on or null to write every update immediately
+     */
+    ReplayProtectionList(@Nullable final ReplayProtectionListStore store, @Nullable final MeshScheduler scheduler) {
+        this.mStore = store;
+        this.mScheduler = scheduler;
+        Arrays.fill(mEntries, EMPTY);
+        if (store != null) {
+            store.load(mEntries);
+        }
+    }
+
+    /**
+     * Checks if a message has already been received, i.e. if it is not newer than the last message received from the source address
+     *
+     * @param src            source address of the message
+     * @param ivIndex        IV Index of the message
+     * @param sequenceNumber sequence number of the message
+     * @return true if the message must be discarded
+     */
+    public synchronized boolean isReplay(final int src, final int ivIndex, final int sequenceNumber) {
+        if (src <= 0 || src > MAX_UNICAST_ADDRESS)
+            return false;
+
+        if (pack(ivIndex, sequenceNumber) <= mEntries[src]) {
+            mHitCount++;
+            return true;
+        }
+        mMissCount++;
+        return false;
+    }
+
+    /**
+     * Records an authenticated message as the last message received from the source address
+     *
+     * @param src            source address of the message
+     * @param ivIndex        IV Index of the message
+     * @param sequenceNumber sequence number of the message
+     */
+    public synchronized void update(final int src, final int ivIndex, final int sequenceNumber) {
+        if (src <= 0 || src > MAX_UNICAST_ADDRESS)
+            return;
+
+        final long entry = pack(ivIndex, sequenceNumber);
+        if (entry > mEntries[src]) {
+            mEntries[src] = entry;
+            markDirty(src);
+        }
+    }
+
+    /**
+     * Removes the entries older than the previous IV Index. Messages with such an IV Index are not accepted by the network layer
+     * anymore, so the entries are no longer needed.
+     *
+     * @param ivIndex current IV Index
+     */
+    public synchronized void onIvIndexChanged(final int ivIndex) {
+        final long oldestIvIndex = (ivIndex & 0xFFFFFFFFL) - 1;
+        for (int address = 1; address <= MAX_UNICAST_ADDRESS; address++) {
+            final long entry = mEntries[address];
+            if (entry != EMPTY && (entry >>> 24) < oldestIvIndex) {
+                mEntries[address] = EMPTY;
+                markDirty(address);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of messages discarded as replays
+     */
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Returns the number of messages checked that were not replays
+     */
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Resets the hit and miss counters
+     */
+    public synchronized void resetCounters() {
+        mHitCount = 0;
+        mMissCount = 0;
+    }
+
+    /**
+     * Removes all entries
+     */
+    public synchronized void clear() {
+        Arrays.fill(mEntries, EMPTY);
+        Arrays.fill(mDirty, false);
+        mDirtyCount = 0;
+        if (mStore != null) {
+            mStore.clear();
+        }
+    }
+
+    /**
+     * Writes the entries updated since the last flush to the store
+     */
+    public synchronized void flush() {
+        if (mFlushScheduled) {
+            mScheduler.removeCallbacks(mFlushRunnable);
+            mFlushScheduled = false;
+        }
+        if (mDirtyCount == 0 || mStore == null)
+            return;
+
+        final long[] entries = new long[mDirtyCount];
+        for (int i = 0; i < mDirtyCount; i++) {
+            final int address = mDirtyAddresses[i];
+            entries[i] = mEntries[address];
+            mDirty[address] = false;
+        }
+        mStore.store(mDirtyAddresses, entries, mDirtyCount);
+        mDirtyCount = 0;
+    }
+
+    private void markDirty(final int address) {
+        if (mStore == null)
+            return;
+
+        if (!mDirty[address]) {
+            mDirty[address] = true;
+            mDirtyAddresses[mDirtyCount++] = address;
+        }
+        if (mScheduler == null) {
+            flush();
+        } else if (!mFlushScheduled) {
+            mFlushScheduled = true;
+            mScheduler.postDelayed(mFlushRunnable, FLUSH_DELAY);
+        }
+    }
+
+    private static long pack(final int ivIndex, final int sequenceNumber) {
+        return ((ivIndex & 0xFFFFFFFFL) << 24) | (sequenceNumber & 0xFFFFFF);
+    }
+}
@@ -0,0 +1,34 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Durable storage of the replay protection list of a mesh network.
+ * <p>
+ * Entries are the IV Index and sequence number of the last message received from a unicast address packed into a long, see
+ * {@link ReplayProtectionList}.
+ * </p>
+ */
+interface ReplayProtectionListStore {
+
+    /**
+     * Loads the stored entries
+     *
+     * @param entries array indexed by unicast address the entries are loaded into, addresses without an entry are left unchanged
+     */
+    void load(@NonNull final long[] entries);
+
+    /**
+     * Stores the entries of several unicast addresses at once
+     *
+     * @param addresses unicast addresses
+     * @param entries   entries of the addresses, a negative entry removes the stored entry
+     * @param count     number of addresses to store
+     */
+    void store(@NonNull final int[] addresses, @NonNull final long[] entries, final int count);
+
+    /**
+     * Removes all stored entries
+     */
+    void clear();
+}
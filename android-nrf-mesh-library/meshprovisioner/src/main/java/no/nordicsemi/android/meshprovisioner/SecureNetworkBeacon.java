@@ -5,6 +5,7 @@ import android.os.Parcelable;
 import android.provider.Settings;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -164,6 +165,19 @@ public class SecureNetworkBeacon extends MeshBeacon {
                                    final boolean ivRecoveryActive,
                                    final boolean isTestMode,
                                    final boolean ivRecoveryOver42Allowed) {
+        return canOverwrite(ivIndex, updatedAt, Calendar.getInstance(), ivRecoveryActive, isTestMode, ivRecoveryOver42Allowed);
+    }
+
+    /**
+     * Returns whether the received Secure Network Beacon can override the current IV Index at the given time,
+     * see {@link #canOverwrite(IvIndex, Calendar, boolean, boolean, boolean)}.
+     *
+     * @param now current time
+     */
+    boolean canOverwrite(final IvIndex ivIndex, @Nullable final Calendar updatedAt, @NonNull final Calendar now,
+                         final boolean ivRecoveryActive,
+                         final boolean isTestMode,
+                         final boolean ivRecoveryOver42Allowed) {
         // IV Index must increase, or, in case it's equal to the current one,
         // the IV Update Active flag must change from true to false.
         // The new index must not be greater than the current one + 42,
@@ -175,7 +189,7 @@ public class SecureNetworkBeacon extends MeshBeacon {
 
             // Before version 2.2.2 the timestamp was not stored. The initial
             // Secure Network Beacon is assumed to be valid.
-            return isMinimumTimeRequirementCompleted(ivIndex, updatedAt, ivRecoveryActive, isTestMode);
+            return updatedAt == null || isMinimumTimeRequirementCompleted(ivIndex, updatedAt, now, ivRecoveryActive, isTestMode);
         } else {
             return false;
         }
@@ -183,6 +197,7 @@ public class SecureNetworkBeacon extends MeshBeacon {
 
     private boolean isMinimumTimeRequirementCompleted(final IvIndex ivIndex,
                                                       final Calendar updatedAt,
+                                                      final Calendar now,
                                                       final boolean isIvRecoveryActive,
                                                       final boolean isTestMode) {
         // Let's define a "state" as a pair of IV and IV Update Active flag.
@@ -208,7 +223,7 @@ public class SecureNetworkBeacon extends MeshBeacon {
         int numberOfHoursRequired = stateDiff * 96;
 
         // Get the number of hours since the state changed last time.
-        final long timeDifference = Calendar.getInstance().getTimeInMillis() - updatedAt.getTimeInMillis();
+        final long timeDifference = now.getTimeInMillis() - updatedAt.getTimeInMillis();
         final int numberOfHoursSinceDate = (int) (timeDifference / (3600 * 1000));
 
         // The node shall not execute more than one IV Index Recovery within a
@@ -0,0 +1,194 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+/**
+ * Authenticates secure network beacons received from the proxy node and updates the IV Index state of the network.
+ * <p>
+ * The network id and beacon key of each network key are taken from the {@link MeshKeyCache}, so a beacon is authenticated with a
+ * single AES-CMAC. Proxy nodes repeat the same beacon every few seconds, so the most recently authenticated beacons are kept and a
+ * byte-identical beacon is not authenticated again.
+ * </p>
+ * <p>
+ * Authenticated beacons drive the IV Update and IV Index Recovery procedures, see
+ * {@link SecureNetworkBeacon#canOverwrite(IvIndex, Calendar, boolean, boolean, boolean)}. Each IV Index state must last for at least
+ * 96 hours, measured with the clock the processor was created with.
+ * </p>
+ */
+final class SecureNetworkBeaconProcessor {
+
+    private static final String TAG = SecureNetworkBeaconProcessor.class.getSimpleName();
+    private static final int SECURE_NETWORK_BEACON = 0x01;
+    private static final int NETWORK_ID_OFFSET = 2;
+    private static final int NETWORK_ID_LENGTH = 8;
+    static final int MAX_CACHED_BEACONS = 8;
+
+    /**
+     * Source of the current time
+     */
+    interface Clock {
+
+        /**
+         * Returns the current time in milliseconds
+         */
+        long currentTimeMillis();
+    }
+
+    private final Clock mClock;
+    //Most recently used first
+    private final List<AuthenticatedBeacon> mAuthenticatedBeacons = new ArrayList<>();
+    private boolean mIvUpdateTestMode;
+    private boolean mIvRecoveryOver42Allowed;
+
+    SecureNetworkBeaconProcessor() {
+        this(System::currentTimeMillis);
+    }
+
+    SecureNetworkBeaconProcessor(@NonNull final Clock clock) {
+        this.mClock = clock;
+    }
+
+    /**
+     * Enables the IV Update test mode, in which the 96 hour duration of the IV Index states does not apply
+     *
+     * @param ivUpdateTestMode true to enable the test mode
+     */
+    void setIvUpdateTestMode(final boolean ivUpdateTestMode) {
+        mIvUpdateTestMode = ivUpdateTestMode;
+    }
+
+    /**
+     * Allows the IV Index Recovery procedure to increase the IV Index by more than 42
+     *
+     * @param ivRecoveryOver42Allowed true to allow
+     */
+    void setIvRecoveryOver42Allowed(final boolean ivRecoveryOver42Allowed) {
+        mIvRecoveryOver42Allowed = ivRecoveryOver42Allowed;
+    }
+
+    /**
+     * Processes a secure network beacon
+     *
+     * @param meshNetwork mesh network
+     * @param pdu         buffer containing the beacon
+     * @param offset      offset of the beacon in the buffer
+     * @return true if the IV Index state of the network was updated
+     */
+    boolean onBeaconReceived(@NonNull final MeshNetwork meshNetwork, @NonNull final byte[] pdu, final int offset) {
+        if (pdu.length - offset != SecureNetworkBeacon.BEACON_DATA_LENGTH || pdu[offset] != SECURE_NETWORK_BEACON) {
+            MeshLogger.v(TAG, "Not a secure network beacon: ", pdu);
+            return false;
+        }
+
+        final SecureNetworkBeacon beacon = authenticate(meshNetwork, pdu, offset);
+        if (beacon == null) {
+            MeshLogger.v(TAG, "Secure network beacon could not be authenticated: ", pdu);
+            return false;
+        }
+        return updateIvIndex(meshNetwork, beacon);
+    }
+
+    @Nullable
+    private SecureNetworkBeacon authenticate(@NonNull final MeshNetwork meshNetwork, @NonNull final byte[] pdu, final int offset) {
+        final MeshKeyCache keyCache = meshNetwork.getKeyCache();
+        for (int i = 0; i < mAuthenticatedBeacons.size(); i++) {
+            final AuthenticatedBeacon authenticatedBeacon = mAuthenticatedBeacons.get(i);
+            if (!authenticatedBeacon.matches(pdu, offset))
+                continue;
+
+            //The beacon key is replaced in the cache if the network key was changed or removed
+            if (meshNetwork.getNetKeys().contains(authenticatedBeacon.networkKey) &&
+                    keyCache.getBeaconKey(authenticatedBeacon.networkKey) == authenticatedBeacon.beaconKey) {
+                if (i > 0) {
+                    mAuthenticatedBeacons.remove(i);
+                    mAuthenticatedBeacons.add(0, authenticatedBeacon);
+                }
+                return authenticatedBeacon.beacon;
+            }
+            mAuthenticatedBeacons.remove(i);
+            break;
+        }
+
+        final List<NetworkKey> networkKeys = meshNetwork.getNetKeys();
+        for (int i = 0; i < networkKeys.size(); i++) {
+            final NetworkKey networkKey = networkKeys.get(i);
+            if (!regionEquals(keyCache.getNetworkId(networkKey), pdu, offset + NETWORK_ID_OFFSET, NETWORK_ID_LENGTH))
+                continue;
+
+            final byte[] beaconKey = keyCache.getBeaconKey(networkKey);
+            if (SecureUtils.authenticateSecureNetBeacon(pdu, offset, beaconKey)) {
+                final SecureNetworkBeacon beacon = new SecureNetworkBeacon(Arrays.copyOfRange(pdu, offset, pdu.length));
+                mAuthenticatedBeacons.add(0, new AuthenticatedBeacon(beacon, networkKey, beaconKey));
+                if (mAuthenticatedBeacons.size() > MAX_CACHED_BEACONS) {
+                    mAuthenticatedBeacons.remove(mAuthenticatedBeacons.size() - 1);
+                }
+                return beacon;
+            }
+        }
+        return null;
+    }
+
+    private boolean updateIvIndex(@NonNull final MeshNetwork meshNetwork, @NonNull final SecureNetworkBeacon beacon) {
+        final IvIndex current = meshNetwork.getIvIndexState();
+        final IvIndex received = beacon.getIvIndex();
+        if (received.getIvIndex() == current.getIvIndex() && received.isIvUpdateActive() == current.isIvUpdateActive())
+            return false;
+
+        final Calendar now = Calendar.getInstance();
+        now.setTimeInMillis(mClock.currentTimeMillis());
+        if (!beacon.canOverwrite(current, current.getTransitionDate(), now,
+                current.getIvRecoveryFlag(), mIvUpdateTestMode, mIvRecoveryOver42Allowed)) {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Ignoring " + received + ", current " + current);
+            }
+            return false;
+        }
+
+        //Moving to the next state of the IV Update procedure, anything else is an IV Index Recovery
+        final boolean isIvUpdate = (received.getIvIndex() == current.getIvIndex() + 1 && received.isIvUpdateActive() && !current.isIvUpdateActive()) ||
+                (received.getIvIndex() == current.getIvIndex() && !received.isIvUpdateActive() && current.isIvUpdateActive());
+        final IvIndex state = new IvIndex(received.getIvIndex(), received.isIvUpdateActive(), now);
+        state.setIvRecoveryFlag(!isIvUpdate);
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, (isIvUpdate ? "IV Update: " : "IV Index Recovery: ") + current + " -> " + state);
+        }
+        meshNetwork.setIvIndexState(state);
+        return true;
+    }
+
+    private static boolean regionEquals(@NonNull final byte[] expected, @NonNull final byte[] data, final int offset, final int length) {
+        for (int i = 0; i < length; i++) {
+            if (expected[i] != data[offset + i])
+                return false;
+        }
+        return true;
+    }
+
+    private static final class AuthenticatedBeacon {
+        final SecureNetworkBeacon beacon;
+        final NetworkKey networkKey;
+        final byte[] beaconKey;
+
+        AuthenticatedBeacon(@NonNull final SecureNetworkBeacon beacon, @NonNull final NetworkKey networkKey, @NonNull final byte[] beaconKey) {
+            this.beacon = beacon;
+            this.networkKey = networkKey;
+            this.beaconKey = beaconKey;
+        }
+
+        boolean matches(@NonNull final byte[] pdu, final int offset) {
+            return regionEquals(beacon.beaconData, pdu, offset, beacon.beaconData.length);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the sequence numbers of a provisioner from memory, reserving them in blocks.
+ * <p>
+ * Before a sequence number beyond the current reservation is handed out, a high-water mark a block ahead is written to the
+ * {@link SequenceNumberStore}. Storage is therefore accessed once per block instead of once per pdu. After a crash or restart the
+ * allocator resumes after the stored mark, skipping the unused rest of the last block but never reusing a sequence number.
+ * </p>
+ */
+final class SequenceNumberAllocator {
+
+    static final int DEFAULT_BLOCK_SIZE = 256;
+
+    private final SequenceNumberStore mStore;
+    private final String mProvisionerUuid;
+    private final int mBlockSize;
+    private final AtomicInteger mSequenceNumber;
+    private volatile int mReservedSequenceNumber;
+
+    /**
+     * Constructs the allocator and resumes after the last sequence number that may have been used
+     *
+     * @param store           store the reservations are written to or null to keep them in memory only
+     * @param provisionerUuid uuid of the provisioner
+     * @param sequenceNumber  last sequence number known to have been used, i.e. the one stored with the provisioner
+     * @param blockSize       number of sequence numbers reserved at once
+     * @throws IllegalArgumentException if the block size is less than 1
+     */
+    SequenceNumberAllocator(@Nullable final SequenceNumberStore store,
+                            @NonNull final String provisionerUuid,
+                            final int sequenceNumber,
+                            final int blockSize) {
+        if (blockSize < 1)
+            throw new IllegalArgumentException("Block size must be at least 1");
+        mStore = store;
+        mProvisionerUuid = provisionerUuid;
+        mBlockSize = blockSize;
+        final int reservedSequenceNumber = store != null ? store.getReservedSequenceNumber(provisionerUuid) : 0;
+        //Anything up to the stored reservation may have been sent before the restart
+        final int lastSequenceNumber = Math.max(sequenceNumber, reservedSequenceNumber);
+        mSequenceNumber = new AtomicInteger(lastSequenceNumber);
+        mReservedSequenceNumber = store != null ? lastSequenceNumber : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the last sequence number handed out
+     */
+    int getSequenceNumber() {
+        return mSequenceNumber.get();
+    }
+
+    /**
+     * Returns the highest sequence number reserved so far
+     */
+    int getReservedSequenceNumber() {
+        return mReservedSequenceNumber;
+    }
+
+    /**
+     * Returns the next sequence number
+     */
+    int next() {
+        while (true) {
+            final int sequenceNumber = mSequenceNumber.get();
+            final int next = sequenceNumber + 1;
+            if (next > mReservedSequenceNumber) {
+                reserve(next);
+            } else if (mSequenceNumber.compareAndSet(sequenceNumber, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Moves the sequence number forward, i.e. when a higher sequence number was received from another instance of this provisioner.
+     * The sequence number never moves backwards.
+     *
+     * @param sequenceNumber sequence number that has been used
+     */
+    void advanceTo(final int sequenceNumber) {
+        while (true) {
+            final int current = mSequenceNumber.get();
+            if (sequenceNumber <= current)
+                return;
+            if (sequenceNumber > mReservedSequenceNumber) {
+                reserve(sequenceNumber);
+            } else if (mSequenceNumber.compareAndSet(current, sequenceNumber)) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void reserve(final int sequenceNumber) {
+        if (sequenceNumber <= mReservedSequenceNumber)
+            return;
+
+        final int reservedSequenceNumber = sequenceNumber + mBlockSize - 1;
+        //The reservation must be stored before any sequence number in it is handed out
+        mStore.setReservedSequenceNumber(mProvisionerUuid, reservedSequenceNumber);
+        mReservedSequenceNumber = reservedSequenceNumber;
+    }
+}
@@ -0,0 +1,28 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Durable storage of the sequence numbers reserved by the provisioners of a mesh network.
+ * <p>
+ * The stored value is a high-water mark: every sequence number up to and including it may have been sent already, so it must never
+ * be used again after the application is restarted.
+ * </p>
+ */
+interface SequenceNumberStore {
+
+    /**
+     * Returns the highest sequence number reserved by the provisioner or 0 if none were reserved
+     *
+     * @param provisionerUuid uuid of the provisioner
+     */
+    int getReservedSequenceNumber(@NonNull final String provisionerUuid);
+
+    /**
+     * Stores the highest sequence number reserved by the provisioner. This must not return before the value has been written.
+     *
+     * @param provisionerUuid uuid of the provisioner
+     * @param sequenceNumber  highest reserved sequence number
+     */
+    void setReservedSequenceNumber(@NonNull final String provisionerUuid, final int sequenceNumber);
+}
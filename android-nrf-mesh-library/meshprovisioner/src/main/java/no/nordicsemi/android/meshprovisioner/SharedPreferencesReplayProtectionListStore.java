@@ -0,0 +1,55 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+
+/**
+ * {@link ReplayProtectionListStore} backed by shared preferences, one preferences file per mesh network
+ */
+final class SharedPreferencesReplayProtectionListStore implements ReplayProtectionListStore {
+
+    private static final String PREFERENCES_NAME = "meshReplayProtectionList_";
+
+    private final SharedPreferences mSharedPreferences;
+
+    SharedPreferencesReplayProtectionListStore(@NonNull final Context context, @NonNull final String meshUuid) {
+        mSharedPreferences = context.getApplicationContext().getSharedPreferences(PREFERENCES_NAME + meshUuid, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public void load(@NonNull final long[] entries) {
+        for (Map.Entry<String, ?> entry : mSharedPreferences.getAll().entrySet()) {
+            try {
+                final int address = Integer.parseInt(entry.getKey(), 16);
+                if (address > 0 && address < entries.length && entry.getValue() instanceof Long) {
+                    entries[address] = (Long) entry.getValue();
+                }
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public void store(@NonNull final int[] addresses, @NonNull final long[] entries, final int count) {
+        //Applied asynchronously, the updates are already coalesced by the replay protection list
+        final SharedPreferences.Editor editor = mSharedPreferences.edit();
+        for (int i = 0; i < count; i++) {
+            final String key = Integer.toHexString(addresses[i]);
+            if (entries[i] < 0) {
+                editor.remove(key);
+            } else {
+                editor.putLong(key, entries[i]);
+            }
+        }
+        editor.apply();
+    }
+
+    @Override
+    public void clear() {
+        mSharedPreferences.edit().clear().apply();
+    }
+}
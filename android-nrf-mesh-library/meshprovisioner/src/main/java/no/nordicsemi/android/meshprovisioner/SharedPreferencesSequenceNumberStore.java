@@ -0,0 +1,34 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link SequenceNumberStore} backed by the shared preferences of the application
+ */
+final class SharedPreferencesSequenceNumberStore implements SequenceNumberStore {
+
+    private static final String PREFERENCES_NAME = "thingosMesh";
+    private static final String KEY_SEQUENCE_NUMBER = "seq"; //Sequence number shared by all provisioners, kept for compatibility
+    private static final String KEY_RESERVED_SEQUENCE_NUMBER = "reserved_seq_";
+
+    private final SharedPreferences mSharedPreferences;
+
+    SharedPreferencesSequenceNumberStore(@NonNull final Context context) {
+        mSharedPreferences = context.getApplicationContext().getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public int getReservedSequenceNumber(@NonNull final String provisionerUuid) {
+        return Math.max(mSharedPreferences.getInt(KEY_SEQUENCE_NUMBER, 0),
+                mSharedPreferences.getInt(KEY_RESERVED_SEQUENCE_NUMBER + provisionerUuid, 0));
+    }
+
+    @Override
+    public void setReservedSequenceNumber(@NonNull final String provisionerUuid, final int sequenceNumber) {
+        //Committed synchronously, the reservation must be on disk before any sequence number in it is sent
+        mSharedPreferences.edit().putInt(KEY_RESERVED_SEQUENCE_NUMBER + provisionerUuid, sequenceNumber).commit();
+    }
+}
@@ -0,0 +1,230 @@
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import no.nordicsemi.android.meshprovisioner.transport.Element;
+import no.nordicsemi.android.meshprovisioner.transport.MeshModel;
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+
+/**
+ * Index of the models of a mesh network by subscription address and of the elements by model identifier.
+ * <p>
+ * The members of a group or virtual address are kept sorted by element address and model identifier, so that the elements and models
+ * subscribed to an address are returned in the order of the nodes without walking every node, element, model and subscription address
+ * of the network. The index is updated per node whenever a node was updated, e.g. after a subscription status was received, and when a
+ * node was removed. It is rebuilt lazily whenever it was invalidated or when the list of nodes it was built from has been replaced.
+ * </p>
+ */
+final class SubscriptionIndex {
+
+    /**
+     * Model of an element
+     */
+    private static final class Member {
+        private final Element element;
+        private final MeshModel model;
+        private final long key;
+        private final int[] addresses;
+
+        Member(@NonNull final Element element, @NonNull final MeshModel model) {
+            this.element = element;
+            this.model = model;
+            this.key = getKey(element.getElementAddress(), model.getModelId());
+            final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
+            this.addresses = new int[subscriptionAddresses.size()];
+            for (int i = 0; i < addresses.length; i++) {
+                addresses[i] = subscriptionAddresses.get(i);
+            }
+        }
+    }
+
+    private final Map<Integer, TreeMap<Long, Member>> mSubscriptions = new HashMap<>();
+    private final Map<Integer, TreeMap<Integer, Element>> mModels = new HashMap<>();
+    private final Map<Integer, List<Member>> mNodes = new HashMap<>();
+    private List<ProvisionedMeshNode> mIndexedList;
+    private int mIndexedSize;
+    private boolean mInvalidated = true;
+
+    /**
+     * Marks the index as stale, it will be rebuilt on the next lookup
+     */
+    synchronized void invalidate() {
+        mInvalidated = true;
+    }
+
+    /**
+     * Re-indexes the models of a node after its composition data or subscriptions have changed
+     *
+     * @param node node that was updated
+     */
+    synchronized void onNodeUpdated(@NonNull final ProvisionedMeshNode node) {
+        if (mInvalidated)
+            return;
+
+        remove(node.getUnicastAddress());
+        add(node);
+    }
+
+    /**
+     * Removes the models of a node that was deleted or reset
+     *
+     * @param node node that was removed
+     */
+    synchronized void onNodeRemoved(@NonNull final ProvisionedMeshNode node) {
+        if (mInvalidated)
+            return;
+
+        remove(node.getUnicastAddress());
+        mIndexedSize--;
+    }
+
+    /**
+     * Returns the elements containing a model subscribed to the given address
+     *
+     * @param nodes   current list of nodes in the network
+     * @param address group or virtual address
+     */
+    @NonNull
+    synchronized List<Element> getElements(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        validateIndex(nodes);
+        final TreeMap<Long, Member> members = mSubscriptions.get(address);
+        if (members == null)
+            return new ArrayList<>();
+
+        //Members are sorted by element address, models of the same element are adjacent
+        final List<Element> elements = new ArrayList<>();
+        Element previous = null;
+        for (Member member : members.values()) {
+            if (member.element != previous) {
+                elements.add(member.element);
+                previous = member.element;
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Returns the models subscribed to the given address
+     *
+     * @param nodes   current list of nodes in the network
+     * @param address group or virtual address
+     */
+    @NonNull
+    synchronized List<MeshModel> getModels(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        validateIndex(nodes);
+        final TreeMap<Long, Member> members = mSubscriptions.get(address);
+        if (members == null)
+            return new ArrayList<>();
+
+        final List<MeshModel> models = new ArrayList<>(members.size());
+        for (Member member : members.values()) {
+            models.add(member.model);
+        }
+        return models;
+    }
+
+    /**
+     * Returns the elements containing a model with the given model identifier
+     *
+     * @param nodes   current list of nodes in the network
+     * @param modelId model identifier
+     */
+    @NonNull
+    synchronized List<Element> getElementsWithModel(@NonNull final List<ProvisionedMeshNode> nodes, final int modelId) {
+        validateIndex(nodes);
+        final TreeMap<Integer, Element> elements = mModels.get(modelId);
+        if (elements == null)
+            return new ArrayList<>();
+        return new ArrayList<>(elements.values());
+    }
+
+    /**
+     * Returns the addresses at least one model is subscribed to, in ascending order
+     *
+     * @param nodes current list of nodes in the network
+     */
+    @NonNull
+    synchronized List<Integer> getSubscriptionAddresses(@NonNull final List<ProvisionedMeshNode> nodes) {
+        validateIndex(nodes);
+        return Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(mSubscriptions.keySet())));
+    }
+
+    private void validateIndex(@NonNull final List<ProvisionedMeshNode> nodes) {
+        if (!mInvalidated && nodes == mIndexedList && nodes.size() == mIndexedSize)
+            return;
+
+        mSubscriptions.clear();
+        mModels.clear();
+        mNodes.clear();
+        for (ProvisionedMeshNode node : nodes) {
+            add(node);
+        }
+        mIndexedList = nodes;
+        mIndexedSize = nodes.size();
+        mInvalidated = false;
+    }
+
+    private void add(@NonNull final ProvisionedMeshNode node) {
+        final List<Member> members = new ArrayList<>();
+        for (Element element : node.getElements().values()) {
+            for (MeshModel model : element.getMeshModels().values()) {
+                if (model == null)
+                    continue;
+
+                final Member member = new Member(element, model);
+                members.add(member);
+                for (int address : member.addresses) {
+                    TreeMap<Long, Member> subscribers = mSubscriptions.get(address);
+                    if (subscribers == null) {
+                        subscribers = new TreeMap<>();
+                        mSubscriptions.put(address, subscribers);
+                    }
+                    subscribers.put(member.key, member);
+                }
+                TreeMap<Integer, Element> elements = mModels.get(model.getModelId());
+                if (elements == null) {
+                    elements = new TreeMap<>();
+                    mModels.put(model.getModelId(), elements);
+                }
+                elements.put(element.getElementAddress(), element);
+            }
+        }
+        mNodes.put(node.getUnicastAddress(), members);
+    }
+
+    private void remove(final int unicastAddress) {
+        final List<Member> members = mNodes.remove(unicastAddress);
+        if (members == null)
+            return;
+
+        for (Member member : members) {
+            for (int address : member.addresses) {
+                final TreeMap<Long, Member> subscribers = mSubscriptions.get(address);
+                if (subscribers != null && subscribers.get(member.key) == member) {
+                    subscribers.remove(member.key);
+                    if (subscribers.isEmpty())
+                        mSubscriptions.remove(address);
+                }
+            }
+            final int modelId = member.model.getModelId();
+            final TreeMap<Integer, Element> elements = mModels.get(modelId);
+            if (elements != null && elements.get(member.element.getElementAddress()) == member.element) {
+                elements.remove(member.element.getElementAddress());
+                if (elements.isEmpty())
+                    mModels.remove(modelId);
+            }
+        }
+    }
+
+    private static long getKey(final int elementAddress, final int modelId) {
+        return ((long) elementAddress << 32) | (modelId & 0xFFFFFFFFL);
+    }
+}
@@ -23,13 +23,13 @@
 package no.nordicsemi.android.meshprovisioner.transport;
 
 import android.content.Context;
-import android.os.Handler;
 import androidx.annotation.VisibleForTesting;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+import no.nordicsemi.android.meshprovisioner.MeshScheduler;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 
 abstract class AccessLayer {
@@ -37,11 +37,9 @@ abstract class AccessLayer {
     private static final String TAG = AccessLayer.class.getSimpleName();
     protected Context mContext;
     protected int sequenceNumber;
-    protected Handler mHandler;
+    protected MeshScheduler mScheduler;
     ProvisionedMeshNode mMeshNode;
 
-    protected abstract void initHandler();
-
     /**
      * Creates an access message
      *
@@ -80,7 +78,7 @@ abstract class AccessLayer {
         }
         final byte[] accessPdu = accessMessageBuffer.array();
 
-        Log.v(TAG, "Created Access PDU " + MeshParserUtils.bytesToHex(accessPdu, false));
+        MeshLogger.v(TAG, "Created Access PDU ", accessPdu);
         accessMessage.setAccessPdu(accessMessageBuffer.array());
     }
 
@@ -105,7 +103,7 @@ abstract class AccessLayer {
             accessMessageBuffer.put(opCodesCompanyIdentifier);
         }
         final byte[] accessPdu = accessMessageBuffer.array();
-        Log.v(TAG, "Created Access PDU " + MeshParserUtils.bytesToHex(accessPdu, false));
+        MeshLogger.v(TAG, "Created Access PDU ", accessPdu);
         accessMessage.setAccessPdu(accessPdu);
     }
 
@@ -125,7 +123,7 @@ abstract class AccessLayer {
         else {
             opCodeLength = msb;
         }
-        Log.v(TAG, "Opcode length: " + opCodeLength + " Octets");
+        MeshLogger.v(TAG, "Opcode length in octets: ", opCodeLength);
 
         final int opcode = MeshParserUtils.getOpCode(accessPayload, opCodeLength);
         message.setOpCode(opcode);
@@ -133,6 +131,6 @@ abstract class AccessLayer {
         final ByteBuffer paramsBuffer = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
         paramsBuffer.put(accessPayload, opCodeLength, length);
         message.setParameters(paramsBuffer.array());
-        Log.v(TAG, "Received Access PDU " + MeshParserUtils.bytesToHex(accessPayload, false));
+        MeshLogger.v(TAG, "Received Access PDU ", accessPayload);
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.meshprovisioner.OutboundPduScheduler;
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * State for sending any access message.
+ * <p>
+ * Configuration messages are encrypted with the device key, application messages with the application key of the message.
+ * Messages of vendor models are sent with the 3-octet vendor opcode. BLOB chunks are queued as bulk transfers even when they fit in
+ * a single segment.
+ * </p>
+ */
+class AccessMessageState extends MeshMessageState {
+
+    private static final String TAG = AccessMessageState.class.getSimpleName();
+
+    /**
+     * Constructs the state for sending an access message
+     *
+     * @param context       Context of the application
+     * @param src           Source address
+     * @param dst           Destination address to which the message must be sent to
+     * @param key           Device key for configuration messages or the key the message is encrypted with
+     * @param meshMessage   Mesh message containing the opcode and parameters
+     * @param meshTransport {@link MeshTransport}
+     * @param callbacks     {@link InternalMeshMsgHandlerCallbacks} for internal callbacks
+     * @param ttl           Time to live for the message
+     * @throws IllegalArgumentException for any illegal arguments provided.
+     */
+    AccessMessageState(@NonNull final Context context,
+                       final int src,
+                       final int dst,
+                       @NonNull final byte[] key,
+                       @NonNull final MeshMessage meshMessage,
+                       @NonNull final MeshTransport meshTransport,
+                       @NonNull final InternalMeshMsgHandlerCallbacks callbacks,
+                       final int ttl) throws IllegalArgumentException {
+        super(context, meshMessage, meshTransport, callbacks);
+        if (!MeshAddress.isAddressInRange(src))
+            throw new IllegalArgumentException("Invalid address, a source address must be a valid 16-bit value!");
+        this.mSrc = src;
+        if (!MeshAddress.isAddressInRange(dst))
+            throw new IllegalArgumentException("Invalid address, a destination address must be a valid 16-bit value");
+        this.mDst = dst;
+        createAccessMessage(key, ttl);
+    }
+
+    @Override
+    public MessageState getState() {
+        return MessageState.ACCESS_MESSAGE_STATE;
+    }
+
+    /**
+     * Creates the access message to be sent to the node
+     */
+    private void createAccessMessage(@NonNull final byte[] key, final int ttl) {
+        final int akf = mMeshMessage.getAkf();
+        final int aid = mMeshMessage.getAid();
+        final int aszmic = mMeshMessage.getAszmic();
+        final int opCode = mMeshMessage.getOpCode();
+        final byte[] parameters = mMeshMessage.getParameters();
+        if (mMeshMessage instanceof VendorModelMessage) {
+            final int companyIdentifier = ((VendorModelMessage) mMeshMessage).getCompanyIdentifier();
+            message = mMeshTransport.createVendorMeshMessage(companyIdentifier, mSrc, mDst, key, akf, aid, aszmic, opCode, parameters);
+        } else {
+            message = mMeshTransport.createMeshMessage(mSrc, mDst, key, akf, aid, aszmic, opCode, parameters, ttl);
+        }
+        mMeshMessage.setMessage(message);
+    }
+
+    @Override
+    int getPriority() {
+        if (mMeshMessage instanceof BLOBChunkTransfer)
+            return OutboundPduScheduler.PRIORITY_BULK;
+        return super.getPriority();
+    }
+
+    @Override
+    public void executeSend() {
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Sending access message 0x" + Integer.toHexString(mMeshMessage.getOpCode()));
+        }
+        super.executeSend();
+        if (message.getNetworkPdu().size() > 0) {
+            if (mMeshStatusCallbacks != null)
+                mMeshStatusCallbacks.onMeshMessageSent(mDst, mMeshMessage);
+        }
+    }
+}
@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Client driving a BLOB transfer to one or more target nodes.
+ * <p>
+ * The blob is split into blocks of 2^blockSizeLog octets and each block into chunks of the chunk size. For each block the chunks are
+ * sent back-to-back as unacknowledged messages, then the targets are asked for the chunks they are missing using {@link BLOBBlockGet}
+ * and only the missing chunks are sent again until the block is complete or the retries are exhausted. Targets that reject the
+ * transfer, time out or still miss chunks after all retries are dropped and the transfer continues with the remaining targets.
+ * </p>
+ * <p>
+ * Messages are sent using the {@link MessageSender}, i.e. {@link no.nordicsemi.android.meshprovisioner.MeshManagerApi#sendMeshMessage(int, MeshMessage)}.
+ * Received messages and failed transactions must be forwarded to {@link #onMeshMessageReceived(int, MeshMessage)} and
+ * {@link #onTransactionFailed(int)}. The client is not thread safe and must be used on the thread the mesh callbacks are delivered on.
+ * </p>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class BLOBTransferClient {
+
+    private static final String TAG = BLOBTransferClient.class.getSimpleName();
+    private static final int BLOB_ID_LENGTH = 8;
+    private static final int MIN_BLOCK_SIZE_LOG = 0x06;
+    private static final int MAX_BLOCK_SIZE_LOG = 0x20;
+    private static final int MAX_CHUNKS_PER_BLOCK = 0xFFFF;
+    private static final int TRANSFER_MODE_PUSH = 0x01;
+    private static final int STATUS_SUCCESS = 0x00;
+    static final int FORMAT_ALL_CHUNKS_MISSING = 0x00;
+    static final int FORMAT_NO_CHUNKS_MISSING = 0x01;
+    static final int FORMAT_SOME_CHUNKS_MISSING = 0x02;
+    static final int FORMAT_ENCODED_MISSING_CHUNKS = 0x03;
+    public static final int DEFAULT_BLOCK_RETRIES = 5;
+
+    /**
+     * Source of the data to be transferred
+     */
+    public interface BlobSource {
+
+        /**
+         * Returns the size of the blob in octets
+         */
+        int getSize();
+
+        /**
+         * Reads a part of the blob
+         *
+         * @param offset offset within the blob
+         * @param length number of octets to read
+         * @return data read
+         */
+        @NonNull
+        byte[] read(final int offset, final int length);
+    }
+
+    /**
+     * Sends the messages of the transfer
+     */
+    public interface MessageSender {
+
+        /**
+         * Sends a mesh message
+         *
+         * @param dst         destination address
+         * @param meshMessage mesh message
+         */
+        void sendMeshMessage(final int dst, @NonNull final MeshMessage meshMessage);
+    }
+
+    /**
+     * Callbacks reporting the progress of the transfer
+     */
+    public interface BLOBTransferCallbacks {
+
+        /**
+         * Called after each block was received by all remaining targets
+         *
+         * @param bytesTransferred number of octets received by the targets
+         * @param totalBytes       size of the blob
+         * @param throughput       octets received by the targets per second since the transfer started
+         */
+        void onTransferProgress(final int bytesTransferred, final int totalBytes, final float throughput);
+
+        /**
+         * Called when a target is dropped from the transfer
+         *
+         * @param address address of the target
+         * @param status  status reported by the target or -1 if the target did not respond or did not receive all chunks
+         */
+        void onTargetFailed(final int address, final int status);
+
+        /**
+         * Called when all blocks were received by the remaining targets
+         *
+         * @param targets targets that received the blob
+         */
+        void onTransferCompleted(@NonNull final List<Integer> targets);
+
+        /**
+         * Called when all targets were dropped from the transfer
+         */
+        void onTransferFailed();
+    }
+
+    private enum State {
+        IDLE,
+        STARTING,
+        STARTING_BLOCK,
+        RECEIVING_BLOCK_STATUS,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    private final MessageSender mMessageSender;
+    private final byte[] mAppKey;
+    private final BlobSource mBlobSource;
+    private final byte[] mBlobId;
+    private final int mBlockSizeLog;
+    private final int mBlockSize;
+    private final int mChunkSize;
+    private final int mTransferMtuSize;
+    private final int mBlockCount;
+    private final Set<Integer> mTargets = new LinkedHashSet<>();
+    private final Set<Integer> mPendingTargets = new LinkedHashSet<>();
+    private final Map<Integer, BitSet> mMissingChunks = new HashMap<>();
+    private BLOBTransferCallbacks mCallbacks;
+    private int mMulticastAddress = MeshAddress.UNASSIGNED_ADDRESS;
+    private int mBlockRetries = DEFAULT_BLOCK_RETRIES;
+    private State mState = State.IDLE;
+    private int mCurrentBlock;
+    private int mCurrentBlockRetries;
+    private int mBytesTransferred;
+    private int mChunksSent;
+    private long mStartTime;
+
+    /**
+     * Constructs the client for transferring a blob
+     *
+     * @param messageSender   sender used to send the messages of the transfer
+     * @param appKey          application key the BLOB Transfer Server models are bound to
+     * @param blobSource      data to be transferred
+     * @param blobId          8 octet id of the blob
+     * @param targets         unicast addresses of the BLOB Transfer Server models
+     * @param blockSizeLog    block size as a power of two, supported by all targets
+     * @param chunkSize       size of a chunk in octets, supported by all targets
+     * @param transferMtuSize mtu size of the client
+     * @throws IllegalArgumentException if any of the arguments is invalid
+     */
+    public BLOBTransferClient(@NonNull final MessageSender messageSender,
+                              @NonNull final byte[] appKey,
+                              @NonNull final BlobSource blobSource,
+                              @NonNull final byte[] blobId,
+                              @NonNull final List<Integer> targets,
+                              final int blockSizeLog,
+                              final int chunkSize,
+                              final int transferMtuSize) {
+        if (blobId.length != BLOB_ID_LENGTH)
+            throw new IllegalArgumentException("BLOB id must be 8 octets long");
+        if (targets.isEmpty())
+            throw new IllegalArgumentException("At least one target is required");
+        for (int target : targets) {
+            if (!MeshAddress.isValidUnicastAddress(target))
+                throw new IllegalArgumentException("Targets must be unicast addresses");
+        }
+        if (blockSizeLog < MIN_BLOCK_SIZE_LOG || blockSizeLog > MAX_BLOCK_SIZE_LOG)
+            throw new IllegalArgumentException("Block size log must be in range 0x06 to 0x20");
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be greater than 0");
+        if (blobSource.getSize() <= 0)
+            throw new IllegalArgumentException("Blob must not be empty");
+        //Blocks larger than the blob are never used, this also keeps the block size in range of an int
+        final long blockSize = Math.min(1L << blockSizeLog, blobSource.getSize());
+        if ((blockSize + chunkSize - 1) / chunkSize > MAX_CHUNKS_PER_BLOCK)
+            throw new IllegalArgumentException("Chunk size is too small for the block size");
+
+        this.mMessageSender = messageSender;
+        this.mAppKey = appKey;
+        this.mBlobSource = blobSource;
+        this.mBlobId = blobId;
+        this.mTargets.addAll(targets);
+        this.mBlockSizeLog = blockSizeLog;
+        this.mBlockSize = (int) blockSize;
+        this.mChunkSize = chunkSize;
+        this.mTransferMtuSize = transferMtuSize;
+        this.mBlockCount = (blobSource.getSize() + mBlockSize - 1) / mBlockSize;
+    }
+
+    /**
+     * Constructs the client for transferring a blob held in memory
+     *
+     * @see #BLOBTransferClient(MessageSender, byte[], BlobSource, byte[], List, int, int, int)
+     */
+    public BLOBTransferClient(@NonNull final MessageSender messageSender,
+                              @NonNull final byte[] appKey,
+                              @NonNull final byte[] blob,
+                              @NonNull final byte[] blobId,
+                              @NonNull final List<Integer> targets,
+                              final int blockSizeLog,
+                              final int chunkSize,
+                              final int transferMtuSize) {
+        this(messageSender, appKey, new BlobSource() {
+            @Override
+            public int getSize() {
+                return blob.length;
+            }
+
+            @NonNull
+            @Override
+            public byte[] read(final int offset, final int length) {
+                final byte[] data = new byte[length];
+                System.arraycopy(blob, offset, data, 0, length);
+                return data;
+            }
+        }, blobId, targets, blockSizeLog, chunkSize, transferMtuSize);
+    }
+
+    public void setCallbacks(final BLOBTransferCallbacks callbacks) {
+        this.mCallbacks = callbacks;
+    }
+
+    /**
+     * Sets a group address all targets are subscribed to. Chunks are then sent once to the group instead of to each target.
+     *
+     * @param multicastAddress group address or {@link MeshAddress#UNASSIGNED_ADDRESS} to send chunks to each target
+     */
+    public void setMulticastAddress(final int multicastAddress) {
+        if (multicastAddress != MeshAddress.UNASSIGNED_ADDRESS && !MeshAddress.isValidGroupAddress(multicastAddress))
+            throw new IllegalArgumentException("Multicast address must be a group address");
+        this.mMulticastAddress = multicastAddress;
+    }
+
+    /**
+     * Sets the number of times the missing chunks of a block are sent again before the targets still missing chunks are dropped
+     *
+     * @param blockRetries number of retries
+     */
+    public void setBlockRetries(final int blockRetries) {
+        if (blockRetries < 0)
+            throw new IllegalArgumentException("Block retries must not be negative");
+        this.mBlockRetries = blockRetries;
+    }
+
+    /**
+     * Returns the number of blocks the blob is split into
+     */
+    public int getBlockCount() {
+        return mBlockCount;
+    }
+
+    /**
+     * Returns the number of chunk messages sent, including the chunks that were sent again
+     */
+    public int getChunksSent() {
+        return mChunksSent;
+    }
+
+    /**
+     * Returns the number of octets received by all remaining targets
+     */
+    public int getBytesTransferred() {
+        return mBytesTransferred;
+    }
+
+    /**
+     * Returns true while the transfer is in progress
+     */
+    public boolean isActive() {
+        return mState == State.STARTING || mState == State.STARTING_BLOCK || mState == State.RECEIVING_BLOCK_STATUS;
+    }
+
+    /**
+     * Starts the transfer
+     *
+     * @throws IllegalStateException if the transfer has already been started
+     */
+    public void start() {
+        if (mState != State.IDLE)
+            throw new IllegalStateException("Transfer has already been started");
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Starting transfer of " + mBlobSource.getSize() + " octets in " + mBlockCount + " block(s) to " + mTargets.size() + " target(s)");
+        }
+        mStartTime = System.nanoTime();
+        mState = State.STARTING;
+        sendToTargets(new BLOBTransferStart(mAppKey, TRANSFER_MODE_PUSH, mBlobId, mBlobSource.getSize(), mBlockSizeLog, mTransferMtuSize));
+    }
+
+    /**
+     * Stops the transfer, statuses received afterwards are ignored
+     */
+    public void cancel() {
+        if (isActive()) {
+            mState = State.CANCELLED;
+            mPendingTargets.clear();
+        }
+    }
+
+    /**
+     * Handles a message received from a target
+     *
+     * @param src         source address
+     * @param meshMessage received message
+     */
+    public void onMeshMessageReceived(final int src, @NonNull final MeshMessage meshMessage) {
+        if (!mPendingTargets.contains(src))
+            return;
+
+        if (meshMessage instanceof BLOBTransferStatus && mState == State.STARTING) {
+            final BLOBTransferStatus status = (BLOBTransferStatus) meshMessage;
+            if (!status.isSuccessful()) {
+                dropTarget(src, status.getStatus());
+            }
+            onTargetResponded(src);
+        } else if (meshMessage instanceof BLOBBlockStatus && (mState == State.STARTING_BLOCK || mState == State.RECEIVING_BLOCK_STATUS)) {
+            final BLOBBlockStatus status = (BLOBBlockStatus) meshMessage;
+            if (status.getBlockNumber() != mCurrentBlock)
+                return;
+
+            if (status.getStatus() != STATUS_SUCCESS) {
+                dropTarget(src, status.getStatus());
+            } else if (mState == State.RECEIVING_BLOCK_STATUS) {
+                final BitSet missingChunks = getMissingChunks(status.getFormat(), status.getMissingChunks(), getChunkCount(mCurrentBlock));
+                if (missingChunks.isEmpty()) {
+                    mMissingChunks.remove(src);
+                } else {
+                    mMissingChunks.put(src, missingChunks);
+                }
+            }
+            onTargetResponded(src);
+        }
+    }
+
+    /**
+     * Handles an acknowledged message that was not answered by a target
+     *
+     * @param dst destination address of the message
+     */
+    public void onTransactionFailed(final int dst) {
+        if (mPendingTargets.contains(dst)) {
+            dropTarget(dst, -1);
+            onTargetResponded(dst);
+        }
+    }
+
+    private void onTargetResponded(final int address) {
+        mPendingTargets.remove(address);
+        if (!mPendingTargets.isEmpty() || !isActive())
+            return;
+
+        if (mTargets.isEmpty()) {
+            MeshLogger.v(TAG, "Transfer failed, no targets left");
+            mState = State.FAILED;
+            if (mCallbacks != null)
+                mCallbacks.onTransferFailed();
+            return;
+        }
+
+        switch (mState) {
+            case STARTING:
+                startBlock(0);
+                break;
+            case STARTING_BLOCK:
+                final BitSet chunks = new BitSet();
+                chunks.set(0, getChunkCount(mCurrentBlock));
+                sendChunks(chunks);
+                break;
+            case RECEIVING_BLOCK_STATUS:
+                onBlockStatusReceived();
+                break;
+        }
+    }
+
+    private void startBlock(final int blockNumber) {
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Starting block " + blockNumber + "/" + (mBlockCount - 1));
+        }
+        mCurrentBlock = blockNumber;
+        mCurrentBlockRetries = 0;
+        mState = State.STARTING_BLOCK;
+        sendToTargets(new BLOBBlockStart(mAppKey, blockNumber, mChunkSize));
+    }
+
+    private void onBlockStatusReceived() {
+        if (mMissingChunks.isEmpty()) {
+            onBlockCompleted();
+            return;
+        }
+
+        if (mCurrentBlockRetries >= mBlockRetries) {
+            for (int target : new ArrayList<>(mMissingChunks.keySet())) {
+                if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                    MeshLogger.v(TAG, "Target 0x" + Integer.toHexString(target) + " is still missing chunks of block " + mCurrentBlock);
+                }
+                dropTarget(target, -1);
+            }
+            mMissingChunks.clear();
+            if (mTargets.isEmpty()) {
+                mState = State.FAILED;
+                if (mCallbacks != null)
+                    mCallbacks.onTransferFailed();
+            } else {
+                onBlockCompleted();
+            }
+            return;
+        }
+
+        //Chunks missing on any target are sent again, targets that already have a chunk ignore it
+        final BitSet chunks = new BitSet();
+        for (BitSet missingChunks : mMissingChunks.values()) {
+            chunks.or(missingChunks);
+        }
+        mMissingChunks.clear();
+        mCurrentBlockRetries++;
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Resending " + chunks.cardinality() + " missing chunk(s) of block " + mCurrentBlock + ", retry " + mCurrentBlockRetries);
+        }
+        sendChunks(chunks);
+    }
+
+    private void onBlockCompleted() {
+        mBytesTransferred += getBlockLength(mCurrentBlock);
+        if (mCallbacks != null) {
+            mCallbacks.onTransferProgress(mBytesTransferred, mBlobSource.getSize(), getThroughput());
+        }
+
+        if (mCurrentBlock + 1 < mBlockCount) {
+            startBlock(mCurrentBlock + 1);
+        } else {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Transfer completed, " + mChunksSent + " chunk(s) sent at " + getThroughput() + " octets/s");
+            }
+            mState = State.COMPLETED;
+            if (mCallbacks != null)
+                mCallbacks.onTransferCompleted(new ArrayList<>(mTargets));
+        }
+    }
+
+    /**
+     * Sends the given chunks of the current block back-to-back and requests the block status from the targets afterwards
+     *
+     * @param chunks chunk numbers to be sent
+     */
+    private void sendChunks(@NonNull final BitSet chunks) {
+        final int blockOffset = mCurrentBlock * mBlockSize;
+        final int blockLength = getBlockLength(mCurrentBlock);
+        for (int chunk = chunks.nextSetBit(0); chunk >= 0; chunk = chunks.nextSetBit(chunk + 1)) {
+            final int chunkOffset = chunk * mChunkSize;
+            final int length = Math.min(mChunkSize, blockLength - chunkOffset);
+            final byte[] data = mBlobSource.read(blockOffset + chunkOffset, length);
+            final BLOBChunkTransfer chunkTransfer = new BLOBChunkTransfer(mAppKey, chunk, data);
+            if (mMulticastAddress != MeshAddress.UNASSIGNED_ADDRESS) {
+                mMessageSender.sendMeshMessage(mMulticastAddress, chunkTransfer);
+                mChunksSent++;
+            } else {
+                for (int target : new ArrayList<>(mTargets)) {
+                    mMessageSender.sendMeshMessage(target, chunkTransfer);
+                    mChunksSent++;
+                }
+            }
+        }
+        mState = State.RECEIVING_BLOCK_STATUS;
+        sendToTargets(new BLOBBlockGet(mAppKey));
+    }
+
+    private void sendToTargets(@NonNull final MeshMessage meshMessage) {
+        //Responses may be delivered while sending, all targets must be pending before the first message is sent
+        final List<Integer> targets = new ArrayList<>(mTargets);
+        mPendingTargets.addAll(targets);
+        for (int target : targets) {
+            mMessageSender.sendMeshMessage(target, meshMessage);
+        }
+    }
+
+    private void dropTarget(final int address, final int status) {
+        if (mTargets.remove(address)) {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Dropping target 0x" + Integer.toHexString(address) + ", status: " + status);
+            }
+            mMissingChunks.remove(address);
+            if (mCallbacks != null)
+                mCallbacks.onTargetFailed(address, status);
+        }
+    }
+
+    private int getBlockLength(final int blockNumber) {
+        return Math.min(mBlockSize, mBlobSource.getSize() - blockNumber * mBlockSize);
+    }
+
+    private int getChunkCount(final int blockNumber) {
+        return (getBlockLength(blockNumber) + mChunkSize - 1) / mChunkSize;
+    }
+
+    private float getThroughput() {
+        final long elapsed = System.nanoTime() - mStartTime;
+        return elapsed > 0 ? mBytesTransferred * 1000000000f / elapsed : 0;
+    }
+
+    /**
+     * Returns the missing chunks reported by a block status
+     *
+     * @param format        format of the missing chunks field
+     * @param missingChunks missing chunks field
+     * @param chunkCount    number of chunks in the block
+     * @return chunk numbers of the missing chunks
+     */
+    static BitSet getMissingChunks(final int format, @NonNull final byte[] missingChunks, final int chunkCount) {
+        final BitSet chunks = new BitSet(chunkCount);
+        switch (format) {
+            case FORMAT_ALL_CHUNKS_MISSING:
+                chunks.set(0, chunkCount);
+                break;
+            case FORMAT_SOME_CHUNKS_MISSING:
+                //Bit n of the bitmap is set if chunk n is missing, starting with the least significant bit of the first octet
+                for (int chunk = 0; chunk < chunkCount && chunk / 8 < missingChunks.length; chunk++) {
+                    if ((missingChunks[chunk / 8] & (1 << (chunk % 8))) != 0) {
+                        chunks.set(chunk);
+                    }
+                }
+                break;
+            case FORMAT_ENCODED_MISSING_CHUNKS:
+                //List of chunk numbers, each encoded as a UTF-8 character
+                int index = 0;
+                while (index < missingChunks.length) {
+                    final int lead = missingChunks[index] & 0xFF;
+                    final int length = lead < 0x80 ? 1 : lead < 0xE0 ? 2 : lead < 0xF0 ? 3 : 4;
+                    int chunk = length == 1 ? lead : lead & (0xFF >> (length + 1));
+                    for (int i = 1; i < length && index + i < missingChunks.length; i++) {
+                        chunk = (chunk << 6) | (missingChunks[index + i] & 0x3F);
+                    }
+                    if (chunk < chunkCount) {
+                        chunks.set(chunk);
+                    }
+                    index += length;
+                }
+                break;
+            case FORMAT_NO_CHUNKS_MISSING:
+            default:
+                break;
+        }
+        return chunks;
+    }
+}
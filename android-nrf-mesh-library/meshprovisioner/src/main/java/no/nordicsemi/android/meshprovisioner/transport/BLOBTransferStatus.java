@@ -30,7 +30,7 @@ import android.util.Log;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
-import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 
 /**
@@ -40,7 +40,8 @@ import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 public class BLOBTransferStatus extends ConfigStatusMessage implements Parcelable {
 
     private static final String TAG = BLOBTransferStatus.class.getSimpleName();
-    private static final int OP_CODE = ConfigMessageOpCodes.CONFIG_APPKEY_STATUS;
+    private static final int OP_CODE = ApplicationMessageOpCodes.BLOB_TRANSFER_STATUS;
+    private static final int BLOB_ID_LENGTH = 8;
 
     private int mStatus;
     private int mTransferMode;
@@ -78,19 +79,27 @@ public class BLOBTransferStatus extends ConfigStatusMessage implements Parcelabl
 
     @Override
     final void parseStatusParameters() {
-        // mStatusCode = mParameters[0];
-        // mStatusCodeName = getStatusCodeName(mStatusCode);
-
-        // final byte[] netKeyIndex = new byte[]{(byte) (mParameters[2] & 0x0F), mParameters[1]};
-        // mNetKeyIndex = ByteBuffer.wrap(netKeyIndex).order(ByteOrder.BIG_ENDIAN).getShort();
-
-        // final byte[] appKeyIndex = new byte[]{(byte) ((mParameters[3] & 0xF0) >> 4), (byte) (mParameters[3] << 4 | ((mParameters[2] & 0xF0) >> 4))};
-        // mAppKeyIndex = ByteBuffer.wrap(appKeyIndex).order(ByteOrder.BIG_ENDIAN).getShort();
-
-        // Log.v(TAG, "Status code: " + mStatusCode);
-        // Log.v(TAG, "Status message: " + mStatusCodeName);
-        // Log.v(TAG, "Net key index: " + MeshParserUtils.bytesToHex(netKeyIndex, false));
-        // Log.v(TAG, "App key index: " + MeshParserUtils.bytesToHex(appKeyIndex, false));
+        final ByteBuffer buffer = ByteBuffer.wrap(mParameters).order(ByteOrder.LITTLE_ENDIAN);
+        final int statusMode = buffer.get() & 0xFF;
+        mStatus = statusMode >> 4;
+        mTransferMode = statusMode & 0x03;
+        mStatusCode = mStatus;
+        if (buffer.remaining() > 0) {
+            mTransferPhase = buffer.get() & 0xFF;
+        }
+        //The remaining fields are only included once a transfer has been started
+        if (buffer.remaining() >= BLOB_ID_LENGTH) {
+            blobId = new byte[BLOB_ID_LENGTH];
+            buffer.get(blobId);
+        }
+        if (buffer.remaining() >= 7) {
+            mBlobSize = buffer.getInt();
+            mBlockSizeLog = buffer.get() & 0xFF;
+            mTransferMTUSize = buffer.getShort() & 0xFFFF;
+        }
+        Log.v(TAG, "Status: " + mStatus + " transfer mode: " + mTransferMode + " transfer phase: " + mTransferPhase +
+                " blob id: " + (blobId != null ? MeshParserUtils.bytesToHex(blobId, false) : "none") + " blob size: " + mBlobSize +
+                " block size log: " + mBlockSizeLog + " transfer mtu size: " + mTransferMTUSize);
     }
 
     @Override
@@ -98,32 +107,48 @@ public class BLOBTransferStatus extends ConfigStatusMessage implements Parcelabl
         return OP_CODE;
     }
 
-    // /**
-    //  * Returns the global index of the net key.
-    //  *
-    //  * @return netkey index
-    //  */
-    // public final int getNetKeyIndex() {
-    //     return mNetKeyIndex;
-    // }
-
-    // /**
-    //  * Returns the global app key index.
-    //  *
-    //  * @return appkey index
-    //  */
-    // public final int getAppKeyIndex() {
-    //     return mAppKeyIndex;
-    // }
-
-    // /**
-    //  * Returns if the message was successful
-    //  *
-    //  * @return true if the message was successful or false otherwise
-    //  */
-    // public final boolean isSuccessful() {
-    //     return mStatusCode == 0x00;
-    // }
+    /**
+     * Returns the status of the transfer, 0 if the transfer was accepted
+     */
+    public final int getStatus() {
+        return mStatus;
+    }
+
+    /**
+     * Returns if the message was successful
+     *
+     * @return true if the message was successful or false otherwise
+     */
+    public final boolean isSuccessful() {
+        return mStatus == 0x00;
+    }
+
+    public final int getTransferMode() {
+        return mTransferMode;
+    }
+
+    public final int getTransferPhase() {
+        return mTransferPhase;
+    }
+
+    /**
+     * Returns the id of the blob being transferred or null if no transfer is active
+     */
+    public final byte[] getBlobId() {
+        return blobId;
+    }
+
+    public final int getBlobSize() {
+        return mBlobSize;
+    }
+
+    public final int getBlockSizeLog() {
+        return mBlockSizeLog;
+    }
+
+    public final int getTransferMTUSize() {
+        return mTransferMTUSize;
+    }
 
     @Override
     public int describeContents() {
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+
+/**
+ * To be used as a wrapper class to create the ConfigAppKeyUpdate message, distributing the new key of an application key during the
+ * first phase of a key refresh of the network key it is bound to.
+ */
+@SuppressWarnings("unused")
+public class ConfigAppKeyUpdate extends ConfigMessage {
+
+    private static final String TAG = ConfigAppKeyUpdate.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.CONFIG_APPKEY_UPDATE;
+
+    private final NetworkKey mNetKey;
+    private final ApplicationKey mAppKey;
+
+    /**
+     * Constructs ConfigAppKeyUpdate message.
+     *
+     * @param networkKey network key the application key is bound to
+     * @param appKey     application key holding the new key
+     * @throws IllegalArgumentException if any illegal arguments are passed
+     */
+    public ConfigAppKeyUpdate(@NonNull final NetworkKey networkKey, @NonNull final ApplicationKey appKey) throws IllegalArgumentException {
+        if (appKey.getKey().length != 16)
+            throw new IllegalArgumentException("App key must be 16 bytes");
+
+        this.mNetKey = networkKey;
+        this.mAppKey = appKey;
+        assembleMessageParameters();
+    }
+
+    /**
+     * Returns the network key the application key is bound to
+     *
+     * @return network key
+     */
+    public NetworkKey getNetKey() {
+        return mNetKey;
+    }
+
+    /**
+     * Returns the application key that is sent to the node
+     *
+     * @return app key
+     */
+    public ApplicationKey getAppKey() {
+        return mAppKey;
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        //Both 12-bit key indexes are packed into 3 octets, starting with the net key index
+        final int netKeyIndex = mNetKey.getKeyIndex() & 0x0FFF;
+        final int appKeyIndex = mAppKey.getKeyIndex() & 0x0FFF;
+        mParameters = new byte[19];
+        mParameters[0] = (byte) netKeyIndex;
+        mParameters[1] = (byte) ((appKeyIndex << 4) | (netKeyIndex >> 8));
+        mParameters[2] = (byte) (appKeyIndex >> 4);
+        System.arraycopy(mAppKey.getKey(), 0, mParameters, 3, 16);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+
+/**
+ * To be used as a wrapper class to create the ConfigKeyRefreshPhaseSet message, moving a node to the next phase of a key refresh.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class ConfigKeyRefreshPhaseSet extends ConfigMessage {
+
+    private static final String TAG = ConfigKeyRefreshPhaseSet.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.CONFIG_KEY_REFRESH_PHASE_SET;
+    /**
+     * Transition to the second phase, the node starts sending with the new keys
+     */
+    public static final int USE_NEW_KEYS = 0x02;
+    /**
+     * Transition to the third phase, the node revokes the old keys and returns to normal operation
+     */
+    public static final int REVOKE_OLD_KEYS = 0x03;
+
+    private final NetworkKey mNetKey;
+    private final int mTransition;
+
+    /**
+     * Constructs ConfigKeyRefreshPhaseSet message.
+     *
+     * @param networkKey network key being refreshed
+     * @param transition {@link #USE_NEW_KEYS} or {@link #REVOKE_OLD_KEYS}
+     * @throws IllegalArgumentException if any illegal arguments are passed
+     */
+    public ConfigKeyRefreshPhaseSet(@NonNull final NetworkKey networkKey, final int transition) throws IllegalArgumentException {
+        if (transition != USE_NEW_KEYS && transition != REVOKE_OLD_KEYS)
+            throw new IllegalArgumentException("Transition must be 0x02 or 0x03");
+
+        this.mNetKey = networkKey;
+        this.mTransition = transition;
+        assembleMessageParameters();
+    }
+
+    /**
+     * Returns the network key being refreshed
+     *
+     * @return network key
+     */
+    public NetworkKey getNetKey() {
+        return mNetKey;
+    }
+
+    /**
+     * Returns the transition
+     */
+    public int getTransition() {
+        return mTransition;
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        final int keyIndex = mNetKey.getKeyIndex() & 0x0FFF;
+        mParameters = new byte[]{(byte) keyIndex, (byte) (keyIndex >> 8), (byte) mTransition};
+    }
+}
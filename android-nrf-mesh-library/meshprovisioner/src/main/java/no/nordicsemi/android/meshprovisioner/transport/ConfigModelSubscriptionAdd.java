@@ -90,6 +90,33 @@ public final class ConfigModelSubscriptionAdd extends ConfigMessage {
         return OP_CODE;
     }
 
+    /**
+     * Returns the element address of the model that must subscribe.
+     *
+     * @return element address
+     */
+    public int getElementAddress() {
+        return elementAddress;
+    }
+
+    /**
+     * Returns the address the model must subscribe to.
+     *
+     * @return subscription address
+     */
+    public int getSubscriptionAddress() {
+        return mSubscriptionAddress;
+    }
+
+    /**
+     * Returns the model identifier of the model that must subscribe.
+     *
+     * @return 16-bit or 32-bit vendor model identifier
+     */
+    public int getModelIdentifier() {
+        return mModelIdentifier;
+    }
+
     @Override
     void assembleMessageParameters() {
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+
+/**
+ * To be used as a wrapper class to create the ConfigNetKeyUpdate message, distributing the new key of a network key during the first
+ * phase of a key refresh.
+ */
+@SuppressWarnings("unused")
+public class ConfigNetKeyUpdate extends ConfigMessage {
+
+    private static final String TAG = ConfigNetKeyUpdate.class.getSimpleName();
+    private static final int OP_CODE = ConfigMessageOpCodes.CONFIG_NETKEY_UPDATE;
+
+    private final NetworkKey mNetKey;
+
+    /**
+     * Constructs ConfigNetKeyUpdate message.
+     *
+     * @param networkKey network key holding the new key
+     * @throws IllegalArgumentException if any illegal arguments are passed
+     */
+    public ConfigNetKeyUpdate(@NonNull final NetworkKey networkKey) throws IllegalArgumentException {
+        if (networkKey.getKey().length != 16)
+            throw new IllegalArgumentException("Network key must be 16 bytes");
+
+        this.mNetKey = networkKey;
+        assembleMessageParameters();
+    }
+
+    /**
+     * Returns the network key that is sent to the node
+     *
+     * @return network key
+     */
+    public NetworkKey getNetKey() {
+        return mNetKey;
+    }
+
+    @Override
+    public int getOpCode() {
+        return OP_CODE;
+    }
+
+    @Override
+    void assembleMessageParameters() {
+        final int keyIndex = mNetKey.getKeyIndex();
+        final ByteBuffer paramsBuffer = ByteBuffer.allocate(18).order(ByteOrder.LITTLE_ENDIAN);
+        paramsBuffer.putShort((short) (keyIndex & 0x0FFF));
+        paramsBuffer.put(mNetKey.getKey());
+        mParameters = paramsBuffer.array();
+    }
+}
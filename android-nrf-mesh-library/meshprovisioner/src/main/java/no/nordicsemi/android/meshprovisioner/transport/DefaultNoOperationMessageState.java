@@ -1,22 +1,21 @@
 package no.nordicsemi.android.meshprovisioner.transport;
 
 import android.content.Context;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import java.util.ArrayList;
 
 import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
 import no.nordicsemi.android.meshprovisioner.control.BlockAcknowledgementMessage;
 import no.nordicsemi.android.meshprovisioner.control.TransportControlMessage;
-import no.nordicsemi.android.meshprovisioner.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.meshprovisioner.opcodes.ProxyConfigMessageOpCodes;
 import no.nordicsemi.android.meshprovisioner.utils.AddressArray;
 import no.nordicsemi.android.meshprovisioner.utils.ExtendedInvalidCipherTextException;
-import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.NetworkTransmitSettings;
 import no.nordicsemi.android.meshprovisioner.utils.ProxyFilter;
 import no.nordicsemi.android.meshprovisioner.utils.ProxyFilterType;
@@ -27,6 +26,8 @@ class DefaultNoOperationMessageState extends MeshMessageState {
 
 
     private static final String TAG = DefaultNoOperationMessageState.class.getSimpleName();
+    private MeshTransactionManager mTransactionManager;
+    private StatusMessageRegistry mStatusMessageRegistry;
 
     DefaultNoOperationMessageState(@NonNull final Context context,
                                    @Nullable final MeshMessage meshMessage,
@@ -40,6 +41,43 @@ class DefaultNoOperationMessageState extends MeshMessageState {
         return null;
     }
 
+    /**
+     * Sets the transaction manager used to match received status messages to the messages that were sent
+     *
+     * @param transactionManager transaction manager
+     */
+    void setTransactionManager(final MeshTransactionManager transactionManager) {
+        this.mTransactionManager = transactionManager;
+    }
+
+    /**
+     * Sets the registry used to create the status messages received
+     *
+     * @param statusMessageRegistry status message registry
+     */
+    void setStatusMessageRegistry(final StatusMessageRegistry statusMessageRegistry) {
+        this.mStatusMessageRegistry = statusMessageRegistry;
+    }
+
+    /**
+     * Returns the mesh message a received status message is responding to
+     *
+     * @param src    source address of the status message
+     * @param opCode opcode of the status message
+     * @return the message of the outstanding transaction completed by the status or null if the status is late, a duplicate or was
+     * not requested by this client
+     */
+    @Nullable
+    private MeshMessage getRequest(final int src, final int opCode) {
+        if (mTransactionManager != null) {
+            final MeshTransaction transaction = mTransactionManager.complete(src, opCode);
+            if (transaction != null) {
+                return transaction.getMeshMessage();
+            }
+        }
+        return null;
+    }
+
     void parseMeshPdu(final byte[] pdu) {
         final Message message;
         try {
@@ -51,240 +89,164 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     parseControlMessage((ControlMessage) message);
                 }
             } else {
-                Log.v(TAG, "Message reassembly may not be completed yet!");
+                MeshLogger.v(TAG, "Message reassembly may not be completed yet!");
             }
         } catch (ExtendedInvalidCipherTextException e) {
-            Log.e(TAG, "Decryption failed in " + e.getTag() + " : " + e.getMessage());
+            MeshLogger.e(TAG, "Decryption failed in " + e.getTag() + " : " + e.getMessage());
             mMeshStatusCallbacks.onMessageDecryptionFailed(e.getTag(), e.getMessage());
         }
     }
 
     /**
      * Parses Access message received
+     * <p>
+     * The status message is created by the factory registered for the opcode in the {@link StatusMessageRegistry}.
+     * </p>
      *
      * @param message access message received by the acccess layer
      */
-    private void parseAccessMessage(final AccessMessage message) {
-        //if (message.getDst() == this.mMeshTransport.ne)
-        // this.mMeshTransport.mNetworkLayerCallbacks.getProvisioner().getProvisionerAddress();
-
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    void parseAccessMessage(final AccessMessage message) {
         // Notify on all messages received
         mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), new GenericAccessMessageStatus(message));
 
+        final MeshMessage meshMessage = getRequest(message.getSrc(), message.getOpCode());
         final byte[] accessPayload = message.getAccessPdu();
         final ProvisionedMeshNode node = mInternalTransportCallbacks.getProvisionedNode(message.getSrc());
-        final int opCodeLength = ((accessPayload[0] & 0xF0) >> 6);
         if (node == null) {
-            Log.v(TAG, "Node is null, ignoring message");
+            MeshLogger.v(TAG, "Node is null, ignoring message");
             return;
         }
-        Log.v(TAG, "parsing access message: " + MeshParserUtils.bytesToHex(accessPayload, true));
+        MeshLogger.v(TAG, "parsing access message: ", accessPayload);
 
+        final StatusMessageRegistry.StatusMessageFactory factory = mStatusMessageRegistry != null ? mStatusMessageRegistry.get(message.getOpCode()) : null;
+        if (factory != null) {
+            final MeshMessage status = factory.create(message);
+            if (updateNode(node, meshMessage, message.getOpCode(), status)) {
+                mInternalTransportCallbacks.updateMeshNetwork(status);
+            }
+            mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+        } else if (StatusMessageRegistry.isVendorOpCode(message.getOpCode()) && meshMessage instanceof VendorModelMessage) {
+            final VendorModelMessage vendorModelMessage = (VendorModelMessage) meshMessage;
+            final VendorModelMessageStatus status = new VendorModelMessageStatus(message, vendorModelMessage.getModelIdentifier());
+            mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+            MeshLogger.v(TAG, "Vendor model Access PDU Received: ", accessPayload);
+        } else {
+            MeshLogger.v(TAG, "Unknown Access PDU Received: ", accessPayload);
+        }
+    }
 
-        //OpCode length
-        switch (opCodeLength) {
-            case 0:
-                if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS) {
-                    final ConfigCompositionDataStatus status = new ConfigCompositionDataStatus(message);
-                    node.setCompositionData(status);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.HEALTH_FAULT_STATUS) {
-                    final HealthFaultStatus faultStatus = new HealthFaultStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(faultStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), faultStatus);
+    /**
+     * Applies the configuration reported by a status message to the node.
+     * <p>
+     * Only a status completing an outstanding transaction changes the node. A retried transaction may be answered twice, the second
+     * status must not be applied to whatever message was sent last.
+     * </p>
+     *
+     * @param node        node the status message was received from
+     * @param meshMessage message the status is responding to or null if there was no matching transaction
+     * @param opCode      opcode of the status message
+     * @param status      status message
+     * @return true if the mesh network must be updated
+     */
+    private boolean updateNode(@NonNull final ProvisionedMeshNode node,
+                               @Nullable final MeshMessage meshMessage,
+                               final int opCode,
+                               @NonNull final MeshMessage status) {
+        if (meshMessage == null)
+            return false;
+
+        switch (opCode) {
+            case ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS:
+                if (status instanceof ConfigCompositionDataStatus) {
+                    node.setCompositionData((ConfigCompositionDataStatus) status);
                 }
                 break;
-            case 1:
-                if (message.getOpCode() == ApplicationMessageOpCodes.SCENE_STATUS) {
-                    final SceneStatus sceneStatus = new SceneStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(sceneStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), sceneStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.GENERIC_USER_PROPERTY_STATUS) {
-                    final GenericUserPropertyStatus userPropertyStatus = new GenericUserPropertyStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(userPropertyStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), userPropertyStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.TIME_STATUS) {
-                    final TimeStatus timeStatus = new TimeStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(timeStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), timeStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SCHEDULER_ACTION_STATUS) {
-                    final SchedulerActionStatus schedulerActionStatus = new SchedulerActionStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(schedulerActionStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), schedulerActionStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.BLOB_BLOCK_STATUS) {
-                    final BLOBBlockStatus blobBlockStatus = new BLOBBlockStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(blobBlockStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), blobBlockStatus);
+            case ConfigMessageOpCodes.CONFIG_APPKEY_STATUS:
+                if (status instanceof ConfigAppKeyStatus) {
+                    final ConfigAppKeyStatus appKeyStatus = (ConfigAppKeyStatus) status;
+                    if (appKeyStatus.isSuccessful() && meshMessage instanceof ConfigAppKeyAdd) {
+                        node.setAddedAppKey(appKeyStatus.getAppKeyIndex(), ((ConfigAppKeyAdd) meshMessage).getAppKey());
+                    }
                 }
                 break;
-            case 2:
-                if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_APPKEY_STATUS) {
-                    final ConfigAppKeyStatus status = new ConfigAppKeyStatus(message);
-                    if (status.isSuccessful()) {
-                        if (mMeshMessage instanceof ConfigAppKeyAdd) {
-                            final ConfigAppKeyAdd configAppKeyAdd = (ConfigAppKeyAdd) mMeshMessage;
-                            node.setAddedAppKey(status.getAppKeyIndex(), configAppKeyAdd.getAppKey());
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS) {
-                    final ConfigModelAppStatus status = new ConfigModelAppStatus(message);
-                    if (status.isSuccessful()) {
-                        if (mMeshMessage instanceof ConfigModelAppBind) {
-                            node.setAppKeyBindStatus(status);
-                        } else {
-                            node.setAppKeyUnbindStatus(status);
+            case ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS:
+                if (status instanceof ConfigModelAppStatus) {
+                    final ConfigModelAppStatus modelAppStatus = (ConfigModelAppStatus) status;
+                    if (modelAppStatus.isSuccessful()) {
+                        if (meshMessage instanceof ConfigModelAppBind) {
+                            node.setAppKeyBindStatus(modelAppStatus);
+                        } else if (meshMessage instanceof ConfigModelAppUnbind) {
+                            node.setAppKeyUnbindStatus(modelAppStatus);
                         }
                     }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_STATUS) {
-                    final ConfigModelPublicationStatus status = new ConfigModelPublicationStatus(message);
-                    if (status.isSuccessful()) {
-                        final Element element = node.getElements().get(status.getElementAddress());
-                        if(element != null) {
-                            final MeshModel model = element.getMeshModels().get(status.getModelIdentifier());
-                            if(model != null) {
-                                model.setPublicationStatus(status);
-                            }
+                }
+                break;
+            case ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_STATUS:
+                if (status instanceof ConfigModelPublicationStatus) {
+                    final ConfigModelPublicationStatus publicationStatus = (ConfigModelPublicationStatus) status;
+                    if (publicationStatus.isSuccessful()) {
+                        final MeshModel model = getMeshModel(node, publicationStatus.getElementAddress(), publicationStatus.getModelIdentifier());
+                        if (model != null) {
+                            model.setPublicationStatus(publicationStatus);
                         }
                     }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS) {
-                    final ConfigModelSubscriptionStatus status = new ConfigModelSubscriptionStatus(message);
-
-                    if (status.isSuccessful()) {
-                        final Element element = node.getElements().get(status.getElementAddress());
-                        if(element != null) {
-                            final MeshModel model = element.getMeshModels().get(status.getModelIdentifier());
-                            if(model != null) {
-                                if (mMeshMessage instanceof ConfigModelSubscriptionAdd) {
-                                    model.addSubscriptionAddress(status.getSubscriptionAddress());
-                                } else if (mMeshMessage instanceof ConfigModelSubscriptionDelete) {
-                                    model.removeSubscriptionAddress(status.getSubscriptionAddress());
-                                }
+                }
+                break;
+            case ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS:
+                if (status instanceof ConfigModelSubscriptionStatus) {
+                    final ConfigModelSubscriptionStatus subscriptionStatus = (ConfigModelSubscriptionStatus) status;
+                    if (subscriptionStatus.isSuccessful()) {
+                        final MeshModel model = getMeshModel(node, subscriptionStatus.getElementAddress(), subscriptionStatus.getModelIdentifier());
+                        if (model != null) {
+                            if (meshMessage instanceof ConfigModelSubscriptionAdd) {
+                                model.addSubscriptionAddress(subscriptionStatus.getSubscriptionAddress());
+                            } else if (meshMessage instanceof ConfigModelSubscriptionDelete) {
+                                model.removeSubscriptionAddress(subscriptionStatus.getSubscriptionAddress());
                             }
                         }
                     }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS) {
-                    final ConfigNodeResetStatus status = new ConfigNodeResetStatus(message);
+                }
+                break;
+            case ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS:
+                if (meshMessage instanceof ConfigNodeReset) {
                     mInternalTransportCallbacks.onMeshNodeReset(node);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_STATUS) {
-                    final ConfigNetworkTransmitStatus status = new ConfigNetworkTransmitStatus(message);
-                    final NetworkTransmitSettings networkTransmitSettings =
-                            new NetworkTransmitSettings(status.getNetworkTransmitCount(), status.getNetworkTransmitIntervalSteps());
-                    node.setNetworkTransmitSettings(networkTransmitSettings);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_RELAY_STATUS) {
-                    final ConfigRelayStatus status = new ConfigRelayStatus(message);
-                    final RelaySettings relaySettings =
-                            new RelaySettings(status.getRelayRetransmitCount(), status.getRelayRetransmitIntervalSteps());
-                    node.setRelaySettings(relaySettings);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_GATT_PROXY_STATUS) {
-                    final ConfigProxyStatus status = new ConfigProxyStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.GENERIC_USER_PROPERTY_STATUS) {
-                    final GenericUserPropertyStatus status = new GenericUserPropertyStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.GENERIC_ON_OFF_STATUS) {
-                    final GenericOnOffStatus status = new GenericOnOffStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.GENERIC_ON_POWER_UP_STATUS) {
-                    final GenericOnPowerUpStatus status = new GenericOnPowerUpStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.HEALTH_ATTENTION_STATUS) {
-                    final HealthAttentionStatus status = new HealthAttentionStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.GENERIC_LEVEL_STATUS) {
-                    final GenericLevelStatus genericLevelStatus = new GenericLevelStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(genericLevelStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), genericLevelStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_LIGHTNESS_STATUS) {
-                    final LightLightnessStatus lightLightnessStatus = new LightLightnessStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightLightnessStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightLightnessStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_CTL_STATUS) {
-                    final LightCtlStatus lightCtlStatus = new LightCtlStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightCtlStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightCtlStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_HSL_STATUS) {
-                    final LightHslStatus lightHslStatus = new LightHslStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightHslStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightHslStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_LIGHTNESS_DEFAULT_STATUS) {
-                    final LightLightnessDefaultStatus lightLightnessDefaultStatus = new LightLightnessDefaultStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightLightnessDefaultStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightLightnessDefaultStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_CTL_DEFAULT_STATUS) {
-                    final LightCtlDefaultStatus lightCtlDefaultStatus = new LightCtlDefaultStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightCtlDefaultStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightCtlDefaultStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_HSL_DEFAULT_STATUS) {
-                    final LightHslDefaultStatus lightHslDefaultStatus = new LightHslDefaultStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightHslDefaultStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightHslDefaultStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SCENE_REGISTER_STATUS) {
-                    final SceneRegisterStatus registerStatus = new SceneRegisterStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(registerStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), registerStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.TIME_ZONE_STATUS) {
-                    final TimezoneStatus timezoneStatus = new TimezoneStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(timezoneStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), timezoneStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.TIME_ROLE_STATUS) {
-                    final TimeRoleStatus timeRoleStatus = new TimeRoleStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(timeRoleStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), timeRoleStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.TAI_UTC_DELTA_STATUS) {
-                    final TaiUtcDeltaStatus taiUtcDeltaStatus = new TaiUtcDeltaStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(taiUtcDeltaStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), taiUtcDeltaStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SCHEDULER_STATUS) {
-                    final SchedulerStatus schedulerStatus = new SchedulerStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(schedulerStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), schedulerStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.BLOB_TRANSFER_STATUS) {
-                    final BLOBTransferStatus blobTransferStatus = new BLOBTransferStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(blobTransferStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), blobTransferStatus);
                 }
-                else {
-                    Log.v(TAG, "Unknown Access PDU Received: " + MeshParserUtils.bytesToHex(accessPayload, false));
+                return false;
+            case ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_STATUS:
+                if (status instanceof ConfigNetworkTransmitStatus) {
+                    final ConfigNetworkTransmitStatus networkTransmitStatus = (ConfigNetworkTransmitStatus) status;
+                    node.setNetworkTransmitSettings(new NetworkTransmitSettings(networkTransmitStatus.getNetworkTransmitCount(),
+                            networkTransmitStatus.getNetworkTransmitIntervalSteps()));
                 }
                 break;
-            case 3:
-                if (mMeshMessage instanceof VendorModelMessageAcked) {
-                    final VendorModelMessageAcked vendorModelMessageAcked = (VendorModelMessageAcked) mMeshMessage;
-                    final VendorModelMessageStatus status = new VendorModelMessageStatus(message, vendorModelMessageAcked.getModelIdentifier());
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                    Log.v(TAG, "Vendor model Access PDU Received: " + MeshParserUtils.bytesToHex(accessPayload, false));
-                } else if (mMeshMessage instanceof VendorModelMessageUnacked) {
-                    final VendorModelMessageUnacked vendorModelMessageUnacked = (VendorModelMessageUnacked) mMeshMessage;
-                    final VendorModelMessageStatus status = new VendorModelMessageStatus(message, vendorModelMessageUnacked.getModelIdentifier());
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+            case ConfigMessageOpCodes.CONFIG_RELAY_STATUS:
+                if (status instanceof ConfigRelayStatus) {
+                    final ConfigRelayStatus relayStatus = (ConfigRelayStatus) status;
+                    node.setRelaySettings(new RelaySettings(relayStatus.getRelayRetransmitCount(), relayStatus.getRelayRetransmitIntervalSteps()));
                 }
                 break;
             default:
-                Log.v(TAG, "Unknown Access PDU Received: " + MeshParserUtils.bytesToHex(accessPayload, false));
-                mMeshStatusCallbacks.onUnknownPduReceived(message.getSrc(), message.getAccessPdu());
                 break;
         }
+        return true;
+    }
+
+    /**
+     * Returns the model of a node
+     *
+     * @param node            node
+     * @param elementAddress  address of the element containing the model
+     * @param modelIdentifier identifier of the model
+     * @return model or null if the node does not contain the model
+     */
+    @Nullable
+    private MeshModel getMeshModel(@NonNull final ProvisionedMeshNode node, final int elementAddress, final int modelIdentifier) {
+        final Element element = node.getElements().get(elementAddress);
+        if (element != null) {
+            return element.getMeshModels().get(modelIdentifier);
+        }
+        return null;
     }
 
     /**
@@ -293,36 +255,52 @@ class DefaultNoOperationMessageState extends MeshMessageState {
      * @param controlMessage control message received by the transport layer
      */
     private void parseControlMessage(final ControlMessage controlMessage) {
-        //Get the segment count count of the access message
-        final int segmentCount = message.getNetworkPdu().size();
         if (controlMessage.getPduType() == MeshManagerApi.PDU_TYPE_NETWORK) {
             final TransportControlMessage transportControlMessage = controlMessage.getTransportControlMessage();
             switch (transportControlMessage.getState()) {
                 case LOWER_TRANSPORT_BLOCK_ACKNOWLEDGEMENT:
-                    Log.v(TAG, "Acknowledgement payload: " + MeshParserUtils.bytesToHex(controlMessage.getTransportControlPdu(), false));
-                    final ArrayList<Integer> retransmitPduIndexes = BlockAcknowledgementMessage.getSegmentsToBeRetransmitted(controlMessage.getTransportControlPdu(), segmentCount);
+                    MeshLogger.v(TAG, "Acknowledgement payload: ", controlMessage.getTransportControlPdu());
+                    //The acknowledgement is for the segmented message sent to the node, which may not be the last message sent
+                    final MeshMessageState state = mTransactionManager != null ? mTransactionManager.getSegmentedState(controlMessage.getSrc()) : null;
                     mMeshStatusCallbacks.onBlockAcknowledgementReceived(controlMessage.getSrc());
-                    executeResend(retransmitPduIndexes);
+                    if (state == null) {
+                        MeshLogger.v(TAG, "No segmented message outstanding, ignoring acknowledgement");
+                        break;
+                    }
+                    //Get the segment count count of the access message
+                    final int segmentCount = state.getNetworkPdu().size();
+                    final ArrayList<Integer> retransmitPduIndexes = BlockAcknowledgementMessage.getSegmentsToBeRetransmitted(controlMessage.getTransportControlPdu(), segmentCount);
+                    if (retransmitPduIndexes.isEmpty()) {
+                        mTransactionManager.onSegmentsAcknowledged(controlMessage.getSrc(), state);
+                    } else {
+                        state.executeResend(retransmitPduIndexes);
+                    }
                     break;
                 default:
-                    Log.v(TAG, "Unexpected control message received, ignoring message");
+                    MeshLogger.v(TAG, "Unexpected control message received, ignoring message");
                     mMeshStatusCallbacks.onUnknownPduReceived(controlMessage.getSrc(), controlMessage.getTransportControlPdu());
                     break;
             }
         } else if (controlMessage.getPduType() == MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION) {
             final ProvisionedMeshNode node = mInternalTransportCallbacks.getProvisionedNode(controlMessage.getSrc());
             if (controlMessage.getOpCode() == ProxyConfigMessageOpCodes.FILTER_STATUS) {
+                final MeshTransaction transaction = mTransactionManager != null ? mTransactionManager.completeProxyConfiguration() : null;
+                final MeshMessage meshMessage = transaction != null ? transaction.getMeshMessage() : null;
+                if (meshMessage == null || node == null) {
+                    MeshLogger.v(TAG, "Unexpected proxy filter status, ignoring message");
+                    return;
+                }
                 final ProxyFilter currentFilter = node.getProxyFilter();
                 final ProxyConfigFilterStatus status = new ProxyConfigFilterStatus(controlMessage);
                 final ProxyFilter filter;
-                if (mMeshMessage instanceof ProxyConfigSetFilterType) {
+                if (meshMessage instanceof ProxyConfigSetFilterType) {
                     node.setProxyFilter(new ProxyFilter(status.getFilterType()));
                     mInternalTransportCallbacks.updateMeshNetwork(status);
                     mMeshStatusCallbacks.onMeshMessageReceived(controlMessage.getSrc(), status);
-                } else if (mMeshMessage instanceof ProxyConfigAddAddressToFilter) {
+                } else if (meshMessage instanceof ProxyConfigAddAddressToFilter) {
                     filter = getProxyFilter(currentFilter, status.getFilterType());
 
-                    final ProxyConfigAddAddressToFilter addAddressToFilter = (ProxyConfigAddAddressToFilter) mMeshMessage;
+                    final ProxyConfigAddAddressToFilter addAddressToFilter = (ProxyConfigAddAddressToFilter) meshMessage;
                     for (AddressArray addressArray : addAddressToFilter.getAddresses()) {
                         filter.addAddress(addressArray);
                     }
@@ -330,9 +308,9 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     mInternalTransportCallbacks.updateMeshNetwork(status);
                     mMeshStatusCallbacks.onMeshMessageReceived(controlMessage.getSrc(), status);
 
-                } else if (mMeshMessage instanceof ProxyConfigRemoveAddressFromFilter) {
+                } else if (meshMessage instanceof ProxyConfigRemoveAddressFromFilter) {
                     filter = getProxyFilter(currentFilter, status.getFilterType());
-                    final ProxyConfigRemoveAddressFromFilter removeAddressFromFilter = (ProxyConfigRemoveAddressFromFilter) mMeshMessage;
+                    final ProxyConfigRemoveAddressFromFilter removeAddressFromFilter = (ProxyConfigRemoveAddressFromFilter) meshMessage;
                     for (AddressArray addressArray : removeAddressFromFilter.getAddresses()) {
                         filter.removeAddress(addressArray);
                     }
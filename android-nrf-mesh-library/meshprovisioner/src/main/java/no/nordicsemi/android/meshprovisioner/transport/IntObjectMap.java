@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Map of non-negative int keys to values, i.e. of opcodes to the status messages they are parsed with.
+ * <p>
+ * The keys are kept in a primitive array and probed linearly, so looking up a key neither boxes it nor allocates an entry. The table
+ * is grown to keep at most half of the slots in use.
+ * </p>
+ *
+ * @param <V> type of the values
+ */
+final class IntObjectMap<V> {
+
+    private static final int FREE = -1;
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] mKeys;
+    private Object[] mValues;
+    private int mSize;
+
+    IntObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs the map
+     *
+     * @param expectedSize number of keys the map holds without growing
+     */
+    IntObjectMap(final int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the number of keys in the map
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * Returns the value of a key
+     *
+     * @param key key
+     * @return value or null if the key is not in the map
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(final int key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : (V) mValues[index];
+    }
+
+    /**
+     * Sets the value of a key, replacing the previous value
+     *
+     * @param key   key
+     * @param value value
+     * @throws IllegalArgumentException if the key is negative
+     */
+    void put(final int key, @NonNull final V value) {
+        if (key < 0)
+            throw new IllegalArgumentException("Invalid key, keys must not be negative");
+
+        int index = slot(key);
+        while (mKeys[index] != FREE) {
+            if (mKeys[index] == key) {
+                mValues[index] = value;
+                return;
+            }
+            index = (index + 1) & (mKeys.length - 1);
+        }
+        mKeys[index] = key;
+        mValues[index] = value;
+        if (++mSize * 2 > mKeys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Removes a key from the map
+     *
+     * @param key key
+     */
+    void remove(final int key) {
+        int index = indexOf(key);
+        if (index < 0)
+            return;
+
+        mKeys[index] = FREE;
+        mValues[index] = null;
+        mSize--;
+        //Moves the following keys of the probe sequence back, so that none of them is separated from its slot by a free one
+        final int mask = mKeys.length - 1;
+        int next = (index + 1) & mask;
+        while (mKeys[next] != FREE) {
+            final int slot = slot(mKeys[next]);
+            final boolean reachable = index <= next ? (slot > index && slot <= next) : (slot > index || slot <= next);
+            if (!reachable) {
+                mKeys[index] = mKeys[next];
+                mValues[index] = mValues[next];
+                mKeys[next] = FREE;
+                mValues[next] = null;
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private int indexOf(final int key) {
+        if (key < 0)
+            return -1;
+
+        int index = slot(key);
+        while (mKeys[index] != FREE) {
+            if (mKeys[index] == key)
+                return index;
+            index = (index + 1) & (mKeys.length - 1);
+        }
+        return -1;
+    }
+
+    private int slot(final int key) {
+        final int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (mKeys.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        final int[] keys = mKeys;
+        final Object[] values = mValues;
+        allocate(keys.length * 2);
+        mSize = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                put(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        mKeys = new int[capacity];
+        Arrays.fill(mKeys, FREE);
+        mValues = new Object[capacity];
+    }
+}
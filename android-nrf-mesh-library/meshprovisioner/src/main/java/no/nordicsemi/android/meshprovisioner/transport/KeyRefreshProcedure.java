@@ -0,0 +1,621 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Drives the Key Refresh Procedure of a network key and the application keys bound to it on a set of nodes.
+ * <p>
+ * In the first phase the new keys are distributed to each node using {@link ConfigNetKeyUpdate} followed by a {@link ConfigAppKeyUpdate}
+ * per application key. Once every node has either received the keys or failed, and the nodes that received them reach the quorum, the
+ * nodes are moved to the second phase using {@link ConfigKeyRefreshPhaseSet}, after which they send with the new keys, and then to the
+ * third phase in which the old keys are revoked. Nodes that did not receive the new keys are left behind with the old keys and can no
+ * longer communicate with the network, as intended when a node is excluded by a key refresh.
+ * </p>
+ * <p>
+ * Up to {@link #setMaxParallelNodes(int)} nodes are configured at the same time, each node receiving one message at a time. A message
+ * that is not answered is sent again up to {@link #setRetries(int)} times before the node is failed, a node reporting an error status
+ * is failed immediately.
+ * </p>
+ * <p>
+ * The keys are changed in place on each phase change and reported with {@link KeyRefreshCallbacks#onKeysChanged(NetworkKey, List)}, the
+ * state of each node is stored in the {@link KeyRefreshProcedureStore}. A procedure that was interrupted can therefore be continued
+ * with {@link #resume()} using the persisted keys of the mesh network.
+ * </p>
+ * <p>
+ * Messages are sent using the {@link MessageSender}, i.e. {@link no.nordicsemi.android.meshprovisioner.MeshManagerApi#sendMeshMessage(int, MeshMessage)}.
+ * Received messages and failed transactions must be forwarded to {@link #onMeshMessageReceived(int, MeshMessage)} and
+ * {@link #onTransactionFailed(int)}. The procedure is not thread safe and must be used on the thread the mesh callbacks are delivered on.
+ * </p>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class KeyRefreshProcedure {
+
+    private static final String TAG = KeyRefreshProcedure.class.getSimpleName();
+    public static final int DEFAULT_MAX_PARALLEL_NODES = 4;
+    public static final int DEFAULT_RETRIES = 2;
+    public static final float DEFAULT_QUORUM = 1.0f;
+
+    /**
+     * The node has not received the new keys yet
+     */
+    public static final int NODE_PENDING = 0;
+    /**
+     * The node has received the new keys
+     */
+    public static final int NODE_DISTRIBUTED = 1;
+    /**
+     * The node sends with the new keys
+     */
+    public static final int NODE_SWITCHED = 2;
+    /**
+     * The node has revoked the old keys
+     */
+    public static final int NODE_REVOKED = 3;
+    /**
+     * The node failed to complete a phase of the procedure
+     */
+    public static final int NODE_FAILED = 4;
+
+    /**
+     * Sends the messages of the procedure
+     */
+    public interface MessageSender {
+
+        /**
+         * Sends a mesh message
+         *
+         * @param dst         destination address
+         * @param meshMessage mesh message
+         */
+        void sendMeshMessage(final int dst, @NonNull final MeshMessage meshMessage);
+    }
+
+    /**
+     * Callbacks reporting the progress of the procedure
+     */
+    public interface KeyRefreshCallbacks {
+
+        /**
+         * Called when the keys were changed in place on a phase change. The keys must be persisted, i.e. using
+         * {@link no.nordicsemi.android.meshprovisioner.MeshNetwork#updateNetKey(NetworkKey)} and
+         * {@link no.nordicsemi.android.meshprovisioner.MeshNetwork#updateAppKey(ApplicationKey)}, for the procedure to be resumable.
+         *
+         * @param networkKey network key
+         * @param appKeys    application keys bound to the network key
+         */
+        void onKeysChanged(@NonNull final NetworkKey networkKey, @NonNull final List<ApplicationKey> appKeys);
+
+        /**
+         * Called after each node completed or failed the current step of the procedure
+         *
+         * @param phase     key refresh phase the nodes are moved to, 1 to 3
+         * @param completed number of nodes that completed or failed the phase
+         * @param total     number of nodes taking part in the phase
+         */
+        void onProgress(final int phase, final int completed, final int total);
+
+        /**
+         * Called when a node is failed
+         *
+         * @param address address of the node
+         * @param status  status reported by the node or -1 if the node did not respond
+         */
+        void onNodeFailed(final int address, final int status);
+
+        /**
+         * Called when the old keys were revoked
+         *
+         * @param nodes nodes using the new keys
+         */
+        void onKeyRefreshCompleted(@NonNull final List<Integer> nodes);
+
+        /**
+         * Called when too few nodes received the new keys to continue. The keys remain in the first phase and the procedure can be
+         * resumed later to retry the nodes that failed.
+         *
+         * @param nodes nodes that received the new keys
+         */
+        void onKeyRefreshFailed(@NonNull final List<Integer> nodes);
+    }
+
+    private enum State {
+        IDLE,
+        DISTRIBUTING,
+        SWITCHING,
+        REVOKING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    /**
+     * Message outstanding at a node
+     */
+    private static final class Request {
+        //0 for the network key or the phase transition, 1 to n for the application keys
+        int step;
+        int attempts;
+    }
+
+    private final MessageSender mMessageSender;
+    private final NetworkKey mNetworkKey;
+    private final List<ApplicationKey> mAppKeys;
+    private final KeyRefreshProcedureStore mStore;
+    private final Map<Integer, Integer> mNodeStates = new LinkedHashMap<>();
+    private final ArrayDeque<Integer> mQueue = new ArrayDeque<>();
+    private final Map<Integer, Request> mRequests = new HashMap<>();
+    private KeyRefreshCallbacks mCallbacks;
+    private int mMaxParallelNodes = DEFAULT_MAX_PARALLEL_NODES;
+    private int mRetries = DEFAULT_RETRIES;
+    private float mQuorum = DEFAULT_QUORUM;
+    private State mState = State.IDLE;
+    private int mStageSize;
+    private int mStageCompleted;
+    private int mMessagesSent;
+
+    /**
+     * Constructs the procedure for refreshing a network key on a set of nodes
+     *
+     * @param messageSender sender used to send the messages of the procedure
+     * @param networkKey    network key to be refreshed
+     * @param appKeys       application keys bound to the network key, refreshed together with it
+     * @param nodes         unicast addresses of the nodes the network key was added to
+     * @param store         store the progress is persisted in or null to keep it in memory only
+     * @throws IllegalArgumentException if any of the arguments is invalid
+     */
+    public KeyRefreshProcedure(@NonNull final MessageSender messageSender,
+                               @NonNull final NetworkKey networkKey,
+                               @NonNull final List<ApplicationKey> appKeys,
+                               @NonNull final List<Integer> nodes,
+                               @Nullable final KeyRefreshProcedureStore store) {
+        if (nodes.isEmpty())
+            throw new IllegalArgumentException("At least one node is required");
+        for (int node : nodes) {
+            if (!MeshAddress.isValidUnicastAddress(node))
+                throw new IllegalArgumentException("Nodes must be unicast addresses");
+        }
+        for (ApplicationKey appKey : appKeys) {
+            if (appKey.getBoundNetKeyIndex() != networkKey.getKeyIndex())
+                throw new IllegalArgumentException("App keys must be bound to the network key");
+        }
+
+        this.mMessageSender = messageSender;
+        this.mNetworkKey = networkKey;
+        this.mAppKeys = new ArrayList<>(appKeys);
+        this.mStore = store;
+        for (int node : nodes) {
+            mNodeStates.put(node, NODE_PENDING);
+        }
+    }
+
+    public void setCallbacks(final KeyRefreshCallbacks callbacks) {
+        this.mCallbacks = callbacks;
+    }
+
+    /**
+     * Sets the number of nodes configured at the same time
+     *
+     * @param maxParallelNodes number of nodes
+     */
+    public void setMaxParallelNodes(final int maxParallelNodes) {
+        if (maxParallelNodes < 1)
+            throw new IllegalArgumentException("At least one node must be configured at a time");
+        this.mMaxParallelNodes = maxParallelNodes;
+    }
+
+    /**
+     * Sets the number of times an unanswered message is sent again before the node is failed
+     *
+     * @param retries number of retries
+     */
+    public void setRetries(final int retries) {
+        if (retries < 0)
+            throw new IllegalArgumentException("Retries must not be negative");
+        this.mRetries = retries;
+    }
+
+    /**
+     * Sets the fraction of the nodes that must receive the new keys before the old keys are replaced
+     *
+     * @param quorum fraction of the nodes in range (0, 1]
+     */
+    public void setQuorum(final float quorum) {
+        if (!(quorum > 0 && quorum <= 1))
+            throw new IllegalArgumentException("Quorum must be in range (0, 1]");
+        this.mQuorum = quorum;
+    }
+
+    /**
+     * Returns the state of a node, i.e. {@link #NODE_DISTRIBUTED}
+     *
+     * @param address unicast address of the node
+     * @return state or -1 if the node does not take part in the procedure
+     */
+    public int getNodeState(final int address) {
+        final Integer state = mNodeStates.get(address);
+        return state != null ? state : -1;
+    }
+
+    /**
+     * Returns the number of messages sent, including the messages that were sent again
+     */
+    public int getMessagesSent() {
+        return mMessagesSent;
+    }
+
+    /**
+     * Returns true while the procedure is in progress
+     */
+    public boolean isActive() {
+        return mState == State.DISTRIBUTING || mState == State.SWITCHING || mState == State.REVOKING;
+    }
+
+    /**
+     * Starts a key refresh, replacing the keys with the new keys and keeping the current keys as the old keys until they are revoked
+     *
+     * @param newNetKey  16-byte new network key
+     * @param newAppKeys 16-byte new application keys, in the order of the application keys of the procedure
+     * @throws IllegalArgumentException if the number of keys does not match
+     * @throws IllegalStateException    if the procedure has already been started or the network key is already being refreshed
+     */
+    public void start(@NonNull final byte[] newNetKey, @NonNull final List<byte[]> newAppKeys) {
+        if (mState != State.IDLE)
+            throw new IllegalStateException("Key refresh has already been started");
+        if (mNetworkKey.getPhase() != NetworkKey.PHASE_0)
+            throw new IllegalStateException("Network key is already being refreshed");
+        if (newNetKey.length != 16)
+            throw new IllegalArgumentException("Network key must be 16 bytes");
+        if (newAppKeys.size() != mAppKeys.size())
+            throw new IllegalArgumentException("A new key is required for each app key");
+        for (byte[] newAppKey : newAppKeys) {
+            if (newAppKey.length != 16)
+                throw new IllegalArgumentException("App key must be 16 bytes");
+        }
+
+        mNetworkKey.setOldKey(mNetworkKey.getKey());
+        mNetworkKey.setKey(newNetKey);
+        mNetworkKey.setPhase(NetworkKey.PHASE_1);
+        mNetworkKey.setTimestamp(System.currentTimeMillis());
+        for (int i = 0; i < mAppKeys.size(); i++) {
+            final ApplicationKey appKey = mAppKeys.get(i);
+            appKey.setOldKey(appKey.getKey());
+            appKey.setKey(newAppKeys.get(i));
+        }
+        if (mStore != null) {
+            mStore.clear(mNetworkKey.getKeyIndex());
+        }
+        onKeysChanged();
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Starting key refresh of net key " + mNetworkKey.getKeyIndex() + " on " + mNodeStates.size() + " node(s)");
+        }
+        startStage(State.DISTRIBUTING);
+    }
+
+    /**
+     * Continues a key refresh that was interrupted, using the node states loaded from the store. Nodes that failed to receive the new
+     * keys are retried if the keys are still in the first phase.
+     *
+     * @throws IllegalStateException if the procedure has already been started or the network key is not being refreshed
+     */
+    public void resume() {
+        if (mState != State.IDLE)
+            throw new IllegalStateException("Key refresh has already been started");
+        if (mNetworkKey.getPhase() == NetworkKey.PHASE_0)
+            throw new IllegalStateException("Network key is not being refreshed");
+
+        final Map<Integer, Integer> storedStates = new HashMap<>();
+        if (mStore != null) {
+            mStore.load(mNetworkKey.getKeyIndex(), storedStates);
+        }
+        final boolean distributing = mNetworkKey.getPhase() == NetworkKey.PHASE_1;
+        for (Map.Entry<Integer, Integer> entry : mNodeStates.entrySet()) {
+            final Integer storedState = storedStates.get(entry.getKey());
+            if (distributing) {
+                //The update messages can be sent again, a node that already has the new keys accepts them
+                entry.setValue(storedState == null || storedState == NODE_FAILED ? NODE_PENDING : storedState);
+            } else {
+                //A node that did not receive the new keys can no longer be reached
+                entry.setValue(storedState == null || storedState == NODE_PENDING ? NODE_FAILED : storedState);
+            }
+        }
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Resuming key refresh of net key " + mNetworkKey.getKeyIndex() + " in phase " + mNetworkKey.getPhase());
+        }
+        startStage(distributing ? State.DISTRIBUTING : State.SWITCHING);
+    }
+
+    /**
+     * Stops the procedure, statuses received afterwards are ignored. The procedure can be continued later by a new procedure using {@link #resume()}.
+     */
+    public void cancel() {
+        if (isActive()) {
+            mState = State.CANCELLED;
+            mQueue.clear();
+            mRequests.clear();
+        }
+    }
+
+    /**
+     * Handles a message received from a node
+     *
+     * @param src         source address
+     * @param meshMessage received message
+     */
+    public void onMeshMessageReceived(final int src, @NonNull final MeshMessage meshMessage) {
+        final Request request = mRequests.get(src);
+        if (request == null)
+            return;
+
+        final int netKeyIndex = mNetworkKey.getKeyIndex();
+        if (mState == State.DISTRIBUTING) {
+            if (request.step == 0 && meshMessage instanceof ConfigNetKeyStatus) {
+                final ConfigNetKeyStatus status = (ConfigNetKeyStatus) meshMessage;
+                if (status.getNetKeyIndex() != netKeyIndex)
+                    return;
+
+                if (status.isSuccessful()) {
+                    onStepCompleted(src, request);
+                } else {
+                    failNode(src, status.getStatusCode());
+                }
+            } else if (request.step > 0 && meshMessage instanceof ConfigAppKeyStatus) {
+                final ConfigAppKeyStatus status = (ConfigAppKeyStatus) meshMessage;
+                if (status.getNetKeyIndex() != netKeyIndex || status.getAppKeyIndex() != mAppKeys.get(request.step - 1).getKeyIndex())
+                    return;
+
+                if (status.isSuccessful()) {
+                    onStepCompleted(src, request);
+                } else {
+                    failNode(src, status.getStatusCode());
+                }
+            }
+        } else if ((mState == State.SWITCHING || mState == State.REVOKING) && meshMessage instanceof ConfigKeyRefreshPhaseStatus) {
+            final ConfigKeyRefreshPhaseStatus status = (ConfigKeyRefreshPhaseStatus) meshMessage;
+            if (status.getNetKeyIndex() != netKeyIndex)
+                return;
+
+            //A node in the third phase returns to normal operation right away and reports phase 0
+            final int expectedPhase = mState == State.SWITCHING ? NetworkKey.PHASE_2 : NetworkKey.PHASE_0;
+            if (!status.isSuccessful()) {
+                failNode(src, status.getStatusCode());
+            } else if (status.getPhase() != expectedPhase) {
+                failNode(src, -1);
+            } else {
+                onStepCompleted(src, request);
+            }
+        }
+    }
+
+    /**
+     * Handles an acknowledged message that was not answered by a node
+     *
+     * @param dst destination address of the message
+     */
+    public void onTransactionFailed(final int dst) {
+        final Request request = mRequests.get(dst);
+        if (request == null)
+            return;
+
+        if (request.attempts < mRetries) {
+            request.attempts++;
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Node 0x" + Integer.toHexString(dst) + " did not respond, retry " + request.attempts);
+            }
+            send(dst, request);
+        } else {
+            failNode(dst, -1);
+        }
+    }
+
+    private void startStage(@NonNull final State state) {
+        mState = state;
+        final int expectedState;
+        switch (state) {
+            case DISTRIBUTING:
+                expectedState = NODE_PENDING;
+                break;
+            case SWITCHING:
+                expectedState = NODE_DISTRIBUTED;
+                break;
+            default:
+                expectedState = NODE_SWITCHED;
+                break;
+        }
+        mQueue.clear();
+        for (Map.Entry<Integer, Integer> entry : mNodeStates.entrySet()) {
+            if (entry.getValue() == expectedState) {
+                mQueue.add(entry.getKey());
+            }
+        }
+        mStageSize = mQueue.size();
+        mStageCompleted = 0;
+        sendToNextNodes();
+        onStageProgress();
+    }
+
+    private void sendToNextNodes() {
+        //Responses may be delivered while sending, the request must be registered before the message is sent
+        while (isActive() && mRequests.size() < mMaxParallelNodes && !mQueue.isEmpty()) {
+            final int node = mQueue.poll();
+            final Request request = new Request();
+            mRequests.put(node, request);
+            send(node, request);
+        }
+    }
+
+    private void send(final int node, @NonNull final Request request) {
+        final MeshMessage meshMessage;
+        if (mState == State.DISTRIBUTING) {
+            meshMessage = request.step == 0 ? new ConfigNetKeyUpdate(mNetworkKey) : new ConfigAppKeyUpdate(mNetworkKey, mAppKeys.get(request.step - 1));
+        } else {
+            meshMessage = new ConfigKeyRefreshPhaseSet(mNetworkKey, mState == State.SWITCHING ?
+                    ConfigKeyRefreshPhaseSet.USE_NEW_KEYS : ConfigKeyRefreshPhaseSet.REVOKE_OLD_KEYS);
+        }
+        mMessagesSent++;
+        mMessageSender.sendMeshMessage(node, meshMessage);
+    }
+
+    private void onStepCompleted(final int node, @NonNull final Request request) {
+        if (mState == State.DISTRIBUTING && request.step < mAppKeys.size()) {
+            request.step++;
+            request.attempts = 0;
+            send(node, request);
+            return;
+        }
+
+        switch (mState) {
+            case DISTRIBUTING:
+                completeNode(node, NODE_DISTRIBUTED);
+                break;
+            case SWITCHING:
+                completeNode(node, NODE_SWITCHED);
+                break;
+            default:
+                completeNode(node, NODE_REVOKED);
+                break;
+        }
+    }
+
+    private void failNode(final int node, final int status) {
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Node 0x" + Integer.toHexString(node) + " failed, status: " + status);
+        }
+        if (mCallbacks != null)
+            mCallbacks.onNodeFailed(node, status);
+        completeNode(node, NODE_FAILED);
+    }
+
+    private void completeNode(final int node, final int state) {
+        mRequests.remove(node);
+        mNodeStates.put(node, state);
+        if (mStore != null) {
+            mStore.store(mNetworkKey.getKeyIndex(), node, state);
+        }
+        mStageCompleted++;
+        sendToNextNodes();
+        onStageProgress();
+    }
+
+    private void onStageProgress() {
+        if (!isActive())
+            return;
+
+        if (mCallbacks != null && mStageCompleted > 0)
+            mCallbacks.onProgress(getPhase(), mStageCompleted, mStageSize);
+        if (!mQueue.isEmpty() || !mRequests.isEmpty())
+            return;
+
+        switch (mState) {
+            case DISTRIBUTING:
+                onKeysDistributed();
+                break;
+            case SWITCHING:
+                startStage(State.REVOKING);
+                break;
+            case REVOKING:
+                onOldKeysRevoked();
+                break;
+        }
+    }
+
+    private void onKeysDistributed() {
+        final List<Integer> nodes = getNodes(NODE_DISTRIBUTED);
+        final int required = (int) Math.ceil(mQuorum * mNodeStates.size());
+        if (nodes.isEmpty() || nodes.size() < required) {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Key refresh failed, " + nodes.size() + " of " + required + " required node(s) received the new keys");
+            }
+            mState = State.FAILED;
+            if (mCallbacks != null)
+                mCallbacks.onKeyRefreshFailed(nodes);
+            return;
+        }
+
+        mNetworkKey.setPhase(NetworkKey.PHASE_2);
+        mNetworkKey.setTimestamp(System.currentTimeMillis());
+        onKeysChanged();
+        startStage(State.SWITCHING);
+    }
+
+    private void onOldKeysRevoked() {
+        mNetworkKey.setPhase(NetworkKey.PHASE_0);
+        mNetworkKey.setOldKey(null);
+        mNetworkKey.setTimestamp(System.currentTimeMillis());
+        for (ApplicationKey appKey : mAppKeys) {
+            appKey.setOldKey(null);
+        }
+        onKeysChanged();
+        if (mStore != null) {
+            mStore.clear(mNetworkKey.getKeyIndex());
+        }
+        final List<Integer> nodes = getNodes(NODE_REVOKED);
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Key refresh completed on " + nodes.size() + " node(s), " + mMessagesSent + " message(s) sent");
+        }
+        mState = State.COMPLETED;
+        if (mCallbacks != null)
+            mCallbacks.onKeyRefreshCompleted(nodes);
+    }
+
+    private void onKeysChanged() {
+        if (mCallbacks != null)
+            mCallbacks.onKeysChanged(mNetworkKey, new ArrayList<>(mAppKeys));
+    }
+
+    private int getPhase() {
+        switch (mState) {
+            case DISTRIBUTING:
+                return 1;
+            case SWITCHING:
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    @NonNull
+    private List<Integer> getNodes(final int state) {
+        final List<Integer> nodes = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : mNodeStates.entrySet()) {
+            if (entry.getValue() == state) {
+                nodes.add(entry.getKey());
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+
+/**
+ * Durable storage of the progress of a {@link KeyRefreshProcedure}, so that a procedure interrupted by a crash or a restart of the
+ * application can be resumed where it stopped using {@link KeyRefreshProcedure#resume()}.
+ * <p>
+ * The state of each node is one of the node states of the {@link KeyRefreshProcedure}, e.g. {@link KeyRefreshProcedure#NODE_DISTRIBUTED}.
+ * The key refresh phase itself is stored with the network key in the mesh network.
+ * </p>
+ */
+public interface KeyRefreshProcedureStore {
+
+    /**
+     * Loads the stored node states of a key refresh
+     *
+     * @param netKeyIndex index of the network key being refreshed
+     * @param nodeStates  map the states are loaded into, keyed by the unicast address of the node
+     */
+    void load(final int netKeyIndex, @NonNull final Map<Integer, Integer> nodeStates);
+
+    /**
+     * Stores the state of a node
+     *
+     * @param netKeyIndex index of the network key being refreshed
+     * @param address     unicast address of the node
+     * @param state       state of the node
+     */
+    void store(final int netKeyIndex, final int address, final int state);
+
+    /**
+     * Removes the stored node states of a key refresh
+     *
+     * @param netKeyIndex index of the network key being refreshed
+     */
+    void clear(final int netKeyIndex);
+}
@@ -22,18 +22,23 @@
 
 package no.nordicsemi.android.meshprovisioner.transport;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 import android.util.Log;
 import android.util.SparseArray;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
 import no.nordicsemi.android.meshprovisioner.control.BlockAcknowledgementMessage;
 import no.nordicsemi.android.meshprovisioner.opcodes.TransportLayerOpCodes;
 import no.nordicsemi.android.meshprovisioner.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 
 abstract class LowerTransportLayer extends UpperTransportLayer {
@@ -48,33 +53,12 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
     private static final int UNSEGMENTED_ACK_MESSAGE_HEADER_LENGTH = 3;
     private static final long INCOMPLETE_TIMER_DELAY = 10 * 1000; // According to the spec the incomplete timer must be a minimum of 10 seconds.
 
-    private final SparseArray<byte[]> segmentedAccessMessageMap = new SparseArray<>();
-    private final SparseArray<byte[]> segmentedControlMessageMap = new SparseArray<>();
+    private static final int MAX_SEGMENTED_MESSAGE_SESSIONS = 16; //Maximum number of segmented messages reassembled at the same time per message type
 
-    private LowerTransportLayerCallbacks mLowerTransportLayerCallbacks;
-
-    private boolean mSegmentedAccessAcknowledgementTimerStarted;
-    private Integer mSegmentedAccessBlockAck;
-
-    private boolean mSegmentedControlAcknowledgementTimerStarted;
-    private Integer mSegmentedControlBlockAck;
-
-    private boolean mIncompleteTimerStarted;
+    private final Map<Integer, SegmentedMessageSession> segmentedAccessMessageSessions = new LinkedHashMap<>();
+    private final Map<Integer, SegmentedMessageSession> segmentedControlMessageSessions = new LinkedHashMap<>();
 
-    private boolean mBlockAckSent;
-
-    private long mDuration;
-    /**
-     * Runnable for incomplete timer
-     */
-    private Runnable mIncompleteTimerRunnable = new Runnable() {
-        @Override
-        public void run() {
-            mLowerTransportLayerCallbacks.onIncompleteTimerExpired();
-            //Reset the incomplete timer flag once it expires
-            mIncompleteTimerStarted = false;
-        }
-    };
+    private LowerTransportLayerCallbacks mLowerTransportLayerCallbacks;
 
     protected void setLowerTransportLayerCallbacks(final LowerTransportLayerCallbacks callbacks) {
         mLowerTransportLayerCallbacks = callbacks;
@@ -130,10 +114,10 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
             case MeshManagerApi.PDU_TYPE_NETWORK:
                 final byte[] transportControlPdu = message.getTransportControlPdu();
                 if (transportControlPdu.length <= MAX_UNSEGMENTED_CONTROL_PAYLOAD_LENGTH) {
-                    Log.v(TAG, "Creating unsegmented transport control");
+                    MeshLogger.v(TAG, "Creating unsegmented transport control");
                     createUnsegmentedControlMessage(message);
                 } else {
-                    Log.v(TAG, "Creating segmented transport control");
+                    MeshLogger.v(TAG, "Creating segmented transport control");
                     createSegmentedControlMessage(message);
                 }
         }
@@ -263,8 +247,7 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
         lowerTransportBuffer.put(header);
         lowerTransportBuffer.put(encryptedUpperTransportPDU);
         final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-        Log.v(TAG, "Unsegmented Lower: encryptedUpperTransportPDU " + MeshParserUtils.bytesToHex(lowerTransportPDU, false));
-        Log.v(TAG, "Unsegmented Lower transport access PDU " + MeshParserUtils.bytesToHex(lowerTransportPDU, false));
+        MeshLogger.v(TAG, "Unsegmented Lower transport access PDU ", lowerTransportPDU);
         return lowerTransportPDU;
     }
 
@@ -298,7 +281,9 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
             offset += length;
 
             final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-            Log.v(TAG, "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + (segO + 1) + " of " + numberOfSegments);
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + (segO + 1) + " of " + numberOfSegments);
+            }
             lowerTransportPduMap.put(segO, lowerTransportPDU);
         }
         return lowerTransportPduMap;
@@ -331,7 +316,7 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
 
         lowerTransportBuffer.put(upperTransportControlPDU);
         final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-        Log.v(TAG, "Unsegmented Lower transport control PDU " + MeshParserUtils.bytesToHex(lowerTransportPDU, false));
+        MeshLogger.v(TAG, "Unsegmented Lower transport control PDU ", lowerTransportPDU);
         final SparseArray<byte[]> lowerTransportControlPduMap = new SparseArray<>();
         lowerTransportControlPduMap.put(0, lowerTransportPDU);
         message.setLowerTransportControlPdu(lowerTransportControlPduMap);
@@ -367,7 +352,9 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
             offset += length;
 
             final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-            Log.v(TAG, "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + (segO + 1) + " of " + numberOfSegments);
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + (segO + 1) + " of " + numberOfSegments);
+            }
             lowerTransportControlPduMap.put(segO, lowerTransportPDU);
         }
         controlMessage.setLowerTransportControlPdu(lowerTransportControlPduMap);
@@ -428,116 +415,35 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
     /**
      * Parses a segmented lower transport access pdu.
      *
-     * @param pdu The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
+     * @param networkPdu network pdu the segment was received in
+     * @param pdu        The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
+     * @return the reassembled access message or null if there are segments missing
      */
     /*package*/
-    final AccessMessage parseSegmentedAccessLowerTransportPDU(final byte[] pdu) {
+    final AccessMessage parseSegmentedAccessLowerTransportPDU(final byte[] networkPdu, final byte[] pdu) {
 
         final byte header = pdu[10]; //Lower transport pdu starts here
         final int akf = (header >> 6) & 0x01;
         final int aid = header & 0x3F;
-
         final int szmic = (pdu[11] >> 7) & 0x01;
         final int seqZero = ((pdu[11] & 0x7F) << 6) | ((pdu[12] & 0xFC) >> 2);
-        final int segO = ((pdu[12] & 0x03) << 3) | ((pdu[13] & 0xE0) >> 5);
-        final int segN = ((pdu[13]) & 0x1F);
-
-        final int ttl = pdu[2] & 0x7F;
-        final byte[] src = MeshParserUtils.getSrcAddress(pdu);
-        final byte[] dst = MeshParserUtils.getDstAddress(pdu);
-
-        final int blockAckSrc = MeshParserUtils.unsignedBytesToInt(dst[1], dst[0]); //Destination of the received packet would be the source for the ack
-        final int blockAckDst = MeshParserUtils.unsignedBytesToInt(src[1], src[0]); //Source of the received packet would be the destination for the ack
-
-        Log.v(TAG, "SEG O: " + segO);
-        Log.v(TAG, "SEG N: " + segN);
-
-        final int ivIndex = ByteBuffer.wrap(mUpperTransportLayerCallbacks.getIvIndex()).order(ByteOrder.BIG_ENDIAN).getInt();
-        // FIXME: this is probably incorrect, ivIndex needs to be shifted left? or masked with ivi only
-        final int seqAuth = ivIndex | getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
-        final Integer lastSeqAuth = mMeshNode.getSeqAuth(blockAckDst);
-        if (lastSeqAuth != null)
-            Log.v(TAG, "Last SeqAuth value " + lastSeqAuth);
-
-        Log.v(TAG, "Current SeqAuth value " + seqAuth);
-
-        final int payloadLength = pdu.length - 10;
-        final ByteBuffer payloadBuffer = ByteBuffer.allocate(payloadLength);
-        payloadBuffer.put(pdu, 10, payloadLength);
 
-        //Check if the current SeqAuth value is greater than the last and if the incomplete timer has not started, start it!
-        if ((lastSeqAuth == null || lastSeqAuth < seqAuth)) {
-            segmentedAccessMessageMap.clear();
-            segmentedAccessMessageMap.put(segO, payloadBuffer.array());
-            mMeshNode.setSeqAuth(blockAckDst, seqAuth);
-            //Reset the block acknowledgement value
-            mSegmentedAccessBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(null, segO);
-
-            Log.v(TAG, "Starting incomplete timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
-            initIncompleteTimer();
-
-            //Start acknowledgement timer only for messages directed to a unicast address.
-            if (MeshParserUtils.isValidUnicastAddress(dst)) {
-                //Start the block acknowledgement timer irrespective of which segment was received first
-                initSegmentedAccessAcknowledgementTimer(seqZero, ttl, blockAckSrc, blockAckDst, segN);
-            }
-        } else {
-            //if the seqauth values are the same and the init complete timer has already started for a received segmented message, we need to restart the incomplete timer
-            if (lastSeqAuth == seqAuth) {
-                if (mIncompleteTimerStarted) {
-                    segmentedAccessMessageMap.put(segO, payloadBuffer.array());
-                    final int receivedSegmentedMessageCount = segmentedAccessMessageMap.size();
-                    Log.v(TAG, "Received segment message count: " + receivedSegmentedMessageCount);
-                    //Add +1 to segN since its zero based
-                    if (receivedSegmentedMessageCount != (segN + 1)) {
-                        mSegmentedAccessBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(mSegmentedAccessBlockAck, segO);
-                        Log.v(TAG, "Restarting incomplete timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
-                        restartIncompleteTimer();
-
-                        //Start acknowledgement timer only for messages directed to a unicast address.
-                        //We also have to make sure we restart the acknowledgement timer only if the acknowledgement timer is not active and the incomplete timer is active
-                        if (MeshParserUtils.isValidUnicastAddress(dst) && !mSegmentedAccessAcknowledgementTimerStarted) {
-                            Log.v(TAG, "Restarting block acknowledgement timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
-                            //Start the block acknowledgement timer irrespective of which segment was received first
-                            initSegmentedAccessAcknowledgementTimer(seqZero, ttl, blockAckSrc, blockAckDst, segN);
-                        }
-                    } else {
-                        mSegmentedAccessBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(mSegmentedAccessBlockAck, segO);
-                        Log.v(TAG, "SEG O BLOCK ACK VAL: " + mSegmentedAccessBlockAck);
-                        handleImmediateBlockAcks(seqZero, ttl, blockAckSrc, blockAckDst, segN);
-
-                        final int upperTransportSequenceNumber = getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
-                        final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(upperTransportSequenceNumber);
-                        final AccessMessage accessMessage = new AccessMessage();
-                        accessMessage.setAszmic(szmic);
-                        accessMessage.setSequenceNumber(sequenceNumber);
-                        accessMessage.setAkf(akf);
-                        accessMessage.setAid(aid);
-                        accessMessage.setSegmented(true);
-                        final SparseArray<byte[]> segmentedMessages = segmentedAccessMessageMap.clone();
-                        accessMessage.setLowerTransportAccessPdu(segmentedMessages);
-                        return accessMessage;
-                    }
-                } else {
-                    Log.v(TAG, "Ignoring message since the incomplete timer has expired and all messages have been received");
-                }
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Send immediate block acknowledgement
-     *
-     * @param seqZero seqzero of the message
-     * @param ttl     ttl of the message
-     * @param src     source address of the message
-     * @param dst     destination address of the message
-     * @param segN    total segment count
-     */
-    private void handleImmediateBlockAcks(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        cancelIncompleteTimer();
-        sendBlockAck(seqZero, ttl, src, dst, segN);
+        final SegmentedMessageSession session = reassembleSegment(segmentedAccessMessageSessions, networkPdu, pdu);
+        if (session == null)
+            return null;
+
+        final int upperTransportSequenceNumber = getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
+        final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(upperTransportSequenceNumber);
+        final AccessMessage accessMessage = new AccessMessage();
+        accessMessage.setAszmic(szmic);
+        accessMessage.setSequenceNumber(sequenceNumber);
+        accessMessage.setAkf(akf);
+        accessMessage.setAid(aid);
+        accessMessage.setSegmented(true);
+        accessMessage.setLowerTransportAccessPdu(session.getSegments());
+        accessMessage.setNetworkPdu(session.getNetworkPdus());
+        completeSession(segmentedAccessMessageSessions, session);
+        return accessMessage;
     }
 
     /**
@@ -578,199 +484,279 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
     /**
      * Parses a segmented lower transport control pdu.
      *
-     * @param pdu The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
+     * @param networkPdu network pdu the segment was received in
+     * @param pdu        The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
+     * @return the reassembled control message or null if there are segments missing
      */
     /*package*/
-    final ControlMessage parseSegmentedControlLowerTransportPDU(final byte[] pdu) {
+    final ControlMessage parseSegmentedControlLowerTransportPDU(final byte[] networkPdu, final byte[] pdu) {
 
         final byte header = pdu[10]; //Lower transport pdu starts here
         final int akf = (header >> 6) & 0x01;
         final int aid = header & 0x3F;
-
         final int szmic = (pdu[11] >> 7) & 0x01;
         final int seqZero = ((pdu[11] & 0x7F) << 6) | ((pdu[12] & 0xFC) >> 2);
-        final int segO = ((pdu[12] & 0x3) << 3) | ((pdu[13] & 0xe0) >> 5);
+
+        final SegmentedMessageSession session = reassembleSegment(segmentedControlMessageSessions, networkPdu, pdu);
+        if (session == null)
+            return null;
+
+        final int upperTransportSequenceNumber = getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
+        final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(upperTransportSequenceNumber);
+        final ControlMessage message = new ControlMessage();
+        message.setAszmic(szmic);
+        message.setSequenceNumber(sequenceNumber);
+        message.setAkf(akf);
+        message.setAid(aid);
+        message.setSegmented(true);
+        message.setLowerTransportControlPdu(session.getSegments());
+        message.setNetworkPdu(session.getNetworkPdus());
+        completeSession(segmentedControlMessageSessions, session);
+        return message;
+    }
+
+    /**
+     * Adds a received segment to the reassembly session of the message it belongs to.
+     * <p>
+     * Sessions are keyed by the source address and SeqZero of the message so that segmented messages from several nodes are
+     * reassembled independently. A segment of a newer message from the same source cancels the sessions of older messages from that
+     * source.
+     * </p>
+     *
+     * @param sessions   session table of the message type
+     * @param networkPdu network pdu the segment was received in
+     * @param pdu        The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
+     * @return the session if all segments have been received or null otherwise
+     */
+    private SegmentedMessageSession reassembleSegment(@NonNull final Map<Integer, SegmentedMessageSession> sessions,
+                                                      @NonNull final byte[] networkPdu,
+                                                      @NonNull final byte[] pdu) {
+        final int seqZero = ((pdu[11] & 0x7F) << 6) | ((pdu[12] & 0xFC) >> 2);
+        final int segO = ((pdu[12] & 0x03) << 3) | ((pdu[13] & 0xE0) >> 5);
         final int segN = ((pdu[13]) & 0x1F);
 
         final int ttl = pdu[2] & 0x7F;
-        final byte[] src = MeshParserUtils.getSrcAddress(pdu);
-        final byte[] dst = MeshParserUtils.getDstAddress(pdu);
+        final byte[] srcAddress = MeshParserUtils.getSrcAddress(pdu);
+        final byte[] dstAddress = MeshParserUtils.getDstAddress(pdu);
+        final int src = MeshParserUtils.unsignedBytesToInt(srcAddress[1], srcAddress[0]);
+        final int dst = MeshParserUtils.unsignedBytesToInt(dstAddress[1], dstAddress[0]);
 
-        final int blockAckSrc = MeshParserUtils.unsignedBytesToInt(dst[1], dst[0]); //Destination of the received packet would be the source for the ack
-        final int blockAckDst = MeshParserUtils.unsignedBytesToInt(src[1], src[0]); //Source of the received packet would be the destination for the ack
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "SEG O: " + segO + ", SEG N: " + segN);
+        }
 
-        Log.v(TAG, "SEG O: " + segO);
-        Log.v(TAG, "SEG N: " + segN);
+        final int ivIndex = ByteBuffer.wrap(mUpperTransportLayerCallbacks.getTransmitIvIndex()).order(ByteOrder.BIG_ENDIAN).getInt();
+        // FIXME: this is probably incorrect, ivIndex needs to be shifted left? or masked with ivi only
+        final int seqAuth = ivIndex | getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
+        MeshLogger.v(TAG, "Current SeqAuth value ", seqAuth);
 
-        //Start the timer irrespective of which segment was received first
-        initSegmentedControlAcknowledgementTimer(seqZero, ttl, blockAckDst, blockAckSrc, segN);
-        mSegmentedControlBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(mSegmentedControlBlockAck, segO);
-        Log.v(TAG, "Block acknowledgement value for " + mSegmentedControlBlockAck + " Seg O " + segO);
+        SegmentedMessageSession session = sessions.get(SegmentedMessageSession.getKey(src, seqZero));
+        if (session != null && session.getSeqAuth() != seqAuth) {
+            //SeqZero has wrapped around, this is a different message
+            removeSession(sessions, session);
+            session = null;
+        }
 
-        final int payloadLength = pdu.length - 10;
+        if (session == null) {
+            final Integer lastSeqAuth = mMeshNode.getSeqAuth(src);
+            if (lastSeqAuth != null) {
+                MeshLogger.v(TAG, "Last SeqAuth value ", lastSeqAuth);
+                if (lastSeqAuth >= seqAuth) {
+                    if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                        MeshLogger.v(TAG, "Ignoring segment of a message that has expired or is older than the last message from: " + MeshAddress.formatAddress(src, false));
+                    }
+                    return null;
+                }
+            }
+            session = startSession(sessions, new SegmentedMessageSession(src, dst, seqZero, seqAuth, segN, ttl));
+        } else if (session.isCompleted()) {
+            //The block acknowledgement may have been lost, let the node know we have received all segments
+            if (MeshAddress.isValidUnicastAddress(dst)) {
+                MeshLogger.v(TAG, "Segment received for a message that was already reassembled, acknowledging all segments");
+                sendBlockAck(session);
+            }
+            return null;
+        }
 
+        final int payloadLength = pdu.length - 10;
         final ByteBuffer payloadBuffer = ByteBuffer.allocate(payloadLength);
         payloadBuffer.put(pdu, 10, payloadLength);
-        segmentedControlMessageMap.put(segO, payloadBuffer.array());
-
-        //Check the message count against the zero-based segN;
-        final int receivedSegmentedMessageCount = segmentedControlMessageMap.size() - 1;
-        if (segN == receivedSegmentedMessageCount) {
-            Log.v(TAG, "All segments received");
-            //Remove the incomplete timer if all segments were received
-            mHandler.removeCallbacks(mIncompleteTimerRunnable);
-            Log.v(TAG, "Block ack sent? " + mBlockAckSent);
-            if (mDuration > System.currentTimeMillis() && !mBlockAckSent) {
-                if (MeshParserUtils.isValidUnicastAddress(dst)) {
-                    mHandler.removeCallbacksAndMessages(null);
-                    Log.v(TAG, "Cancelling Scheduled block ack and incomplete timer, sending an immediate block ack");
-                    sendBlockAck(seqZero, ttl, blockAckSrc, blockAckDst, segN);
-                    //mBlockAckSent = false;
-                }
+        if (!session.addSegment(segO, payloadBuffer.array(), networkPdu)) {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Ignoring segment " + segO + " out of range for SEG N " + session.getSegN());
             }
-            final int upperTransportSequenceNumber = getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
-            final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(upperTransportSequenceNumber);
-            final ControlMessage message = new ControlMessage();
-            message.setAszmic(szmic);
-            message.setSequenceNumber(sequenceNumber);
-            message.setAkf(akf);
-            message.setAid(aid);
-            message.setSegmented(true);
-            final SparseArray<byte[]> segmentedMessages = segmentedControlMessageMap.clone();
-            segmentedControlMessageMap.clear();
-            message.setLowerTransportControlPdu(segmentedMessages);
-            return message;
+            return null;
+        }
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Block acknowledgement value " + session.getBlockAck() + " Seg O " + segO);
         }
 
-        return null;
+        if (!session.hasAllSegments()) {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Restarting incomplete timer for src: " + MeshAddress.formatAddress(src, false));
+            }
+            restartIncompleteTimer(sessions, session);
+            //Start acknowledgement timer only for messages directed to a unicast address, irrespective of which segment was received first
+            if (MeshAddress.isValidUnicastAddress(dst) && session.getAcknowledgementTimerRunnable() == null) {
+                initAcknowledgementTimer(session);
+            }
+            return null;
+        }
+
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "All segments received from: " + MeshAddress.formatAddress(src, false));
+        }
+        cancelTimers(session);
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            MeshLogger.v(TAG, "Sending an immediate block ack");
+            sendBlockAck(session);
+        }
+        return session;
     }
 
     /**
-     * Start incomplete timer for segmented messages.
+     * Adds a new session to the session table, evicting the sessions of older messages from the same source and the oldest session if
+     * the table is full.
+     *
+     * @param sessions session table
+     * @param session  new session
      */
-    private void initIncompleteTimer() {
-        mHandler.postDelayed(mIncompleteTimerRunnable, INCOMPLETE_TIMER_DELAY);
-        mIncompleteTimerStarted = true;
+    private SegmentedMessageSession startSession(@NonNull final Map<Integer, SegmentedMessageSession> sessions,
+                                                 @NonNull final SegmentedMessageSession session) {
+        final Iterator<SegmentedMessageSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            final SegmentedMessageSession existingSession = iterator.next();
+            if (existingSession.getSrc() == session.getSrc()) {
+                cancelTimers(existingSession);
+                iterator.remove();
+            }
+        }
+
+        if (sessions.size() >= MAX_SEGMENTED_MESSAGE_SESSIONS) {
+            final SegmentedMessageSession oldestSession = sessions.values().iterator().next();
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Too many segmented messages in progress, dropping message from: " + MeshAddress.formatAddress(oldestSession.getSrc(), false));
+            }
+            removeSession(sessions, oldestSession);
+        }
+
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Starting incomplete timer for src: " + MeshAddress.formatAddress(session.getSrc(), false));
+        }
+        mMeshNode.setSeqAuth(session.getSrc(), session.getSeqAuth());
+        sessions.put(session.getKey(), session);
+        return session;
     }
 
     /**
-     * Restarts the incomplete timer
+     * Releases the segments of a reassembled message. The session is kept until the incomplete timer would have expired, in case the
+     * node retransmits segments because it did not receive the block acknowledgement.
+     *
+     * @param sessions session table
+     * @param session  completed session
      */
-    private void restartIncompleteTimer() {
-        //Remove the existing incomplete timer
-        if (mIncompleteTimerStarted) {
-            mHandler.removeCallbacks(mIncompleteTimerRunnable);
-        }
-        //Call init to start the timer again
-        initIncompleteTimer();
+    private void completeSession(@NonNull final Map<Integer, SegmentedMessageSession> sessions, @NonNull final SegmentedMessageSession session) {
+        session.complete();
+        final Runnable runnable = () -> removeSessionEntry(sessions, session);
+        session.setIncompleteTimerRunnable(runnable);
+        mScheduler.postDelayed(runnable, INCOMPLETE_TIMER_DELAY);
+    }
+
+    private void removeSession(@NonNull final Map<Integer, SegmentedMessageSession> sessions, @NonNull final SegmentedMessageSession session) {
+        cancelTimers(session);
+        removeSessionEntry(sessions, session);
     }
 
     /**
-     * Cancels an already started the incomplete timer
+     * Removes a session from the session table only if it has not been replaced by a newer message with the same key.
+     * Map.remove(key, value) is not available below API level 24.
+     *
+     * @param sessions session table
+     * @param session  session to be removed
      */
-    private void cancelIncompleteTimer() {
-        //Remove the existing incomplete timer
-        mIncompleteTimerStarted = false;
-        mHandler.removeCallbacks(mIncompleteTimerRunnable);
+    private void removeSessionEntry(@NonNull final Map<Integer, SegmentedMessageSession> sessions, @NonNull final SegmentedMessageSession session) {
+        final int key = session.getKey();
+        if (sessions.get(key) == session) {
+            sessions.remove(key);
+        }
     }
 
     /**
-     * Start acknowledgement timer for segmented messages.
+     * Starts or restarts the incomplete timer of a session
      *
-     * @param seqZero seqzero of the segmented messages.
-     * @param ttl     ttl of the segmented messages.
-     * @param dst     destination address.
+     * @param sessions session table
+     * @param session  session
      */
-    private void initSegmentedAccessAcknowledgementTimer(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        if (!mSegmentedAccessAcknowledgementTimerStarted) {
-            mSegmentedAccessAcknowledgementTimerStarted = true;
-            final int duration = (150 + (50 * ttl));
-            mDuration = System.currentTimeMillis() + duration;
-            mHandler.postDelayed(() -> {
-                Log.v(TAG, "Acknowledgement timer expiring");
-                try {
-                    sendBlockAck(seqZero, ttl, src, dst, segN);
-                } catch (Exception e) {
-
-                }
-
-            }, duration);
+    private void restartIncompleteTimer(@NonNull final Map<Integer, SegmentedMessageSession> sessions, @NonNull final SegmentedMessageSession session) {
+        //Remove the existing incomplete timer
+        if (session.getIncompleteTimerRunnable() != null) {
+            mScheduler.removeCallbacks(session.getIncompleteTimerRunnable());
         }
+        final Runnable runnable = () -> {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Incomplete timer expired for src: " + MeshAddress.formatAddress(session.getSrc(), false));
+            }
+            removeSession(sessions, session);
+            mLowerTransportLayerCallbacks.onIncompleteTimerExpired();
+        };
+        session.setIncompleteTimerRunnable(runnable);
+        mScheduler.postDelayed(runnable, INCOMPLETE_TIMER_DELAY);
     }
 
     /**
      * Start acknowledgement timer for segmented messages.
      *
-     * @param seqZero seqzero of the segmented messages.
-     * @param ttl     ttl of the segmented messages.
-     * @param src     source address which is the element address
-     * @param dst     destination address.
+     * @param session session of the segmented message
      */
-    private void initSegmentedControlAcknowledgementTimer(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        if (!mSegmentedControlAcknowledgementTimerStarted) {
-            mSegmentedControlAcknowledgementTimerStarted = true;
-            final int duration = (150 + (50 * ttl));
-            mDuration = System.currentTimeMillis() + duration;
-            mHandler.postDelayed(() -> sendBlockAck(seqZero, ttl, src, dst, segN), duration);
-        }
+    private void initAcknowledgementTimer(@NonNull final SegmentedMessageSession session) {
+        final int duration = (150 + (50 * session.getTtl()));
+        final Runnable runnable = () -> {
+            MeshLogger.v(TAG, "Acknowledgement timer expiring");
+            session.setAcknowledgementTimerRunnable(null);
+            sendBlockAck(session);
+        };
+        session.setAcknowledgementTimerRunnable(runnable);
+        mScheduler.postDelayed(runnable, duration);
     }
 
     /**
-     * Send block acknowledgement
+     * Cancels the incomplete and acknowledgement timers of a session
      *
-     * @param seqZero seqzero of the segmented messages.
-     * @param ttl     ttl of the segmented messages.
-     * @param src     source address which is the element address
-     * @param dst     destination address.
+     * @param session session
      */
-    private void sendBlockAck(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        final int blockAck = mSegmentedAccessBlockAck;
-        //mSegmentedAccessBlockAck = null;
-        if (BlockAcknowledgementMessage.hasAllSegmentsBeenReceived(blockAck, segN)) {
-            Log.v(TAG, "All segments received cancelling incomplete timer");
-            cancelIncompleteTimer();
+    private void cancelTimers(@NonNull final SegmentedMessageSession session) {
+        if (session.getIncompleteTimerRunnable() != null) {
+            mScheduler.removeCallbacks(session.getIncompleteTimerRunnable());
+            session.setIncompleteTimerRunnable(null);
         }
-
-        final byte[] upperTransportControlPdu = createAcknowledgementPayload(seqZero, blockAck);
-        Log.v(TAG, "Block acknowledgement payload: " + MeshParserUtils.bytesToHex(upperTransportControlPdu, false));
-        final ControlMessage controlMessage = new ControlMessage();
-        controlMessage.setOpCode(TransportLayerOpCodes.SAR_ACK_OPCODE);
-        controlMessage.setTransportControlPdu(upperTransportControlPdu);
-        controlMessage.setTtl(ttl);
-        controlMessage.setPduType(MeshManagerApi.PDU_TYPE_NETWORK);
-        controlMessage.setSrc(src);
-        controlMessage.setDst(dst);
-        controlMessage.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
-        final int sequenceNumber = incrementSequenceNumber(controlMessage.getSrc());
-        final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
-        controlMessage.setSequenceNumber(sequenceNum);
-        mBlockAckSent = true;
-        mLowerTransportLayerCallbacks.sendSegmentAcknowledgementMessage(controlMessage);
-        mSegmentedAccessAcknowledgementTimerStarted = false;
-    }
-
-    private void sendBlockAck(final int blockAck, final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        if (BlockAcknowledgementMessage.hasAllSegmentsBeenReceived(blockAck, segN)) {
-            Log.v(TAG, "All segments received cancelling incomplete timer");
-            cancelIncompleteTimer();
+        if (session.getAcknowledgementTimerRunnable() != null) {
+            mScheduler.removeCallbacks(session.getAcknowledgementTimerRunnable());
+            session.setAcknowledgementTimerRunnable(null);
         }
+    }
 
-        final byte[] upperTransportControlPdu = createAcknowledgementPayload(seqZero, blockAck);
-        Log.v(TAG, "Block acknowledgement payload: " + MeshParserUtils.bytesToHex(upperTransportControlPdu, false));
+    /**
+     * Send block acknowledgement for the segments received in a session
+     *
+     * @param session session of the segmented message
+     */
+    private void sendBlockAck(@NonNull final SegmentedMessageSession session) {
+        final int blockAck = session.getBlockAck();
+        final byte[] upperTransportControlPdu = createAcknowledgementPayload(session.getSeqZero(), blockAck);
+        MeshLogger.v(TAG, "Block acknowledgement payload: ", upperTransportControlPdu);
         final ControlMessage controlMessage = new ControlMessage();
         controlMessage.setOpCode(TransportLayerOpCodes.SAR_ACK_OPCODE);
         controlMessage.setTransportControlPdu(upperTransportControlPdu);
-        controlMessage.setTtl(ttl);
+        controlMessage.setTtl(session.getTtl());
         controlMessage.setPduType(MeshManagerApi.PDU_TYPE_NETWORK);
-        controlMessage.setSrc(src);
-        controlMessage.setDst(dst);
-        controlMessage.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
+        //The destination of the segmented message is the source of the acknowledgement and vice versa
+        controlMessage.setSrc(session.getDst());
+        controlMessage.setDst(session.getSrc());
+        controlMessage.setIvIndex(mUpperTransportLayerCallbacks.getTransmitIvIndex());
         final int sequenceNumber = incrementSequenceNumber(controlMessage.getSrc());
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
         controlMessage.setSequenceNumber(sequenceNum);
-        mBlockAckSent = true;
         mLowerTransportLayerCallbacks.sendSegmentAcknowledgementMessage(controlMessage);
-        mSegmentedAccessAcknowledgementTimerStarted = false;
     }
 
     /**
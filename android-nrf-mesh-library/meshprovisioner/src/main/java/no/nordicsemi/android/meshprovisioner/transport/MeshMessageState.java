@@ -8,15 +8,18 @@ import android.util.SparseArray;
 import java.util.List;
 
 import no.nordicsemi.android.meshprovisioner.InternalTransportCallbacks;
+import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
 import no.nordicsemi.android.meshprovisioner.MeshStatusCallbacks;
+import no.nordicsemi.android.meshprovisioner.OutboundPduScheduler;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 
 /**
  * This generic class handles the mesh messages received or sent.
  * <p>
  * This class handles sending, resending and parsing mesh messages. Each message sent by the library has its own state.
- * {@link ConfigMessageState} and {@link GenericMessageState} extends this class based on the type of the message.
- * Currently the library supports basic Configuration and Generic Messages.
+ * {@link AccessMessageState} sends access messages and {@link ProxyConfigMessageState} sends proxy configuration messages, while
+ * {@link DefaultNoOperationMessageState} handles the messages received.
  * </p>
  */
 abstract class MeshMessageState implements LowerTransportLayerCallbacks {
@@ -96,11 +99,14 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
      */
     public void executeSend() {
         int messageCount = message.getNetworkPdu().size();
-        Log.v(TAG, "Execute send with " + messageCount);
+        MeshLogger.v(TAG, "Execute send with ", messageCount);
         if (messageCount > 0) {
+            final int priority = getPriority();
             for (int i = 0; i < messageCount; i++) {
-                Log.v(TAG, "Sending " + (i + 1) + "/" + messageCount);
-                mInternalTransportCallbacks.sendMeshPdu(mDst, message.getNetworkPdu().get(i));
+                if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                    MeshLogger.v(TAG, "Sending " + (i + 1) + "/" + messageCount);
+                }
+                mInternalTransportCallbacks.sendMeshPdu(mDst, message.getNetworkPdu().get(i), priority);
             }
         }
     }
@@ -110,13 +116,16 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
      */
     final void executeResend(final List<Integer> retransmitPduIndexes) {
         if (message.getNetworkPdu().size() > 0 && !retransmitPduIndexes.isEmpty()) {
+            final int priority = getPriority();
             for (int i = 0; i < retransmitPduIndexes.size(); i++) {
                 final int segO = retransmitPduIndexes.get(i);
                 if (message.getNetworkPdu().get(segO) != null) {
                     final byte[] pdu = message.getNetworkPdu().get(segO);
-                    Log.v(TAG, "Resending segment " + segO + " : " + MeshParserUtils.bytesToHex(pdu, false));
+                    if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                        MeshLogger.v(TAG, "Resending segment " + segO + " : " + MeshParserUtils.bytesToHex(pdu, false));
+                    }
                     final Message retransmitMeshMessage = mMeshTransport.createRetransmitMeshMessage(message, segO);
-                    mInternalTransportCallbacks.sendMeshPdu(mDst, retransmitMeshMessage.getNetworkPdu().get(segO));
+                    mInternalTransportCallbacks.sendMeshPdu(mDst, retransmitMeshMessage.getNetworkPdu().get(segO), priority);
                 }
             }
         }
@@ -126,9 +135,19 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
         return message.getNetworkPdu().size() > 1;
     }
 
+    /**
+     * Returns the priority class the pdus of the message are queued with, proxy configuration messages are sent before access
+     * messages and segmented messages after unsegmented ones
+     */
+    int getPriority() {
+        if (message.getPduType() == MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)
+            return OutboundPduScheduler.PRIORITY_CONTROL;
+        return isSegmented() ? OutboundPduScheduler.PRIORITY_BULK : OutboundPduScheduler.PRIORITY_INTERACTIVE;
+    }
+
     @Override
     public void onIncompleteTimerExpired() {
-        Log.v(TAG, "Incomplete timer has expired, all segments were not received!");
+        MeshLogger.v(TAG, "Incomplete timer has expired, all segments were not received!");
         isIncompleteTimerExpired = true;
         if (meshMessageHandlerCallbacks != null) {
 
@@ -144,8 +163,8 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
     public void sendSegmentAcknowledgementMessage(final ControlMessage controlMessage) {
         //We don't send acks here
         final ControlMessage message = mMeshTransport.createSegmentBlockAcknowledgementMessage(controlMessage);
-        Log.v(TAG, "Sending acknowledgement: " + MeshParserUtils.bytesToHex(message.getNetworkPdu().get(0), false));
-        mInternalTransportCallbacks.sendMeshPdu(message.getDst(), message.getNetworkPdu().get(0));
+        MeshLogger.v(TAG, "Sending acknowledgement: ", message.getNetworkPdu().get(0));
+        mInternalTransportCallbacks.sendMeshPdu(message.getDst(), message.getNetworkPdu().get(0), OutboundPduScheduler.PRIORITY_CONTROL);
         mMeshStatusCallbacks.onBlockAcknowledgementSent(message.getDst());
     }
 
@@ -177,6 +196,8 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
 
 		// Generic Access message
 		GENERIC_ACCESS_MESSAGE_STATE(50),
+        //Access message of any model
+        ACCESS_MESSAGE_STATE(60),
         //Application message States
         GENERIC_USER_PROPERTY_GET_STATE(199),
         GENERIC_ON_OFF_GET_STATE(200),
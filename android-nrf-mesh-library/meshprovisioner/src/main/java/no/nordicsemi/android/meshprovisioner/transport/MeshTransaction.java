@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ProxyConfigMessageOpCodes;
+
+/**
+ * An acknowledged mesh message that is waiting for its status message.
+ * <p>
+ * A transaction is identified by the destination address and the opcode of the status message expected in response,
+ * see {@link #getKey(int, int)}.
+ * </p>
+ */
+final class MeshTransaction {
+
+    /**
+     * Returned by {@link #getStatusOpCode(MeshMessage, StatusMessageRegistry)} for messages that are not acknowledged
+     */
+    static final int NO_STATUS = StatusMessageRegistry.NO_STATUS;
+
+    /**
+     * Key used for status messages of vendor models, the status opcode of a vendor model is not known to the library
+     */
+    static final int VENDOR_MODEL_STATUS = 0x01000000;
+
+    /**
+     * Key used for proxy filter status messages as they do not share the opcode space of access messages
+     */
+    static final int PROXY_FILTER_STATUS = 0x02000000 | ProxyConfigMessageOpCodes.FILTER_STATUS;
+
+    /**
+     * Proxy configuration messages are not addressed to an element, the proxy the client is connected to responds
+     */
+    static final int PROXY_CONFIGURATION_DST = -1;
+
+    private final int mSrc;
+    private final int mDst;
+    private final MeshMessage mMeshMessage;
+    private final int mStatusOpCode;
+    private final long mKey;
+    private MeshMessageState mMeshMessageState;
+    private int mAttempts;
+    private Runnable mTimeoutRunnable;
+
+    MeshTransaction(final int src, final int dst, @NonNull final MeshMessage meshMessage, final int statusOpCode) {
+        this.mSrc = src;
+        this.mMeshMessage = meshMessage;
+        this.mDst = dst;
+        this.mStatusOpCode = statusOpCode;
+        this.mKey = getKey(meshMessage instanceof ProxyConfigMessage ? PROXY_CONFIGURATION_DST : dst, mStatusOpCode);
+    }
+
+    int getSrc() {
+        return mSrc;
+    }
+
+    /**
+     * Returns the destination address the message is sent to
+     */
+    int getDst() {
+        return mDst;
+    }
+
+    @NonNull
+    MeshMessage getMeshMessage() {
+        return mMeshMessage;
+    }
+
+    int getStatusOpCode() {
+        return mStatusOpCode;
+    }
+
+    long getKey() {
+        return mKey;
+    }
+
+    /**
+     * Returns true if a status message is expected for this transaction
+     */
+    boolean isAcknowledged() {
+        return mStatusOpCode != NO_STATUS;
+    }
+
+    @Nullable
+    MeshMessageState getMeshMessageState() {
+        return mMeshMessageState;
+    }
+
+    void setMeshMessageState(@Nullable final MeshMessageState meshMessageState) {
+        this.mMeshMessageState = meshMessageState;
+    }
+
+    /**
+     * Returns the number of times the message has been sent
+     */
+    int getAttempts() {
+        return mAttempts;
+    }
+
+    void incrementAttempts() {
+        mAttempts++;
+    }
+
+    Runnable getTimeoutRunnable() {
+        return mTimeoutRunnable;
+    }
+
+    void setTimeoutRunnable(@NonNull final Runnable timeoutRunnable) {
+        this.mTimeoutRunnable = timeoutRunnable;
+    }
+
+    /**
+     * Returns the key identifying a transaction
+     *
+     * @param dst          destination address of the message or the source address of the status
+     * @param statusOpCode expected status opcode
+     */
+    static long getKey(final int dst, final int statusOpCode) {
+        return ((long) dst << 32) | (statusOpCode & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the key used to look up the transaction a received access message is responding to
+     *
+     * @param opCode opcode of the received access message
+     */
+    static int getStatusKey(final int opCode) {
+        if (StatusMessageRegistry.isVendorOpCode(opCode)) {
+            return VENDOR_MODEL_STATUS;
+        }
+        return opCode;
+    }
+
+    /**
+     * Returns the opcode of the status message a node responds with to the given message
+     *
+     * @param meshMessage mesh message
+     * @param registry    registry of the status messages
+     * @return status opcode or {@link #NO_STATUS} if the message is not acknowledged
+     */
+    static int getStatusOpCode(@NonNull final MeshMessage meshMessage, @NonNull final StatusMessageRegistry registry) {
+        if (meshMessage instanceof ProxyConfigMessage) {
+            return PROXY_FILTER_STATUS;
+        } else if (meshMessage instanceof VendorModelMessageAcked) {
+            return VENDOR_MODEL_STATUS;
+        } else if (meshMessage instanceof VendorModelMessageUnacked) {
+            return NO_STATUS;
+        }
+        return registry.getStatusOpCode(meshMessage.getOpCode());
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.MeshScheduler;
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Table of the acknowledged mesh messages that are in flight.
+ * <p>
+ * Transactions are keyed by the destination address and the opcode of the expected status message so that acknowledged messages to
+ * different nodes can be outstanding at the same time. Only one transaction per key may be outstanding, as the responses could not be
+ * told apart otherwise; further messages with the same key wait in the queue. The number of outstanding transactions is limited by
+ * the transaction window so that the proxy node is not overloaded. Each transaction is resent if no status is received within the
+ * timeout, until the retry count is exhausted.
+ * </p>
+ * <p>
+ * The state of the last segmented message sent to each unicast address is kept so that the segments can be resent when a block
+ * acknowledgement is received. It is released when the transaction completes or, for messages that are not acknowledged, once all
+ * segments were acknowledged or the transaction timeout has elapsed.
+ * </p>
+ */
+final class MeshTransactionManager {
+
+    private static final String TAG = MeshTransactionManager.class.getSimpleName();
+    static final int DEFAULT_TRANSACTION_WINDOW = 4;
+    static final long DEFAULT_TRANSACTION_TIMEOUT = 10 * 1000;
+    static final int DEFAULT_TRANSACTION_RETRIES = 2;
+
+    /**
+     * Callbacks to send the messages of the transactions and to notify failed transactions
+     */
+    interface TransactionCallbacks {
+
+        /**
+         * Sends the message of a transaction
+         *
+         * @param transaction transaction to be sent
+         * @return the state that sent the message or null if the message could not be sent
+         */
+        @Nullable
+        MeshMessageState onSendTransaction(@NonNull final MeshTransaction transaction);
+
+        /**
+         * Notifies that no status was received for a transaction after all retries
+         *
+         * @param transaction transaction that failed
+         */
+        void onTransactionTimedOut(@NonNull final MeshTransaction transaction);
+    }
+
+    private final MeshScheduler mScheduler;
+    private final StatusMessageRegistry mStatusMessageRegistry;
+    private final TransactionCallbacks mCallbacks;
+    private final Map<Long, MeshTransaction> mActiveTransactions = new HashMap<>();
+    private final ArrayDeque<MeshTransaction> mPendingTransactions = new ArrayDeque<>();
+    private final Map<Integer, MeshMessageState> mSegmentedStates = new HashMap<>();
+    private int mTransactionWindow = DEFAULT_TRANSACTION_WINDOW;
+    private long mTransactionTimeout = DEFAULT_TRANSACTION_TIMEOUT;
+    private int mTransactionRetries = DEFAULT_TRANSACTION_RETRIES;
+    private boolean mDispatching;
+
+    MeshTransactionManager(@NonNull final MeshScheduler scheduler,
+                           @NonNull final StatusMessageRegistry statusMessageRegistry,
+                           @NonNull final TransactionCallbacks callbacks) {
+        this.mScheduler = scheduler;
+        this.mStatusMessageRegistry = statusMessageRegistry;
+        this.mCallbacks = callbacks;
+    }
+
+    /**
+     * Sets the maximum number of acknowledged messages that may be outstanding at the same time
+     *
+     * @param transactionWindow number of transactions, must be at least 1
+     */
+    void setTransactionWindow(final int transactionWindow) {
+        if (transactionWindow < 1)
+            throw new IllegalArgumentException("Transaction window must be at least 1");
+        mTransactionWindow = transactionWindow;
+        dispatchPendingTransactions();
+    }
+
+    int getTransactionWindow() {
+        return mTransactionWindow;
+    }
+
+    /**
+     * Sets the time to wait for a status message before the message is resent
+     *
+     * @param timeout timeout in milliseconds
+     */
+    void setTransactionTimeout(final long timeout) {
+        if (timeout <= 0)
+            throw new IllegalArgumentException("Transaction timeout must be greater than 0");
+        mTransactionTimeout = timeout;
+    }
+
+    long getTransactionTimeout() {
+        return mTransactionTimeout;
+    }
+
+    /**
+     * Sets the number of times a message is resent if no status message was received
+     *
+     * @param retries number of retries
+     */
+    void setTransactionRetries(final int retries) {
+        if (retries < 0)
+            throw new IllegalArgumentException("Transaction retries must not be negative");
+        mTransactionRetries = retries;
+    }
+
+    int getTransactionRetries() {
+        return mTransactionRetries;
+    }
+
+    /**
+     * Returns the number of transactions waiting for a status message
+     */
+    int getActiveTransactionCount() {
+        return mActiveTransactions.size();
+    }
+
+    /**
+     * Returns the number of transactions waiting to be sent
+     */
+    int getPendingTransactionCount() {
+        return mPendingTransactions.size();
+    }
+
+    /**
+     * Queues a message to be sent.
+     * <p>
+     * Messages that are not acknowledged or are sent to a group or virtual address are sent immediately, as no single status can
+     * complete them.
+     * </p>
+     *
+     * @param src         source address
+     * @param dst         destination address
+     * @param meshMessage mesh message
+     */
+    void send(final int src, final int dst, @NonNull final MeshMessage meshMessage) {
+        final MeshTransaction transaction = createTransaction(src, dst, meshMessage);
+        if (!transaction.isAcknowledged() || !isTracked(transaction)) {
+            //The segments of an untracked message are only kept for resending until the timeout
+            if (sendTransaction(transaction) && getSegmentedState(dst) == transaction.getMeshMessageState()) {
+                mScheduler.postDelayed(transaction.getTimeoutRunnable(), mTransactionTimeout);
+            }
+            return;
+        }
+        mPendingTransactions.add(transaction);
+        dispatchPendingTransactions();
+    }
+
+    /**
+     * Completes the transaction a received status message is responding to
+     *
+     * @param src    source address of the status message
+     * @param opCode opcode of the status message
+     * @return the completed transaction or null if there was no matching transaction
+     */
+    @Nullable
+    MeshTransaction complete(final int src, final int opCode) {
+        return complete(MeshTransaction.getKey(src, MeshTransaction.getStatusKey(opCode)));
+    }
+
+    /**
+     * Completes the outstanding proxy configuration transaction
+     *
+     * @return the completed transaction or null if there was no proxy configuration message outstanding
+     */
+    @Nullable
+    MeshTransaction completeProxyConfiguration() {
+        return complete(MeshTransaction.getKey(MeshTransaction.PROXY_CONFIGURATION_DST, MeshTransaction.PROXY_FILTER_STATUS));
+    }
+
+    /**
+     * Returns the last segmented message state sent to the given address, used to resend segments on a block acknowledgement
+     *
+     * @param dst destination address of the segmented message
+     */
+    @Nullable
+    MeshMessageState getSegmentedState(final int dst) {
+        return mSegmentedStates.get(dst);
+    }
+
+    /**
+     * Releases the segmented message state of a destination once all segments were acknowledged
+     *
+     * @param dst   destination address of the segmented message
+     * @param state state that sent the segmented message
+     */
+    void onSegmentsAcknowledged(final int dst, @NonNull final MeshMessageState state) {
+        if (mSegmentedStates.get(dst) == state) {
+            mSegmentedStates.remove(dst);
+        }
+    }
+
+    /**
+     * Returns the number of segmented message states kept for resending segments
+     */
+    int getSegmentedStateCount() {
+        return mSegmentedStates.size();
+    }
+
+    /**
+     * Cancels all outstanding and queued transactions without notifying them
+     */
+    void clear() {
+        for (MeshTransaction transaction : mActiveTransactions.values()) {
+            mScheduler.removeCallbacks(transaction.getTimeoutRunnable());
+        }
+        mActiveTransactions.clear();
+        mPendingTransactions.clear();
+        mSegmentedStates.clear();
+    }
+
+    private MeshTransaction complete(final long key) {
+        final MeshTransaction transaction = mActiveTransactions.remove(key);
+        if (transaction == null)
+            return null;
+
+        mScheduler.removeCallbacks(transaction.getTimeoutRunnable());
+        removeSegmentedState(transaction);
+        MeshLogger.v(TAG, "Transaction completed, outstanding transactions: ", mActiveTransactions.size());
+        dispatchPendingTransactions();
+        return transaction;
+    }
+
+    private MeshTransaction createTransaction(final int src, final int dst, @NonNull final MeshMessage meshMessage) {
+        final MeshTransaction transaction = new MeshTransaction(src, dst, meshMessage,
+                MeshTransaction.getStatusOpCode(meshMessage, mStatusMessageRegistry));
+        transaction.setTimeoutRunnable(() -> onTimeout(transaction));
+        return transaction;
+    }
+
+    private boolean isTracked(@NonNull final MeshTransaction transaction) {
+        return transaction.getMeshMessage() instanceof ProxyConfigMessage || MeshAddress.isValidUnicastAddress(transaction.getDst());
+    }
+
+    private void dispatchPendingTransactions() {
+        //Sending a message may call back into the application which may queue further messages
+        if (mDispatching)
+            return;
+
+        mDispatching = true;
+        try {
+            while (mActiveTransactions.size() < mTransactionWindow) {
+                final MeshTransaction transaction = nextPendingTransaction();
+                if (transaction == null)
+                    break;
+
+                mPendingTransactions.remove(transaction);
+                mActiveTransactions.put(transaction.getKey(), transaction);
+                if (sendTransaction(transaction)) {
+                    mScheduler.postDelayed(transaction.getTimeoutRunnable(), mTransactionTimeout);
+                } else {
+                    mActiveTransactions.remove(transaction.getKey());
+                }
+            }
+        } finally {
+            mDispatching = false;
+        }
+    }
+
+    private MeshTransaction nextPendingTransaction() {
+        for (MeshTransaction transaction : mPendingTransactions) {
+            //Messages with the same key must wait until the outstanding transaction completes
+            if (!mActiveTransactions.containsKey(transaction.getKey())) {
+                return transaction;
+            }
+        }
+        return null;
+    }
+
+    private boolean sendTransaction(@NonNull final MeshTransaction transaction) {
+        transaction.incrementAttempts();
+        final MeshMessageState state = mCallbacks.onSendTransaction(transaction);
+        transaction.setMeshMessageState(state);
+        if (state == null)
+            return false;
+
+        //Block acknowledgements are only sent for segmented messages to a unicast address
+        if (state.isSegmented() && MeshAddress.isValidUnicastAddress(transaction.getDst())) {
+            mSegmentedStates.put(transaction.getDst(), state);
+        }
+        return true;
+    }
+
+    private void removeSegmentedState(@NonNull final MeshTransaction transaction) {
+        final MeshMessageState state = transaction.getMeshMessageState();
+        if (state != null && mSegmentedStates.get(transaction.getDst()) == state) {
+            mSegmentedStates.remove(transaction.getDst());
+        }
+    }
+
+    private void onTimeout(@NonNull final MeshTransaction transaction) {
+        if (mActiveTransactions.get(transaction.getKey()) != transaction) {
+            //The segments of an untracked message are no longer resent
+            removeSegmentedState(transaction);
+            return;
+        }
+
+        if (transaction.getAttempts() <= mTransactionRetries) {
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "No status received from " + MeshAddress.formatAddress(transaction.getDst(), true) +
+                        ", resending attempt " + (transaction.getAttempts() + 1));
+            }
+            removeSegmentedState(transaction);
+            if (sendTransaction(transaction)) {
+                mScheduler.postDelayed(transaction.getTimeoutRunnable(), mTransactionTimeout);
+                return;
+            }
+        }
+
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Transaction to " + MeshAddress.formatAddress(transaction.getDst(), true) +
+                    " timed out after " + transaction.getAttempts() + " attempt(s)");
+        }
+        mActiveTransactions.remove(transaction.getKey());
+        removeSegmentedState(transaction);
+        mCallbacks.onTransactionTimedOut(transaction);
+        dispatchPendingTransactions();
+    }
+}
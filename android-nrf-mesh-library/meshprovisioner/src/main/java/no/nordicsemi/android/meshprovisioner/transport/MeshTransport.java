@@ -23,24 +23,27 @@
 package no.nordicsemi.android.meshprovisioner.transport;
 
 import android.content.Context;
-import android.os.Handler;
 import androidx.annotation.VisibleForTesting;
 import android.util.Log;
 
+import no.nordicsemi.android.meshprovisioner.HandlerMeshScheduler;
 import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
+import no.nordicsemi.android.meshprovisioner.MeshScheduler;
 import no.nordicsemi.android.meshprovisioner.Provisioner;
 import no.nordicsemi.android.meshprovisioner.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 
 public final class MeshTransport extends NetworkLayer {
 
     private static final String TAG = MeshTransport.class.getSimpleName();
     private static final int PROXY_CONFIGURATION_TTL = 0;
+    static final int DEFAULT_TTL = 8;
 
-    MeshTransport(final Context context) {
+    MeshTransport(final Context context, final MeshScheduler scheduler) {
         this.mContext = context;
-        initHandler();
+        this.mScheduler = scheduler;
     }
 
     @VisibleForTesting(otherwise = VisibleForTesting.PROTECTED)
@@ -48,12 +51,7 @@ public final class MeshTransport extends NetworkLayer {
         super();
         this.mContext = context;
         this.mMeshNode = node;
-        initHandler();
-    }
-
-    @Override
-    protected final void initHandler() {
-        this.mHandler = new Handler(mContext.getMainLooper());
+        this.mScheduler = new HandlerMeshScheduler();
     }
 
     @Override
@@ -115,7 +113,7 @@ public final class MeshTransport extends NetworkLayer {
     final AccessMessage createMeshMessage(final int src, final int dst,
                                           final byte[] key, final int akf, final int aid, final int aszmic,
                                           final int accessOpCode, final byte[] accessMessageParameters) {
-        return createMeshMessage(src, dst, key, akf, aid, aszmic, accessOpCode, accessMessageParameters, 8);
+        return createMeshMessage(src, dst, key, akf, aid, aszmic, accessOpCode, accessMessageParameters, DEFAULT_TTL);
     }
 
     final AccessMessage createMeshMessage(final int src, final int dst,
@@ -124,22 +122,16 @@ public final class MeshTransport extends NetworkLayer {
         final int sequenceNumber = incrementSequenceNumber(src);
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
 
-        Log.v(TAG, "Access Message:");
-        Log.v(TAG, "    Src address: " + MeshAddress.formatAddress(src, false));
-        Log.v(TAG, "    Dst address: " + MeshAddress.formatAddress(dst, false));
-        Log.v(TAG, "    Key: " + MeshParserUtils.bytesToHex(key, false));
-        Log.v(TAG, "    Akf: " + akf);
-        Log.v(TAG, "    TTL: " + ttl);
-        Log.v(TAG, "    Aid: " + aid);
-        Log.v(TAG, "    Aszmic: " + aszmic);
-        Log.v(TAG, "    Sequence number: " + sequenceNumber);
-        Log.v(TAG, "    Access message opcode: " + Integer.toHexString(accessOpCode));
-        Log.v(TAG, "    Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Access message from " + MeshAddress.formatAddress(src, false) + " to " + MeshAddress.formatAddress(dst, false) +
+                    ", akf: " + akf + ", aid: " + aid + ", aszmic: " + aszmic + ", ttl: " + ttl + ", sequence number: " + sequenceNumber +
+                    ", opcode: " + Integer.toHexString(accessOpCode) + ", parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
+        }
 
         final AccessMessage message = new AccessMessage();
         message.setSrc(src);
         message.setDst(dst);
-        message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
+        message.setIvIndex(mUpperTransportLayerCallbacks.getTransmitIvIndex());
         message.setSequenceNumber(sequenceNum);
         message.setKey(key);
         message.setAkf(akf);
@@ -176,21 +168,17 @@ public final class MeshTransport extends NetworkLayer {
         final int sequenceNumber = incrementSequenceNumber(src);
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
 
-        Log.v(TAG, "Src address: " + MeshAddress.formatAddress(src, false));
-        Log.v(TAG, "Dst address: " + MeshAddress.formatAddress(dst, false));
-        Log.v(TAG, "Key: " + MeshParserUtils.bytesToHex(key, false));
-        Log.v(TAG, "akf: " + akf);
-        Log.v(TAG, "aid: " + aid);
-        Log.v(TAG, "aszmic: " + aszmic);
-        Log.v(TAG, "Sequence number: " + sequenceNumber);
-        Log.v(TAG, "Access message opcode: " + Integer.toHexString(accessOpCode));
-        Log.v(TAG, "Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Vendor access message from " + MeshAddress.formatAddress(src, false) + " to " + MeshAddress.formatAddress(dst, false) +
+                    ", akf: " + akf + ", aid: " + aid + ", aszmic: " + aszmic + ", sequence number: " + sequenceNumber +
+                    ", opcode: " + Integer.toHexString(accessOpCode) + ", parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
+        }
 
         final AccessMessage message = new AccessMessage();
         message.setCompanyIdentifier(companyIdentifier);
         message.setSrc(src);
         message.setDst(dst);
-        message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
+        message.setIvIndex(mUpperTransportLayerCallbacks.getTransmitIvIndex());
         message.setSequenceNumber(sequenceNum);
         message.setKey(key);
         message.setAkf(akf);
@@ -219,17 +207,17 @@ public final class MeshTransport extends NetworkLayer {
         final int sequenceNumber = incrementSequenceNumber(src);
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
 
-        Log.v(TAG, "Src address: " + MeshAddress.formatAddress(src, false));
-        Log.v(TAG, "Dst address: " + MeshAddress.formatAddress(dst, false));
-        Log.v(TAG, "Sequence number: " + sequenceNumber);
-        Log.v(TAG, "Control message opcode: " + Integer.toHexString(opcode));
-        Log.v(TAG, "Control message parameters: " + MeshParserUtils.bytesToHex(parameters, false));
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Proxy configuration message from " + MeshAddress.formatAddress(src, false) + " to " + MeshAddress.formatAddress(dst, false) +
+                    ", sequence number: " + sequenceNumber + ", opcode: " + Integer.toHexString(opcode) +
+                    ", parameters: " + MeshParserUtils.bytesToHex(parameters, false));
+        }
 
         final ControlMessage message = new ControlMessage();
         message.setSrc(src);
         message.setDst(dst);
         message.setTtl(PROXY_CONFIGURATION_TTL); //TTL for proxy configuration messages are set to 0
-        message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
+        message.setIvIndex(mUpperTransportLayerCallbacks.getTransmitIvIndex());
         message.setSequenceNumber(sequenceNum);
         message.setOpCode(opcode);
         message.setParameters(parameters);
@@ -28,15 +28,15 @@ import androidx.annotation.VisibleForTesting;
 
 import org.spongycastle.crypto.InvalidCipherTextException;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
+import no.nordicsemi.android.meshprovisioner.NetworkMessageCache;
 import no.nordicsemi.android.meshprovisioner.Provisioner;
+import no.nordicsemi.android.meshprovisioner.ReplayProtectionList;
 import no.nordicsemi.android.meshprovisioner.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 
@@ -47,9 +47,14 @@ import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 public abstract class NetworkLayer extends LowerTransportLayer {
 
     private static final String TAG = NetworkLayer.class.getSimpleName();
+    private static final int NETWORK_HEADER_LENGTH = 6;
+    private static final int NETWORK_PAYLOAD_OFFSET = 2 + NETWORK_HEADER_LENGTH;
+    private static final int PRIVACY_RANDOM_LENGTH = 7;
     NetworkLayerCallbacks mNetworkLayerCallbacks;
-    private SparseArray<byte[]> segmentedAccessMessagesMessages;
-    private SparseArray<byte[]> segmentedControlMessagesMessages;
+    //Scratch buffers reused for every pdu, they are only valid until the next pdu is encrypted or decrypted
+    private final byte[] mNonce = new byte[13];
+    private final byte[] mPrivacyPlaintext = new byte[16];
+    private final byte[] mPecb = new byte[16];
 
     /**
      * Creates a mesh message
@@ -81,13 +86,10 @@ public abstract class NetworkLayer extends LowerTransportLayer {
 
     @Override
     public final Message createNetworkLayerPDU(final Message message) {
-        final SecureUtils.K2Output k2Output = getK2Output();
+        final SecureUtils.K2Output k2Output = mNetworkLayerCallbacks.getTransmitCredentials(message.getDst());
         final int nid = k2Output.getNid();
         final byte[] encryptionKey = k2Output.getEncryptionKey();
-        Log.v(TAG, "Encryption key: " + MeshParserUtils.bytesToHex(encryptionKey, false));
-
         final byte[] privacyKey = k2Output.getPrivacyKey();
-        Log.v(TAG, "Privacy key: " + MeshParserUtils.bytesToHex(privacyKey, false));
         final int ctl = message.getCtl();
         final int ttl = message.getTtl();
         final int ivi = message.getIvIndex()[3] & 0x01; // least significant bit of IV Index
@@ -96,8 +98,7 @@ public abstract class NetworkLayer extends LowerTransportLayer {
 
         final int src = message.getSrc();
         final SparseArray<byte[]> lowerTransportPduMap;
-        final SparseArray<byte[]> encryptedNetworkPduPayloadMap = new SparseArray<>();
-        final List<byte[]> sequenceNumbers = new ArrayList<>();
+        final SparseArray<byte[]> networkPduMap = new SparseArray<>();
 
         final int pduType = message.getPduType();
         switch (message.getPduType()) {
@@ -114,11 +115,11 @@ public abstract class NetworkLayer extends LowerTransportLayer {
                         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
                         message.setSequenceNumber(sequenceNum);
                     }
-                    sequenceNumbers.add(message.getSequenceNumber());
-                    Log.v(TAG, "Sequence Number: " + MeshParserUtils.bytesToHex(sequenceNumbers.get(i), false));
-                    final byte[] encryptedPayload = encryptNetworkPduPayload(message, sequenceNumbers.get(i), lowerTransportPdu, encryptionKey);
-                    encryptedNetworkPduPayloadMap.put(i, encryptedPayload);
-                    Log.v(TAG, "Encrypted Network payload: " + MeshParserUtils.bytesToHex(encryptedPayload, false));
+                    final byte[] sequenceNumber = message.getSequenceNumber();
+                    MeshLogger.v(TAG, "Sequence Number: ", sequenceNumber);
+                    final byte[] nonce = createNetworkNonce(ctlTTL, sequenceNumber, src, message.getIvIndex());
+                    networkPduMap.put(i, createNetworkPdu(pduType, iviNID, ctlTTL, nonce, sequenceNumber, src, message.getDst(),
+                            message.getIvIndex(), lowerTransportPdu, encryptionKey, privacyKey));
                 }
                 break;
             case MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION:
@@ -128,49 +129,25 @@ public abstract class NetworkLayer extends LowerTransportLayer {
                     final int sequenceNumber = incrementSequenceNumber(message.getSrc());
                     final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
                     message.setSequenceNumber(sequenceNum);
-                    sequenceNumbers.add(message.getSequenceNumber());
-                    final byte[] encryptedPayload = encryptProxyConfigurationPduPayload(message, lowerTransportPdu, encryptionKey);
-                    encryptedNetworkPduPayloadMap.put(i, encryptedPayload);
-                    Log.v(TAG, "Encrypted Network payload: " + MeshParserUtils.bytesToHex(encryptedPayload, false));
+                    final byte[] nonce = createProxyNonce(sequenceNum, src, message.getIvIndex());
+                    networkPduMap.put(i, createNetworkPdu(pduType, iviNID, ctlTTL, nonce, sequenceNum, src, message.getDst(),
+                            message.getIvIndex(), lowerTransportPdu, encryptionKey, privacyKey));
                 }
                 break;
         }
-
-        final SparseArray<byte[]> networkPduMap = new SparseArray<>();
-        for (int i = 0; i < encryptedNetworkPduPayloadMap.size(); i++) {
-            //Create the privacy random
-            final byte[] encryptedPayload = encryptedNetworkPduPayloadMap.get(i);
-            final byte[] privacyRandom = createPrivacyRandom(encryptedPayload);
-            //Next we create the PECB
-            final byte[] pecb = createPECB(message.getIvIndex(), privacyRandom, privacyKey);
-            Log.v(TAG, "encryptedData: " + MeshParserUtils.bytesToHex(encryptedPayload, false));
-            Log.v(TAG, "ivIndex: " + MeshParserUtils.bytesToHex(message.getIvIndex(), false));
-            Log.v(TAG, "privacyKey: " + MeshParserUtils.bytesToHex(privacyKey, false));
-
-            final byte[] header = obfuscateNetworkHeader(ctlTTL, sequenceNumbers.get(i), src, pecb);
-            final byte[] networkPdu = ByteBuffer.allocate(1 + 1 + header.length + encryptedPayload.length).order(ByteOrder.BIG_ENDIAN)
-                    .put((byte) pduType)
-                    .put(iviNID)
-                    .put(header)
-                    .put(encryptedPayload)
-                    .array();
-            networkPduMap.put(i, networkPdu);
-            message.setNetworkPdu(networkPduMap);
-        }
-
-
+        message.setNetworkPdu(networkPduMap);
         return message;
     }
 
     @VisibleForTesting(otherwise = VisibleForTesting.PROTECTED)
     final Message createRetransmitNetworkLayerPDU(final Message message, final int segment) {
-        final SecureUtils.K2Output k2Output = getK2Output();
+        if (message.getPduType() != MeshManagerApi.PDU_TYPE_NETWORK)
+            return null;
+
+        final SecureUtils.K2Output k2Output = mNetworkLayerCallbacks.getTransmitCredentials(message.getDst());
         final int nid = k2Output.getNid();
         final byte[] encryptionKey = k2Output.getEncryptionKey();
-        Log.v(TAG, "Encryption key: " + MeshParserUtils.bytesToHex(encryptionKey, false));
-
         final byte[] privacyKey = k2Output.getPrivacyKey();
-        Log.v(TAG, "Privacy key: " + MeshParserUtils.bytesToHex(privacyKey, false));
         final int ctl = message.getCtl();
         final int ttl = message.getTtl();
         final int ivi = message.getIvIndex()[3] & 0x01; // least significant bit of IV Index
@@ -185,226 +162,160 @@ public abstract class NetworkLayer extends LowerTransportLayer {
             lowerTransportPduMap = ((ControlMessage) message).getLowerTransportControlPdu();
         }
 
-        byte[] encryptedNetworkPayload = null;
-        final int pduType = message.getPduType();
-        switch (message.getPduType()) {
-            case MeshManagerApi.PDU_TYPE_NETWORK:
-                final byte[] lowerTransportPdu = lowerTransportPduMap.get(segment);
-                final int sequenceNumber = incrementSequenceNumber(message.getSrc(), message.getSequenceNumber());
-                final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
-                message.setSequenceNumber(sequenceNum);
-
-                Log.v(TAG, "Sequence Number: " + MeshParserUtils.bytesToHex(sequenceNum, false));
-                encryptedNetworkPayload = encryptNetworkPduPayload(message, sequenceNum, lowerTransportPdu, encryptionKey);
-                if (encryptedNetworkPayload == null)
-                    return null;
-                Log.v(TAG, "Encrypted Network payload: " + MeshParserUtils.bytesToHex(encryptedNetworkPayload, false));
-                break;
-        }
+        final byte[] lowerTransportPdu = lowerTransportPduMap.get(segment);
+        final int sequenceNumber = incrementSequenceNumber(message.getSrc(), message.getSequenceNumber());
+        final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
+        message.setSequenceNumber(sequenceNum);
+        MeshLogger.v(TAG, "Sequence Number: ", sequenceNum);
 
-        final SparseArray<byte[]> networkPduMap = new SparseArray<>();
-        final byte[] privacyRandom = createPrivacyRandom(encryptedNetworkPayload);
-        //Next we create the PECB
-        final byte[] pecb = createPECB(message.getIvIndex(), privacyRandom, privacyKey);
-
-        if (encryptedNetworkPayload != null) {
-            final byte[] header = obfuscateNetworkHeader(ctlTTL, message.getSequenceNumber(), src, pecb);
-            final byte[] networkPdu = ByteBuffer.allocate(1 + 1 + header.length + encryptedNetworkPayload.length).order(ByteOrder.BIG_ENDIAN)
-                    .put((byte) pduType)
-                    .put(iviNID)
-                    .put(header)
-                    .put(encryptedNetworkPayload)
-                    .array();
-            message.getNetworkPdu().put(segment, networkPdu);
-            return message;
-        } else {
+        final byte[] nonce = createNetworkNonce(ctlTTL, sequenceNum, src, message.getIvIndex());
+        final byte[] networkPdu = createNetworkPdu(message.getPduType(), iviNID, ctlTTL, nonce, sequenceNum, src, message.getDst(),
+                message.getIvIndex(), lowerTransportPdu, encryptionKey, privacyKey);
+        if (networkPdu == null)
             return null;
-        }
-
-    }
 
-    /**
-     * Encrypts the network payload of a network pdu
-     *
-     * @param message           mesh message containing network layer pdu
-     * @param lowerTransportPdu lower transport pdu to be encrypted
-     * @param encryptionKey     key used to encrypt the payload.
-     * @return encrypted payload
-     */
-    private byte[] encryptNetworkPduPayload(final Message message, final byte[] sequenceNumber, final byte[] lowerTransportPdu, final byte[] encryptionKey) {
-
-        final byte ctlTTL = (byte) ((message.getCtl() << 7) | message.getTtl());
-        final byte[] networkNonce = createNetworkNonce(ctlTTL, sequenceNumber, message.getSrc(), message.getIvIndex());
-        Log.v(TAG, "iv index: " + MeshParserUtils.bytesToHex(message.getIvIndex(), false));
-        Log.v(TAG, "ctl: " + message.getCtl());
-        Log.v(TAG, "ttl: " + message.getTtl());
-        Log.v(TAG, "seq: " + MeshParserUtils.bytesToHex(sequenceNumber, false));
-        Log.v(TAG, "src: " + MeshParserUtils.bytesToHex(MeshParserUtils.intToBytes(message.getSrc()), false));
-        Log.v(TAG, "Network nonce: " + MeshParserUtils.bytesToHex(networkNonce, false));
-
-        final int dst = message.getDst();
-        //Adding the destination address on network layer
-        final byte[] unencryptedNetworkPayload = ByteBuffer.allocate(2 + lowerTransportPdu.length).order(ByteOrder.BIG_ENDIAN).putShort((short) dst).put(lowerTransportPdu).array();
-
-        //Network layer encryption
-        Log.v(TAG, "data to encrypt: " + MeshParserUtils.bytesToHex(unencryptedNetworkPayload, false));
-        Log.v(TAG, "encryption key: " + MeshParserUtils.bytesToHex(encryptionKey, false));
-        Log.v(TAG, "network nonce: " + MeshParserUtils.bytesToHex(networkNonce, false));
-        Log.v(TAG, "mic size: " + SecureUtils.getNetMicLength(message.getCtl()));
-        return SecureUtils.encryptCCM(unencryptedNetworkPayload, encryptionKey, networkNonce, SecureUtils.getNetMicLength(message.getCtl()));
+        message.getNetworkPdu().put(segment, networkPdu);
+        return message;
     }
 
     /**
-     * Encrypts the network of a proxy configuration pdu.
+     * Creates a network pdu.
+     * <p>
+     * The destination address and the lower transport pdu are encrypted in place in the returned pdu and the network header is
+     * obfuscated straight in to it, so that the pdu is the only buffer allocated.
+     * </p>
      *
-     * @param message           mesh message containing network layer pdu
+     * @param pduType           pdu type
+     * @param iviNID            combined ivi and nid value
+     * @param ctlTTL            combined ctl and ttl value
+     * @param nonce             network or proxy nonce
+     * @param sequenceNumber    sequence number of the pdu
+     * @param src               source address
+     * @param dst               destination address
+     * @param ivIndex           iv index
      * @param lowerTransportPdu lower transport pdu to be encrypted
      * @param encryptionKey     key used to encrypt the payload
-     * @return encrypted payload
+     * @param privacyKey        key used to obfuscate the network header
+     * @return network pdu or null if the payload could not be encrypted
      */
-    private byte[] encryptProxyConfigurationPduPayload(final Message message, final byte[] lowerTransportPdu, final byte[] encryptionKey) {
-
-        final byte[] proxyNonce = createProxyNonce(message.getSequenceNumber(), message.getSrc(), message.getIvIndex());
-        Log.v(TAG, "Proxy nonce: " + MeshParserUtils.bytesToHex(proxyNonce, false));
-
-        final int dst = message.getDst();
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    final byte[] createNetworkPdu(final int pduType,
+                                  final byte iviNID,
+                                  final byte ctlTTL,
+                                  final byte[] nonce,
+                                  final byte[] sequenceNumber,
+                                  final int src,
+                                  final int dst,
+                                  final byte[] ivIndex,
+                                  final byte[] lowerTransportPdu,
+                                  final byte[] encryptionKey,
+                                  final byte[] privacyKey) {
+        final int micLength = SecureUtils.getNetMicLength((ctlTTL >> 7) & 0x01);
+        final int payloadLength = 2 + lowerTransportPdu.length;
+        final byte[] networkPdu = new byte[NETWORK_PAYLOAD_OFFSET + payloadLength + micLength];
+        networkPdu[0] = (byte) pduType;
+        networkPdu[1] = iviNID;
         //Adding the destination address on network layer
-        final byte[] unencryptedNetworkPayload = ByteBuffer.allocate(2 + lowerTransportPdu.length).order(ByteOrder.BIG_ENDIAN)
-                .putShort((short) dst)
-                .put(lowerTransportPdu).array();
-        //Network layer encryption
-        return SecureUtils.encryptCCM(unencryptedNetworkPayload, encryptionKey, proxyNonce, SecureUtils.getNetMicLength(message.getCtl()));
-    }
-
-    /**
-     * Obfuscates the network header
-     *
-     * @param ctlTTL         message type and ttl bit
-     * @param sequenceNumber sequence number of the message
-     * @param src            source address
-     * @param pecb           value derived from the privacy random
-     * @return obfuscted network header
-     */
-    private byte[] obfuscateNetworkHeader(final byte ctlTTL, final byte[] sequenceNumber, final int src, final byte[] pecb) {
-
-        final ByteBuffer buffer = ByteBuffer.allocate(1 + sequenceNumber.length + 2).order(ByteOrder.BIG_ENDIAN);
-        buffer.put(ctlTTL);
-        buffer.put(sequenceNumber);   //sequence number
-        buffer.putShort((short) src);       //source address
-
-        final byte[] headerBuffer = buffer.array();
-
-        final ByteBuffer bufferPECB = ByteBuffer.allocate(6);
-        bufferPECB.put(pecb, 0, 6);
-
-        final byte[] obfuscated = new byte[6];
-        for (int i = 0; i < 6; i++)
-            obfuscated[i] = (byte) (headerBuffer[i] ^ pecb[i]);
-
-        Log.v(TAG, "encryptedData: "+ MeshParserUtils.bytesToHex(pecb, false));
-        Log.v(TAG, "ctlTtl: " + ctlTTL);
-        Log.v(TAG, "seq: " + MeshParserUtils.bytesToHex(sequenceNumber, false));
-        Log.v(TAG, "source: "+ MeshParserUtils.bytesToHex(MeshParserUtils.intToBytes(src), false));
+        networkPdu[NETWORK_PAYLOAD_OFFSET] = (byte) (dst >> 8);
+        networkPdu[NETWORK_PAYLOAD_OFFSET + 1] = (byte) dst;
+        System.arraycopy(lowerTransportPdu, 0, networkPdu, NETWORK_PAYLOAD_OFFSET + 2, lowerTransportPdu.length);
+        try {
+            SecureUtils.encryptCCM(networkPdu, NETWORK_PAYLOAD_OFFSET, payloadLength, encryptionKey, nonce, micLength,
+                    networkPdu, NETWORK_PAYLOAD_OFFSET);
+        } catch (InvalidCipherTextException ex) {
+            MeshLogger.e(TAG, "Error while encrypting network payload", ex);
+            return null;
+        }
 
-        return obfuscated;
+        //The privacy random is taken from the encrypted payload
+        final byte[] pecb = createPECB(ivIndex, networkPdu, NETWORK_PAYLOAD_OFFSET, privacyKey);
+        networkPdu[2] = (byte) (ctlTTL ^ pecb[0]);
+        networkPdu[3] = (byte) (sequenceNumber[0] ^ pecb[1]);
+        networkPdu[4] = (byte) (sequenceNumber[1] ^ pecb[2]);
+        networkPdu[5] = (byte) (sequenceNumber[2] ^ pecb[3]);
+        networkPdu[6] = (byte) ((src >> 8) ^ pecb[4]);
+        networkPdu[7] = (byte) (src ^ pecb[5]);
+        return networkPdu;
     }
 
     /**
      * De-obfuscates the network header
      *
-     * @param pdu received from the node
+     * @param pdu        received from the node
+     * @param privacyKey privacy key of the network key the pdu may have been sent with
+     * @param ivIndex    iv index the pdu was sent with
      * @return obfuscted network header
      */
-    private byte[] deobfuscateNetworkHeader(final byte[] pdu) {
-        final byte[] privacyKey = getK2Output().getPrivacyKey();
-        final ByteBuffer obfuscatedNetworkBuffer = ByteBuffer.allocate(6);
-        obfuscatedNetworkBuffer.order(ByteOrder.BIG_ENDIAN);
-        obfuscatedNetworkBuffer.put(pdu, 2, 6);
-        final byte[] obfuscatedData = obfuscatedNetworkBuffer.array();
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    final byte[] deobfuscateNetworkHeader(final byte[] pdu, final byte[] privacyKey, final byte[] ivIndex) {
+        final byte[] pecb = createPECB(ivIndex, pdu, NETWORK_PAYLOAD_OFFSET, privacyKey);
+        final byte[] deobfuscatedData = new byte[NETWORK_HEADER_LENGTH];
 
-        final ByteBuffer privacyRandomBuffer = ByteBuffer.allocate(7);
-        privacyRandomBuffer.order(ByteOrder.BIG_ENDIAN);
-        privacyRandomBuffer.put(pdu, 8, 7);
-        final byte[] privacyRandom = createPrivacyRandom(privacyRandomBuffer.array());
-
-        final byte[] pecb = createPECB(privacyRandom, privacyKey);
-        final byte[] deobfuscatedData = new byte[6];
-
-        for (int i = 0; i < 6; i++)
-            deobfuscatedData[i] = (byte) (obfuscatedData[i] ^ pecb[i]);
+        for (int i = 0; i < NETWORK_HEADER_LENGTH; i++)
+            deobfuscatedData[i] = (byte) (pdu[2 + i] ^ pecb[i]);
 
         return deobfuscatedData;
     }
 
     /**
-     * Creates the network nonce
+     * Creates the network nonce in the nonce buffer of this layer
      *
      * @param ctlTTL         combined ctl and ttl value
      * @param sequenceNumber sequence number of the message
      * @param src            source address
      * @return Network nonce
      */
-    private byte[] createNetworkNonce(final byte ctlTTL, final byte[] sequenceNumber, final int src, final byte[] ivIndex) {
-        final ByteBuffer networkNonce = ByteBuffer.allocate(13);
-        networkNonce.put((byte) NONCE_TYPE_NETWORK); //Nonce type
-        networkNonce.put(ctlTTL); // CTL and TTL
-        networkNonce.put(sequenceNumber);
-        networkNonce.putShort((short) src);
-        networkNonce.put(new byte[]{PAD_NETWORK_NONCE, PAD_NETWORK_NONCE}); //PAD
-        networkNonce.put(ivIndex);
-        return networkNonce.array();
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    final byte[] createNetworkNonce(final byte ctlTTL, final byte[] sequenceNumber, final int src, final byte[] ivIndex) {
+        final byte[] networkNonce = mNonce;
+        networkNonce[0] = (byte) NONCE_TYPE_NETWORK; //Nonce type
+        networkNonce[1] = ctlTTL; // CTL and TTL
+        System.arraycopy(sequenceNumber, 0, networkNonce, 2, 3);
+        networkNonce[5] = (byte) (src >> 8);
+        networkNonce[6] = (byte) src;
+        networkNonce[7] = PAD_NETWORK_NONCE; //PAD
+        networkNonce[8] = PAD_NETWORK_NONCE;
+        System.arraycopy(ivIndex, 0, networkNonce, 9, 4);
+        return networkNonce;
     }
 
     /**
-     * Creates the proxy nonce
+     * Creates the proxy nonce in the nonce buffer of this layer
      *
      * @param sequenceNumber sequence number of the message
      * @param src            source address
      * @return Proxy nonce
      */
-    private byte[] createProxyNonce(final byte[] sequenceNumber, final int src, final byte[] ivIndex) {
-        final ByteBuffer applicationNonceBuffer = ByteBuffer.allocate(13);
-        applicationNonceBuffer.put((byte) NONCE_TYPE_PROXY); //Nonce type
-        applicationNonceBuffer.put((byte) PAD_PROXY_NONCE); //PAD
-        applicationNonceBuffer.put(sequenceNumber);
-        applicationNonceBuffer.putShort((short) src);
-        applicationNonceBuffer.put(new byte[]{PAD_PROXY_NONCE, PAD_PROXY_NONCE});
-        applicationNonceBuffer.put(ivIndex);
-        return applicationNonceBuffer.array();
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    final byte[] createProxyNonce(final byte[] sequenceNumber, final int src, final byte[] ivIndex) {
+        final byte[] proxyNonce = mNonce;
+        proxyNonce[0] = (byte) NONCE_TYPE_PROXY; //Nonce type
+        proxyNonce[1] = (byte) PAD_PROXY_NONCE; //PAD
+        System.arraycopy(sequenceNumber, 0, proxyNonce, 2, 3);
+        proxyNonce[5] = (byte) (src >> 8);
+        proxyNonce[6] = (byte) src;
+        proxyNonce[7] = PAD_PROXY_NONCE;
+        proxyNonce[8] = PAD_PROXY_NONCE;
+        System.arraycopy(ivIndex, 0, proxyNonce, 9, 4);
+        return proxyNonce;
     }
 
     /**
-     * Creates the privacy random.
+     * Creates the PECB in the PECB buffer of this layer
      *
-     * @param encryptedUpperTransportPDU encrypted transport pdu
-     * @return Privacy random
+     * @param ivIndex             iv index
+     * @param data                buffer containing the encrypted network payload
+     * @param privacyRandomOffset offset of the privacy random, i.e. the first 7 bytes of the encrypted network payload
+     * @param privacyKey          privacy key
+     * @return PECB, of which the first 6 bytes obfuscate the network header
      */
-    private byte[] createPrivacyRandom(final byte[] encryptedUpperTransportPDU) {
-        final byte[] privacyRandom = new byte[7];
-        System.arraycopy(encryptedUpperTransportPDU, 0, privacyRandom, 0, privacyRandom.length);
-        return privacyRandom;
-    }
-
-    private byte[] createPECB(final byte[] privacyRandom, final byte[] privacyKey) {
-        final byte[] ivIndex = mUpperTransportLayerCallbacks.getIvIndex();
-        final ByteBuffer buffer = ByteBuffer.allocate(5 + privacyRandom.length + ivIndex.length);
-        buffer.order(ByteOrder.BIG_ENDIAN);
-        buffer.put(new byte[]{0x00, 0x00, 0x00, 0x00, 0x00});
-        buffer.put(ivIndex);
-        buffer.put(privacyRandom);
-        final byte[] temp = buffer.array();
-        Log.v(TAG, "Privacy Random: " + MeshParserUtils.bytesToHex(temp, false));
-        return SecureUtils.encryptWithAES(temp, privacyKey);
-    }
-
-    private byte[] createPECB(final byte[] ivIndex, final byte[] privacyRandom, final byte[] privacyKey) {
-        final ByteBuffer buffer = ByteBuffer.allocate(5 + privacyRandom.length + ivIndex.length);
-        buffer.order(ByteOrder.BIG_ENDIAN);
-        buffer.put(new byte[]{0x00, 0x00, 0x00, 0x00, 0x00});
-        buffer.put(ivIndex);
-        buffer.put(privacyRandom);
-        final byte[] temp = buffer.array();
-        return SecureUtils.encryptWithAES(temp, privacyKey);
+    private byte[] createPECB(final byte[] ivIndex, final byte[] data, final int privacyRandomOffset, final byte[] privacyKey) {
+        final byte[] privacyPlaintext = mPrivacyPlaintext;
+        Arrays.fill(privacyPlaintext, 0, 5, (byte) 0x00);
+        System.arraycopy(ivIndex, 0, privacyPlaintext, 5, 4);
+        System.arraycopy(data, privacyRandomOffset, privacyPlaintext, 9, PRIVACY_RANDOM_LENGTH);
+        SecureUtils.encryptWithAES(privacyPlaintext, 0, privacyKey, mPecb, 0);
+        return mPecb;
     }
 
     /**
@@ -417,124 +328,145 @@ public abstract class NetworkLayer extends LowerTransportLayer {
      * @return complete {@link Message} that was successfully parsed or null otherwise
      */
     final Message parseMeshMessage(final byte[] data) throws ExtendedInvalidCipherTextException {
-        final Provisioner provisioner = mNetworkLayerCallbacks.getProvisioner();
+        //Copies of a pdu forwarded by several relays are discarded before any cryptographic operation
+        final NetworkMessageCache networkMessageCache = mNetworkLayerCallbacks.getNetworkMessageCache();
+        if (networkMessageCache != null && networkMessageCache.isDuplicate(data)) {
+            MeshLogger.v(TAG, "Discarding duplicate network pdu");
+            return null;
+        }
 
-        //D-eobfuscate network header
-        final byte[] networkHeader = deobfuscateNetworkHeader(data);
-        final int ctlTtl = networkHeader[0];
-        final int ctl = (ctlTtl >> 7) & 0x01;
-        final int ttl = ctlTtl & 0x7F;
-        Log.v(TAG, "TTL for received message: " + ttl);
-
-        final int micLength = SecureUtils.getNetMicLength(ctl);
-        final byte[] sequenceNumber = ByteBuffer.allocate(3).order(ByteOrder.BIG_ENDIAN).put(networkHeader, 1, 3).array();
-        final int src = MeshParserUtils.unsignedBytesToInt(networkHeader[5], networkHeader[4]);
-        mMeshNode = mNetworkLayerCallbacks.getProvisionedNode(src);
-        if (mMeshNode == null) {
+        if (data[0] != MeshManagerApi.PDU_TYPE_NETWORK && data[0] != MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)
+            return null;
+
+        final int nid = data[1] & 0x7F;
+        final SecureUtils.K2Output[] credentials = mNetworkLayerCallbacks.getReceiveCredentials(nid);
+        if (credentials.length == 0) {
+            MeshLogger.v(TAG, "Discarding network pdu, no network key matches NID: ", nid);
             return null;
         }
 
+        final Provisioner provisioner = mNetworkLayerCallbacks.getProvisioner();
+        final byte[] ivIndex = mUpperTransportLayerCallbacks.getIvIndex();
+        final int messageIvIndex = getReceivedIvIndex(data[1], ivIndex);
+        //During an IV Update pdus may still be sent with the previous IV Index, which is then needed to de-obfuscate and decrypt them
+        final byte[] receivedIvIndex = messageIvIndex == MeshParserUtils.bytesToInt(ivIndex) ? ivIndex : MeshParserUtils.intToBytes(messageIvIndex);
+        final ReplayProtectionList replayProtectionList = mNetworkLayerCallbacks.getReplayProtectionList();
+
+        //Several network keys may share the NID, the pdu belongs to the key it is authenticated with
+        ExtendedInvalidCipherTextException decryptionException = null;
+        for (SecureUtils.K2Output k2Output : credentials) {
+            //D-eobfuscate network header
+            final byte[] networkHeader = deobfuscateNetworkHeader(data, k2Output.getPrivacyKey(), receivedIvIndex);
+            final int ctlTtl = networkHeader[0];
+            final int ctl = (ctlTtl >> 7) & 0x01;
+            final int ttl = ctlTtl & 0x7F;
+            MeshLogger.v(TAG, "TTL for received message: ", ttl);
+
+            final int micLength = SecureUtils.getNetMicLength(ctl);
+            final byte[] sequenceNumber = new byte[3];
+            System.arraycopy(networkHeader, 1, sequenceNumber, 0, sequenceNumber.length);
+            final int src = MeshParserUtils.unsignedBytesToInt(networkHeader[5], networkHeader[4]);
+            final ProvisionedMeshNode node = mNetworkLayerCallbacks.getProvisionedNode(src);
+            if (node == null) {
+                continue;
+            }
 
-        //Check if the sequence number has been incremented since the last message sent and return null if not
-        final int sequenceNo = MeshParserUtils.getSequenceNumber(sequenceNumber);
-        Log.v(TAG, "Sequence number of received access message: " + MeshParserUtils.getSequenceNumber(sequenceNumber));
-        if (sequenceNo > mMeshNode.getReceivedSequenceNumber()) {
+            final int sequenceNo = MeshParserUtils.getSequenceNumber(sequenceNumber);
+            MeshLogger.v(TAG, "Sequence number of received access message: ", sequenceNo);
             if (!MeshParserUtils.isValidSequenceNumber(sequenceNo)) {
-                return null;
+                continue;
+            }
+            //Replayed messages are discarded before any decryption
+            if (replayProtectionList != null && replayProtectionList.isReplay(src, messageIvIndex, sequenceNo)) {
+                MeshLogger.v(TAG, "Discarding replayed message, sequence number: ", sequenceNo);
+                continue;
             }
-            mMeshNode.setReceivedSequenceNumber(sequenceNo);
-        }
 
-        final byte[] nonce;
+            final byte[] nonce;
+            if (data[0] == MeshManagerApi.PDU_TYPE_NETWORK) {
+                nonce = createNetworkNonce((byte) ctlTtl, sequenceNumber, src, receivedIvIndex);
+            } else {
+                nonce = createProxyNonce(sequenceNumber, src, receivedIvIndex);
+            }
 
-        final byte[] ivIndex = mUpperTransportLayerCallbacks.getIvIndex();
-        switch (data[0]) {
-            case MeshManagerApi.PDU_TYPE_NETWORK:
-                nonce = createNetworkNonce((byte) ctlTtl, sequenceNumber, src, ivIndex);
-                break;
-            case MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION:
-                nonce = createProxyNonce(sequenceNumber, src, ivIndex);
-                break;
-            default:
-                return null;
+            final byte[] pdu;
+            try {
+                pdu = decryptNetworkPdu(data, networkHeader, k2Output.getEncryptionKey(), nonce, micLength);
+            } catch (ExtendedInvalidCipherTextException ex) {
+                decryptionException = ex;
+                continue;
+            }
+            //The TTL is only recorded once the pdu is authenticated, as the header of a forged pdu could claim any source
+            mNetworkLayerCallbacks.onNetworkPduReceived(src, ttl);
 
+            mMeshNode = node;
+            final Message message;
+            if (ctl == 1) {
+                message = parseControlMessage(provisioner.getProvisionerAddress(), data, pdu, src, sequenceNumber, receivedIvIndex);
+            } else {
+                message = parseAccessMessage(data, pdu, src, sequenceNumber, receivedIvIndex);
+            }
+
+            //The network pdu was authenticated, otherwise decryption would have thrown
+            if (replayProtectionList != null) {
+                replayProtectionList.update(src, messageIvIndex, sequenceNo);
+            }
+            if (sequenceNo > node.getReceivedSequenceNumber()) {
+                node.setReceivedSequenceNumber(sequenceNo);
+            }
+            return message;
         }
 
-        if (ctl == 1) {
-            return parseControlMessage(provisioner.getProvisionerAddress(), data, networkHeader, nonce, src, sequenceNumber, micLength);
-        } else {
-            return parseAccessMessage(data, networkHeader, nonce, src, sequenceNumber, micLength);
+        if (decryptionException != null) {
+            throw decryptionException;
         }
+        return null;
+    }
+
+    /**
+     * Returns the IV Index a received network pdu was sent with, which is the current IV Index or the previous one if the IVI bit of
+     * the pdu does not match the current IV Index
+     *
+     * @param iviNid  first byte of the network pdu containing the IVI and NID
+     * @param ivIndex current IV Index
+     */
+    private static int getReceivedIvIndex(final byte iviNid, final byte[] ivIndex) {
+        final int currentIvIndex = ((ivIndex[0] & 0xFF) << 24) | ((ivIndex[1] & 0xFF) << 16) | ((ivIndex[2] & 0xFF) << 8) | (ivIndex[3] & 0xFF);
+        final int ivi = (iviNid >> 7) & 0x01;
+        return (currentIvIndex & 0x01) == ivi ? currentIvIndex : currentIvIndex - 1;
     }
 
     /**
      * Parses access message
      *
      * @param data           received from the node
-     * @param networkHeader  de-obfuscated network header
-     * @param networkNonce   network nonce
+     * @param pdu            decrypted network pdu
      * @param src            source address
      * @param sequenceNumber sequence number of the received message
-     * @param micLength      network mic length of the received message
+     * @param ivIndex        iv index the message was sent with
      * @return access message
      */
     @VisibleForTesting
     private AccessMessage parseAccessMessage(final byte[] data,
-                                             final byte[] networkHeader,
-                                             final byte[] networkNonce,
+                                             final byte[] pdu,
                                              final int src,
                                              final byte[] sequenceNumber,
-                                             final int micLength) throws ExtendedInvalidCipherTextException {
+                                             final byte[] ivIndex) throws ExtendedInvalidCipherTextException {
         try {
+            final int ttl = pdu[2] & 0x7F;
+            final int dst = MeshParserUtils.unsignedBytesToInt(pdu[NETWORK_PAYLOAD_OFFSET + 1], pdu[NETWORK_PAYLOAD_OFFSET]);
 
-            final SecureUtils.K2Output k2Output = getK2Output();
-
-            final byte[] encryptionKey = k2Output.getEncryptionKey();
-
-            final int ttl = networkHeader[0] & 0x7F;
-
-            final int networkPayloadLength = data.length - (2 + networkHeader.length);
-            final byte[] transportPdu = new byte[networkPayloadLength];
-            System.arraycopy(data, 8, transportPdu, 0, networkPayloadLength);
-            final byte[] decryptedNetworkPayload;
-            try {
-                decryptedNetworkPayload = SecureUtils.decryptCCM(transportPdu, encryptionKey, networkNonce, micLength);
-            } catch (InvalidCipherTextException ex) {
-                throw new ExtendedInvalidCipherTextException(ex.getMessage(), ex.getCause(), TAG);
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Received message from " + MeshAddress.formatAddress(src, false) + " to " + MeshAddress.formatAddress(dst, false));
             }
-            final int dst = MeshParserUtils.unsignedBytesToInt(decryptedNetworkPayload[1], decryptedNetworkPayload[0]);
-
-            Log.v(TAG, "Dst: " + MeshAddress.formatAddress(dst, true));
 
-            if (isSegmentedMessage(decryptedNetworkPayload[2])) {
-                Log.v(TAG, "Received a segmented access message from: " + MeshAddress.formatAddress(src, false));
-
-                //Check if the received segmented message is from the same src as the previous segment
-                if (!mMeshNode.hasUnicastAddress(src)) {
-                    Log.v(TAG, "Segment received is from a different src than the one we are processing, let's drop it");
-                    return null;
-                }
+            if (isSegmentedMessage(pdu[NETWORK_PAYLOAD_OFFSET + 2])) {
+                MeshLogger.v(TAG, "Received a segmented access message");
 
-                if (segmentedAccessMessagesMessages == null) {
-                    segmentedAccessMessagesMessages = new SparseArray<>();
-                    segmentedAccessMessagesMessages.put(0, data);
-                } else {
-                    final int k = segmentedAccessMessagesMessages.size();
-                    segmentedAccessMessagesMessages.put(k, data);
-                }
-                //Removing the mDst here
-                final byte[] pdu = ByteBuffer.allocate(2 + networkHeader.length + decryptedNetworkPayload.length)
-                        .order(ByteOrder.BIG_ENDIAN)
-                        .put(data, 0, 2)
-                        .put(networkHeader)
-                        .put(decryptedNetworkPayload)
-                        .array();
-                final AccessMessage message = parseSegmentedAccessLowerTransportPDU(pdu);
+                //Segments are reassembled per source address and SeqZero, so segmented messages from several nodes may be interleaved
+                final AccessMessage message = parseSegmentedAccessLowerTransportPDU(data, pdu);
                 if (message != null) {
-                    final SparseArray<byte[]> segmentedMessages = segmentedAccessMessagesMessages.clone();
-                    segmentedAccessMessagesMessages = null;
-                    message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
-                    message.setNetworkPdu(segmentedMessages);
+                    message.setIvIndex(ivIndex);
                     message.setTtl(ttl);
                     message.setSrc(src);
                     message.setDst(dst);
@@ -546,7 +478,7 @@ public abstract class NetworkLayer extends LowerTransportLayer {
 
             } else {
                 final AccessMessage message = new AccessMessage();
-                message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
+                message.setIvIndex(ivIndex);
                 final SparseArray<byte[]> networkPduMap = new SparseArray<>();
                 networkPduMap.put(0, data);
                 message.setNetworkPdu(networkPduMap);
@@ -555,13 +487,6 @@ public abstract class NetworkLayer extends LowerTransportLayer {
                 message.setDst(dst);
                 message.setSequenceNumber(sequenceNumber);
 
-                //Removing the mDst here
-                final byte[] pdu = ByteBuffer.allocate(2 + networkHeader.length + decryptedNetworkPayload.length)
-                        .order(ByteOrder.BIG_ENDIAN)
-                        .put(data, 0, 2)
-                        .put(networkHeader)
-                        .put(decryptedNetworkPayload)
-                        .array();
                 parseUnsegmentedAccessLowerTransportPDU(message, pdu);
                 parseUpperTransportPDU(message);
                 parseAccessLayerPDU(message);
@@ -578,42 +503,21 @@ public abstract class NetworkLayer extends LowerTransportLayer {
      *
      * @param provisionerAddress Provisioner address
      * @param data               Data received from the node
-     * @param networkHeader      De-obfuscated network header
-     * @param nonce              Nonce depending on the pdu type
+     * @param decryptedProxyPdu  Decrypted network pdu
      * @param src                Source address where the pdu originated from
      * @param sequenceNumber     Sequence number of the received message
-     * @param micLength          Network mic length of the received message
+     * @param ivIndex            IV Index the message was sent with
      * @return a complete {@link ControlMessage} or null if the message was unable to parsed
      */
     private ControlMessage parseControlMessage(final int provisionerAddress,
                                                final byte[] data,
-                                               final byte[] networkHeader,
-                                               final byte[] nonce,
+                                               final byte[] decryptedProxyPdu,
                                                final int src,
                                                final byte[] sequenceNumber,
-                                               final int micLength) throws ExtendedInvalidCipherTextException {
+                                               final byte[] ivIndex) throws ExtendedInvalidCipherTextException {
         try {
-            final SecureUtils.K2Output k2Output = getK2Output();
-            final byte[] encryptionKey = k2Output.getEncryptionKey();
-            final int ttl = networkHeader[0] & 0x7F;
-            final int networkPayloadLength = data.length - (2 + networkHeader.length);
-            final byte[] transportPdu = new byte[networkPayloadLength];
-            System.arraycopy(data, 8, transportPdu, 0, networkPayloadLength);
-            final byte[] decryptedNetworkPayload;
-            try {
-                decryptedNetworkPayload = SecureUtils.decryptCCM(transportPdu, encryptionKey, nonce, micLength);
-            } catch (InvalidCipherTextException ex) {
-                throw new ExtendedInvalidCipherTextException(ex.getMessage(), ex.getCause(), TAG);
-            }
-            final int dst = MeshParserUtils.unsignedBytesToInt(decryptedNetworkPayload[1], decryptedNetworkPayload[0]);
-
-            //Removing the mDst here
-            final byte[] decryptedProxyPdu = ByteBuffer.allocate(2 + networkHeader.length + decryptedNetworkPayload.length)
-                    .order(ByteOrder.BIG_ENDIAN)
-                    .put(data, 0, 2)
-                    .put(networkHeader)
-                    .put(decryptedNetworkPayload)
-                    .array();
+            final int ttl = decryptedProxyPdu[2] & 0x7F;
+            final int dst = MeshParserUtils.unsignedBytesToInt(decryptedProxyPdu[NETWORK_PAYLOAD_OFFSET + 1], decryptedProxyPdu[NETWORK_PAYLOAD_OFFSET]);
 
             //We check the pdu type
             final int pduType = data[0];
@@ -621,18 +525,18 @@ public abstract class NetworkLayer extends LowerTransportLayer {
                 case MeshManagerApi.PDU_TYPE_NETWORK:
                     //Check if the message is directed to us, if its not ignore the message
                         if (provisionerAddress != dst) {
-                        Log.v(TAG, "Received a control message that was not directed to us, so we drop it, as it was sent to :" +provisionerAddress + " != "+ dst);
+                        MeshLogger.v(TAG, "Received a control message that was not directed to us, dropping it. Destination: ", dst);
                         return null;
                     }
 
-                    if (isSegmentedMessage(decryptedNetworkPayload[2])) {
-                        return parseSegmentedControlMessage(data, decryptedProxyPdu, ttl, src, dst);
+                    if (isSegmentedMessage(decryptedProxyPdu[NETWORK_PAYLOAD_OFFSET + 2])) {
+                        return parseSegmentedControlMessage(data, decryptedProxyPdu, ttl, src, dst, ivIndex);
                     } else {
-                        return parseUnsegmentedControlMessage(data, decryptedProxyPdu, ttl, src, dst, sequenceNumber);
+                        return parseUnsegmentedControlMessage(data, decryptedProxyPdu, ttl, src, dst, sequenceNumber, ivIndex);
                     }
                 case MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION:
                     //Proxy configuration messages are segmented only at the gatt level
-                    return parseUnsegmentedControlMessage(data, decryptedProxyPdu, ttl, src, dst, sequenceNumber);
+                    return parseUnsegmentedControlMessage(data, decryptedProxyPdu, ttl, src, dst, sequenceNumber, ivIndex);
                 default:
                     return null;
             }
@@ -641,6 +545,38 @@ public abstract class NetworkLayer extends LowerTransportLayer {
         }
     }
 
+    /**
+     * Decrypts the network payload of a received pdu.
+     * <p>
+     * The payload is decrypted straight after the pdu type, ivi, nid and the de-obfuscated network header in to the returned buffer,
+     * without copying the encrypted payload first. The destination address is removed by the lower transport layer.
+     * </p>
+     *
+     * @param data          pdu received from the node
+     * @param networkHeader de-obfuscated network header
+     * @param encryptionKey encryption key
+     * @param nonce         network or proxy nonce
+     * @param micLength     network mic length of the received message
+     * @return decrypted pdu
+     */
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    final byte[] decryptNetworkPdu(final byte[] data,
+                                   final byte[] networkHeader,
+                                   final byte[] encryptionKey,
+                                   final byte[] nonce,
+                                   final int micLength) throws ExtendedInvalidCipherTextException {
+        final byte[] pdu = new byte[data.length - micLength];
+        System.arraycopy(data, 0, pdu, 0, 2);
+        System.arraycopy(networkHeader, 0, pdu, 2, NETWORK_HEADER_LENGTH);
+        try {
+            SecureUtils.decryptCCM(data, NETWORK_PAYLOAD_OFFSET, data.length - NETWORK_PAYLOAD_OFFSET, encryptionKey, nonce, micLength,
+                    pdu, NETWORK_PAYLOAD_OFFSET);
+        } catch (InvalidCipherTextException ex) {
+            throw new ExtendedInvalidCipherTextException(ex.getMessage(), ex.getCause(), TAG);
+        }
+        return pdu;
+    }
+
     /**
      * Parses an unsegmented control message
      *
@@ -650,6 +586,7 @@ public abstract class NetworkLayer extends LowerTransportLayer {
      * @param src               Source address where the pdu originated from
      * @param dst               Destination address to which the pdu was sent
      * @param sequenceNumber    Sequence number of the pdu
+     * @param ivIndex           IV Index the pdu was sent with
      * @return a complete {@link ControlMessage} or null if the message was unable to parsed
      */
     private ControlMessage parseUnsegmentedControlMessage(final byte[] data,
@@ -657,9 +594,10 @@ public abstract class NetworkLayer extends LowerTransportLayer {
                                                           final int ttl,
                                                           final int src,
                                                           final int dst,
-                                                          final byte[] sequenceNumber) throws ExtendedInvalidCipherTextException {
+                                                          final byte[] sequenceNumber,
+                                                          final byte[] ivIndex) throws ExtendedInvalidCipherTextException {
         final ControlMessage message = new ControlMessage();
-        message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
+        message.setIvIndex(ivIndex);
         final SparseArray<byte[]> proxyPduArray = new SparseArray<>();
         proxyPduArray.put(0, data);
         message.setNetworkPdu(proxyPduArray);
@@ -674,44 +612,25 @@ public abstract class NetworkLayer extends LowerTransportLayer {
     }
 
     /**
-     * Parses a unsegmented control message
+     * Parses a segmented control message
      *
      * @param data              Received pdu data
      * @param decryptedProxyPdu Decrypted proxy pdu
      * @param ttl               TTL of the pdu
      * @param src               Source address where the pdu originated from
      * @param dst               Destination address to which the pdu was sent
+     * @param ivIndex           IV Index the pdu was sent with
      * @return a complete {@link ControlMessage} or null if the message was unable to parsed
      */
-    private ControlMessage parseSegmentedControlMessage(final byte[] data, final byte[] decryptedProxyPdu, final int ttl, final int src, final int dst) {
-        if (segmentedControlMessagesMessages == null) {
-            segmentedControlMessagesMessages = new SparseArray<>();
-            segmentedControlMessagesMessages.put(0, data);
-        } else {
-            final int k = segmentedControlMessagesMessages.size();
-            segmentedAccessMessagesMessages.put(k, data);
-        }
-
-        final ControlMessage message = parseSegmentedControlLowerTransportPDU(decryptedProxyPdu);
+    private ControlMessage parseSegmentedControlMessage(final byte[] data, final byte[] decryptedProxyPdu, final int ttl, final int src, final int dst,
+                                                        final byte[] ivIndex) {
+        final ControlMessage message = parseSegmentedControlLowerTransportPDU(data, decryptedProxyPdu);
         if (message != null) {
-            final SparseArray<byte[]> segmentedMessages = segmentedControlMessagesMessages.clone();
-            segmentedControlMessagesMessages = null;
-            message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
-            message.setNetworkPdu(segmentedMessages);
+            message.setIvIndex(ivIndex);
             message.setTtl(ttl);
             message.setSrc(src);
             message.setDst(dst);
         }
         return message;
     }
-
-    /**
-     * Returns the master credentials {@link SecureUtils.K2Output}
-     */
-    private SecureUtils.K2Output getK2Output() {
-        final NetworkKey networkKey = mNetworkLayerCallbacks.getPrimaryNetworkKey();
-        Log.v(TAG, "Using netkey: " + MeshParserUtils.bytesToHex(networkKey.getKey(), false));
-
-        return SecureUtils.calculateK2(networkKey.getKey(), SecureUtils.K2_MASTER_INPUT);
-    }
 }
@@ -22,7 +22,13 @@
 
 package no.nordicsemi.android.meshprovisioner.transport;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import no.nordicsemi.android.meshprovisioner.NetworkMessageCache;
 import no.nordicsemi.android.meshprovisioner.Provisioner;
+import no.nordicsemi.android.meshprovisioner.ReplayProtectionList;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 
 public interface NetworkLayerCallbacks {
 
@@ -38,4 +44,41 @@ public interface NetworkLayerCallbacks {
     Provisioner getProvisioner(final int unicastAddress);
 
     NetworkKey getPrimaryNetworkKey();
+
+    /**
+     * Returns the master credentials {@link SecureUtils.K2Output} of the network keys a received network pdu may have been sent with
+     *
+     * @param nid network identifier of the received pdu
+     * @return credentials of the network keys with the given NID, including old keys during a key refresh
+     */
+    @NonNull
+    SecureUtils.K2Output[] getReceiveCredentials(final int nid);
+
+    /**
+     * Returns the master credentials {@link SecureUtils.K2Output} a message to the destination address is sent with
+     *
+     * @param dst destination address
+     */
+    @NonNull
+    SecureUtils.K2Output getTransmitCredentials(final int dst);
+
+    /**
+     * Returns the replay protection list received messages are checked against or null to disable replay protection
+     */
+    @Nullable
+    ReplayProtectionList getReplayProtectionList();
+
+    /**
+     * Returns the cache of the network pdus received, used to discard copies of a pdu, or null to disable the cache
+     */
+    @Nullable
+    NetworkMessageCache getNetworkMessageCache();
+
+    /**
+     * Notifies the source address and TTL of a network pdu received from a known node and authenticated, i.e. to measure the path to the node
+     *
+     * @param src source address of the pdu
+     * @param ttl TTL of the pdu when it was received
+     */
+    void onNetworkPduReceived(final int src, final int ttl);
 }
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
+
+/**
+ * Brings one or more nodes to the configuration of a {@link NodeConfigurationTemplate}.
+ * <p>
+ * For each node the composition data is requested first if it is not known yet, then only the messages for the configuration the node
+ * does not have yet are sent, see {@link NodeConfigurationTemplate#createMessages(ProvisionedMeshNode)}. The messages of a node are sent
+ * one at a time, as the statuses are matched to the message by their content, while up to {@link #setMaxParallelNodes(int)} nodes are
+ * configured at the same time. A message that is not answered is sent again up to {@link #setRetries(int)} times before the node is
+ * failed, a node reporting an error status is failed immediately. Nodes that failed can be configured again by a new job, which
+ * continues with the configuration that is still missing.
+ * </p>
+ * <p>
+ * The nodes are updated by the library as the statuses are received. Messages are sent using the {@link MessageSender}, i.e.
+ * {@link no.nordicsemi.android.meshprovisioner.MeshManagerApi#sendMeshMessage(int, MeshMessage)}. Received messages and failed
+ * transactions must be forwarded to {@link #onMeshMessageReceived(int, MeshMessage)} and {@link #onTransactionFailed(int)}. The job is
+ * not thread safe and must be used on the thread the mesh callbacks are delivered on.
+ * </p>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class NodeConfigurationJob {
+
+    private static final String TAG = NodeConfigurationJob.class.getSimpleName();
+    public static final int DEFAULT_MAX_PARALLEL_NODES = 8;
+    public static final int DEFAULT_RETRIES = 2;
+
+    /**
+     * The node has not been configured yet
+     */
+    public static final int NODE_PENDING = 0;
+    /**
+     * The node is being configured
+     */
+    public static final int NODE_CONFIGURING = 1;
+    /**
+     * The node has the configuration of the template
+     */
+    public static final int NODE_CONFIGURED = 2;
+    /**
+     * The node failed to apply the configuration
+     */
+    public static final int NODE_FAILED = 3;
+
+    /**
+     * Sends the messages of the job
+     */
+    public interface MessageSender {
+
+        /**
+         * Sends a mesh message
+         *
+         * @param dst         destination address
+         * @param meshMessage mesh message
+         */
+        void sendMeshMessage(final int dst, @NonNull final MeshMessage meshMessage);
+    }
+
+    /**
+     * Callbacks reporting the progress of the job
+     */
+    public interface NodeConfigurationCallbacks {
+
+        /**
+         * Called when a node has the configuration of the template
+         *
+         * @param address      unicast address of the node
+         * @param messagesSent number of configuration messages the node required
+         */
+        void onNodeConfigured(final int address, final int messagesSent);
+
+        /**
+         * Called when a node is failed
+         *
+         * @param address address of the node
+         * @param status  status reported by the node or -1 if the node did not respond
+         */
+        void onNodeFailed(final int address, final int status);
+
+        /**
+         * Called when all nodes were configured or failed
+         *
+         * @param configured nodes having the configuration of the template
+         * @param failed     nodes that failed
+         */
+        void onJobCompleted(@NonNull final List<Integer> configured, @NonNull final List<Integer> failed);
+    }
+
+    private enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+
+    /**
+     * Configuration of a node in progress
+     */
+    private static final class NodeTask {
+        final ProvisionedMeshNode node;
+        final ArrayDeque<ConfigMessage> messages = new ArrayDeque<>();
+        ConfigMessage message;
+        int attempts;
+        int messagesSent;
+
+        NodeTask(@NonNull final ProvisionedMeshNode node) {
+            this.node = node;
+        }
+    }
+
+    private final MessageSender mMessageSender;
+    private final NodeConfigurationTemplate mTemplate;
+    private final Map<Integer, ProvisionedMeshNode> mNodes = new LinkedHashMap<>();
+    private final Map<Integer, Integer> mNodeStates = new HashMap<>();
+    private final ArrayDeque<Integer> mQueue = new ArrayDeque<>();
+    private final Map<Integer, NodeTask> mTasks = new HashMap<>();
+    private NodeConfigurationCallbacks mCallbacks;
+    private int mMaxParallelNodes = DEFAULT_MAX_PARALLEL_NODES;
+    private int mRetries = DEFAULT_RETRIES;
+    private State mState = State.IDLE;
+    private int mMessagesSent;
+
+    /**
+     * Constructs a job configuring a set of nodes
+     *
+     * @param messageSender sender used to send the messages of the job
+     * @param template      configuration to be applied
+     * @param nodes         nodes to be configured
+     * @throws IllegalArgumentException if no nodes are given
+     */
+    public NodeConfigurationJob(@NonNull final MessageSender messageSender,
+                                @NonNull final NodeConfigurationTemplate template,
+                                @NonNull final List<ProvisionedMeshNode> nodes) {
+        if (nodes.isEmpty())
+            throw new IllegalArgumentException("At least one node is required");
+
+        this.mMessageSender = messageSender;
+        this.mTemplate = template;
+        for (ProvisionedMeshNode node : nodes) {
+            mNodes.put(node.getUnicastAddress(), node);
+            mNodeStates.put(node.getUnicastAddress(), NODE_PENDING);
+        }
+    }
+
+    public void setCallbacks(final NodeConfigurationCallbacks callbacks) {
+        this.mCallbacks = callbacks;
+    }
+
+    /**
+     * Sets the number of nodes configured at the same time
+     *
+     * @param maxParallelNodes number of nodes
+     */
+    public void setMaxParallelNodes(final int maxParallelNodes) {
+        if (maxParallelNodes < 1)
+            throw new IllegalArgumentException("At least one node must be configured at a time");
+        this.mMaxParallelNodes = maxParallelNodes;
+    }
+
+    /**
+     * Sets the number of times an unanswered message is sent again before the node is failed
+     *
+     * @param retries number of retries
+     */
+    public void setRetries(final int retries) {
+        if (retries < 0)
+            throw new IllegalArgumentException("Retries must not be negative");
+        this.mRetries = retries;
+    }
+
+    /**
+     * Returns the state of a node, i.e. {@link #NODE_CONFIGURED}
+     *
+     * @param address unicast address of the node
+     * @return state or -1 if the node is not configured by this job
+     */
+    public int getNodeState(final int address) {
+        final Integer state = mNodeStates.get(address);
+        return state != null ? state : -1;
+    }
+
+    /**
+     * Returns the number of messages sent, including the messages that were sent again
+     */
+    public int getMessagesSent() {
+        return mMessagesSent;
+    }
+
+    /**
+     * Returns true while the job is in progress
+     */
+    public boolean isActive() {
+        return mState == State.RUNNING;
+    }
+
+    /**
+     * Starts configuring the nodes
+     *
+     * @throws IllegalStateException if the job has already been started
+     */
+    public void start() {
+        if (mState != State.IDLE)
+            throw new IllegalStateException("Job has already been started");
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Configuring " + mNodes.size() + " node(s)");
+        }
+        mState = State.RUNNING;
+        mQueue.addAll(mNodes.keySet());
+        startNextNodes();
+    }
+
+    /**
+     * Stops the job, statuses received afterwards are ignored
+     */
+    public void cancel() {
+        if (isActive()) {
+            mState = State.CANCELLED;
+            mQueue.clear();
+            mTasks.clear();
+        }
+    }
+
+    /**
+     * Handles a message received from a node
+     *
+     * @param src         source address
+     * @param meshMessage received message
+     */
+    public void onMeshMessageReceived(final int src, @NonNull final MeshMessage meshMessage) {
+        final NodeTask task = mTasks.get(src);
+        if (task == null || task.message == null || !isResponse(task.message, meshMessage))
+            return;
+
+        final int status = ((ConfigStatusMessage) meshMessage).getStatusCode();
+        if (status != 0x00) {
+            failNode(src, status);
+            return;
+        }
+
+        if (meshMessage instanceof ConfigCompositionDataStatus) {
+            //The node may not have been updated with the composition data, the elements of the status are used instead
+            final ConfigCompositionDataStatus compositionDataStatus = (ConfigCompositionDataStatus) meshMessage;
+            task.messages.addAll(mTemplate.createMessages(compositionDataStatus.getElements(), task.node.getAddedApplicationKeys().keySet()));
+        }
+        sendNextMessage(src, task);
+    }
+
+    /**
+     * Handles an acknowledged message that was not answered by a node
+     *
+     * @param dst destination address of the message
+     */
+    public void onTransactionFailed(final int dst) {
+        final NodeTask task = mTasks.get(dst);
+        if (task == null || task.message == null)
+            return;
+
+        if (task.attempts < mRetries) {
+            task.attempts++;
+            if (MeshLogger.isLoggable(Log.VERBOSE)) {
+                MeshLogger.v(TAG, "Node 0x" + Integer.toHexString(dst) + " did not respond, retry " + task.attempts);
+            }
+            send(dst, task);
+        } else {
+            failNode(dst, -1);
+        }
+    }
+
+    private void startNextNodes() {
+        //Responses may be delivered while sending, the task must be registered before the first message is sent
+        while (isActive() && mTasks.size() < mMaxParallelNodes && !mQueue.isEmpty()) {
+            final int address = mQueue.poll();
+            final NodeTask task = new NodeTask(mNodes.get(address));
+            mTasks.put(address, task);
+            mNodeStates.put(address, NODE_CONFIGURING);
+            if (task.node.getElements().isEmpty() && mTemplate.hasModelConfiguration()) {
+                task.messages.add(new ConfigCompositionDataGet());
+            } else {
+                task.messages.addAll(mTemplate.createMessages(task.node));
+            }
+            sendNextMessage(address, task);
+        }
+        if (isActive() && mTasks.isEmpty() && mQueue.isEmpty()) {
+            onJobCompleted();
+        }
+    }
+
+    private void sendNextMessage(final int address, @NonNull final NodeTask task) {
+        task.message = task.messages.poll();
+        task.attempts = 0;
+        if (task.message == null) {
+            completeNode(address, NODE_CONFIGURED);
+            return;
+        }
+        send(address, task);
+    }
+
+    private void send(final int address, @NonNull final NodeTask task) {
+        mMessagesSent++;
+        task.messagesSent++;
+        mMessageSender.sendMeshMessage(address, task.message);
+    }
+
+    private void failNode(final int address, final int status) {
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Node 0x" + Integer.toHexString(address) + " failed, status: " + status);
+        }
+        if (mCallbacks != null)
+            mCallbacks.onNodeFailed(address, status);
+        completeNode(address, NODE_FAILED);
+    }
+
+    private void completeNode(final int address, final int state) {
+        final NodeTask task = mTasks.remove(address);
+        mNodeStates.put(address, state);
+        if (state == NODE_CONFIGURED && mCallbacks != null)
+            mCallbacks.onNodeConfigured(address, task.messagesSent);
+        startNextNodes();
+    }
+
+    private void onJobCompleted() {
+        final List<Integer> configured = new ArrayList<>();
+        final List<Integer> failed = new ArrayList<>();
+        for (int address : mNodes.keySet()) {
+            if (mNodeStates.get(address) == NODE_CONFIGURED) {
+                configured.add(address);
+            } else {
+                failed.add(address);
+            }
+        }
+        if (MeshLogger.isLoggable(Log.VERBOSE)) {
+            MeshLogger.v(TAG, "Configured " + configured.size() + " node(s), " + failed.size() + " failed, " + mMessagesSent + " message(s) sent");
+        }
+        mState = State.COMPLETED;
+        if (mCallbacks != null)
+            mCallbacks.onJobCompleted(Collections.unmodifiableList(configured), Collections.unmodifiableList(failed));
+    }
+
+    /**
+     * Returns true if the status message is the response to the configuration message
+     */
+    private static boolean isResponse(@NonNull final ConfigMessage message, @NonNull final MeshMessage status) {
+        if (message instanceof ConfigCompositionDataGet) {
+            return status instanceof ConfigCompositionDataStatus;
+        } else if (message instanceof ConfigAppKeyAdd) {
+            return status instanceof ConfigAppKeyStatus &&
+                    ((ConfigAppKeyStatus) status).getAppKeyIndex() == ((ConfigAppKeyAdd) message).getAppKey().getKeyIndex();
+        } else if (message instanceof ConfigModelAppBind) {
+            if (!(status instanceof ConfigModelAppStatus))
+                return false;
+            final ConfigModelAppBind bind = (ConfigModelAppBind) message;
+            final ConfigModelAppStatus appStatus = (ConfigModelAppStatus) status;
+            return appStatus.getElementAddress() == bind.getElementAddress() &&
+                    appStatus.getModelIdentifier() == bind.getModelIdentifier() &&
+                    appStatus.getAppKeyIndex() == bind.getAppKeyIndex();
+        } else if (message instanceof ConfigModelSubscriptionAdd) {
+            if (!(status instanceof ConfigModelSubscriptionStatus))
+                return false;
+            final ConfigModelSubscriptionAdd subscription = (ConfigModelSubscriptionAdd) message;
+            final ConfigModelSubscriptionStatus subscriptionStatus = (ConfigModelSubscriptionStatus) status;
+            return subscriptionStatus.getElementAddress() == subscription.getElementAddress() &&
+                    subscriptionStatus.getModelIdentifier() == subscription.getModelIdentifier() &&
+                    subscriptionStatus.getSubscriptionAddress() == subscription.getSubscriptionAddress();
+        } else if (message instanceof ConfigModelPublicationSet) {
+            if (!(status instanceof ConfigModelPublicationStatus))
+                return false;
+            final ConfigModelPublicationSet publication = (ConfigModelPublicationSet) message;
+            final ConfigModelPublicationStatus publicationStatus = (ConfigModelPublicationStatus) status;
+            return publicationStatus.getElementAddress() == publication.getElementAddress() &&
+                    publicationStatus.getModelIdentifier() == publication.getModelIdentifier();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import no.nordicsemi.android.meshprovisioner.utils.MeshAddress;
+import no.nordicsemi.android.meshprovisioner.utils.PublicationSettings;
+
+/**
+ * Desired configuration of a node, applied by a {@link NodeConfigurationJob}.
+ * <p>
+ * The template holds the application keys to be added to the node and, per model identifier, the application keys the model must be
+ * bound to, the addresses it must subscribe to and its publication. The model configuration applies to every element of the node that
+ * contains the model, so one template can be used for all nodes of a product. Only the configuration the node does not have yet is
+ * sent, see {@link #createMessages(ProvisionedMeshNode)}.
+ * </p>
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class NodeConfigurationTemplate {
+
+    private final NetworkKey mNetworkKey;
+    private final List<ApplicationKey> mAppKeys = new ArrayList<>();
+    private final Map<Integer, List<Integer>> mBindings = new LinkedHashMap<>();
+    private final Map<Integer, List<Integer>> mSubscriptions = new LinkedHashMap<>();
+    private final Map<Integer, PublicationSettings> mPublications = new LinkedHashMap<>();
+
+    /**
+     * Constructs a template
+     *
+     * @param networkKey network key the application keys are bound to
+     */
+    public NodeConfigurationTemplate(@NonNull final NetworkKey networkKey) {
+        this.mNetworkKey = networkKey;
+    }
+
+    /**
+     * Returns the network key the application keys are bound to
+     */
+    @NonNull
+    public NetworkKey getNetworkKey() {
+        return mNetworkKey;
+    }
+
+    /**
+     * Adds an application key to be added to the node
+     *
+     * @param appKey application key
+     */
+    public void addAppKey(@NonNull final ApplicationKey appKey) {
+        if (!mAppKeys.contains(appKey))
+            mAppKeys.add(appKey);
+    }
+
+    /**
+     * Adds an application key a model must be bound to
+     *
+     * @param modelIdentifier 16-bit sig model or 32-bit vendor model identifier
+     * @param appKeyIndex     index of the application key
+     */
+    public void addBinding(final int modelIdentifier, final int appKeyIndex) {
+        add(mBindings, modelIdentifier, appKeyIndex);
+    }
+
+    /**
+     * Adds an address a model must subscribe to
+     *
+     * @param modelIdentifier     16-bit sig model or 32-bit vendor model identifier
+     * @param subscriptionAddress group address
+     * @throws IllegalArgumentException if the address is not a group address
+     */
+    public void addSubscription(final int modelIdentifier, final int subscriptionAddress) {
+        if (!MeshAddress.isValidGroupAddress(subscriptionAddress))
+            throw new IllegalArgumentException("Subscription address must be a group address");
+        add(mSubscriptions, modelIdentifier, subscriptionAddress);
+    }
+
+    /**
+     * Sets the publication of a model
+     *
+     * @param modelIdentifier 16-bit sig model or 32-bit vendor model identifier
+     * @param publication     publication settings
+     */
+    public void setPublication(final int modelIdentifier, @NonNull final PublicationSettings publication) {
+        mPublications.put(modelIdentifier, publication);
+    }
+
+    /**
+     * Returns the application keys to be added to the node
+     */
+    @NonNull
+    public List<ApplicationKey> getAppKeys() {
+        return Collections.unmodifiableList(mAppKeys);
+    }
+
+    /**
+     * Returns true if the template requires the composition data of the node, i.e. to configure its models
+     */
+    public boolean hasModelConfiguration() {
+        return !mBindings.isEmpty() || !mSubscriptions.isEmpty() || !mPublications.isEmpty();
+    }
+
+    /**
+     * Returns the messages bringing a node to the configuration of the template, leaving out the configuration the node already has
+     *
+     * @param node node with its composition data
+     * @return messages in the order they must be sent, application keys first
+     */
+    @NonNull
+    public List<ConfigMessage> createMessages(@NonNull final ProvisionedMeshNode node) {
+        return createMessages(node.getElements(), node.getAddedApplicationKeys().keySet());
+    }
+
+    /**
+     * Returns the messages bringing a node to the configuration of the template, leaving out the configuration the node already has
+     *
+     * @param elements     elements of the node keyed by element address
+     * @param addedAppKeys indexes of the application keys already added to the node
+     * @return messages in the order they must be sent, application keys first
+     */
+    @NonNull
+    public List<ConfigMessage> createMessages(@NonNull final Map<Integer, Element> elements, @NonNull final Collection<Integer> addedAppKeys) {
+        final List<ConfigMessage> messages = new ArrayList<>();
+        for (ApplicationKey appKey : mAppKeys) {
+            if (!addedAppKeys.contains(appKey.getKeyIndex())) {
+                messages.add(new ConfigAppKeyAdd(mNetworkKey, appKey));
+            }
+        }
+
+        //Bindings are sent before the subscriptions and publications, a model publishes with an application key it is bound to
+        final Map<Integer, Element> sortedElements = new TreeMap<>(elements);
+        final List<ConfigMessage> subscriptions = new ArrayList<>();
+        final List<ConfigMessage> publications = new ArrayList<>();
+        for (Element element : sortedElements.values()) {
+            final int elementAddress = element.getElementAddress();
+            for (MeshModel model : element.getMeshModels().values()) {
+                final int modelIdentifier = model.getModelId();
+                final List<Integer> bindings = mBindings.get(modelIdentifier);
+                if (bindings != null) {
+                    for (int appKeyIndex : bindings) {
+                        if (!model.getBoundAppKeyIndexes().contains(appKeyIndex)) {
+                            messages.add(new ConfigModelAppBind(elementAddress, modelIdentifier, appKeyIndex));
+                        }
+                    }
+                }
+                final List<Integer> addresses = mSubscriptions.get(modelIdentifier);
+                if (addresses != null) {
+                    for (int address : addresses) {
+                        if (!model.getSubscribedAddresses().contains(address)) {
+                            subscriptions.add(new ConfigModelSubscriptionAdd(elementAddress, address, modelIdentifier));
+                        }
+                    }
+                }
+                final PublicationSettings publication = mPublications.get(modelIdentifier);
+                if (publication != null && !isSamePublication(publication, model.getPublicationSettings())) {
+                    publications.add(new ConfigModelPublicationSet(elementAddress,
+                            publication.getPublishAddress(),
+                            publication.getAppKeyIndex(),
+                            publication.getCredentialFlag(),
+                            publication.getPublishTtl(),
+                            publication.getPublicationSteps(),
+                            publication.getPublicationResolution(),
+                            publication.getPublishRetransmitCount(),
+                            publication.getPublishRetransmitIntervalSteps(),
+                            modelIdentifier));
+                }
+            }
+        }
+        messages.addAll(subscriptions);
+        messages.addAll(publications);
+        return messages;
+    }
+
+    private static boolean isSamePublication(@NonNull final PublicationSettings publication, @Nullable final PublicationSettings current) {
+        return current != null &&
+                publication.getPublishAddress() == current.getPublishAddress() &&
+                publication.getAppKeyIndex() == current.getAppKeyIndex() &&
+                publication.getCredentialFlag() == current.getCredentialFlag() &&
+                publication.getPublishTtl() == current.getPublishTtl() &&
+                publication.getPublicationSteps() == current.getPublicationSteps() &&
+                publication.getPublicationResolution() == current.getPublicationResolution() &&
+                publication.getPublishRetransmitCount() == current.getPublishRetransmitCount() &&
+                publication.getPublishRetransmitIntervalSteps() == current.getPublishRetransmitIntervalSteps();
+    }
+
+    private static void add(@NonNull final Map<Integer, List<Integer>> map, final int modelIdentifier, final int value) {
+        List<Integer> values = map.get(modelIdentifier);
+        if (values == null) {
+            values = new ArrayList<>();
+            map.put(modelIdentifier, values);
+        }
+        if (!values.contains(value))
+            values.add(value);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.meshprovisioner.control.BlockAcknowledgementMessage;
+
+/**
+ * Reassembly state of a segmented message received from a node.
+ * <p>
+ * A session is identified by the source address and the SeqZero of the message, so that segmented messages sent by several nodes at
+ * the same time, i.e. statuses in response to a message sent to a group address, are reassembled independently. Each session keeps
+ * its own block acknowledgement, incomplete timer and acknowledgement timer.
+ * </p>
+ */
+final class SegmentedMessageSession {
+
+    private final int mSrc;
+    private final int mDst;
+    private final int mSeqZero;
+    private final int mSeqAuth;
+    private final int mSegN;
+    private final int mTtl;
+    private SparseArray<byte[]> mSegments = new SparseArray<>();
+    private SparseArray<byte[]> mNetworkPdus = new SparseArray<>();
+    private int mBlockAck;
+    private boolean mCompleted;
+    private Runnable mIncompleteTimerRunnable;
+    private Runnable mAcknowledgementTimerRunnable;
+
+    /**
+     * Constructs a reassembly session
+     *
+     * @param src     source address of the segmented message, which is the node sending it
+     * @param dst     destination address of the segmented message
+     * @param seqZero seqzero of the segmented message
+     * @param seqAuth seqauth of the segmented message
+     * @param segN    zero based index of the last segment
+     * @param ttl     ttl of the segmented message
+     */
+    SegmentedMessageSession(final int src, final int dst, final int seqZero, final int seqAuth, final int segN, final int ttl) {
+        this.mSrc = src;
+        this.mDst = dst;
+        this.mSeqZero = seqZero;
+        this.mSeqAuth = seqAuth;
+        this.mSegN = segN;
+        this.mTtl = ttl;
+    }
+
+    /**
+     * Returns the key of a session in the session table
+     *
+     * @param src     source address of the segmented message
+     * @param seqZero seqzero of the segmented message
+     */
+    static int getKey(final int src, final int seqZero) {
+        return ((src & 0xFFFF) << 13) | (seqZero & 0x1FFF);
+    }
+
+    int getKey() {
+        return getKey(mSrc, mSeqZero);
+    }
+
+    int getSrc() {
+        return mSrc;
+    }
+
+    int getDst() {
+        return mDst;
+    }
+
+    int getSeqZero() {
+        return mSeqZero;
+    }
+
+    int getSeqAuth() {
+        return mSeqAuth;
+    }
+
+    int getSegN() {
+        return mSegN;
+    }
+
+    int getTtl() {
+        return mTtl;
+    }
+
+    /**
+     * Returns the block acknowledgement of the segments received so far
+     */
+    int getBlockAck() {
+        return mBlockAck;
+    }
+
+    /**
+     * Adds a received segment to the session
+     *
+     * @param segO       zero based index of the segment
+     * @param segment    lower transport pdu of the segment
+     * @param networkPdu network pdu the segment was received in
+     * @return true if the segment was added or false if the segment is out of range
+     */
+    boolean addSegment(final int segO, @NonNull final byte[] segment, @NonNull final byte[] networkPdu) {
+        if (mCompleted || segO > mSegN)
+            return false;
+
+        mSegments.put(segO, segment);
+        mNetworkPdus.put(segO, networkPdu);
+        mBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(mBlockAck, segO);
+        return true;
+    }
+
+    /**
+     * Returns true if all segments have been received
+     */
+    boolean hasAllSegments() {
+        return mBlockAck == BlockAcknowledgementMessage.calculateBlockAcknowledgement(mSegN);
+    }
+
+    /**
+     * Returns true if the message has been reassembled
+     */
+    boolean isCompleted() {
+        return mCompleted;
+    }
+
+    /**
+     * Returns the received segments ordered by their index
+     */
+    SparseArray<byte[]> getSegments() {
+        return mSegments;
+    }
+
+    /**
+     * Returns the network pdus the segments were received in ordered by the segment index
+     */
+    SparseArray<byte[]> getNetworkPdus() {
+        return mNetworkPdus;
+    }
+
+    /**
+     * Marks the message as reassembled and releases the segments. The session is kept only to acknowledge segments that are
+     * retransmitted because the block acknowledgement was lost.
+     */
+    void complete() {
+        mCompleted = true;
+        mSegments = null;
+        mNetworkPdus = null;
+    }
+
+    Runnable getIncompleteTimerRunnable() {
+        return mIncompleteTimerRunnable;
+    }
+
+    void setIncompleteTimerRunnable(final Runnable runnable) {
+        this.mIncompleteTimerRunnable = runnable;
+    }
+
+    Runnable getAcknowledgementTimerRunnable() {
+        return mAcknowledgementTimerRunnable;
+    }
+
+    void setAcknowledgementTimerRunnable(final Runnable runnable) {
+        this.mAcknowledgementTimerRunnable = runnable;
+    }
+}
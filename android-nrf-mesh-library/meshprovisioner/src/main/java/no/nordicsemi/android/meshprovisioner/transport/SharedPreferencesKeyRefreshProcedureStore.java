@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+
+/**
+ * {@link KeyRefreshProcedureStore} backed by shared preferences, one preferences file per mesh network
+ */
+@SuppressWarnings("unused")
+public final class SharedPreferencesKeyRefreshProcedureStore implements KeyRefreshProcedureStore {
+
+    private static final String PREFERENCES_NAME = "meshKeyRefresh_";
+
+    private final SharedPreferences mSharedPreferences;
+
+    /**
+     * Constructs the store
+     *
+     * @param context  context
+     * @param meshUuid uuid of the mesh network
+     */
+    public SharedPreferencesKeyRefreshProcedureStore(@NonNull final Context context, @NonNull final String meshUuid) {
+        mSharedPreferences = context.getApplicationContext().getSharedPreferences(PREFERENCES_NAME + meshUuid, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public void load(final int netKeyIndex, @NonNull final Map<Integer, Integer> nodeStates) {
+        final String prefix = getPrefix(netKeyIndex);
+        for (Map.Entry<String, ?> entry : mSharedPreferences.getAll().entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getValue() instanceof Integer) {
+                try {
+                    nodeStates.put(Integer.parseInt(entry.getKey().substring(prefix.length()), 16), (Integer) entry.getValue());
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+    }
+
+    @Override
+    public void store(final int netKeyIndex, final int address, final int state) {
+        //Committed synchronously, the state must be stored before the next message is sent to the node
+        mSharedPreferences.edit().putInt(getPrefix(netKeyIndex) + Integer.toHexString(address), state).commit();
+    }
+
+    @Override
+    public void clear(final int netKeyIndex) {
+        final String prefix = getPrefix(netKeyIndex);
+        final SharedPreferences.Editor editor = mSharedPreferences.edit();
+        for (String key : mSharedPreferences.getAll().keySet()) {
+            if (key.startsWith(prefix)) {
+                editor.remove(key);
+            }
+        }
+        editor.commit();
+    }
+
+    private static String getPrefix(final int netKeyIndex) {
+        return Integer.toHexString(netKeyIndex) + "_";
+    }
+}
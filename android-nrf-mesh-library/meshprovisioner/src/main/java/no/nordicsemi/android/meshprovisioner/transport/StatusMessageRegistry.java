@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ApplicationMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+
+/**
+ * Registry of the status messages that can be received, keyed by their opcode.
+ * <p>
+ * Received access messages are looked up by opcode instead of being compared against every supported status message, so adding a
+ * model does not require changes to the message handler. Status messages of vendor models or models not supported by the library
+ * can be registered using {@link #register(int, StatusMessageFactory)} or {@link #registerVendorModel(int, int, StatusMessageFactory)}.
+ * </p>
+ * <p>
+ * The registry also maps the opcode of each acknowledged message to the opcode of the status message it is answered with, which is
+ * used to match a received status to the outstanding transaction, see {@link #registerRequest(int, int)}.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class StatusMessageRegistry {
+
+    /**
+     * Returned by {@link #getStatusOpCode(int)} for messages that are not acknowledged
+     */
+    static final int NO_STATUS = -1;
+
+    /**
+     * Creates the status message for a received access message
+     */
+    public interface StatusMessageFactory {
+
+        /**
+         * Parses a received access message
+         *
+         * @param message access message received
+         * @return status message
+         */
+        @NonNull
+        MeshMessage create(@NonNull final AccessMessage message);
+    }
+
+    private final IntObjectMap<StatusMessageFactory> mFactories = new IntObjectMap<>(64);
+    private final IntObjectMap<Integer> mStatusOpCodes = new IntObjectMap<>(128);
+
+    StatusMessageRegistry() {
+        register(ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS, ConfigCompositionDataStatus::new,
+                ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_GET);
+        register(ConfigMessageOpCodes.CONFIG_APPKEY_STATUS, ConfigAppKeyStatus::new,
+                ConfigMessageOpCodes.CONFIG_APPKEY_ADD, ConfigMessageOpCodes.CONFIG_APPKEY_UPDATE, ConfigMessageOpCodes.CONFIG_APPKEY_DELETE);
+        register(ConfigMessageOpCodes.CONFIG_NETKEY_STATUS, ConfigNetKeyStatus::new,
+                ConfigMessageOpCodes.CONFIG_NETKEY_ADD, ConfigMessageOpCodes.CONFIG_NETKEY_UPDATE, ConfigMessageOpCodes.CONFIG_NETKEY_DELETE);
+        register(ConfigMessageOpCodes.CONFIG_KEY_REFRESH_PHASE_STATUS, ConfigKeyRefreshPhaseStatus::new,
+                ConfigMessageOpCodes.CONFIG_KEY_REFRESH_PHASE_GET, ConfigMessageOpCodes.CONFIG_KEY_REFRESH_PHASE_SET);
+        register(ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS, ConfigModelAppStatus::new,
+                ConfigMessageOpCodes.CONFIG_MODEL_APP_BIND, ConfigMessageOpCodes.CONFIG_MODEL_APP_UNBIND);
+        register(ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_STATUS, ConfigModelPublicationStatus::new,
+                ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_GET, ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_SET,
+                ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_VIRTUAL_ADDRESS_SET);
+        register(ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS, ConfigModelSubscriptionStatus::new,
+                ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_ADD, ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_DELETE,
+                ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_DELETE_ALL, ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_OVERWRITE,
+                ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_VIRTUAL_ADDRESS_ADD, ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_VIRTUAL_ADDRESS_DELETE,
+                ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_VIRTUAL_ADDRESS_OVERWRITE);
+        register(ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS, ConfigNodeResetStatus::new,
+                ConfigMessageOpCodes.CONFIG_NODE_RESET);
+        register(ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_STATUS, ConfigNetworkTransmitStatus::new,
+                ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_GET, ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_SET);
+        register(ConfigMessageOpCodes.CONFIG_RELAY_STATUS, ConfigRelayStatus::new,
+                ConfigMessageOpCodes.CONFIG_RELAY_GET, ConfigMessageOpCodes.CONFIG_RELAY_SET);
+        register(ConfigMessageOpCodes.CONFIG_GATT_PROXY_STATUS, ConfigProxyStatus::new,
+                ConfigMessageOpCodes.CONFIG_GATT_PROXY_GET, ConfigMessageOpCodes.CONFIG_GATT_PROXY_SET);
+        register(ConfigMessageOpCodes.HEALTH_FAULT_STATUS, HealthFaultStatus::new,
+                ApplicationMessageOpCodes.HEALTH_FAULT_GET, ApplicationMessageOpCodes.HEALTH_FAULT_TEST);
+
+        //Statuses of acknowledged configuration messages that are not parsed by the library
+        registerRequests(ConfigMessageOpCodes.CONFIG_APPKEY_LIST, ConfigMessageOpCodes.CONFIG_APPKEY_GET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_NETKEY_LIST, ConfigMessageOpCodes.CONFIG_NETKEY_GET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_BEACON_STATUS, ConfigMessageOpCodes.CONFIG_BEACON_GET, ConfigMessageOpCodes.CONFIG_BEACON_SET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_STATUS,
+                ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_GET, ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_SET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_FRIEND_STATUS, ConfigMessageOpCodes.CONFIG_FRIEND_GET, ConfigMessageOpCodes.CONFIG_FRIEND_SET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_SIG_MODEL_SUBSCRIPTION_LIST, ConfigMessageOpCodes.CONFIG_SIG_MODEL_SUBSCRIPTION_GET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_SUBSCRIPTION_LIST, ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_SUBSCRIPTION_GET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_SIG_MODEL_APP_LIST, ConfigMessageOpCodes.CONFIG_SIG_MODEL_APP_GET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_APP_LIST, ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_APP_GET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_HEARTBEAT_PUBLICATION_STATUS,
+                ConfigMessageOpCodes.CONFIG_HEARTBEAT_PUBLICATION_GET, ConfigMessageOpCodes.CONFIG_HEARTBEAT_PUBLICATION_SET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_HEARTBEAT_SUBSCRIPTION_STATUS,
+                ConfigMessageOpCodes.CONFIG_HEARTBEAT_SUBSCRIPTION_GET, ConfigMessageOpCodes.CONFIG_HEARTBEAT_SUBSCRIPTION_SET);
+        registerRequests(ConfigMessageOpCodes.CONFIG_NODE_IDENTITY_STATUS,
+                ConfigMessageOpCodes.CONFIG_NODE_IDENTITY_GET, ConfigMessageOpCodes.CONFIG_NODE_IDENTITY_SET);
+
+        register(ApplicationMessageOpCodes.HEALTH_ATTENTION_STATUS, HealthAttentionStatus::new,
+                ApplicationMessageOpCodes.HEALTH_ATTENTION_GET, ApplicationMessageOpCodes.HEALTH_ATTENTION_SET);
+        register(ApplicationMessageOpCodes.GENERIC_USER_PROPERTY_STATUS, GenericUserPropertyStatus::new,
+                ApplicationMessageOpCodes.GENERIC_USER_PROPERTY_GET);
+        register(ApplicationMessageOpCodes.GENERIC_ON_OFF_STATUS, GenericOnOffStatus::new,
+                ApplicationMessageOpCodes.GENERIC_ON_OFF_GET, ApplicationMessageOpCodes.GENERIC_ON_OFF_SET);
+        register(ApplicationMessageOpCodes.GENERIC_ON_POWER_UP_STATUS, GenericOnPowerUpStatus::new,
+                ApplicationMessageOpCodes.GENERIC_ON_POWER_UP_GET, ApplicationMessageOpCodes.GENERIC_ON_POWER_UP_SET);
+        register(ApplicationMessageOpCodes.GENERIC_LEVEL_STATUS, GenericLevelStatus::new,
+                ApplicationMessageOpCodes.GENERIC_LEVEL_GET, ApplicationMessageOpCodes.GENERIC_LEVEL_SET, ApplicationMessageOpCodes.GENERIC_MOVE_SET);
+        register(ApplicationMessageOpCodes.LIGHT_LIGHTNESS_STATUS, LightLightnessStatus::new,
+                ApplicationMessageOpCodes.LIGHT_LIGHTNESS_GET, ApplicationMessageOpCodes.LIGHT_LIGHTNESS_SET);
+        register(ApplicationMessageOpCodes.LIGHT_CTL_STATUS, LightCtlStatus::new,
+                ApplicationMessageOpCodes.LIGHT_CTL_GET, ApplicationMessageOpCodes.LIGHT_CTL_SET);
+        register(ApplicationMessageOpCodes.LIGHT_HSL_STATUS, LightHslStatus::new,
+                ApplicationMessageOpCodes.LIGHT_HSL_GET, ApplicationMessageOpCodes.LIGHT_HSL_SET);
+        register(ApplicationMessageOpCodes.LIGHT_LIGHTNESS_DEFAULT_STATUS, LightLightnessDefaultStatus::new,
+                ApplicationMessageOpCodes.LIGHT_LIGHTNESS_DEFAULT_GET, ApplicationMessageOpCodes.LIGHT_LIGHTNESS_DEFAULT_SET);
+        register(ApplicationMessageOpCodes.LIGHT_CTL_DEFAULT_STATUS, LightCtlDefaultStatus::new,
+                ApplicationMessageOpCodes.LIGHT_CTL_DEFAULT_GET, ApplicationMessageOpCodes.LIGHT_CTL_DEFAULT_SET);
+        register(ApplicationMessageOpCodes.LIGHT_HSL_DEFAULT_STATUS, LightHslDefaultStatus::new,
+                ApplicationMessageOpCodes.LIGHT_HSL_DEFAULT_GET, ApplicationMessageOpCodes.LIGHT_HSL_DEFAULT_SET);
+        register(ApplicationMessageOpCodes.SCENE_STATUS, SceneStatus::new,
+                ApplicationMessageOpCodes.SCENE_GET, ApplicationMessageOpCodes.SCENE_RECALL);
+        register(ApplicationMessageOpCodes.SCENE_REGISTER_STATUS, SceneRegisterStatus::new,
+                ApplicationMessageOpCodes.SCENE_REGISTER_GET, ApplicationMessageOpCodes.SCENE_STORE, ApplicationMessageOpCodes.SCENE_DELETE);
+        register(ApplicationMessageOpCodes.TIME_STATUS, TimeStatus::new,
+                ApplicationMessageOpCodes.TIME_GET, ApplicationMessageOpCodes.TIME_SET);
+        register(ApplicationMessageOpCodes.TIME_ZONE_STATUS, TimezoneStatus::new,
+                ApplicationMessageOpCodes.TIME_ZONE_GET, ApplicationMessageOpCodes.TIME_ZONE_SET);
+        register(ApplicationMessageOpCodes.TIME_ROLE_STATUS, TimeRoleStatus::new,
+                ApplicationMessageOpCodes.TIME_ROLE_GET, ApplicationMessageOpCodes.TIME_ROLE_SET);
+        register(ApplicationMessageOpCodes.TAI_UTC_DELTA_STATUS, TaiUtcDeltaStatus::new,
+                ApplicationMessageOpCodes.TAI_UTC_DELTA_GET, ApplicationMessageOpCodes.TAI_UTC_DELTA_SET);
+        register(ApplicationMessageOpCodes.SCHEDULER_STATUS, SchedulerStatus::new,
+                ApplicationMessageOpCodes.SCHEDULER_GET);
+        register(ApplicationMessageOpCodes.SCHEDULER_ACTION_STATUS, SchedulerActionStatus::new,
+                ApplicationMessageOpCodes.SCHEDULER_ACTION_GET, ApplicationMessageOpCodes.SCHEDULER_ACTION_SET);
+        register(ApplicationMessageOpCodes.BLOB_TRANSFER_STATUS, BLOBTransferStatus::new,
+                ApplicationMessageOpCodes.BLOB_TRANSFER_GET, ApplicationMessageOpCodes.BLOB_TRANSFER_START, ApplicationMessageOpCodes.BLOB_TRANSFER_CANCEL);
+        register(ApplicationMessageOpCodes.BLOB_BLOCK_STATUS, BLOBBlockStatus::new,
+                ApplicationMessageOpCodes.BLOB_BLOCK_START, ApplicationMessageOpCodes.BLOB_BLOCK_GET);
+        registerRequests(ApplicationMessageOpCodes.BLOB_INFORMATION_STATUS, ApplicationMessageOpCodes.BLOB_INFORMATION_GET);
+    }
+
+    /**
+     * Registers the status message for an opcode, replacing the status message registered previously
+     *
+     * @param opCode  1, 2 or 3 octet opcode of the status message
+     * @param factory factory creating the status message
+     * @throws IllegalArgumentException if the opcode is not a valid access message opcode
+     */
+    public void register(final int opCode, @NonNull final StatusMessageFactory factory) {
+        if (opCode < 0 || opCode > 0xFFFFFF)
+            throw new IllegalArgumentException("Invalid opcode, an opcode must be a 1, 2 or 3 octet value");
+        mFactories.put(opCode, factory);
+    }
+
+    /**
+     * Registers the status message of a vendor model
+     *
+     * @param companyIdentifier 16-bit company identifier of the vendor model
+     * @param opCode            6-bit opcode of the status message
+     * @param factory           factory creating the status message
+     * @throws IllegalArgumentException if the company identifier or the opcode are invalid
+     */
+    public void registerVendorModel(final int companyIdentifier, final int opCode, @NonNull final StatusMessageFactory factory) {
+        register(getVendorOpCode(companyIdentifier, opCode), factory);
+    }
+
+    /**
+     * Removes the status message registered for an opcode
+     *
+     * @param opCode 1, 2 or 3 octet opcode of the status message
+     */
+    public void unregister(final int opCode) {
+        mFactories.remove(opCode);
+    }
+
+    /**
+     * Registers the status message an acknowledged message is answered with, so that the message is sent as a transaction that
+     * completes when the status is received
+     *
+     * @param opCode       1 or 2 octet opcode of the acknowledged message
+     * @param statusOpCode 1 or 2 octet opcode of the status message
+     * @throws IllegalArgumentException if any of the opcodes is not a valid access message opcode
+     */
+    public void registerRequest(final int opCode, final int statusOpCode) {
+        if (opCode < 0 || opCode > 0xFFFF || statusOpCode < 0 || statusOpCode > 0xFFFF)
+            throw new IllegalArgumentException("Invalid opcode, acknowledged messages of vendor models are tracked by their company identifier");
+        mStatusOpCodes.put(opCode, statusOpCode);
+    }
+
+    /**
+     * Returns the factory registered for an opcode
+     *
+     * @param opCode opcode of the received access message
+     * @return factory or null if no status message is registered for the opcode
+     */
+    @Nullable
+    StatusMessageFactory get(final int opCode) {
+        return mFactories.get(opCode);
+    }
+
+    /**
+     * Returns the opcode of the status message a node responds with to a message
+     *
+     * @param opCode opcode of the message sent
+     * @return status opcode or {@link #NO_STATUS} if the message is not acknowledged
+     */
+    int getStatusOpCode(final int opCode) {
+        final Integer statusOpCode = mStatusOpCodes.get(opCode);
+        return statusOpCode != null ? statusOpCode : NO_STATUS;
+    }
+
+    /**
+     * Returns the 3-octet opcode of a vendor model message as it is received in the access pdu
+     *
+     * @param companyIdentifier 16-bit company identifier of the vendor model
+     * @param opCode            6-bit opcode of the vendor model message
+     * @throws IllegalArgumentException if the company identifier or the opcode are invalid
+     */
+    static int getVendorOpCode(final int companyIdentifier, final int opCode) {
+        if (companyIdentifier < 0 || companyIdentifier > 0xFFFF)
+            throw new IllegalArgumentException("Invalid company identifier");
+        if (opCode < 0 || opCode > 0x3F)
+            throw new IllegalArgumentException("Invalid opcode, vendor model opcodes must be a 6-bit value");
+        //The company identifier is sent in little endian after the opcode
+        return ((0xC0 | opCode) << 16) | ((companyIdentifier & 0xFF) << 8) | ((companyIdentifier >> 8) & 0xFF);
+    }
+
+    /**
+     * Returns true if the opcode is a 3-octet opcode used by vendor models
+     *
+     * @param opCode opcode of the received access message
+     */
+    static boolean isVendorOpCode(final int opCode) {
+        return (opCode & 0xC00000) == 0xC00000;
+    }
+
+    private void register(final int opCode, @NonNull final StatusMessageFactory factory, final int... requestOpCodes) {
+        register(opCode, factory);
+        registerRequests(opCode, requestOpCodes);
+    }
+
+    private void registerRequests(final int statusOpCode, final int... requestOpCodes) {
+        for (int requestOpCode : requestOpCodes) {
+            registerRequest(requestOpCode, statusOpCode);
+        }
+    }
+}
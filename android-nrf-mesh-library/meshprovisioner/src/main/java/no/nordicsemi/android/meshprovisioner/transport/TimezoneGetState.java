@@ -1,90 +0,0 @@
-package no.nordicsemi.android.meshprovisioner.transport;
-
-import android.content.Context;
-import android.util.Log;
-
-import androidx.annotation.NonNull;
-
-import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
-
-
-/**
- * State class for handling TimezoneGet messages.
- */
-@SuppressWarnings("unused")
-class TimezoneGetState extends GenericMessageState {
-
-    private static final String TAG = TimezoneGetState.class.getSimpleName();
-
-    /**
-     * Constructs TimezoneGetState
-     *
-     * @param context         Context of the application
-     * @param src             Source address
-     * @param dst             Destination address to which the message must be sent to
-     * @param timezoneGet Wrapper class {@link TimezoneGet} containing the opcode and parameters for {@link TimezoneGet} message
-     * @param callbacks       {@link InternalMeshMsgHandlerCallbacks} for internal callbacks
-     * @throws IllegalArgumentException for any illegal arguments provided.
-     */
-    @Deprecated
-    TimezoneGetState(@NonNull final Context context,
-                         @NonNull final byte[] src,
-                         @NonNull final byte[] dst,
-                         @NonNull final TimezoneGet timezoneGet,
-                         @NonNull final MeshTransport meshTransport,
-                         @NonNull final InternalMeshMsgHandlerCallbacks callbacks) throws IllegalArgumentException {
-        super(context, MeshParserUtils.bytesToInt(src), MeshParserUtils.bytesToInt(dst), timezoneGet, meshTransport, callbacks);
-        createAccessMessage();
-    }
-
-    /**
-     * Constructs TimezoneGetState
-     *
-     * @param context         Context of the application
-     * @param src             Source address
-     * @param dst             Destination address to which the message must be sent to
-     * @param timezoneGet Wrapper class {@link TimezoneGet} containing the opcode and parameters for {@link TimezoneGet} message
-     * @param callbacks       {@link InternalMeshMsgHandlerCallbacks} for internal callbacks
-     * @throws IllegalArgumentException for any illegal arguments provided.
-     */
-    TimezoneGetState(@NonNull final Context context,
-                         final int src,
-                         final int dst,
-                         @NonNull final TimezoneGet timezoneGet,
-                         @NonNull final MeshTransport meshTransport,
-                         @NonNull final InternalMeshMsgHandlerCallbacks callbacks) throws IllegalArgumentException {
-        super(context, src, dst, timezoneGet, meshTransport, callbacks);
-        createAccessMessage();
-    }
-
-    @Override
-    public MessageState getState() {
-        return MessageState.TIME_ZONE_GET_STATE;
-    }
-
-    /**
-     * Creates the access message to be sent to the node
-     */
-    private void createAccessMessage() {
-        final TimezoneGet timezoneGet = (TimezoneGet) mMeshMessage;
-        final byte[] key = timezoneGet.getAppKey();
-        final int akf = timezoneGet.getAkf();
-        final int aid = timezoneGet.getAid();
-        final int aszmic = timezoneGet.getAszmic();
-        final int opCode = timezoneGet.getOpCode();
-        final byte[] parameters = timezoneGet.getParameters();
-        message = mMeshTransport.createMeshMessage(mSrc, mDst, key, akf, aid, aszmic, opCode, parameters);
-        timezoneGet.setMessage(message);
-    }
-
-    @Override
-    public void executeSend() {
-        Log.v(TAG, "Sending timezone get");
-        super.executeSend();
-
-        if (message.getNetworkPdu().size() > 0) {
-            if (mMeshStatusCallbacks != null)
-                mMeshStatusCallbacks.onMeshMessageSent(mDst, mMeshMessage);
-        }
-    }
-}
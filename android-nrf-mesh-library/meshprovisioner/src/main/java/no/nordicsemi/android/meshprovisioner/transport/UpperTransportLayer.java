@@ -24,7 +24,6 @@ package no.nordicsemi.android.meshprovisioner.transport;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
-import android.util.Log;
 
 import org.spongycastle.crypto.InvalidCipherTextException;
 
@@ -33,6 +32,7 @@ import java.nio.ByteOrder;
 
 import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
 import no.nordicsemi.android.meshprovisioner.utils.ExtendedInvalidCipherTextException;
+import no.nordicsemi.android.meshprovisioner.utils.MeshLogger;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 
@@ -75,7 +75,7 @@ abstract class UpperTransportLayer extends AccessLayer {
             super.createMeshMessage(message);
             final AccessMessage accessMessage = (AccessMessage) message;
             final byte[] encryptedTransportPDU = encryptUpperTransportPDU(accessMessage);
-            Log.v(TAG, "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
+            MeshLogger.v(TAG, "Encrypted upper transport pdu: ", encryptedTransportPDU);
             accessMessage.setUpperTransportPdu(encryptedTransportPDU);
         } else {
             createUpperTransportPDU(message);
@@ -91,7 +91,7 @@ abstract class UpperTransportLayer extends AccessLayer {
         super.createVendorMeshMessage(message);
         final AccessMessage accessMessage = (AccessMessage) message;
         final byte[] encryptedTransportPDU = encryptUpperTransportPDU(accessMessage);
-        Log.v(TAG, "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
+        MeshLogger.v(TAG, "Encrypted upper transport pdu: ", encryptedTransportPDU);
         accessMessage.setUpperTransportPdu(encryptedTransportPDU);
     }
 
@@ -106,7 +106,7 @@ abstract class UpperTransportLayer extends AccessLayer {
             //Access message
             final AccessMessage accessMessage = (AccessMessage) message;
             final byte[] encryptedTransportPDU = encryptUpperTransportPDU(accessMessage);
-            Log.v(TAG, "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
+            MeshLogger.v(TAG, "Encrypted upper transport pdu: ", encryptedTransportPDU);
             accessMessage.setUpperTransportPdu(encryptedTransportPDU);
         } else {
             final ControlMessage controlMessage = (ControlMessage) message;
@@ -124,7 +124,7 @@ abstract class UpperTransportLayer extends AccessLayer {
             }
             final byte[] accessPdu = accessMessageBuffer.array();
 
-            Log.v(TAG, "Created Transport Control PDU " + MeshParserUtils.bytesToHex(accessPdu, false));
+            MeshLogger.v(TAG, "Created Transport Control PDU ", accessPdu);
             controlMessage.setTransportControlPdu(accessPdu);
         }
     }
@@ -212,10 +212,10 @@ abstract class UpperTransportLayer extends AccessLayer {
         byte[] nonce;
         if (akf == APPLICATION_KEY_IDENTIFIER) {
             nonce = createDeviceNonce(aszmic, sequenceNumber, src, dst, ivIndex);
-            Log.v(TAG, "Device nonce: " + MeshParserUtils.bytesToHex(nonce, false));
+            MeshLogger.v(TAG, "Device nonce: ", nonce);
         } else {
             nonce = createApplicationNonce(aszmic, sequenceNumber, src, dst, ivIndex);
-            Log.v(TAG, "Application nonce: " + MeshParserUtils.bytesToHex(nonce, false));
+            MeshLogger.v(TAG, "Application nonce: ", nonce);
         }
 
         int transMicLength;
@@ -243,21 +243,17 @@ abstract class UpperTransportLayer extends AccessLayer {
         final byte[] nonce;
         if (APPLICATION_KEY_IDENTIFIER == accessMessage.getAkf()) {
             key = mMeshNode.getDeviceKey();
-            Log.v(TAG, "Decrypt with device key: " + MeshParserUtils.bytesToHex(key, false));
+            MeshLogger.v(TAG, "Decrypting with the device key");
 
             //If its a device key that was used to encrypt the message we need to create a device nonce to decrypt it
             nonce = createDeviceNonce(accessMessage.getAszmic(), accessMessage.getSequenceNumber(), accessMessage.getSrc(), accessMessage.getDst(), accessMessage.getIvIndex());
-            Log.v(TAG, "Decrypt with nonce: " + MeshParserUtils.bytesToHex(nonce, false));
+            MeshLogger.v(TAG, "Decrypt with nonce: ", nonce);
 
         } else {
             key = mUpperTransportLayerCallbacks.getApplicationKey(accessMessage.getAid());
             if (key == null)
                 throw new IllegalArgumentException("Unable to find the app key to decrypt the message for aid: " + accessMessage.getAid());
 
-            final int aid = SecureUtils.calculateK4(key);
-            if (aid != accessMessage.getAid()) {
-                throw new IllegalArgumentException("Unable to decrypt the message, invalid application key identifier");
-            }
             //If its an application key that was used to encrypt the message we need to create a application nonce to decrypt it
             nonce = createApplicationNonce(accessMessage.getAszmic(), accessMessage.getSequenceNumber(), accessMessage.getSrc(), accessMessage.getDst(), accessMessage.getIvIndex());
         }
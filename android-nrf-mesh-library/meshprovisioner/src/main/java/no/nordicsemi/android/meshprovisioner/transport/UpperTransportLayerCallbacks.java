@@ -32,6 +32,11 @@ public interface UpperTransportLayerCallbacks {
      */
     byte[] getIvIndex();
 
+    /**
+     * Returns the IV Index used to transmit messages, which is the previous IV Index while an IV Update is in progress
+     */
+    byte[] getTransmitIvIndex();
+
     /**
      * Returns the application key with the specific application key identifier
      *
@@ -22,19 +22,18 @@
 
 package no.nordicsemi.android.meshprovisioner.transport;
 
-import android.content.Context;
-import androidx.annotation.NonNull;
-
-abstract class ConfigMessageState extends MeshMessageState {
-
-    private static final String TAG = ConfigMessageState.class.getSimpleName();
+/**
+ * Common interface of the acknowledged and unacknowledged vendor model messages
+ */
+interface VendorModelMessage {
 
-    ConfigMessageState(@NonNull final Context context,
-                       @NonNull final MeshMessage meshMessage,
-                       @NonNull final MeshTransport meshTransport,
-                       @NonNull final InternalMeshMsgHandlerCallbacks callbacks) {
-        super(context, meshMessage, meshTransport, callbacks);
-    }
+    /**
+     * Returns the 16-bit company identifier of the vendor model
+     */
+    int getCompanyIdentifier();
 
-    public abstract MessageState getState();
+    /**
+     * Returns the 32-bit model identifier of the vendor model
+     */
+    int getModelIdentifier();
 }
@@ -8,7 +8,7 @@ import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
  * To be used as a wrapper class when creating an acknowledged VendorMode message.
  */
 @SuppressWarnings("unused")
-public class VendorModelMessageAcked extends GenericMessage {
+public class VendorModelMessageAcked extends GenericMessage implements VendorModelMessage {
 
     private static final String TAG = VendorModelMessageAcked.class.getSimpleName();
     private static final int VENDOR_MODEL_OPCODE_LENGTH = 4;
@@ -9,7 +9,7 @@ import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
  * To be used as a wrapper class when creating a unacknowledged VendorModel message.
  */
 @SuppressWarnings("unused")
-public class VendorModelMessageUnacked extends GenericMessage {
+public class VendorModelMessageUnacked extends GenericMessage implements VendorModelMessage {
 
     private static final String TAG = VendorModelMessageUnacked.class.getSimpleName();
 
@@ -0,0 +1,187 @@
+package no.nordicsemi.android.meshprovisioner.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Logging facade of the library.
+ * <p>
+ * Messages are only formatted if their priority is at least the level set with {@link #setLevel(int)}, so the overloads taking a pdu
+ * or a number build the message lazily and log statements below the level do no work and allocate nothing. Messages that need more
+ * than one value formatted should be guarded with {@link #isLoggable(int)}. By default messages of priority {@link Log#INFO} and
+ * above are written to logcat; a different {@link Logger} can be set to forward the messages to the logging framework of the
+ * application.
+ * </p>
+ * <p>
+ * Independently of the log level the pdus sent and received can be recorded in a {@link PduTraceBuffer}, see
+ * {@link #setPduTraceBuffer(PduTraceBuffer)}.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class MeshLogger {
+
+    /**
+     * Level disabling all log messages
+     */
+    public static final int OFF = Integer.MAX_VALUE;
+
+    /**
+     * Receives the log messages of the library
+     */
+    public interface Logger {
+
+        /**
+         * Logs a message
+         *
+         * @param priority  priority as defined in {@link Log}
+         * @param tag       tag
+         * @param message   message
+         * @param throwable throwable or null
+         */
+        void log(final int priority, @NonNull final String tag, @NonNull final String message, @Nullable final Throwable throwable);
+    }
+
+    private static final Logger LOGCAT = new Logger() {
+        @Override
+        public void log(final int priority, @NonNull final String tag, @NonNull final String message, @Nullable final Throwable throwable) {
+            if (throwable != null) {
+                Log.println(priority, tag, message + '\n' + Log.getStackTraceString(throwable));
+            } else {
+                Log.println(priority, tag, message);
+            }
+        }
+    };
+
+    private static volatile int sLevel = Log.INFO;
+    private static volatile Logger sLogger = LOGCAT;
+    private static volatile PduTraceBuffer sPduTraceBuffer;
+
+    private MeshLogger() {
+    }
+
+    /**
+     * Sets the minimum priority of the messages that are logged
+     *
+     * @param level priority as defined in {@link Log} or {@link #OFF}
+     */
+    public static void setLevel(final int level) {
+        sLevel = level;
+    }
+
+    /**
+     * Returns the minimum priority of the messages that are logged
+     */
+    public static int getLevel() {
+        return sLevel;
+    }
+
+    /**
+     * Sets the logger the messages are forwarded to
+     *
+     * @param logger logger or null to log to logcat
+     */
+    public static void setLogger(@Nullable final Logger logger) {
+        sLogger = logger != null ? logger : LOGCAT;
+    }
+
+    /**
+     * Sets the buffer the pdus sent and received are recorded in
+     *
+     * @param pduTraceBuffer trace buffer or null to disable tracing
+     */
+    public static void setPduTraceBuffer(@Nullable final PduTraceBuffer pduTraceBuffer) {
+        sPduTraceBuffer = pduTraceBuffer;
+    }
+
+    /**
+     * Returns the buffer the pdus sent and received are recorded in or null if tracing is disabled
+     */
+    @Nullable
+    public static PduTraceBuffer getPduTraceBuffer() {
+        return sPduTraceBuffer;
+    }
+
+    /**
+     * Returns true if messages of the given priority are logged
+     *
+     * @param priority priority as defined in {@link Log}
+     */
+    public static boolean isLoggable(final int priority) {
+        return priority >= sLevel;
+    }
+
+    /**
+     * Records a pdu in the trace buffer if tracing is enabled
+     *
+     * @param direction {@link PduTraceBuffer#DIRECTION_IN} or {@link PduTraceBuffer#DIRECTION_OUT}
+     * @param pdu       pdu
+     */
+    public static void trace(final int direction, @NonNull final byte[] pdu) {
+        final PduTraceBuffer pduTraceBuffer = sPduTraceBuffer;
+        if (pduTraceBuffer != null) {
+            pduTraceBuffer.record(direction, pdu, 0, pdu.length);
+        }
+    }
+
+    public static void v(@NonNull final String tag, @NonNull final String message) {
+        log(Log.VERBOSE, tag, message);
+    }
+
+    public static void v(@NonNull final String tag, @NonNull final String message, final int value) {
+        log(Log.VERBOSE, tag, message, value);
+    }
+
+    public static void v(@NonNull final String tag, @NonNull final String message, @Nullable final byte[] pdu) {
+        log(Log.VERBOSE, tag, message, pdu);
+    }
+
+    public static void d(@NonNull final String tag, @NonNull final String message) {
+        log(Log.DEBUG, tag, message);
+    }
+
+    public static void d(@NonNull final String tag, @NonNull final String message, final int value) {
+        log(Log.DEBUG, tag, message, value);
+    }
+
+    public static void d(@NonNull final String tag, @NonNull final String message, @Nullable final byte[] pdu) {
+        log(Log.DEBUG, tag, message, pdu);
+    }
+
+    public static void i(@NonNull final String tag, @NonNull final String message) {
+        log(Log.INFO, tag, message);
+    }
+
+    public static void w(@NonNull final String tag, @NonNull final String message) {
+        log(Log.WARN, tag, message);
+    }
+
+    public static void e(@NonNull final String tag, @NonNull final String message) {
+        log(Log.ERROR, tag, message);
+    }
+
+    public static void e(@NonNull final String tag, @NonNull final String message, @Nullable final Throwable throwable) {
+        if (isLoggable(Log.ERROR)) {
+            sLogger.log(Log.ERROR, tag, message, throwable);
+        }
+    }
+
+    private static void log(final int priority, @NonNull final String tag, @NonNull final String message) {
+        if (isLoggable(priority)) {
+            sLogger.log(priority, tag, message, null);
+        }
+    }
+
+    private static void log(final int priority, @NonNull final String tag, @NonNull final String message, final int value) {
+        if (isLoggable(priority)) {
+            sLogger.log(priority, tag, message + value, null);
+        }
+    }
+
+    private static void log(final int priority, @NonNull final String tag, @NonNull final String message, @Nullable final byte[] pdu) {
+        if (isLoggable(priority)) {
+            sLogger.log(priority, tag, message + MeshParserUtils.bytesToHex(pdu, false), null);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package no.nordicsemi.android.meshprovisioner.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Ring buffer of the most recent pdus sent and received.
+ * <p>
+ * All memory is allocated when the buffer is created and a pdu is recorded by copying its bytes, so tracing can be left enabled
+ * without creating garbage on every pdu. Pdus longer than the slot size are truncated, the original length is kept. The recorded pdus
+ * can be written as text with {@link #dump(Appendable)} on demand, i.e. when a bug report is created.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PduTraceBuffer {
+
+    public static final int DIRECTION_IN = 0;
+    public static final int DIRECTION_OUT = 1;
+    public static final int DEFAULT_CAPACITY = 256;
+    //Large enough for proxy pdus containing a network pdu and for provisioning pdus
+    public static final int DEFAULT_SLOT_SIZE = 72;
+
+    private final int mSlotSize;
+    private final long[] mTimestamps;
+    private final byte[] mDirections;
+    private final int[] mLengths;
+    private final byte[] mData;
+    private int mNext;
+    private int mCount;
+
+    /**
+     * Constructs a trace buffer recording the last {@link #DEFAULT_CAPACITY} pdus
+     */
+    public PduTraceBuffer() {
+        this(DEFAULT_CAPACITY, DEFAULT_SLOT_SIZE);
+    }
+
+    /**
+     * Constructs a trace buffer
+     *
+     * @param capacity number of pdus recorded
+     * @param slotSize maximum number of bytes recorded of each pdu
+     * @throws IllegalArgumentException if the capacity or the slot size is less than 1
+     */
+    public PduTraceBuffer(final int capacity, final int slotSize) {
+        if (capacity < 1 || slotSize < 1)
+            throw new IllegalArgumentException("Capacity and slot size must be at least 1");
+        mSlotSize = slotSize;
+        mTimestamps = new long[capacity];
+        mDirections = new byte[capacity];
+        mLengths = new int[capacity];
+        mData = new byte[capacity * slotSize];
+    }
+
+    /**
+     * Records a pdu, replacing the oldest pdu if the buffer is full
+     *
+     * @param direction {@link #DIRECTION_IN} or {@link #DIRECTION_OUT}
+     * @param pdu       buffer containing the pdu
+     * @param offset    offset of the pdu
+     * @param length    length of the pdu
+     */
+    public synchronized void record(final int direction, @NonNull final byte[] pdu, final int offset, final int length) {
+        final int slot = mNext;
+        mTimestamps[slot] = System.currentTimeMillis();
+        mDirections[slot] = (byte) direction;
+        mLengths[slot] = length;
+        System.arraycopy(pdu, offset, mData, slot * mSlotSize, Math.min(length, mSlotSize));
+        mNext = (slot + 1) % mTimestamps.length;
+        if (mCount < mTimestamps.length) {
+            mCount++;
+        }
+    }
+
+    /**
+     * Returns the number of pdus recorded
+     */
+    public synchronized int size() {
+        return mCount;
+    }
+
+    /**
+     * Removes all recorded pdus
+     */
+    public synchronized void clear() {
+        mNext = 0;
+        mCount = 0;
+    }
+
+    /**
+     * Writes the recorded pdus, oldest first, one pdu per line containing the time in milliseconds, the direction, the length and the
+     * pdu in hex
+     *
+     * @param out appendable the pdus are written to
+     * @throws IOException if writing to the appendable fails
+     */
+    public synchronized void dump(@NonNull final Appendable out) throws IOException {
+        final int capacity = mTimestamps.length;
+        for (int i = 0; i < mCount; i++) {
+            final int slot = (mNext - mCount + i + capacity) % capacity;
+            final int length = mLengths[slot];
+            out.append(String.valueOf(mTimestamps[slot]))
+                    .append(mDirections[slot] == DIRECTION_IN ? " IN  " : " OUT ")
+                    .append(String.valueOf(length))
+                    .append(' ')
+                    .append(MeshParserUtils.bytesToHex(mData, slot * mSlotSize, Math.min(length, mSlotSize), false));
+            if (length > mSlotSize) {
+                out.append("...");
+            }
+            out.append('\n');
+        }
+    }
+}
@@ -159,13 +159,8 @@ public class SecureUtils {
 
     public static byte[] encryptCCM(final byte[] data, final byte[] key, final byte[] nonce, final int micSize) {
         final byte[] ccm = new byte[data.length + micSize];
-
-        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
-        final AEADParameters aeadParameters = new AEADParameters(new KeyParameter(key), micSize * 8, nonce);
-        ccmBlockCipher.init(true, aeadParameters);
-        ccmBlockCipher.processBytes(data, 0, data.length, ccm, data.length);
         try {
-            ccmBlockCipher.doFinal(ccm, 0);
+            encryptCCM(data, 0, data.length, key, nonce, micSize, ccm, 0);
             return ccm;
         } catch (InvalidCipherTextException e) {
             Log.e(TAG, "Error wile encrypting: " + e.getMessage());
@@ -173,17 +168,55 @@ public class SecureUtils {
         }
     }
 
+    /**
+     * Encrypts a range of the given data in to the given output buffer using the cipher cached for the calling thread
+     *
+     * @param data       data to be encrypted
+     * @param dataOffset offset of the data to be encrypted
+     * @param dataLength length of the data to be encrypted
+     * @param key        encryption key
+     * @param nonce      nonce
+     * @param micSize    length of the message integrity check
+     * @param out        buffer the encrypted data and mic are written to, requires dataLength + micSize bytes after outOffset
+     * @param outOffset  offset in the output buffer
+     * @return number of bytes written to the output buffer
+     */
+    public static int encryptCCM(final byte[] data, final int dataOffset, final int dataLength,
+                                 final byte[] key, final byte[] nonce, final int micSize,
+                                 final byte[] out, final int outOffset) throws InvalidCipherTextException {
+        final CCMBlockCipher ccmBlockCipher = CIPHER_CACHE.get().getCcmBlockCipher(true, key, micSize, nonce);
+        ccmBlockCipher.processBytes(data, dataOffset, dataLength, out, outOffset);
+        return ccmBlockCipher.doFinal(out, outOffset);
+    }
+
     public static byte[] decryptCCM(final byte[] data, final byte[] key, final byte[] nonce, final int micSize) throws InvalidCipherTextException {
         final byte[] ccm = new byte[data.length - micSize];
-
-        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
-        final AEADParameters aeadParameters = new AEADParameters(new KeyParameter(key), micSize * 8, nonce);
-        ccmBlockCipher.init(false, aeadParameters);
-        ccmBlockCipher.processBytes(data, 0, data.length, ccm, 0);
-        ccmBlockCipher.doFinal(ccm, 0);
+        decryptCCM(data, 0, data.length, key, nonce, micSize, ccm, 0);
         return ccm;
     }
 
+    /**
+     * Decrypts a range of the given data in to the given output buffer using the cipher cached for the calling thread
+     *
+     * @param data       data to be decrypted including the mic
+     * @param dataOffset offset of the data to be decrypted
+     * @param dataLength length of the data to be decrypted including the mic
+     * @param key        encryption key
+     * @param nonce      nonce
+     * @param micSize    length of the message integrity check
+     * @param out        buffer the decrypted data is written to, requires dataLength - micSize bytes after outOffset
+     * @param outOffset  offset in the output buffer
+     * @return number of bytes written to the output buffer
+     * @throws InvalidCipherTextException if the mic does not match
+     */
+    public static int decryptCCM(final byte[] data, final int dataOffset, final int dataLength,
+                                 final byte[] key, final byte[] nonce, final int micSize,
+                                 final byte[] out, final int outOffset) throws InvalidCipherTextException {
+        final CCMBlockCipher ccmBlockCipher = CIPHER_CACHE.get().getCcmBlockCipher(false, key, micSize, nonce);
+        ccmBlockCipher.processBytes(data, dataOffset, dataLength, out, outOffset);
+        return ccmBlockCipher.doFinal(out, outOffset);
+    }
+
     public static byte[] calculateK1(final byte[] ecdh, final byte[] confirmationSalt, final byte[] text) {
         return calculateCMAC(text, calculateCMAC(ecdh, confirmationSalt));
     }
@@ -330,6 +363,28 @@ public class SecureUtils {
         return Arrays.equals(calcAuthValue, authValue);
     }
 
+    /**
+     * Authenticates a secure network beacon using a beacon key that was derived beforehand
+     *
+     * @param beacon    buffer containing the secure network beacon starting with the beacon type
+     * @param offset    offset of the beacon in the buffer
+     * @param beaconKey beacon key derived from the network key
+     * @return true if the authentication value of the beacon matches
+     */
+    public static boolean authenticateSecureNetBeacon(@NonNull final byte[] beacon, final int offset, @NonNull final byte[] beaconKey) {
+        final byte[] hash = new byte[16];
+        final CMac mac = new CMac(new AESEngine());
+        mac.init(new KeyParameter(beaconKey));
+        //Flags, network id and iv index
+        mac.update(beacon, offset + 1, 13);
+        mac.doFinal(hash, 0);
+        int diff = 0;
+        for (int i = 0; i < 8; i++) {
+            diff |= hash[i] ^ beacon[offset + 14 + i];
+        }
+        return diff == 0;
+    }
+
     /**
      * Calculates the secure network beacon
      *
@@ -382,14 +437,23 @@ public class SecureUtils {
 
     public static byte[] encryptWithAES(final byte[] data, final byte[] key) {
         final byte[] encrypted = new byte[data.length];
-        final CipherParameters cipherParameters = new KeyParameter(key);
-        final AESLightEngine engine = new AESLightEngine();
-        engine.init(true, cipherParameters);
-        engine.processBlock(data, 0, encrypted, 0);
-
+        encryptWithAES(data, 0, key, encrypted, 0);
         return encrypted;
     }
 
+    /**
+     * Encrypts a single block using the engine cached for the calling thread, the key schedule is only recalculated if the key changed
+     *
+     * @param data       data containing the block to be encrypted
+     * @param dataOffset offset of the block
+     * @param key        encryption key
+     * @param out        buffer the encrypted block is written to
+     * @param outOffset  offset in the output buffer
+     */
+    public static void encryptWithAES(final byte[] data, final int dataOffset, final byte[] key, final byte[] out, final int outOffset) {
+        CIPHER_CACHE.get().getAesEngine(key).processBlock(data, dataOffset, out, outOffset);
+    }
+
     public static int getNetMicLength(final int ctl) {
         if (ctl == 0) {
             return 4; //length;
@@ -466,4 +530,49 @@ public class SecureUtils {
             return privacyKey;
         }
     }
+
+    /**
+     * Ciphers reused by a thread so that engines are not created for every pdu encrypted or decrypted
+     */
+    private static final ThreadLocal<CipherCache> CIPHER_CACHE = new ThreadLocal<CipherCache>() {
+        @Override
+        protected CipherCache initialValue() {
+            return new CipherCache();
+        }
+    };
+
+    private static final class CipherCache {
+        private final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
+        private final AESLightEngine aesEngine = new AESLightEngine();
+        private byte[] ccmKey;
+        private byte[] aesKey;
+
+        /**
+         * Initialises the cached ccm cipher, the key is only passed to the cipher if it differs from the key the cipher already holds
+         */
+        CCMBlockCipher getCcmBlockCipher(final boolean forEncryption, final byte[] key, final int micSize, final byte[] nonce) {
+            KeyParameter keyParameter = null;
+            if (ccmKey == null || !Arrays.equals(ccmKey, key)) {
+                keyParameter = new KeyParameter(key);
+            }
+            try {
+                ccmBlockCipher.init(forEncryption, new AEADParameters(keyParameter, micSize * 8, nonce));
+            } catch (IllegalArgumentException ex) {
+                ccmKey = null;
+                throw ex;
+            }
+            if (keyParameter != null) {
+                ccmKey = key.clone();
+            }
+            return ccmBlockCipher;
+        }
+
+        AESLightEngine getAesEngine(final byte[] key) {
+            if (aesKey == null || !Arrays.equals(aesKey, key)) {
+                aesKey = key.clone();
+                aesEngine.init(true, new KeyParameter(key));
+            }
+            return aesEngine;
+        }
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AddressAllocatorTests {
+
+    private static final String MESH_UUID = "70CF7C9732A345B691494810D2E9CBF4";
+
+    private MeshNetwork mMeshNetwork;
+    private Provisioner mProvisioner;
+
+    @Before
+    public void setUp() {
+        mMeshNetwork = new MeshNetwork(MESH_UUID);
+        mProvisioner = new Provisioner("F9B1C4C2E7A84E5F9C3A0D6B1E2F3A4B",
+                Collections.singletonList(new AllocatedUnicastRange(0x0001, 0x00FF)),
+                Collections.singletonList(new AllocatedGroupRange(0xC000, 0xC0FF)),
+                Collections.singletonList(new AllocatedSceneRange(0x0001, 0x00FF)),
+                MESH_UUID);
+        mProvisioner.setProvisionerAddress(0x0001);
+        mProvisioner.setLastSelected(true);
+        final List<Provisioner> provisioners = new ArrayList<>();
+        provisioners.add(mProvisioner);
+        mMeshNetwork.setProvisioners(provisioners);
+    }
+
+    @Test
+    public void address_space_merges_adjacent_intervals() {
+        final AddressSpace space = new AddressSpace(0x0001, 0x7FFF);
+        space.use(0x0001, 0x0010);
+        space.use(0x0011, 0x0020);
+        assertEquals(1, space.getFreeIntervalCount());
+        assertEquals(0x0021, space.find(1, 0x0001, 0x7FFF));
+
+        space.free(0x0005, 0x0008);
+        assertEquals(2, space.getFreeIntervalCount());
+        assertEquals(0x0005, space.find(4, 0x0001, 0x7FFF));
+        assertEquals(0x0021, space.find(5, 0x0001, 0x7FFF));
+        assertTrue(space.isFree(0x0005, 0x0008));
+        assertFalse(space.isFree(0x0004, 0x0008));
+
+        space.free(0x0001, 0x0020);
+        assertEquals(1, space.getFreeIntervalCount());
+        assertTrue(space.isFree(0x0001, 0x7FFF));
+    }
+
+    @Test
+    public void address_space_finds_ranges_within_bounds() {
+        final AddressSpace space = new AddressSpace(0x0001, 0x7FFF);
+        space.use(0x0100, 0x01FF);
+        assertEquals(0x0200, space.find(2, 0x0150, 0x7FFF));
+        assertEquals(0x00F0, space.find(16, 0x00F0, 0x7FFF));
+        assertEquals(0x0200, space.find(17, 0x00F0, 0x7FFF));
+        assertEquals(-1, space.find(1, 0x0100, 0x01FF));
+        //A range with a low address of 0 starts at the first address of the space
+        assertEquals(0x0001, space.find(1, 0x0000, 0x00FF));
+    }
+
+    @Test
+    public void unicast_addresses_are_allocated_after_the_provisioner() {
+        for (int i = 0; i < 100; i++) {
+            final int address = mMeshNetwork.nextAvailableUnicastAddress(1, mProvisioner);
+            assertEquals(0x0002 + i, address);
+            mMeshNetwork.addProvisionedNode(createNode(address));
+        }
+        assertEquals(0x0066, mMeshNetwork.nextAvailableUnicastAddress(1, mProvisioner));
+    }
+
+    @Test
+    public void addresses_of_removed_nodes_are_reused() {
+        for (int i = 0; i < 10; i++) {
+            mMeshNetwork.addProvisionedNode(createNode(0x0002 + i));
+        }
+        mMeshNetwork.deleteNode(mMeshNetwork.getProvisionedNode(0x0005));
+        mMeshNetwork.deleteNode(mMeshNetwork.getProvisionedNode(0x0006));
+        assertEquals(0x0005, mMeshNetwork.nextAvailableUnicastAddress(2, mProvisioner));
+        assertEquals(0x000C, mMeshNetwork.nextAvailableUnicastAddress(3, mProvisioner));
+        assertTrue(mMeshNetwork.assignUnicastAddress(0x0006));
+        assertFalse(mMeshNetwork.assignUnicastAddress(0x0007));
+    }
+
+    @Test
+    public void imported_nodes_are_indexed() {
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        nodes.add(createNode(0x0002));
+        nodes.add(createNode(0x0004));
+        mMeshNetwork.setNodes(nodes);
+        assertEquals(0x0003, mMeshNetwork.nextAvailableUnicastAddress(1, mProvisioner));
+        assertEquals(0x0005, mMeshNetwork.nextAvailableUnicastAddress(2, mProvisioner));
+    }
+
+    @Test
+    public void provisioner_address_is_not_allocated() {
+        mMeshNetwork.addProvisionedNode(createNode(0x0002));
+        assertTrue(mMeshNetwork.setProvisionerAddress(0x0003));
+        assertEquals(0x0001, mMeshNetwork.nextAvailableUnicastAddress(1, mProvisioner));
+        assertEquals(0x0004, mMeshNetwork.nextAvailableUnicastAddress(2, mProvisioner));
+        assertFalse(mMeshNetwork.setProvisionerAddress(0x0002));
+    }
+
+    @Test
+    public void group_addresses_and_scene_numbers_are_allocated() {
+        assertEquals(0xC000, mMeshNetwork.nextAvailableGroupAddress(mProvisioner));
+        mMeshNetwork.addGroup(0xC000, "Living room");
+        mMeshNetwork.addGroup(0xC001, "Kitchen");
+        assertEquals(0xC002, mMeshNetwork.nextAvailableGroupAddress(mProvisioner));
+        mMeshNetwork.removeGroup(mMeshNetwork.getGroup(0xC000));
+        assertEquals(0xC000, mMeshNetwork.nextAvailableGroupAddress(mProvisioner));
+
+        mMeshNetwork.getScenes().add(new Scene(0x0001, new ArrayList<>(), MESH_UUID));
+        assertEquals(0x0002, mMeshNetwork.nextAvailableSceneNumber(mProvisioner));
+    }
+
+    private static ProvisionedMeshNode createNode(final int unicastAddress) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUnicastAddress(unicastAddress);
+        return node;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory {@link MeshBearer} recording the pdus sent and delivering pdus to a {@link MeshBearerManager} in segments of its mtu
+ */
+final class FakeMeshBearer implements MeshBearer {
+
+    private final MeshBearerManager mManager;
+    private final int mMtu;
+    private final List<byte[]> mSentPdus = new ArrayList<>();
+    private boolean mOpen = true;
+    private boolean mRefuseWrites;
+
+    FakeMeshBearer(@NonNull final MeshBearerManager manager, final int mtu) {
+        this.mManager = manager;
+        this.mMtu = mtu;
+    }
+
+    @Override
+    public int getMtu() {
+        return mMtu;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return mOpen;
+    }
+
+    @Override
+    public boolean sendPdu(@NonNull final byte[] pdu) {
+        if (!mOpen || mRefuseWrites)
+            return false;
+        mSentPdus.add(pdu);
+        return true;
+    }
+
+    /**
+     * Closes the bearer without removing it from the manager, like a connection that was lost
+     */
+    void close() {
+        mOpen = false;
+    }
+
+    /**
+     * Makes the bearer refuse writes while it still reports to be open
+     */
+    void refuseWrites() {
+        mRefuseWrites = true;
+    }
+
+    /**
+     * Returns the segmented pdus sent through the bearer
+     */
+    List<byte[]> getSentPdus() {
+        return mSentPdus;
+    }
+
+    /**
+     * Delivers a pdu to the manager, segmented for the mtu of the bearer
+     *
+     * @param pdu pdu without the SAR bits
+     */
+    void receive(@NonNull final byte[] pdu) {
+        for (byte[] segment : segment(pdu)) {
+            receiveSegment(segment);
+        }
+    }
+
+    /**
+     * Delivers a single segment to the manager
+     *
+     * @param segment segment including the SAR bits
+     */
+    void receiveSegment(@NonNull final byte[] segment) {
+        mManager.onPduReceived(this, segment);
+    }
+
+    /**
+     * Splits a pdu in to the segments written to the bearer
+     *
+     * @param pdu pdu without the SAR bits
+     */
+    List<byte[]> segment(@NonNull final byte[] pdu) {
+        final byte[] segmentedPdu = MeshManagerApi.applySegmentation(mMtu, pdu);
+        final List<byte[]> segments = new ArrayList<>();
+        for (int offset = 0; offset < segmentedPdu.length; offset += mMtu) {
+            segments.add(Arrays.copyOfRange(segmentedPdu, offset, Math.min(segmentedPdu.length, offset + mMtu)));
+        }
+        return segments;
+    }
+}
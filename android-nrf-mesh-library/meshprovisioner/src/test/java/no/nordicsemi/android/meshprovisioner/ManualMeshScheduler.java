@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link MeshScheduler} and clock advanced by the test, tasks run on the thread calling {@link #advance(long)}
+ */
+public final class ManualMeshScheduler implements MeshScheduler, NetworkMessageCache.Clock {
+
+    private final List<Runnable> mTasks = new ArrayList<>();
+    private final List<Long> mDueTimes = new ArrayList<>();
+    private long mNow;
+
+    @Override
+    public void postDelayed(@NonNull final Runnable task, final long delayMillis) {
+        mTasks.add(task);
+        mDueTimes.add(mNow + delayMillis);
+    }
+
+    @Override
+    public void removeCallbacks(@NonNull final Runnable task) {
+        for (int i = mTasks.size() - 1; i >= 0; i--) {
+            if (mTasks.get(i) == task) {
+                mTasks.remove(i);
+                mDueTimes.remove(i);
+            }
+        }
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return mNow;
+    }
+
+    /**
+     * Returns the number of tasks waiting to run
+     */
+    public int getPendingCount() {
+        return mTasks.size();
+    }
+
+    /**
+     * Advances the clock and runs the tasks that are due, in the order of their due time
+     *
+     * @param millis time to advance in milliseconds
+     */
+    public void advance(final long millis) {
+        final long until = mNow + millis;
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < mTasks.size(); i++) {
+                if (mDueTimes.get(i) <= until && (next == -1 || mDueTimes.get(i) < mDueTimes.get(next))) {
+                    next = i;
+                }
+            }
+            if (next == -1)
+                break;
+
+            mNow = Math.max(mNow, mDueTimes.get(next));
+            mDueTimes.remove(next);
+            mTasks.remove(next).run();
+        }
+        mNow = until;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class MeshBearerManagerTests {
+
+    private static final int MTU = 20;
+    private static final int NODE_ADDRESS = 0x0010;
+    private static final int GROUP_ADDRESS = 0xC000;
+
+    private MeshBearerManager mManager;
+    private final List<byte[]> mPdus = new ArrayList<>();
+    private final List<MeshBearer> mPduBearers = new ArrayList<>();
+    private final List<MeshBearer> mRemovedBearers = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mManager = new MeshBearerManager(mock(MeshScheduler.class), new MeshBearerManager.BearerCallbacks() {
+            @Override
+            public void onPduReceived(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu) {
+                mPdus.add(pdu);
+                mPduBearers.add(bearer);
+                //Stands in for the network layer, the test pdus carry the source address and TTL in the clear
+                if (pdu[0] == MeshManagerApi.PDU_TYPE_NETWORK) {
+                    mManager.onNetworkPduReceived(((pdu[1] & 0xFF) << 8) | (pdu[2] & 0xFF), pdu[3]);
+                }
+            }
+
+            @Override
+            public void onSarTimeout(@NonNull final MeshBearer bearer, final int pduType) {
+            }
+
+            @Override
+            public void onPduWritten(@NonNull final MeshBearer bearer, @NonNull final byte[] pdu) {
+            }
+
+            @Override
+            public void onBearerRemoved(@NonNull final MeshBearer bearer) {
+                mRemovedBearers.add(bearer);
+            }
+        });
+    }
+
+    @Test
+    public void pdu_without_measured_path_is_sent_through_first_open_bearer() {
+        final FakeMeshBearer first = addBearer();
+        final FakeMeshBearer second = addBearer();
+
+        assertTrue(mManager.send(NODE_ADDRESS, createPdu()));
+
+        assertEquals(1, first.getSentPdus().size());
+        assertEquals(0, second.getSentPdus().size());
+    }
+
+    @Test
+    public void pdu_is_sent_through_bearer_with_highest_ttl() {
+        final FakeMeshBearer first = addBearer();
+        final FakeMeshBearer second = addBearer();
+        first.receive(createNetworkPdu(NODE_ADDRESS, 3));
+        second.receive(createNetworkPdu(NODE_ADDRESS, 6));
+
+        assertSame(second, mManager.getBearer(NODE_ADDRESS));
+        assertTrue(mManager.send(NODE_ADDRESS, createPdu()));
+        assertEquals(0, first.getSentPdus().size());
+        assertEquals(1, second.getSentPdus().size());
+
+        //The path through the first bearer got shorter
+        first.receive(createNetworkPdu(NODE_ADDRESS, 7));
+        assertSame(first, mManager.getBearer(NODE_ADDRESS));
+    }
+
+    @Test
+    public void pdu_to_group_address_is_sent_through_first_open_bearer() {
+        final FakeMeshBearer first = addBearer();
+        final FakeMeshBearer second = addBearer();
+        second.receive(createNetworkPdu(GROUP_ADDRESS, 6));
+
+        assertSame(first, mManager.getBearer(GROUP_ADDRESS));
+    }
+
+    @Test
+    public void pdu_fails_over_to_next_bearer() {
+        final FakeMeshBearer first = addBearer();
+        final FakeMeshBearer second = addBearer();
+        final FakeMeshBearer third = addBearer();
+        second.receive(createNetworkPdu(NODE_ADDRESS, 6));
+
+        //A closed bearer is not chosen at all
+        second.close();
+        assertSame(first, mManager.getBearer(NODE_ADDRESS));
+
+        //A bearer refusing the write is skipped
+        first.refuseWrites();
+        assertTrue(mManager.send(NODE_ADDRESS, createPdu()));
+        assertEquals(1, third.getSentPdus().size());
+        assertEquals(1, mManager.getFailoverCount());
+
+        third.close();
+        assertFalse(mManager.send(NODE_ADDRESS, createPdu()));
+        first.close();
+        assertFalse(mManager.hasOpenBearer());
+        assertNull(mManager.getBearer(NODE_ADDRESS));
+    }
+
+    @Test
+    public void proxy_configuration_pdu_is_sent_through_all_open_bearers() {
+        final FakeMeshBearer first = addBearer();
+        final FakeMeshBearer second = addBearer();
+        final FakeMeshBearer third = addBearer();
+        third.close();
+
+        final byte[] pdu = {MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION, 0x01, 0x02};
+        assertTrue(mManager.send(NODE_ADDRESS, pdu));
+
+        assertEquals(1, first.getSentPdus().size());
+        assertEquals(1, second.getSentPdus().size());
+        assertEquals(0, third.getSentPdus().size());
+    }
+
+    @Test
+    public void pdu_is_segmented_for_mtu_of_bearer() {
+        final FakeMeshBearer bearer = addBearer();
+        final byte[] pdu = createPdu();
+
+        assertTrue(mManager.send(NODE_ADDRESS, pdu));
+
+        assertArrayEquals(MeshManagerApi.applySegmentation(MTU, pdu), bearer.getSentPdus().get(0));
+    }
+
+    @Test
+    public void segments_received_through_several_bearers_are_reassembled_separately() {
+        final FakeMeshBearer first = addBearer();
+        final FakeMeshBearer second = addBearer();
+        final byte[] firstPdu = createNetworkPdu(NODE_ADDRESS, 3);
+        final byte[] secondPdu = createNetworkPdu(NODE_ADDRESS + 1, 4);
+        final List<byte[]> firstSegments = first.segment(firstPdu);
+        final List<byte[]> secondSegments = second.segment(secondPdu);
+        assertTrue(firstSegments.size() > 1);
+
+        //Interleaved segments of both pdus
+        for (int i = 0; i < firstSegments.size(); i++) {
+            first.receiveSegment(firstSegments.get(i));
+            second.receiveSegment(secondSegments.get(i));
+        }
+
+        assertEquals(2, mPdus.size());
+        assertArrayEquals(firstPdu, mPdus.get(0));
+        assertSame(first, mPduBearers.get(0));
+        assertArrayEquals(secondPdu, mPdus.get(1));
+        assertSame(second, mPduBearers.get(1));
+    }
+
+    @Test
+    public void removed_bearer_is_not_used() {
+        final FakeMeshBearer first = addBearer();
+        final FakeMeshBearer second = addBearer();
+        second.receive(createNetworkPdu(NODE_ADDRESS, 6));
+
+        mManager.removeBearer(second);
+
+        assertEquals(1, mManager.getBearers().size());
+        assertEquals(1, mRemovedBearers.size());
+        assertSame(second, mRemovedBearers.get(0));
+        assertSame(first, mManager.getBearer(NODE_ADDRESS));
+        mManager.removeBearer(first);
+        assertFalse(mManager.hasBearers());
+        assertNull(mManager.getBearer(NODE_ADDRESS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pdu_received_through_unknown_bearer_is_rejected() {
+        new FakeMeshBearer(mManager, MTU).receive(createPdu());
+    }
+
+    private FakeMeshBearer addBearer() {
+        final FakeMeshBearer bearer = new FakeMeshBearer(mManager, MTU);
+        mManager.addBearer(bearer);
+        return bearer;
+    }
+
+    /**
+     * Returns a network pdu long enough to be segmented
+     */
+    private static byte[] createPdu() {
+        final byte[] pdu = new byte[29];
+        pdu[0] = MeshManagerApi.PDU_TYPE_NETWORK;
+        for (int i = 1; i < pdu.length; i++) {
+            pdu[i] = (byte) i;
+        }
+        return pdu;
+    }
+
+    private static byte[] createNetworkPdu(final int src, final int ttl) {
+        final byte[] pdu = createPdu();
+        pdu[1] = (byte) (src >> 8);
+        pdu[2] = (byte) src;
+        pdu[3] = (byte) ttl;
+        return pdu;
+    }
+}
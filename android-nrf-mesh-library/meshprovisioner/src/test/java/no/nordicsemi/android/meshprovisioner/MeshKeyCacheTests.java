@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.transport.ApplicationKey;
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MeshKeyCacheTests {
+
+    private static final byte[] NETWORK_KEY = MeshParserUtils.toByteArray("7DD7364CD842AD18C17C2B820C84C3D6");
+    private static final byte[] REFRESHED_NETWORK_KEY = MeshParserUtils.toByteArray("E21FAB0B4C4B26C1A0C0A15EE7A6D8C4");
+    private static final byte[] APPLICATION_KEY = MeshParserUtils.toByteArray("63964771734FBD76E3B40519D1D94A48");
+    private static final byte[] OTHER_APPLICATION_KEY = MeshParserUtils.toByteArray("3216D1509884B533248541792B877F98");
+
+    private final MeshKeyCache mKeyCache = new MeshKeyCache();
+
+    @Test
+    public void network_key_material_is_derived_once() {
+        final NetworkKey networkKey = new NetworkKey(0, NETWORK_KEY.clone());
+        final SecureUtils.K2Output k2Output = mKeyCache.getK2Output(networkKey);
+        assertK2OutputEquals(SecureUtils.calculateK2(NETWORK_KEY, SecureUtils.K2_MASTER_INPUT), k2Output);
+        assertArrayEquals(SecureUtils.calculateK3(NETWORK_KEY), mKeyCache.getNetworkId(networkKey));
+        assertArrayEquals(SecureUtils.calculateIdentityKey(NETWORK_KEY), mKeyCache.getIdentityKey(networkKey));
+        assertArrayEquals(SecureUtils.calculateBeaconKey(NETWORK_KEY), mKeyCache.getBeaconKey(networkKey));
+
+        assertSame(k2Output, mKeyCache.getK2Output(networkKey));
+        assertSame(mKeyCache.getNetworkId(networkKey), mKeyCache.getNetworkId(networkKey));
+    }
+
+    @Test
+    public void changed_network_key_is_derived_again() {
+        final NetworkKey networkKey = new NetworkKey(0, NETWORK_KEY.clone());
+        final SecureUtils.K2Output k2Output = mKeyCache.getK2Output(networkKey);
+
+        networkKey.setKey(REFRESHED_NETWORK_KEY.clone());
+        final SecureUtils.K2Output refreshedK2Output = mKeyCache.getK2Output(networkKey);
+        assertNotSame(k2Output, refreshedK2Output);
+        assertK2OutputEquals(SecureUtils.calculateK2(REFRESHED_NETWORK_KEY, SecureUtils.K2_MASTER_INPUT), refreshedK2Output);
+        assertArrayEquals(SecureUtils.calculateBeaconKey(REFRESHED_NETWORK_KEY), mKeyCache.getBeaconKey(networkKey));
+    }
+
+    @Test
+    public void network_key_changed_in_place_is_derived_again() {
+        final byte[] key = NETWORK_KEY.clone();
+        final NetworkKey networkKey = new NetworkKey(0, key);
+        final byte[] networkId = mKeyCache.getNetworkId(networkKey);
+
+        System.arraycopy(REFRESHED_NETWORK_KEY, 0, networkKey.getKey(), 0, REFRESHED_NETWORK_KEY.length);
+        assertArrayEquals(SecureUtils.calculateK3(REFRESHED_NETWORK_KEY), mKeyCache.getNetworkId(networkKey));
+        assertNotSame(networkId, mKeyCache.getNetworkId(networkKey));
+    }
+
+    @Test
+    public void old_network_key_is_derived_separately() {
+        final NetworkKey networkKey = new NetworkKey(0, REFRESHED_NETWORK_KEY.clone());
+        assertNull(mKeyCache.getOldK2Output(networkKey));
+
+        networkKey.setOldKey(NETWORK_KEY.clone());
+        final SecureUtils.K2Output oldK2Output = mKeyCache.getOldK2Output(networkKey);
+        assertK2OutputEquals(SecureUtils.calculateK2(NETWORK_KEY, SecureUtils.K2_MASTER_INPUT), oldK2Output);
+        assertK2OutputEquals(SecureUtils.calculateK2(REFRESHED_NETWORK_KEY, SecureUtils.K2_MASTER_INPUT), mKeyCache.getK2Output(networkKey));
+        assertSame(oldK2Output, mKeyCache.getOldK2Output(networkKey));
+    }
+
+    @Test
+    public void invalidated_network_key_is_derived_again() {
+        final NetworkKey networkKey = new NetworkKey(0, NETWORK_KEY.clone());
+        networkKey.setOldKey(REFRESHED_NETWORK_KEY.clone());
+        final SecureUtils.K2Output k2Output = mKeyCache.getK2Output(networkKey);
+        final SecureUtils.K2Output oldK2Output = mKeyCache.getOldK2Output(networkKey);
+
+        mKeyCache.invalidate(networkKey);
+        assertNotSame(k2Output, mKeyCache.getK2Output(networkKey));
+        assertNotSame(oldK2Output, mKeyCache.getOldK2Output(networkKey));
+
+        final SecureUtils.K2Output current = mKeyCache.getK2Output(networkKey);
+        mKeyCache.invalidateNetworkKeys();
+        assertNotSame(current, mKeyCache.getK2Output(networkKey));
+    }
+
+    @Test
+    public void network_key_reusing_a_removed_key_index_is_derived_again() {
+        final NetworkKey networkKey = new NetworkKey(1, NETWORK_KEY.clone());
+        mKeyCache.getK2Output(networkKey);
+        mKeyCache.invalidate(networkKey);
+
+        final NetworkKey otherKey = new NetworkKey(1, REFRESHED_NETWORK_KEY.clone());
+        assertK2OutputEquals(SecureUtils.calculateK2(REFRESHED_NETWORK_KEY, SecureUtils.K2_MASTER_INPUT), mKeyCache.getK2Output(otherKey));
+    }
+
+    @Test
+    public void aid_is_derived_again_when_the_application_key_changes() {
+        final ApplicationKey applicationKey = new ApplicationKey(0, APPLICATION_KEY.clone());
+        assertEquals(SecureUtils.calculateK4(APPLICATION_KEY), mKeyCache.getAid(applicationKey));
+
+        applicationKey.setKey(OTHER_APPLICATION_KEY.clone());
+        assertEquals(SecureUtils.calculateK4(OTHER_APPLICATION_KEY), mKeyCache.getAid(applicationKey));
+
+        mKeyCache.invalidate(applicationKey);
+        assertEquals(SecureUtils.calculateK4(OTHER_APPLICATION_KEY), mKeyCache.getAid(applicationKey));
+        mKeyCache.invalidateApplicationKeys();
+        assertEquals(SecureUtils.calculateK4(OTHER_APPLICATION_KEY), mKeyCache.getAid(applicationKey));
+    }
+
+    @Test
+    public void application_key_is_looked_up_by_aid() {
+        final ApplicationKey applicationKey = new ApplicationKey(0, APPLICATION_KEY.clone());
+        final ApplicationKey otherKey = new ApplicationKey(1, OTHER_APPLICATION_KEY.clone());
+        final List<ApplicationKey> applicationKeys = new ArrayList<>();
+        applicationKeys.add(applicationKey);
+        applicationKeys.add(otherKey);
+
+        assertSame(applicationKey, mKeyCache.getApplicationKey(applicationKeys, SecureUtils.calculateK4(APPLICATION_KEY)));
+        assertSame(otherKey, mKeyCache.getApplicationKey(applicationKeys, SecureUtils.calculateK4(OTHER_APPLICATION_KEY)));
+
+        //A removed key is no longer found even though its material is still cached
+        applicationKeys.remove(otherKey);
+        assertNull(mKeyCache.getApplicationKey(applicationKeys, SecureUtils.calculateK4(OTHER_APPLICATION_KEY)));
+    }
+
+    private static void assertK2OutputEquals(final SecureUtils.K2Output expected, final SecureUtils.K2Output actual) {
+        assertEquals(expected.getNid(), actual.getNid());
+        assertArrayEquals(expected.getEncryptionKey(), actual.getEncryptionKey());
+        assertArrayEquals(expected.getPrivacyKey(), actual.getPrivacyKey());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class NetworkKeyIndexTests {
+
+    private static final String PRIMARY_NETWORK_KEY = "7DD7364CD842AD18C17C2B820C84C3D6";
+    private static final String SUBNET_KEY = "0953FA93E7CAAC9638F58820220A398E";
+    private static final String REFRESHED_KEY = "E21FAB0B4C4B26C1A0C0A15EE7A6D8C4";
+
+    private MeshNetwork mMeshNetwork;
+    private NetworkKey mPrimaryNetworkKey;
+    private NetworkKey mSubnetKey;
+
+    @Before
+    public void setUp() {
+        mMeshNetwork = new MeshNetwork("70CF7C9732A345B691494810D2E9CBF4");
+        mMeshNetwork.addNetKey(PRIMARY_NETWORK_KEY);
+        mMeshNetwork.addNetKey(SUBNET_KEY);
+        mPrimaryNetworkKey = mMeshNetwork.getNetKeys().get(0);
+        mSubnetKey = mMeshNetwork.getNetKeys().get(1);
+        mMeshNetwork.addProvisionedNode(createNode(0x0002, mPrimaryNetworkKey));
+        mMeshNetwork.addProvisionedNode(createNode(0x0003, mSubnetKey));
+    }
+
+    @Test
+    public void credentials_are_looked_up_by_nid() {
+        final SecureUtils.K2Output primary = mMeshNetwork.getK2Output(mPrimaryNetworkKey);
+        final SecureUtils.K2Output subnet = mMeshNetwork.getK2Output(mSubnetKey);
+        assertArrayEquals(new SecureUtils.K2Output[]{primary}, mMeshNetwork.getReceiveCredentials(primary.getNid()));
+        assertArrayEquals(new SecureUtils.K2Output[]{subnet}, mMeshNetwork.getReceiveCredentials(subnet.getNid()));
+        assertEquals(0, mMeshNetwork.getReceiveCredentials(getUnusedNid()).length);
+    }
+
+    @Test
+    public void removed_key_is_not_looked_up() {
+        final int nid = mMeshNetwork.getK2Output(mSubnetKey).getNid();
+        assertEquals(1, mMeshNetwork.getReceiveCredentials(nid).length);
+        mMeshNetwork.removeNetKey(mSubnetKey);
+        assertEquals(0, mMeshNetwork.getReceiveCredentials(nid).length);
+    }
+
+    @Test
+    public void message_is_sent_on_the_subnet_of_the_destination() {
+        assertSame(mMeshNetwork.getK2Output(mPrimaryNetworkKey), mMeshNetwork.getTransmitCredentials(0x0002));
+        assertSame(mMeshNetwork.getK2Output(mSubnetKey), mMeshNetwork.getTransmitCredentials(0x0003));
+        //Unknown nodes and group addresses are reached on the primary subnet
+        assertSame(mMeshNetwork.getK2Output(mPrimaryNetworkKey), mMeshNetwork.getTransmitCredentials(0x0100));
+        assertSame(mMeshNetwork.getK2Output(mPrimaryNetworkKey), mMeshNetwork.getTransmitCredentials(0xC000));
+    }
+
+    @Test
+    public void old_and_new_keys_are_accepted_during_key_refresh() {
+        final int oldNid = mMeshNetwork.getK2Output(mSubnetKey).getNid();
+        mSubnetKey.setOldKey(mSubnetKey.getKey());
+        mSubnetKey.setKey(MeshParserUtils.toByteArray(REFRESHED_KEY));
+        mSubnetKey.setPhase(NetworkKey.PHASE_1);
+        final SecureUtils.K2Output newK2Output = mMeshNetwork.getK2Output(mSubnetKey);
+        final SecureUtils.K2Output oldK2Output = mMeshNetwork.getKeyCache().getOldK2Output(mSubnetKey);
+        assertEquals(oldNid, oldK2Output.getNid());
+        assertArrayEquals(new SecureUtils.K2Output[]{oldK2Output}, mMeshNetwork.getReceiveCredentials(oldNid));
+        assertArrayEquals(new SecureUtils.K2Output[]{newK2Output}, mMeshNetwork.getReceiveCredentials(newK2Output.getNid()));
+        //The old key is used until the new key is distributed
+        assertSame(oldK2Output, mMeshNetwork.getTransmitCredentials(0x0003));
+
+        mSubnetKey.setPhase(NetworkKey.PHASE_2);
+        assertSame(newK2Output, mMeshNetwork.getTransmitCredentials(0x0003));
+        assertEquals(1, mMeshNetwork.getReceiveCredentials(oldNid).length);
+
+        mSubnetKey.setPhase(NetworkKey.PHASE_0);
+        assertEquals(0, mMeshNetwork.getReceiveCredentials(oldNid).length);
+        assertEquals(1, mMeshNetwork.getReceiveCredentials(newK2Output.getNid()).length);
+    }
+
+    private int getUnusedNid() {
+        int nid = 0;
+        while (nid == mMeshNetwork.getK2Output(mPrimaryNetworkKey).getNid() || nid == mMeshNetwork.getK2Output(mSubnetKey).getNid()) {
+            nid++;
+        }
+        return nid;
+    }
+
+    private static ProvisionedMeshNode createNode(final int unicastAddress, final NetworkKey networkKey) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUnicastAddress(unicastAddress);
+        node.getAddedNetworkKeys().add(networkKey);
+        return node;
+    }
+}
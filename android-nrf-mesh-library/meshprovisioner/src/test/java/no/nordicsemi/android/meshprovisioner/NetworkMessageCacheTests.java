@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkMessageCacheTests {
+
+    private static final long LIFETIME = 1000;
+
+    private long mTime;
+    private NetworkMessageCache mNetworkMessageCache;
+
+    @Before
+    public void setUp() {
+        mTime = 0;
+        mNetworkMessageCache = new NetworkMessageCache(4, LIFETIME, () -> mTime);
+    }
+
+    @Test
+    public void copy_of_a_pdu_is_a_duplicate() {
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu(1)));
+        assertTrue(mNetworkMessageCache.isDuplicate(pdu(1)));
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu(2)));
+        assertEquals(1, mNetworkMessageCache.getHitCount());
+        assertEquals(2, mNetworkMessageCache.getMissCount());
+        assertEquals(2, mNetworkMessageCache.size());
+
+        mNetworkMessageCache.resetCounters();
+        assertEquals(0, mNetworkMessageCache.getHitCount());
+        assertEquals(0, mNetworkMessageCache.getMissCount());
+    }
+
+    @Test
+    public void pdu_with_a_different_net_mic_is_not_a_duplicate() {
+        final byte[] pdu = pdu(1);
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu));
+        pdu[pdu.length - 1] ^= 0x01;
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu));
+    }
+
+    @Test
+    public void pdu_is_accepted_again_after_the_lifetime() {
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu(1)));
+        mTime = LIFETIME;
+        assertTrue(mNetworkMessageCache.isDuplicate(pdu(1)));
+        mTime = 2 * LIFETIME + 1;
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu(1)));
+        assertTrue(mNetworkMessageCache.isDuplicate(pdu(1)));
+    }
+
+    @Test
+    public void oldest_pdu_is_replaced_when_the_cache_is_full() {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(mNetworkMessageCache.isDuplicate(pdu(i)));
+        }
+        assertEquals(4, mNetworkMessageCache.size());
+        for (int i = 1; i < 5; i++) {
+            assertTrue(mNetworkMessageCache.isDuplicate(pdu(i)));
+        }
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu(0)));
+    }
+
+    @Test
+    public void short_pdu_is_never_a_duplicate() {
+        final byte[] pdu = new byte[10];
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu));
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu));
+        assertEquals(0, mNetworkMessageCache.size());
+    }
+
+    @Test
+    public void cleared_cache_accepts_every_pdu() {
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu(1)));
+        mNetworkMessageCache.clear();
+        assertEquals(0, mNetworkMessageCache.size());
+        assertFalse(mNetworkMessageCache.isDuplicate(pdu(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacity_must_be_positive() {
+        new NetworkMessageCache(0, LIFETIME, () -> mTime);
+    }
+
+    private static byte[] pdu(final int sequence) {
+        //Pdu type, IVI/NID, obfuscated header, transport pdu and NetMIC
+        final byte[] pdu = new byte[25];
+        pdu[1] = 0x68;
+        pdu[4] = (byte) sequence;
+        for (int i = 8; i < pdu.length; i++) {
+            pdu[i] = (byte) (i * 31 + sequence);
+        }
+        return pdu;
+    }
+}
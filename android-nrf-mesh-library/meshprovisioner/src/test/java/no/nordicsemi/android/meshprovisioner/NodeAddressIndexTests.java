@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.transport.TestMeshNodes;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class NodeAddressIndexTests {
+
+    private final NodeAddressIndex mIndex = new NodeAddressIndex();
+    private final List<ProvisionedMeshNode> mNodes = new ArrayList<>();
+    private ProvisionedMeshNode mFirstNode;
+    private ProvisionedMeshNode mSecondNode;
+
+    @Before
+    public void setUp() {
+        mFirstNode = TestMeshNodes.createNode(0x0010, 3);
+        mSecondNode = TestMeshNodes.createNode(0x0020, 1);
+        mNodes.add(mSecondNode);
+        mNodes.add(mFirstNode);
+    }
+
+    @Test
+    public void addresses_are_resolved_within_the_range_of_a_node() {
+        assertNull(mIndex.get(mNodes, 0x000F));
+        assertSame(mFirstNode, mIndex.get(mNodes, 0x0010));
+        assertSame(mFirstNode, mIndex.get(mNodes, 0x0011));
+        assertSame(mFirstNode, mIndex.get(mNodes, 0x0012));
+        assertNull(mIndex.get(mNodes, 0x0013));
+        assertNull(mIndex.get(mNodes, 0x001F));
+        assertSame(mSecondNode, mIndex.get(mNodes, 0x0020));
+        assertNull(mIndex.get(mNodes, 0x0021));
+        assertNull(mIndex.get(mNodes, 0x0000));
+        assertNull(mIndex.get(mNodes, 0x7FFF));
+    }
+
+    @Test
+    public void node_without_elements_occupies_its_primary_address() {
+        final ProvisionedMeshNode node = TestMeshNodes.createNode(0x0030, 0);
+        mNodes.add(node);
+        assertSame(node, mIndex.get(mNodes, 0x0030));
+        assertNull(mIndex.get(mNodes, 0x0031));
+    }
+
+    @Test
+    public void empty_list_resolves_no_address() {
+        assertNull(mIndex.get(new ArrayList<>(), 0x0010));
+    }
+
+    @Test
+    public void added_and_removed_nodes_are_indexed() {
+        assertSame(mSecondNode, mIndex.get(mNodes, 0x0020));
+        final ProvisionedMeshNode node = TestMeshNodes.createNode(0x0013, 2);
+        mNodes.add(node);
+        assertSame(node, mIndex.get(mNodes, 0x0014));
+        assertSame(mFirstNode, mIndex.get(mNodes, 0x0012));
+
+        mNodes.remove(mFirstNode);
+        assertNull(mIndex.get(mNodes, 0x0010));
+        assertSame(node, mIndex.get(mNodes, 0x0013));
+    }
+
+    @Test
+    public void replaced_list_is_indexed() {
+        assertSame(mFirstNode, mIndex.get(mNodes, 0x0010));
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        final ProvisionedMeshNode node = TestMeshNodes.createNode(0x0010, 1);
+        nodes.add(node);
+        nodes.add(mSecondNode);
+        assertSame(node, mIndex.get(nodes, 0x0010));
+        assertNull(mIndex.get(nodes, 0x0011));
+    }
+
+    @Test
+    public void updated_node_range_is_indexed() {
+        assertNull(mIndex.get(mNodes, 0x0013));
+        TestMeshNodes.addElements(mFirstNode, 2);
+        mIndex.onNodeUpdated(mFirstNode);
+        assertSame(mFirstNode, mIndex.get(mNodes, 0x0013));
+        assertSame(mFirstNode, mIndex.get(mNodes, 0x0014));
+        assertNull(mIndex.get(mNodes, 0x0015));
+    }
+
+    @Test
+    public void overlapping_ranges_are_resolved() {
+        //An imported network may contain nodes whose ranges overlap
+        final ProvisionedMeshNode wideNode = TestMeshNodes.createNode(0x0040, 16);
+        final ProvisionedMeshNode firstInnerNode = TestMeshNodes.createNode(0x0042, 1);
+        final ProvisionedMeshNode secondInnerNode = TestMeshNodes.createNode(0x0044, 1);
+        final ProvisionedMeshNode thirdInnerNode = TestMeshNodes.createNode(0x0046, 1);
+        mNodes.add(thirdInnerNode);
+        mNodes.add(secondInnerNode);
+        mNodes.add(wideNode);
+        mNodes.add(firstInnerNode);
+
+        assertSame(wideNode, mIndex.get(mNodes, 0x0040));
+        assertSame(firstInnerNode, mIndex.get(mNodes, 0x0042));
+        assertSame(wideNode, mIndex.get(mNodes, 0x0043));
+        assertSame(secondInnerNode, mIndex.get(mNodes, 0x0044));
+        assertSame(thirdInnerNode, mIndex.get(mNodes, 0x0046));
+        assertSame(wideNode, mIndex.get(mNodes, 0x004A));
+        assertSame(wideNode, mIndex.get(mNodes, 0x004F));
+        assertNull(mIndex.get(mNodes, 0x0050));
+        assertSame(mSecondNode, mIndex.get(mNodes, 0x0020));
+    }
+
+    @Test
+    public void deleted_node_is_not_resolved_by_the_network() {
+        final MeshNetwork meshNetwork = new MeshNetwork("70CF7C9732A345B691494810D2E9CBF4");
+        meshNetwork.addProvisionedNode(mFirstNode);
+        meshNetwork.addProvisionedNode(mSecondNode);
+        assertSame(mFirstNode, meshNetwork.getProvisionedNode(0x0012));
+
+        meshNetwork.deleteNode(mFirstNode);
+        assertNull(meshNetwork.getProvisionedNode(0x0010));
+        assertNull(meshNetwork.getProvisionedNode(0x0012));
+        assertSame(mSecondNode, meshNetwork.getProvisionedNode(0x0020));
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static no.nordicsemi.android.meshprovisioner.OutboundPduScheduler.PRIORITY_BULK;
+import static no.nordicsemi.android.meshprovisioner.OutboundPduScheduler.PRIORITY_CONTROL;
+import static no.nordicsemi.android.meshprovisioner.OutboundPduScheduler.PRIORITY_INTERACTIVE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class OutboundPduSchedulerTests {
+
+    private static final int FIRST_BEARER_ADDRESS = 0x0001;
+    private static final int SECOND_BEARER_ADDRESS = 0x0002;
+    private static final int UNREACHABLE_ADDRESS = 0x0003;
+    private static final int THIRD_NODE_ADDRESS = 0x0004;
+    private static final int FOURTH_NODE_ADDRESS = 0x0005;
+    private static final int THIRD_NODE_SECOND_ELEMENT_ADDRESS = 0x0006;
+    private static final int GROUP_ADDRESS = 0xC000;
+
+    private final ManualMeshScheduler mScheduler = new ManualMeshScheduler();
+    private final Map<Integer, MeshBearer> mRoutes = new HashMap<>();
+    private final List<String> mWrites = new ArrayList<>();
+    private final Map<Integer, List<Integer>> mSequenceNumbers = new HashMap<>();
+    private final List<int[]> mWrittenPdus = new ArrayList<>();
+    private MeshBearer mFirstBearer;
+    private MeshBearer mSecondBearer;
+    private OutboundPduScheduler mOutboundPduScheduler;
+
+    @Before
+    public void setUp() {
+        mFirstBearer = mock(MeshBearer.class);
+        mSecondBearer = mock(MeshBearer.class);
+        mRoutes.put(FIRST_BEARER_ADDRESS, mFirstBearer);
+        mRoutes.put(SECOND_BEARER_ADDRESS, mSecondBearer);
+        mRoutes.put(THIRD_NODE_ADDRESS, mFirstBearer);
+        mRoutes.put(FOURTH_NODE_ADDRESS, mFirstBearer);
+        mRoutes.put(THIRD_NODE_SECOND_ELEMENT_ADDRESS, mFirstBearer);
+        mRoutes.put(GROUP_ADDRESS, mFirstBearer);
+        mOutboundPduScheduler = new OutboundPduScheduler(mScheduler, new OutboundPduScheduler.PduWriter() {
+            @Override
+            public Object getConnection(final int dst) {
+                return mRoutes.get(dst);
+            }
+
+            @Override
+            public int getNodeAddress(final int dst) {
+                return dst == THIRD_NODE_SECOND_ELEMENT_ADDRESS ? THIRD_NODE_ADDRESS : dst;
+            }
+
+            @Override
+            public boolean write(@NonNull final Object connection, final int dst, @NonNull final byte[] pdu) {
+                mWrites.add((connection == mFirstBearer ? "first " : "second ") + pdu[1]);
+                List<Integer> sequenceNumbers = mSequenceNumbers.get(dst);
+                if (sequenceNumbers == null) {
+                    sequenceNumbers = new ArrayList<>();
+                    mSequenceNumbers.put(dst, sequenceNumbers);
+                }
+                sequenceNumbers.add((int) pdu[1]);
+                mWrittenPdus.add(new int[]{dst, pdu[1]});
+                return true;
+            }
+        }, mScheduler);
+    }
+
+    @Test
+    public void pdus_are_written_by_priority() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 3, PRIORITY_BULK);
+        enqueue(THIRD_NODE_ADDRESS, 4, PRIORITY_INTERACTIVE);
+        enqueue(FOURTH_NODE_ADDRESS, 5, PRIORITY_CONTROL);
+
+        //The first bulk pdu was written before the others were queued
+        completeWrites(mFirstBearer, 4);
+
+        assertWrites("first 1", "first 5", "first 4", "first 2", "first 3");
+    }
+
+    @Test
+    public void pdus_to_the_same_destination_are_written_in_order() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 3, PRIORITY_CONTROL);
+        enqueue(THIRD_NODE_ADDRESS, 4, PRIORITY_INTERACTIVE);
+
+        completeWrites(mFirstBearer, 3);
+
+        //The control pdu does not overtake the bulk pdu queued before it to the same destination
+        assertWrites("first 1", "first 4", "first 2", "first 3");
+    }
+
+    @Test
+    public void sequence_numbers_increase_per_destination() {
+        final int[] destinations = {FIRST_BEARER_ADDRESS, SECOND_BEARER_ADDRESS, THIRD_NODE_ADDRESS, FOURTH_NODE_ADDRESS};
+        final int[] priorities = {PRIORITY_BULK, PRIORITY_CONTROL, PRIORITY_INTERACTIVE};
+        //The sequence number is assigned when the pdu is created, before it is queued
+        for (int seq = 0; seq < 60; seq++) {
+            enqueue(destinations[seq % destinations.length], seq, priorities[seq % priorities.length]);
+            if (seq % 5 == 4) {
+                completeWrites(mFirstBearer, 1);
+                completeWrites(mSecondBearer, 1);
+            }
+        }
+        while (mOutboundPduScheduler.getQueueDepth() > 0) {
+            completeWrites(mFirstBearer, 1);
+            completeWrites(mSecondBearer, 1);
+        }
+
+        assertEquals(destinations.length, mSequenceNumbers.size());
+        for (List<Integer> sequenceNumbers : mSequenceNumbers.values()) {
+            assertEquals(60 / destinations.length, sequenceNumbers.size());
+            for (int i = 1; i < sequenceNumbers.size(); i++) {
+                assertTrue(sequenceNumbers.get(i) > sequenceNumbers.get(i - 1));
+            }
+        }
+    }
+
+    @Test
+    public void pdus_to_the_elements_of_a_node_are_written_in_order() {
+        enqueue(THIRD_NODE_ADDRESS, 1, PRIORITY_BULK);
+        enqueue(THIRD_NODE_ADDRESS, 2, PRIORITY_BULK);
+        enqueue(THIRD_NODE_SECOND_ELEMENT_ADDRESS, 3, PRIORITY_CONTROL);
+
+        completeWrites(mFirstBearer, 2);
+
+        //The node keeps one sequence number per source for all its elements
+        assertWrites("first 1", "first 2", "first 3");
+    }
+
+    @Test
+    public void group_pdu_does_not_overtake_earlier_pdus() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_BULK);
+        enqueue(GROUP_ADDRESS, 3, PRIORITY_CONTROL);
+        enqueue(THIRD_NODE_ADDRESS, 4, PRIORITY_INTERACTIVE);
+
+        completeWrites(mFirstBearer, 3);
+
+        //The group pdu may be received by the first node, and the pdu queued after it by the group members
+        assertWrites("first 1", "first 2", "first 3", "first 4");
+    }
+
+    @Test
+    public void pdus_queued_after_a_group_pdu_do_not_overtake_it() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_INTERACTIVE);
+        enqueue(GROUP_ADDRESS, 2, PRIORITY_BULK);
+        enqueue(SECOND_BEARER_ADDRESS, 3, PRIORITY_CONTROL);
+
+        //The second bearer is idle, but the second node may be a member of the group
+        assertWrites("first 1");
+
+        completeWrites(mFirstBearer, 1);
+        assertWrites("first 1", "first 2", "second 3");
+    }
+
+    @Test
+    public void sequence_numbers_increase_per_node_with_group_pdus() {
+        final int[] destinations = {FIRST_BEARER_ADDRESS, GROUP_ADDRESS, SECOND_BEARER_ADDRESS, THIRD_NODE_ADDRESS,
+                THIRD_NODE_SECOND_ELEMENT_ADDRESS, FOURTH_NODE_ADDRESS};
+        final int[] priorities = {PRIORITY_BULK, PRIORITY_CONTROL, PRIORITY_INTERACTIVE, PRIORITY_CONTROL};
+        for (int seq = 0; seq < 96; seq++) {
+            enqueue(destinations[seq % destinations.length], seq, priorities[seq % priorities.length]);
+            if (seq % 3 == 2) {
+                completeWrites(mFirstBearer, 1);
+                completeWrites(mSecondBearer, 1);
+            }
+        }
+        while (mOutboundPduScheduler.getQueueDepth() > 0) {
+            completeWrites(mFirstBearer, 1);
+            completeWrites(mSecondBearer, 1);
+        }
+
+        assertEquals(96, mWrittenPdus.size());
+        final int[] nodes = {FIRST_BEARER_ADDRESS, SECOND_BEARER_ADDRESS, THIRD_NODE_ADDRESS, FOURTH_NODE_ADDRESS};
+        for (int node : nodes) {
+            int last = -1;
+            for (int[] writtenPdu : mWrittenPdus) {
+                final int dst = writtenPdu[0] == THIRD_NODE_SECOND_ELEMENT_ADDRESS ? THIRD_NODE_ADDRESS : writtenPdu[0];
+                if (dst == node || dst == GROUP_ADDRESS) {
+                    assertTrue(writtenPdu[1] > last);
+                    last = writtenPdu[1];
+                }
+            }
+        }
+    }
+
+    @Test
+    public void write_window_limits_pdus_in_flight() {
+        mOutboundPduScheduler.setWriteWindow(2);
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_INTERACTIVE);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_INTERACTIVE);
+        enqueue(FIRST_BEARER_ADDRESS, 3, PRIORITY_INTERACTIVE);
+
+        assertWrites("first 1", "first 2");
+        assertEquals(1, mOutboundPduScheduler.getQueueDepth());
+
+        mOutboundPduScheduler.onPduWritten(mFirstBearer);
+        assertWrites("first 1", "first 2", "first 3");
+        assertEquals(0, mOutboundPduScheduler.getQueueDepth());
+    }
+
+    @Test
+    public void busy_bearer_does_not_block_other_bearer() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_INTERACTIVE);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_INTERACTIVE);
+        enqueue(SECOND_BEARER_ADDRESS, 3, PRIORITY_BULK);
+
+        assertWrites("first 1", "second 3");
+        assertEquals(1, mOutboundPduScheduler.getQueueDepth(PRIORITY_INTERACTIVE));
+    }
+
+    @Test
+    public void writes_are_paced_per_bearer() {
+        mOutboundPduScheduler.setWriteWindow(10);
+        mOutboundPduScheduler.setPacingInterval(mFirstBearer, 100);
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_INTERACTIVE);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_INTERACTIVE);
+        enqueue(SECOND_BEARER_ADDRESS, 3, PRIORITY_INTERACTIVE);
+        enqueue(SECOND_BEARER_ADDRESS, 4, PRIORITY_INTERACTIVE);
+
+        assertWrites("first 1", "second 3", "second 4");
+
+        mScheduler.advance(99);
+        assertWrites("first 1", "second 3", "second 4");
+
+        mScheduler.advance(1);
+        assertWrites("first 1", "second 3", "second 4", "first 2");
+    }
+
+    @Test
+    public void lost_write_is_released_after_write_timeout() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_INTERACTIVE);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_INTERACTIVE);
+
+        mScheduler.advance(OutboundPduScheduler.DEFAULT_WRITE_TIMEOUT);
+
+        assertWrites("first 1", "first 2");
+        assertEquals(1, mOutboundPduScheduler.getWriteTimeoutCount());
+    }
+
+    @Test
+    public void closed_connection_releases_window() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_INTERACTIVE);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_INTERACTIVE);
+
+        mOutboundPduScheduler.onConnectionClosed(mFirstBearer);
+
+        assertWrites("first 1", "first 2");
+    }
+
+    @Test
+    public void pdu_without_connection_is_dropped() {
+        enqueue(UNREACHABLE_ADDRESS, 1, PRIORITY_INTERACTIVE);
+
+        assertWrites();
+        assertEquals(0, mOutboundPduScheduler.getQueueDepth());
+        assertEquals(1, mOutboundPduScheduler.getDroppedCount());
+    }
+
+    @Test
+    public void queue_depth_is_tracked() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 2, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 3, PRIORITY_BULK);
+        enqueue(FIRST_BEARER_ADDRESS, 4, PRIORITY_CONTROL);
+
+        assertEquals(3, mOutboundPduScheduler.getQueueDepth());
+        assertEquals(1, mOutboundPduScheduler.getQueueDepth(PRIORITY_CONTROL));
+        assertEquals(2, mOutboundPduScheduler.getQueueDepth(PRIORITY_BULK));
+
+        completeWrites(mFirstBearer, 3);
+        assertEquals(0, mOutboundPduScheduler.getQueueDepth());
+        assertEquals(3, mOutboundPduScheduler.getMaxQueueDepth());
+        assertEquals(4, mOutboundPduScheduler.getWrittenCount());
+
+        mOutboundPduScheduler.resetCounters();
+        assertEquals(0, mOutboundPduScheduler.getMaxQueueDepth());
+        assertEquals(0, mOutboundPduScheduler.getWrittenCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid_priority_is_rejected() {
+        enqueue(FIRST_BEARER_ADDRESS, 1, 3);
+    }
+
+    private void enqueue(final int dst, final int id, final int priority) {
+        mOutboundPduScheduler.enqueue(dst, new byte[]{MeshManagerApi.PDU_TYPE_NETWORK, (byte) id}, priority);
+    }
+
+    private void completeWrites(@NonNull final MeshBearer bearer, final int count) {
+        for (int i = 0; i < count; i++) {
+            mOutboundPduScheduler.onPduWritten(bearer);
+        }
+    }
+
+    private void assertWrites(final String... writes) {
+        assertEquals(Arrays.asList(writes), mWrites);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProxyAdvertisementMatcherTests {
+
+    private static final String NETWORK_KEY = "7DD7364CD842AD18C17C2B820C84C3D6";
+    private static final byte[] RANDOM = MeshParserUtils.toByteArray("34AE608FBBC1F2C6");
+
+    private MeshNetwork mMeshNetwork;
+    private NetworkKey mNetworkKey;
+    private ProxyAdvertisementMatcher mMatcher;
+
+    @Before
+    public void setUp() {
+        mMeshNetwork = new MeshNetwork("70CF7C9732A345B691494810D2E9CBF4");
+        mMeshNetwork.addNetKey(NETWORK_KEY);
+        mNetworkKey = mMeshNetwork.getPrimaryNetworkKey();
+        for (int i = 0; i < 10; i++) {
+            mMeshNetwork.addProvisionedNode(createNode(0x0002 + i * 4));
+        }
+        mMatcher = mMeshNetwork.getAdvertisementMatcher();
+    }
+
+    @Test
+    public void network_id_matches_network_key() {
+        final byte[] serviceData = createNetworkIdAdvertisement(SecureUtils.calculateK3(mNetworkKey.getKey()));
+        assertSame(mNetworkKey, mMatcher.matchNetworkId(serviceData));
+        assertTrue(mMatcher.matches(serviceData));
+    }
+
+    @Test
+    public void unknown_network_id_does_not_match() {
+        final byte[] serviceData = createNetworkIdAdvertisement(MeshParserUtils.toByteArray("3ECAFF672F673371"));
+        assertNull(mMatcher.matchNetworkId(serviceData));
+        assertFalse(mMatcher.matches(serviceData));
+        assertFalse(mMatcher.matches((byte[]) null));
+    }
+
+    @Test
+    public void node_identity_matches_node() {
+        final ProvisionedMeshNode node = mMeshNetwork.getNodes().get(7);
+        final byte[] serviceData = createNodeIdentityAdvertisement(mNetworkKey.getKey(), node.getUnicastAddress(), RANDOM);
+        assertSame(node, mMatcher.matchNodeIdentity(serviceData));
+        //Resolved from the cache the second time
+        assertSame(node, mMatcher.matchNodeIdentity(serviceData));
+        assertNull(mMatcher.matchNetworkId(serviceData));
+    }
+
+    @Test
+    public void node_identity_of_unknown_node_does_not_match() {
+        final byte[] serviceData = createNodeIdentityAdvertisement(mNetworkKey.getKey(), 0x0100, RANDOM);
+        assertNull(mMatcher.matchNodeIdentity(serviceData));
+        assertNull(mMatcher.matchNodeIdentity(serviceData));
+    }
+
+    @Test
+    public void node_added_after_lookup_is_matched() {
+        final byte[] serviceData = createNodeIdentityAdvertisement(mNetworkKey.getKey(), 0x0100, RANDOM);
+        assertNull(mMatcher.matchNodeIdentity(serviceData));
+
+        final ProvisionedMeshNode node = createNode(0x0100);
+        mMeshNetwork.addProvisionedNode(node);
+        assertSame(node, mMatcher.matchNodeIdentity(serviceData));
+    }
+
+    @Test
+    public void same_random_with_different_hash_is_resolved_again() {
+        final ProvisionedMeshNode node1 = mMeshNetwork.getNodes().get(1);
+        final ProvisionedMeshNode node2 = mMeshNetwork.getNodes().get(2);
+        assertSame(node1, mMatcher.matchNodeIdentity(createNodeIdentityAdvertisement(mNetworkKey.getKey(), node1.getUnicastAddress(), RANDOM)));
+        assertSame(node2, mMatcher.matchNodeIdentity(createNodeIdentityAdvertisement(mNetworkKey.getKey(), node2.getUnicastAddress(), RANDOM)));
+    }
+
+    @Test
+    public void batch_of_advertisements_is_matched() {
+        final byte[] networkId = createNetworkIdAdvertisement(SecureUtils.calculateK3(mNetworkKey.getKey()));
+        final byte[] nodeIdentity = createNodeIdentityAdvertisement(mNetworkKey.getKey(), 0x0006, RANDOM);
+        final byte[] unknown = createNodeIdentityAdvertisement(mNetworkKey.getKey(), 0x0200, RANDOM);
+        final boolean[] matches = mMatcher.matches(Arrays.asList(networkId, null, nodeIdentity, unknown));
+        assertArrayEquals(new boolean[]{true, false, true, false}, matches);
+        assertEquals(4, matches.length);
+    }
+
+    private static ProvisionedMeshNode createNode(final int unicastAddress) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUnicastAddress(unicastAddress);
+        return node;
+    }
+
+    private static byte[] createNetworkIdAdvertisement(final byte[] networkId) {
+        final byte[] serviceData = new byte[9];
+        serviceData[0] = ProxyAdvertisementMatcher.ADVERTISEMENT_TYPE_NETWORK_ID;
+        System.arraycopy(networkId, 0, serviceData, 1, 8);
+        return serviceData;
+    }
+
+    private static byte[] createNodeIdentityAdvertisement(final byte[] networkKey, final int unicastAddress, final byte[] random) {
+        final byte[] hash = SecureUtils.calculateHash(SecureUtils.calculateIdentityKey(networkKey), random,
+                new byte[]{(byte) (unicastAddress >> 8), (byte) unicastAddress});
+        final byte[] serviceData = new byte[17];
+        serviceData[0] = ProxyAdvertisementMatcher.ADVERTISEMENT_TYPE_NODE_IDENTITY;
+        System.arraycopy(hash, 0, serviceData, 1, 8);
+        System.arraycopy(random, 0, serviceData, 9, 8);
+        return serviceData;
+    }
+}
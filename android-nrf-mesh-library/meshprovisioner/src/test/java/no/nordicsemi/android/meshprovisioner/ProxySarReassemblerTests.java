@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ProxySarReassemblerTests {
+
+    private static final int START = ProxySarReassembler.GATT_SAR_START << 6;
+    private static final int CONTINUATION = ProxySarReassembler.GATT_SAR_CONTINUATION << 6;
+    private static final int END = ProxySarReassembler.GATT_SAR_END << 6;
+
+    private MeshScheduler mScheduler;
+    private ProxySarReassembler mReassembler;
+    private final List<byte[]> mPdus = new ArrayList<>();
+    private final List<Integer> mTimeouts = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mScheduler = mock(MeshScheduler.class);
+        mReassembler = new ProxySarReassembler(mScheduler, new ProxySarReassembler.ProxySarCallbacks() {
+            @Override
+            public void onPduReassembled(@NonNull final byte[] pdu) {
+                mPdus.add(pdu);
+            }
+
+            @Override
+            public void onSarTimeout(final int pduType) {
+                mTimeouts.add(pduType);
+            }
+        });
+    }
+
+    @Test
+    public void complete_pdu_is_passed_through() {
+        final byte[] pdu = {MeshManagerApi.PDU_TYPE_NETWORK, 0x01, 0x02};
+        mReassembler.onPduReceived(pdu);
+        assertEquals(1, mPdus.size());
+        assertArrayEquals(pdu, mPdus.get(0));
+    }
+
+    @Test
+    public void segments_are_reassembled() {
+        final int type = MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION;
+        mReassembler.onPduReceived(new byte[]{(byte) (START | type), 0x01, 0x02});
+        mReassembler.onPduReceived(new byte[]{(byte) (CONTINUATION | type), 0x03, 0x04});
+        assertTrue(mPdus.isEmpty());
+        mReassembler.onPduReceived(new byte[]{(byte) (END | type), 0x05});
+        assertEquals(1, mPdus.size());
+        assertArrayEquals(new byte[]{(byte) type, 0x01, 0x02, 0x03, 0x04, 0x05}, mPdus.get(0));
+        assertFalse(mReassembler.isReassembling(type));
+    }
+
+    @Test
+    public void pdu_types_are_reassembled_independently() {
+        final int network = MeshManagerApi.PDU_TYPE_NETWORK;
+        final int provisioning = MeshManagerApi.PDU_TYPE_PROVISIONING;
+        mReassembler.onPduReceived(new byte[]{(byte) (START | network), 0x01});
+        mReassembler.onPduReceived(new byte[]{(byte) (START | provisioning), 0x11});
+        mReassembler.onPduReceived(new byte[]{(byte) (END | network), 0x02});
+        mReassembler.onPduReceived(new byte[]{(byte) (END | provisioning), 0x12});
+        assertEquals(2, mPdus.size());
+        assertArrayEquals(new byte[]{(byte) network, 0x01, 0x02}, mPdus.get(0));
+        assertArrayEquals(new byte[]{(byte) provisioning, 0x11, 0x12}, mPdus.get(1));
+    }
+
+    @Test
+    public void segments_out_of_order_are_discarded() {
+        final int type = MeshManagerApi.PDU_TYPE_NETWORK;
+        mReassembler.onPduReceived(new byte[]{(byte) (CONTINUATION | type), 0x01});
+        mReassembler.onPduReceived(new byte[]{(byte) (END | type), 0x02});
+        assertTrue(mPdus.isEmpty());
+
+        //A new start segment discards the incomplete pdu
+        mReassembler.onPduReceived(new byte[]{(byte) (START | type), 0x03});
+        mReassembler.onPduReceived(new byte[]{(byte) (START | type), 0x04});
+        mReassembler.onPduReceived(new byte[]{(byte) (END | type), 0x05});
+        assertEquals(1, mPdus.size());
+        assertArrayEquals(new byte[]{(byte) type, 0x04, 0x05}, mPdus.get(0));
+    }
+
+    @Test
+    public void incomplete_pdu_is_discarded_on_timeout() {
+        final int type = MeshManagerApi.PDU_TYPE_NETWORK;
+        mReassembler.onPduReceived(new byte[]{(byte) (START | type), 0x01});
+        final ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+        verify(mScheduler).postDelayed(timeout.capture(), anyLong());
+        assertTrue(mReassembler.isReassembling(type));
+
+        timeout.getValue().run();
+        assertFalse(mReassembler.isReassembling(type));
+        assertEquals(1, mTimeouts.size());
+        assertEquals(type, (int) mTimeouts.get(0));
+        verify(mScheduler).removeCallbacks(any(Runnable.class));
+
+        mReassembler.onPduReceived(new byte[]{(byte) (END | type), 0x02});
+        assertTrue(mPdus.isEmpty());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ReplayProtectionListTests {
+
+    private static final int SRC = 0x0002;
+    private static final int IV_INDEX = 0x12345678;
+
+    private final Map<Integer, Long> mStoredEntries = new HashMap<>();
+    private int mStoreCount;
+    private MeshScheduler mScheduler;
+    private ReplayProtectionList mReplayProtectionList;
+
+    private final ReplayProtectionListStore mStore = new ReplayProtectionListStore() {
+        @Override
+        public void load(@NonNull final long[] entries) {
+            for (Map.Entry<Integer, Long> entry : mStoredEntries.entrySet()) {
+                entries[entry.getKey()] = entry.getValue();
+            }
+        }
+
+        @Override
+        public void store(@NonNull final int[] addresses, @NonNull final long[] entries, final int count) {
+            mStoreCount++;
+            for (int i = 0; i < count; i++) {
+                if (entries[i] < 0) {
+                    mStoredEntries.remove(addresses[i]);
+                } else {
+                    mStoredEntries.put(addresses[i], entries[i]);
+                }
+            }
+        }
+
+        @Override
+        public void clear() {
+            mStoredEntries.clear();
+        }
+    };
+
+    @Before
+    public void setUp() {
+        mScheduler = mock(MeshScheduler.class);
+        mReplayProtectionList = new ReplayProtectionList(mStore, mScheduler);
+    }
+
+    @Test
+    public void first_message_from_source_is_accepted() {
+        assertFalse(mReplayProtectionList.isReplay(SRC, IV_INDEX, 0));
+        assertEquals(1, mReplayProtectionList.getMissCount());
+        assertEquals(0, mReplayProtectionList.getHitCount());
+    }
+
+    @Test
+    public void replayed_and_older_messages_are_rejected() {
+        mReplayProtectionList.update(SRC, IV_INDEX, 10);
+        assertTrue(mReplayProtectionList.isReplay(SRC, IV_INDEX, 10));
+        assertTrue(mReplayProtectionList.isReplay(SRC, IV_INDEX, 9));
+        assertTrue(mReplayProtectionList.isReplay(SRC, IV_INDEX - 1, 0xFFFFFF));
+        assertFalse(mReplayProtectionList.isReplay(SRC, IV_INDEX, 11));
+        assertFalse(mReplayProtectionList.isReplay(SRC + 1, IV_INDEX, 10));
+        assertEquals(3, mReplayProtectionList.getHitCount());
+        assertEquals(2, mReplayProtectionList.getMissCount());
+
+        mReplayProtectionList.resetCounters();
+        assertEquals(0, mReplayProtectionList.getHitCount());
+        assertEquals(0, mReplayProtectionList.getMissCount());
+    }
+
+    @Test
+    public void message_with_next_iv_index_is_accepted_with_lower_sequence_number() {
+        mReplayProtectionList.update(SRC, IV_INDEX, 0x100000);
+        assertFalse(mReplayProtectionList.isReplay(SRC, IV_INDEX + 1, 0));
+    }
+
+    @Test
+    public void updates_are_coalesced_into_a_single_write() {
+        for (int i = 0; i < 10; i++) {
+            mReplayProtectionList.update(SRC + i % 3, IV_INDEX, i);
+        }
+        final ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(mScheduler, times(1)).postDelayed(flush.capture(), anyLong());
+        assertEquals(0, mStoreCount);
+
+        flush.getValue().run();
+        assertEquals(1, mStoreCount);
+        assertEquals(3, mStoredEntries.size());
+
+        //Entries are loaded by a new list
+        final ReplayProtectionList replayProtectionList = new ReplayProtectionList(mStore, mScheduler);
+        assertTrue(replayProtectionList.isReplay(SRC, IV_INDEX, 9));
+        assertFalse(replayProtectionList.isReplay(SRC, IV_INDEX, 10));
+    }
+
+    @Test
+    public void entries_older_than_previous_iv_index_are_pruned() {
+        mReplayProtectionList.update(SRC, IV_INDEX - 1, 10);
+        mReplayProtectionList.update(SRC + 1, IV_INDEX, 10);
+        mReplayProtectionList.flush();
+
+        mReplayProtectionList.onIvIndexChanged(IV_INDEX + 1);
+        mReplayProtectionList.flush();
+        assertFalse(mReplayProtectionList.isReplay(SRC, IV_INDEX - 1, 10));
+        assertTrue(mReplayProtectionList.isReplay(SRC + 1, IV_INDEX, 10));
+        assertEquals(1, mStoredEntries.size());
+        verify(mScheduler, times(2)).removeCallbacks(any(Runnable.class));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.meshprovisioner.transport.NetworkKey;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class SecureNetworkBeaconProcessorTests {
+
+    private static final String NETWORK_KEY = "7DD7364CD842AD18C17C2B820C84C3D6";
+    private static final long HOUR = 3600 * 1000;
+
+    private MeshNetwork mMeshNetwork;
+    private NetworkKey mNetworkKey;
+    private SecureNetworkBeaconProcessor mProcessor;
+    private long mTime = 1000 * HOUR;
+
+    @Before
+    public void setUp() {
+        mMeshNetwork = new MeshNetwork("70CF7C9732A345B691494810D2E9CBF4");
+        mMeshNetwork.addNetKey(NETWORK_KEY);
+        mNetworkKey = mMeshNetwork.getPrimaryNetworkKey();
+        mMeshNetwork.setIvIndex(0x12345678);
+        mProcessor = new SecureNetworkBeaconProcessor(() -> mTime);
+    }
+
+    @Test
+    public void beacon_with_unknown_network_key_is_ignored() {
+        final byte[] key = MeshParserUtils.toByteArray("F7A2A44F8E8A8029064F173DDC1E2B00");
+        assertFalse(mProcessor.onBeaconReceived(mMeshNetwork, createBeacon(key, 0x12345679, true), 1));
+        assertEquals(0x12345678, mMeshNetwork.getIvIndex());
+    }
+
+    @Test
+    public void beacon_with_invalid_authentication_is_ignored() {
+        final byte[] pdu = createBeacon(mNetworkKey.getKey(), 0x12345679, true);
+        pdu[pdu.length - 1] ^= 0x01;
+        assertFalse(mProcessor.onBeaconReceived(mMeshNetwork, pdu, 1));
+        assertEquals(0x12345678, mMeshNetwork.getIvIndex());
+    }
+
+    @Test
+    public void iv_update_states_last_at_least_96_hours() {
+        assertEquals(0x12345678, mMeshNetwork.getTransmitIvIndex());
+
+        //The time of the last transition is not known, the first beacon is accepted
+        assertTrue(mProcessor.onBeaconReceived(mMeshNetwork, createBeacon(mNetworkKey.getKey(), 0x12345679, true), 1));
+        assertEquals(0x12345679, mMeshNetwork.getIvIndex());
+        assertEquals(MeshNetwork.IV_UPDATE_ACTIVE, mMeshNetwork.getIvUpdateState());
+        //Messages are sent with the previous IV Index until the IV Update completes
+        assertEquals(0x12345678, mMeshNetwork.getTransmitIvIndex());
+        assertFalse(mMeshNetwork.getIvIndexState().getIvRecoveryFlag());
+        assertNotNull(mMeshNetwork.getIvIndexState().getTransitionDate());
+
+        final byte[] normalOperation = createBeacon(mNetworkKey.getKey(), 0x12345679, false);
+        mTime += 95 * HOUR;
+        assertFalse(mProcessor.onBeaconReceived(mMeshNetwork, normalOperation, 1));
+        assertEquals(MeshNetwork.IV_UPDATE_ACTIVE, mMeshNetwork.getIvUpdateState());
+
+        mTime += HOUR;
+        assertTrue(mProcessor.onBeaconReceived(mMeshNetwork, normalOperation, 1));
+        assertEquals(0x12345679, mMeshNetwork.getIvIndex());
+        assertEquals(MeshNetwork.NORMAL_OPERATION, mMeshNetwork.getIvUpdateState());
+        assertFalse(mMeshNetwork.getIvIndexState().getIvRecoveryFlag());
+        assertEquals(0x12345679, mMeshNetwork.getTransmitIvIndex());
+
+        //The IV Index must not decrease
+        mTime += 1000 * HOUR;
+        assertFalse(mProcessor.onBeaconReceived(mMeshNetwork, createBeacon(mNetworkKey.getKey(), 0x12345678, false), 1));
+        assertEquals(0x12345679, mMeshNetwork.getIvIndex());
+    }
+
+    @Test
+    public void iv_index_recovery() {
+        assertTrue(mProcessor.onBeaconReceived(mMeshNetwork, createBeacon(mNetworkKey.getKey(), 0x12345678 + 10, false), 1));
+        assertEquals(0x12345678 + 10, mMeshNetwork.getIvIndex());
+        assertTrue(mMeshNetwork.getIvIndexState().getIvRecoveryFlag());
+
+        //More than 42 requires the recovery limit to be disabled, each skipped state still lasts 96 hours
+        mTime += 100000 * HOUR;
+        final byte[] pdu = createBeacon(mNetworkKey.getKey(), 0x12345678 + 10 + 43, false);
+        assertFalse(mProcessor.onBeaconReceived(mMeshNetwork, pdu, 1));
+        mProcessor.setIvRecoveryOver42Allowed(true);
+        assertTrue(mProcessor.onBeaconReceived(mMeshNetwork, pdu, 1));
+        assertEquals(0x12345678 + 10 + 43, mMeshNetwork.getIvIndex());
+    }
+
+    @Test
+    public void repeated_beacon_is_authenticated_again_after_key_change() {
+        final byte[] pdu = createBeacon(mNetworkKey.getKey(), 0x12345679, true);
+        mNetworkKey.setKey(MeshParserUtils.toByteArray("F7A2A44F8E8A8029064F173DDC1E2B00"));
+        assertFalse(mProcessor.onBeaconReceived(mMeshNetwork, pdu, 1));
+
+        mNetworkKey.setKey(MeshParserUtils.toByteArray(NETWORK_KEY));
+        assertTrue(mProcessor.onBeaconReceived(mMeshNetwork, pdu, 1));
+        //The same beacon again does not change the state
+        assertFalse(mProcessor.onBeaconReceived(mMeshNetwork, pdu, 1));
+        assertEquals(0x12345679, mMeshNetwork.getIvIndex());
+    }
+
+    private static byte[] createBeacon(final byte[] networkKey, final int ivIndex, final boolean ivUpdateActive) {
+        final byte[] flags = {(byte) (ivUpdateActive ? 0x02 : 0x00)};
+        final byte[] beacon = SecureUtils.calculateSecureNetworkBeacon(networkKey, 1, flags,
+                SecureUtils.calculateK3(networkKey), ByteBuffer.allocate(4).putInt(ivIndex).array());
+        //Prefixed with the proxy pdu type
+        final byte[] pdu = new byte[beacon.length + 1];
+        pdu[0] = MeshManagerApi.PDU_TYPE_MESH_BEACON;
+        System.arraycopy(beacon, 0, pdu, 1, beacon.length);
+        return pdu;
+    }
+}
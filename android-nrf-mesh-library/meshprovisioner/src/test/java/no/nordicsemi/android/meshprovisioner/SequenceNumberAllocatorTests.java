@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceNumberAllocatorTests {
+
+    private static final String PROVISIONER_UUID = "70CF7C9732A345B691494810D2E9CBF4";
+
+    @Test
+    public void sequence_numbers_are_reserved_in_blocks() {
+        final InMemorySequenceNumberStore store = new InMemorySequenceNumberStore();
+        final SequenceNumberAllocator allocator = new SequenceNumberAllocator(store, PROVISIONER_UUID, 0, 16);
+
+        for (int i = 1; i <= 100; i++) {
+            assertEquals(i, allocator.next());
+        }
+        //100 sequence numbers in blocks of 16 require 7 writes instead of 100
+        assertEquals(7, store.writes);
+        assertTrue(store.getReservedSequenceNumber(PROVISIONER_UUID) >= allocator.getSequenceNumber());
+    }
+
+    @Test
+    public void sequence_numbers_are_not_reused_after_restart() {
+        final InMemorySequenceNumberStore store = new InMemorySequenceNumberStore();
+        SequenceNumberAllocator allocator = new SequenceNumberAllocator(store, PROVISIONER_UUID, 0, 16);
+        final ArrayList<Integer> sent = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            sent.add(allocator.next());
+        }
+
+        //Simulate a crash before the provisioner was written to the database, it still holds the sequence number it was loaded with
+        final int persistedSequenceNumber = 10;
+        allocator = new SequenceNumberAllocator(store, PROVISIONER_UUID, persistedSequenceNumber, 16);
+
+        final int next = allocator.next();
+        for (int sequenceNumber : sent) {
+            assertTrue("Sequence number " + next + " reused after restart", next > sequenceNumber);
+        }
+        //Only the unused rest of the last reserved block is skipped
+        assertTrue(next - sent.get(sent.size() - 1) <= 16);
+    }
+
+    @Test
+    public void sequence_number_resumes_from_provisioner_if_ahead_of_store() {
+        final InMemorySequenceNumberStore store = new InMemorySequenceNumberStore();
+        final SequenceNumberAllocator allocator = new SequenceNumberAllocator(store, PROVISIONER_UUID, 500, 16);
+        assertEquals(501, allocator.next());
+    }
+
+    @Test
+    public void sequence_number_never_moves_backwards() {
+        final InMemorySequenceNumberStore store = new InMemorySequenceNumberStore();
+        final SequenceNumberAllocator allocator = new SequenceNumberAllocator(store, PROVISIONER_UUID, 0, 16);
+        allocator.advanceTo(100);
+        assertTrue(store.getReservedSequenceNumber(PROVISIONER_UUID) >= 100);
+        allocator.advanceTo(50);
+        assertEquals(101, allocator.next());
+    }
+
+    @Test
+    public void provisioner_reserves_sequence_numbers_in_store() {
+        final InMemorySequenceNumberStore store = new InMemorySequenceNumberStore();
+        Provisioner provisioner = new Provisioner(PROVISIONER_UUID, new ArrayList<>(), null, null, "mesh");
+        provisioner.setSequenceNumberStore(store);
+        int last = 0;
+        for (int i = 0; i < 300; i++) {
+            last = provisioner.incrementSequenceNumber();
+        }
+        assertEquals(last, provisioner.getSequenceNumber());
+
+        //Restart with the sequence number last written to the database
+        provisioner = new Provisioner(PROVISIONER_UUID, new ArrayList<>(), null, null, "mesh");
+        provisioner.setSequenceNumber(1);
+        provisioner.setSequenceNumberStore(store);
+        assertTrue(provisioner.incrementSequenceNumber() > last);
+    }
+
+    private static final class InMemorySequenceNumberStore implements SequenceNumberStore {
+
+        private final Map<String, Integer> mReservedSequenceNumbers = new HashMap<>();
+        int writes;
+
+        @Override
+        public int getReservedSequenceNumber(@NonNull final String provisionerUuid) {
+            final Integer sequenceNumber = mReservedSequenceNumbers.get(provisionerUuid);
+            return sequenceNumber != null ? sequenceNumber : 0;
+        }
+
+        @Override
+        public void setReservedSequenceNumber(@NonNull final String provisionerUuid, final int sequenceNumber) {
+            mReservedSequenceNumbers.put(provisionerUuid, sequenceNumber);
+            writes++;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import no.nordicsemi.android.meshprovisioner.models.SigModelParser;
+import no.nordicsemi.android.meshprovisioner.transport.Element;
+import no.nordicsemi.android.meshprovisioner.transport.MeshModel;
+import no.nordicsemi.android.meshprovisioner.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.meshprovisioner.transport.TestMeshNodes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SubscriptionIndexTests {
+
+    private static final int ON_OFF_SERVER = SigModelParser.GENERIC_ON_OFF_SERVER;
+    private static final int LEVEL_SERVER = SigModelParser.GENERIC_LEVEL_SERVER;
+    private static final int GROUP_ADDRESS = 0xC000;
+    private static final int OTHER_GROUP_ADDRESS = 0xC001;
+    private static final int VIRTUAL_ADDRESS = 0x8B5D;
+
+    private MeshNetwork mMeshNetwork;
+    private ProvisionedMeshNode mFirstNode;
+    private ProvisionedMeshNode mSecondNode;
+
+    @Before
+    public void setUp() {
+        mMeshNetwork = new MeshNetwork("70CF7C9732A345B691494810D2E9CBF4");
+        mMeshNetwork.addGroup(GROUP_ADDRESS, "Living room");
+        mMeshNetwork.addGroup(OTHER_GROUP_ADDRESS, "Kitchen");
+        //Added out of address order, members are returned in address order regardless
+        mSecondNode = TestMeshNodes.createNode(0x0020, 1, ON_OFF_SERVER, LEVEL_SERVER);
+        mFirstNode = TestMeshNodes.createNode(0x0010, 2, ON_OFF_SERVER, LEVEL_SERVER);
+        mMeshNetwork.addProvisionedNode(mSecondNode);
+        mMeshNetwork.addProvisionedNode(mFirstNode);
+    }
+
+    @Test
+    public void members_are_returned_in_address_order() {
+        subscribe(mSecondNode, 0x0020, ON_OFF_SERVER, GROUP_ADDRESS);
+        subscribe(mFirstNode, 0x0011, LEVEL_SERVER, GROUP_ADDRESS);
+        subscribe(mFirstNode, 0x0011, ON_OFF_SERVER, GROUP_ADDRESS);
+        subscribe(mFirstNode, 0x0010, LEVEL_SERVER, GROUP_ADDRESS);
+
+        assertEquals(Arrays.asList(0x0010, 0x0011, 0x0020), getElementAddresses(mMeshNetwork.getElements(group(GROUP_ADDRESS))));
+        final List<MeshModel> models = mMeshNetwork.getModels(group(GROUP_ADDRESS));
+        assertEquals(Arrays.asList(
+                getModel(mFirstNode, 0x0010, LEVEL_SERVER),
+                getModel(mFirstNode, 0x0011, ON_OFF_SERVER),
+                getModel(mFirstNode, 0x0011, LEVEL_SERVER),
+                getModel(mSecondNode, 0x0020, ON_OFF_SERVER)), models);
+        assertIndexMatchesNetwork();
+    }
+
+    @Test
+    public void added_and_removed_subscriptions_update_the_index() {
+        assertTrue(mMeshNetwork.getModels(group(GROUP_ADDRESS)).isEmpty());
+
+        subscribe(mFirstNode, 0x0010, ON_OFF_SERVER, GROUP_ADDRESS);
+        subscribe(mFirstNode, 0x0010, ON_OFF_SERVER, OTHER_GROUP_ADDRESS);
+        assertEquals(Collections.singletonList(getModel(mFirstNode, 0x0010, ON_OFF_SERVER)), mMeshNetwork.getModels(group(GROUP_ADDRESS)));
+        assertEquals(Arrays.asList(GROUP_ADDRESS, OTHER_GROUP_ADDRESS), mMeshNetwork.getSubscriptionAddresses());
+
+        unsubscribe(mFirstNode, 0x0010, ON_OFF_SERVER, GROUP_ADDRESS);
+        assertTrue(mMeshNetwork.getModels(group(GROUP_ADDRESS)).isEmpty());
+        assertTrue(mMeshNetwork.getElements(group(GROUP_ADDRESS)).isEmpty());
+        assertEquals(Collections.singletonList(OTHER_GROUP_ADDRESS), mMeshNetwork.getSubscriptionAddresses());
+        assertIndexMatchesNetwork();
+    }
+
+    @Test
+    public void virtual_address_subscriptions_are_indexed() {
+        subscribe(mSecondNode, 0x0020, LEVEL_SERVER, VIRTUAL_ADDRESS);
+        subscribe(mFirstNode, 0x0011, LEVEL_SERVER, VIRTUAL_ADDRESS);
+        assertEquals(Arrays.asList(0x0011, 0x0020), getElementAddresses(mMeshNetwork.mSubscriptionIndex.getElements(mMeshNetwork.nodes, VIRTUAL_ADDRESS)));
+        assertEquals(Collections.singletonList(VIRTUAL_ADDRESS), mMeshNetwork.getSubscriptionAddresses());
+
+        unsubscribe(mSecondNode, 0x0020, LEVEL_SERVER, VIRTUAL_ADDRESS);
+        assertEquals(Collections.singletonList(getModel(mFirstNode, 0x0011, LEVEL_SERVER)),
+                mMeshNetwork.mSubscriptionIndex.getModels(mMeshNetwork.nodes, VIRTUAL_ADDRESS));
+        assertIndexMatchesNetwork();
+    }
+
+    @Test
+    public void deleted_node_is_removed_from_the_index() {
+        subscribe(mFirstNode, 0x0010, ON_OFF_SERVER, GROUP_ADDRESS);
+        subscribe(mSecondNode, 0x0020, ON_OFF_SERVER, GROUP_ADDRESS);
+        subscribe(mSecondNode, 0x0020, ON_OFF_SERVER, OTHER_GROUP_ADDRESS);
+        assertEquals(2, mMeshNetwork.getModels(group(GROUP_ADDRESS)).size());
+
+        mMeshNetwork.deleteNode(mSecondNode);
+        assertEquals(Collections.singletonList(0x0010), getElementAddresses(mMeshNetwork.getElements(group(GROUP_ADDRESS))));
+        assertEquals(Collections.singletonList(GROUP_ADDRESS), mMeshNetwork.getSubscriptionAddresses());
+        assertEquals(Arrays.asList(0x0010, 0x0011), getElementAddresses(mMeshNetwork.getElementsWithModel(ON_OFF_SERVER)));
+        assertIndexMatchesNetwork();
+    }
+
+    @Test
+    public void replaced_node_instance_is_indexed() {
+        subscribe(mSecondNode, 0x0020, ON_OFF_SERVER, GROUP_ADDRESS);
+
+        //The network replaces the stored node with the instance the status was applied to
+        final ProvisionedMeshNode node = TestMeshNodes.createNode(0x0020, 1, ON_OFF_SERVER, LEVEL_SERVER);
+        TestMeshNodes.subscribe(getModel(node, 0x0020, LEVEL_SERVER), OTHER_GROUP_ADDRESS);
+        mMeshNetwork.nodes.set(mMeshNetwork.nodes.indexOf(mSecondNode), node);
+        mMeshNetwork.onNodeUpdated(node);
+
+        assertTrue(mMeshNetwork.getModels(group(GROUP_ADDRESS)).isEmpty());
+        assertEquals(Collections.singletonList(getModel(node, 0x0020, LEVEL_SERVER)), mMeshNetwork.getModels(group(OTHER_GROUP_ADDRESS)));
+        assertIndexMatchesNetwork();
+    }
+
+    @Test
+    public void elements_are_looked_up_by_model() {
+        final ProvisionedMeshNode node = TestMeshNodes.createNode(0x0030, 1, LEVEL_SERVER);
+        mMeshNetwork.addProvisionedNode(node);
+        assertEquals(Arrays.asList(0x0010, 0x0011, 0x0020), getElementAddresses(mMeshNetwork.getElementsWithModel(ON_OFF_SERVER)));
+        assertEquals(Arrays.asList(0x0010, 0x0011, 0x0020, 0x0030), getElementAddresses(mMeshNetwork.getElementsWithModel(LEVEL_SERVER)));
+
+        //Composition data received for a node adds its elements
+        TestMeshNodes.addElements(node, 1, ON_OFF_SERVER);
+        mMeshNetwork.onNodeUpdated(node);
+        assertEquals(Arrays.asList(0x0010, 0x0011, 0x0020, 0x0031), getElementAddresses(mMeshNetwork.getElementsWithModel(ON_OFF_SERVER)));
+        assertTrue(mMeshNetwork.getElementsWithModel(SigModelParser.GENERIC_ON_OFF_CLIENT).isEmpty());
+    }
+
+    @Test
+    public void imported_nodes_are_indexed() {
+        final ProvisionedMeshNode node = TestMeshNodes.createNode(0x0040, 1, ON_OFF_SERVER);
+        TestMeshNodes.subscribe(getModel(node, 0x0040, ON_OFF_SERVER), GROUP_ADDRESS);
+        subscribe(mFirstNode, 0x0010, ON_OFF_SERVER, GROUP_ADDRESS);
+
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        nodes.add(node);
+        mMeshNetwork.setNodes(nodes);
+        assertEquals(Collections.singletonList(0x0040), getElementAddresses(mMeshNetwork.getElements(group(GROUP_ADDRESS))));
+        assertIndexMatchesNetwork();
+    }
+
+    private void subscribe(final ProvisionedMeshNode node, final int elementAddress, final int modelId, final int address) {
+        TestMeshNodes.subscribe(getModel(node, elementAddress, modelId), address);
+        mMeshNetwork.onNodeUpdated(node);
+    }
+
+    private void unsubscribe(final ProvisionedMeshNode node, final int elementAddress, final int modelId, final int address) {
+        TestMeshNodes.unsubscribe(getModel(node, elementAddress, modelId), address);
+        mMeshNetwork.onNodeUpdated(node);
+    }
+
+    private Group group(final int address) {
+        return mMeshNetwork.getGroup(address);
+    }
+
+    private static MeshModel getModel(final ProvisionedMeshNode node, final int elementAddress, final int modelId) {
+        return TestMeshNodes.getModel(node, elementAddress, modelId);
+    }
+
+    private static List<Integer> getElementAddresses(final List<Element> elements) {
+        final List<Integer> addresses = new ArrayList<>();
+        for (Element element : elements) {
+            addresses.add(element.getElementAddress());
+        }
+        return addresses;
+    }
+
+    /**
+     * Compares the index against a walk through every node, element, model and subscription of the network
+     */
+    private void assertIndexMatchesNetwork() {
+        final TreeSet<Integer> addresses = new TreeSet<>();
+        for (ProvisionedMeshNode node : mMeshNetwork.getNodes()) {
+            for (Element element : node.getElements().values()) {
+                for (MeshModel model : element.getMeshModels().values()) {
+                    addresses.addAll(model.getSubscribedAddresses());
+                }
+            }
+        }
+        assertEquals(new ArrayList<>(addresses), mMeshNetwork.getSubscriptionAddresses());
+        for (int address : addresses) {
+            final List<MeshModel> models = new ArrayList<>();
+            final List<ProvisionedMeshNode> nodes = new ArrayList<>(mMeshNetwork.getNodes());
+            Collections.sort(nodes, (node1, node2) -> Integer.compare(node1.getUnicastAddress(), node2.getUnicastAddress()));
+            for (ProvisionedMeshNode node : nodes) {
+                for (Element element : node.getElements().values()) {
+                    final List<MeshModel> elementModels = new ArrayList<>(element.getMeshModels().values());
+                    Collections.sort(elementModels, (model1, model2) -> Integer.compare(model1.getModelId(), model2.getModelId()));
+                    for (MeshModel model : elementModels) {
+                        if (model.getSubscribedAddresses().contains(address)) {
+                            models.add(model);
+                        }
+                    }
+                }
+            }
+            assertEquals(models, mMeshNetwork.mSubscriptionIndex.getModels(mMeshNetwork.nodes, address));
+        }
+    }
+}
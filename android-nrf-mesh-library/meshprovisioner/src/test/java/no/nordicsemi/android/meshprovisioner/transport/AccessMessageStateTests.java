@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import no.nordicsemi.android.meshprovisioner.ManualMeshScheduler;
+import no.nordicsemi.android.meshprovisioner.OutboundPduScheduler;
+import no.nordicsemi.android.meshprovisioner.Provisioner;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccessMessageStateTests {
+
+    private static final int PROVISIONER_ADDRESS = 0x0001;
+    private static final int NODE_ADDRESS = 0x0002;
+    private static final byte[] NETWORK_KEY = MeshParserUtils.toByteArray("7dd7364cd842ad18c17c2b820c84c3d6");
+    private static final byte[] APP_KEY = MeshParserUtils.toByteArray("63964771734fbd76e3b40519d1d94a48");
+
+    private final Context mContext = mock(Context.class);
+    private MeshTransport mMeshTransport;
+
+    @Before
+    public void setUp() {
+        final Provisioner provisioner = new Provisioner("70CF7C9732A345B691494810D2E9CBF4", new ArrayList<>(), null, null, "mesh");
+        provisioner.setProvisionerAddress(PROVISIONER_ADDRESS);
+
+        final NetworkLayerCallbacks networkLayerCallbacks = mock(NetworkLayerCallbacks.class);
+        when(networkLayerCallbacks.getProvisioner(PROVISIONER_ADDRESS)).thenReturn(provisioner);
+        when(networkLayerCallbacks.getTransmitCredentials(NODE_ADDRESS)).thenReturn(SecureUtils.calculateK2(NETWORK_KEY, SecureUtils.K2_MASTER_INPUT));
+        final UpperTransportLayerCallbacks upperTransportLayerCallbacks = mock(UpperTransportLayerCallbacks.class);
+        when(upperTransportLayerCallbacks.getIvIndex()).thenReturn(new byte[4]);
+        when(upperTransportLayerCallbacks.getTransmitIvIndex()).thenReturn(new byte[4]);
+
+        mMeshTransport = new MeshTransport(mContext, new ManualMeshScheduler());
+        mMeshTransport.setNetworkLayerCallbacks(networkLayerCallbacks);
+        mMeshTransport.setUpperTransportLayerCallbacks(upperTransportLayerCallbacks);
+    }
+
+    @Test
+    public void blob_chunks_are_queued_as_bulk_transfers() {
+        //A chunk that fits in a single segment is still part of a bulk transfer
+        final AccessMessageState state = createState(new BLOBChunkTransfer(APP_KEY, 0, new byte[8]));
+
+        assertEquals(OutboundPduScheduler.PRIORITY_BULK, state.getPriority());
+    }
+
+    @Test
+    public void unsegmented_messages_are_queued_as_interactive_messages() {
+        final AccessMessageState state = createState(new GenericOnOffGet(APP_KEY));
+
+        assertEquals(OutboundPduScheduler.PRIORITY_INTERACTIVE, state.getPriority());
+    }
+
+    private AccessMessageState createState(@NonNull final GenericMessage message) {
+        return new AccessMessageState(mContext, PROVISIONER_ADDRESS, NODE_ADDRESS, message.getAppKey(), message, mMeshTransport,
+                mock(InternalMeshMsgHandlerCallbacks.class), MeshTransport.DEFAULT_TTL);
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ApplicationMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BLOBTransferClientTests {
+
+    private static final byte[] APP_KEY = MeshParserUtils.toByteArray("63964771734fbd76e3b40519d1d94a48");
+    private static final byte[] BLOB_ID = MeshParserUtils.toByteArray("0102030405060708");
+    private static final int BLOCK_SIZE_LOG = 10;
+    private static final int CHUNK_SIZE = 128;
+    private static final int MTU_SIZE = 380;
+
+    @Test
+    public void blob_is_delivered_to_all_targets() {
+        final byte[] blob = createBlob(10000);
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final SimulatedServer first = network.addServer(0x0002);
+        final SimulatedServer second = network.addServer(0x0003);
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final BLOBTransferClient client = new BLOBTransferClient(network, APP_KEY, blob, BLOB_ID, Arrays.asList(0x0002, 0x0003), BLOCK_SIZE_LOG, CHUNK_SIZE, MTU_SIZE);
+        client.setCallbacks(callbacks);
+        network.setClient(client);
+        client.start();
+        network.run();
+
+        assertEquals(10, client.getBlockCount());
+        assertEquals(Arrays.asList(0x0002, 0x0003), callbacks.completedTargets);
+        assertArrayEquals(blob, first.getBlob());
+        assertArrayEquals(blob, second.getBlob());
+        assertEquals(blob.length, callbacks.bytesTransferred);
+        assertEquals(10, callbacks.progressCount);
+        //Each chunk is sent once to each target
+        assertEquals(2 * 79, client.getChunksSent());
+        assertFalse(client.isActive());
+    }
+
+    @Test
+    public void only_missing_chunks_are_sent_again() {
+        final byte[] blob = createBlob(4900);
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final SimulatedServer server = network.addServer(0x0002);
+        //Every third chunk is lost the first time it is sent
+        server.setChunkFilter((block, chunk, attempt) -> attempt > 0 || chunk % 3 != 0);
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final BLOBTransferClient client = new BLOBTransferClient(network, APP_KEY, blob, BLOB_ID, Arrays.asList(0x0002), BLOCK_SIZE_LOG, CHUNK_SIZE, MTU_SIZE);
+        client.setCallbacks(callbacks);
+        network.setClient(client);
+        client.start();
+        network.run();
+
+        assertEquals(Arrays.asList(0x0002), callbacks.completedTargets);
+        assertArrayEquals(blob, server.getBlob());
+        //4 blocks of 8 chunks and a last block of 7 chunks, chunks 0, 3 and 6 of each block are sent twice
+        assertEquals(39 + 15, client.getChunksSent());
+    }
+
+    @Test
+    public void encoded_missing_chunks_are_sent_again() {
+        final byte[] blob = createBlob(4096);
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final SimulatedServer server = network.addServer(0x0002);
+        server.setEncodeMissingChunks(true);
+        server.setChunkFilter((block, chunk, attempt) -> attempt > 0 || chunk != 1);
+
+        final BLOBTransferClient client = new BLOBTransferClient(network, APP_KEY, blob, BLOB_ID, Arrays.asList(0x0002), 12, 64, MTU_SIZE);
+        network.setClient(client);
+        client.start();
+        network.run();
+
+        assertArrayEquals(blob, server.getBlob());
+        assertEquals(64 + 1, client.getChunksSent());
+    }
+
+    @Test
+    public void failing_targets_are_dropped() {
+        final byte[] blob = createBlob(3000);
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final SimulatedServer accepting = network.addServer(0x0002);
+        final SimulatedServer rejecting = network.addServer(0x0003);
+        rejecting.setTransferStatus(0x08);
+        final SimulatedServer lossy = network.addServer(0x0004);
+        lossy.setChunkFilter((block, chunk, attempt) -> block != 1 || chunk != 2);
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final BLOBTransferClient client = new BLOBTransferClient(network, APP_KEY, blob, BLOB_ID, Arrays.asList(0x0002, 0x0003, 0x0004), BLOCK_SIZE_LOG, CHUNK_SIZE, MTU_SIZE);
+        client.setCallbacks(callbacks);
+        client.setBlockRetries(2);
+        network.setClient(client);
+        client.start();
+        network.run();
+
+        assertEquals(Arrays.asList(0x0002), callbacks.completedTargets);
+        assertEquals(Integer.valueOf(0x08), callbacks.failedTargets.get(0x0003));
+        assertEquals(Integer.valueOf(-1), callbacks.failedTargets.get(0x0004));
+        assertArrayEquals(blob, accepting.getBlob());
+    }
+
+    @Test
+    public void transfer_fails_without_targets() {
+        final SimulatedNetwork network = new SimulatedNetwork();
+        network.addServer(0x0002).setTransferStatus(0x01);
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final BLOBTransferClient client = new BLOBTransferClient(network, APP_KEY, createBlob(100), BLOB_ID, Arrays.asList(0x0002), BLOCK_SIZE_LOG, CHUNK_SIZE, MTU_SIZE);
+        client.setCallbacks(callbacks);
+        network.setClient(client);
+        client.start();
+        network.run();
+
+        assertTrue(callbacks.transferFailed);
+        assertEquals(0, client.getChunksSent());
+    }
+
+    @Test
+    public void missing_chunks_bitmap_is_parsed() {
+        final BitSet chunks = BLOBTransferClient.getMissingChunks(BLOBTransferClient.FORMAT_SOME_CHUNKS_MISSING, new byte[]{0x05, (byte) 0x80}, 16);
+        assertEquals("{0, 2, 15}", chunks.toString());
+        assertEquals(4, BLOBTransferClient.getMissingChunks(BLOBTransferClient.FORMAT_ALL_CHUNKS_MISSING, new byte[0], 4).cardinality());
+        assertTrue(BLOBTransferClient.getMissingChunks(BLOBTransferClient.FORMAT_NO_CHUNKS_MISSING, new byte[0], 4).isEmpty());
+    }
+
+    @Test
+    public void encoded_missing_chunks_are_parsed() {
+        //Chunk numbers 1, 200 and 3000 encoded as UTF-8
+        final byte[] encoded = new String(new int[]{1, 200, 3000}, 0, 3).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        final BitSet chunks = BLOBTransferClient.getMissingChunks(BLOBTransferClient.FORMAT_ENCODED_MISSING_CHUNKS, encoded, 4096);
+        assertEquals("{1, 200, 3000}", chunks.toString());
+    }
+
+    private static byte[] createBlob(final int size) {
+        final byte[] blob = new byte[size];
+        new Random(size).nextBytes(blob);
+        return blob;
+    }
+
+    private interface ChunkFilter {
+        boolean isReceived(final int block, final int chunk, final int attempt);
+    }
+
+    /**
+     * Delivers the messages sent by the client to the simulated servers and the responses back to the client
+     */
+    private static final class SimulatedNetwork implements BLOBTransferClient.MessageSender {
+
+        private final Map<Integer, SimulatedServer> mServers = new HashMap<>();
+        private final ArrayDeque<Runnable> mResponses = new ArrayDeque<>();
+        private BLOBTransferClient mClient;
+
+        SimulatedServer addServer(final int address) {
+            final SimulatedServer server = new SimulatedServer(this, address);
+            mServers.put(address, server);
+            return server;
+        }
+
+        void setClient(final BLOBTransferClient client) {
+            mClient = client;
+        }
+
+        void respond(final int src, final MeshMessage status) {
+            mResponses.add(() -> mClient.onMeshMessageReceived(src, status));
+        }
+
+        void run() {
+            while (!mResponses.isEmpty()) {
+                mResponses.poll().run();
+            }
+        }
+
+        @Override
+        public void sendMeshMessage(final int dst, @NonNull final MeshMessage meshMessage) {
+            final SimulatedServer server = mServers.get(dst);
+            if (server != null) {
+                server.onMessage(meshMessage);
+            }
+        }
+    }
+
+    /**
+     * BLOB Transfer Server receiving a blob in push mode
+     */
+    private static final class SimulatedServer {
+
+        private final SimulatedNetwork mNetwork;
+        private final int mAddress;
+        private final Map<Long, Integer> mAttempts = new HashMap<>();
+        private ChunkFilter mChunkFilter = (block, chunk, attempt) -> true;
+        private boolean mEncodeMissingChunks;
+        private int mTransferStatus;
+        private byte[] mBlob;
+        private int mBlockSize;
+        private int mBlock;
+        private int mChunkSize;
+        private BitSet mReceivedChunks = new BitSet();
+
+        SimulatedServer(final SimulatedNetwork network, final int address) {
+            mNetwork = network;
+            mAddress = address;
+        }
+
+        void setChunkFilter(final ChunkFilter chunkFilter) {
+            mChunkFilter = chunkFilter;
+        }
+
+        void setEncodeMissingChunks(final boolean encodeMissingChunks) {
+            mEncodeMissingChunks = encodeMissingChunks;
+        }
+
+        void setTransferStatus(final int transferStatus) {
+            mTransferStatus = transferStatus;
+        }
+
+        byte[] getBlob() {
+            return mBlob;
+        }
+
+        void onMessage(final MeshMessage meshMessage) {
+            final ByteBuffer buffer = ByteBuffer.wrap(meshMessage.getParameters()).order(ByteOrder.LITTLE_ENDIAN);
+            switch (meshMessage.getOpCode()) {
+                case ApplicationMessageOpCodes.BLOB_TRANSFER_START:
+                    buffer.position(1 + 8);
+                    final int blobSize = buffer.getInt();
+                    mBlockSize = 1 << buffer.get();
+                    if (mTransferStatus == 0) {
+                        mBlob = new byte[blobSize];
+                    }
+                    mNetwork.respond(mAddress, new BLOBTransferStatus(createAccessMessage(new byte[]{(byte) (mTransferStatus << 4 | 0x01), 0x02})));
+                    break;
+                case ApplicationMessageOpCodes.BLOB_BLOCK_START:
+                    mBlock = buffer.getShort();
+                    mChunkSize = buffer.getShort();
+                    mReceivedChunks = new BitSet();
+                    respondBlockStatus(BLOBTransferClient.FORMAT_ALL_CHUNKS_MISSING, new byte[0]);
+                    break;
+                case ApplicationMessageOpCodes.BLOB_CHUNK_TRANSFER:
+                    final int chunk = buffer.getShort();
+                    final long key = ((long) mBlock << 16) | chunk;
+                    final Integer attempts = mAttempts.get(key);
+                    final int attempt = attempts != null ? attempts : 0;
+                    mAttempts.put(key, attempt + 1);
+                    if (mChunkFilter.isReceived(mBlock, chunk, attempt)) {
+                        buffer.get(mBlob, mBlock * mBlockSize + chunk * mChunkSize, buffer.remaining());
+                        mReceivedChunks.set(chunk);
+                    }
+                    break;
+                case ApplicationMessageOpCodes.BLOB_BLOCK_GET:
+                    respondMissingChunks();
+                    break;
+            }
+        }
+
+        private void respondMissingChunks() {
+            final int blockLength = Math.min(mBlockSize, mBlob.length - mBlock * mBlockSize);
+            final int chunkCount = (blockLength + mChunkSize - 1) / mChunkSize;
+            final BitSet missing = new BitSet();
+            missing.set(0, chunkCount);
+            missing.andNot(mReceivedChunks);
+            if (missing.isEmpty()) {
+                respondBlockStatus(BLOBTransferClient.FORMAT_NO_CHUNKS_MISSING, new byte[0]);
+            } else if (mEncodeMissingChunks) {
+                final StringBuilder builder = new StringBuilder();
+                for (int chunk = missing.nextSetBit(0); chunk >= 0; chunk = missing.nextSetBit(chunk + 1)) {
+                    builder.appendCodePoint(chunk);
+                }
+                respondBlockStatus(BLOBTransferClient.FORMAT_ENCODED_MISSING_CHUNKS, builder.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            } else {
+                final byte[] bitmap = new byte[(chunkCount + 7) / 8];
+                for (int chunk = missing.nextSetBit(0); chunk >= 0; chunk = missing.nextSetBit(chunk + 1)) {
+                    bitmap[chunk / 8] |= 1 << (chunk % 8);
+                }
+                respondBlockStatus(BLOBTransferClient.FORMAT_SOME_CHUNKS_MISSING, bitmap);
+            }
+        }
+
+        private void respondBlockStatus(final int format, final byte[] missingChunks) {
+            final ByteBuffer buffer = ByteBuffer.allocate(5 + missingChunks.length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put((byte) format);
+            buffer.putShort((short) mBlock);
+            buffer.putShort((short) mChunkSize);
+            buffer.put(missingChunks);
+            mNetwork.respond(mAddress, new BLOBBlockStatus(createAccessMessage(buffer.array())));
+        }
+
+        private AccessMessage createAccessMessage(final byte[] parameters) {
+            final AccessMessage message = new AccessMessage();
+            message.setSrc(mAddress);
+            message.setParameters(parameters);
+            return message;
+        }
+    }
+
+    private static final class RecordingCallbacks implements BLOBTransferClient.BLOBTransferCallbacks {
+
+        final Map<Integer, Integer> failedTargets = new HashMap<>();
+        List<Integer> completedTargets = new ArrayList<>();
+        int bytesTransferred;
+        int progressCount;
+        boolean transferFailed;
+
+        @Override
+        public void onTransferProgress(final int bytesTransferred, final int totalBytes, final float throughput) {
+            this.bytesTransferred = bytesTransferred;
+            progressCount++;
+        }
+
+        @Override
+        public void onTargetFailed(final int address, final int status) {
+            failedTargets.put(address, status);
+        }
+
+        @Override
+        public void onTransferCompleted(@NonNull final List<Integer> targets) {
+            completedTargets = targets;
+        }
+
+        @Override
+        public void onTransferFailed() {
+            transferFailed = true;
+        }
+    }
+}
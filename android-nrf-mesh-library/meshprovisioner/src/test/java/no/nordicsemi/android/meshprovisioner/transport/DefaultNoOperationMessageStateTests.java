@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import no.nordicsemi.android.meshprovisioner.InternalTransportCallbacks;
+import no.nordicsemi.android.meshprovisioner.ManualMeshScheduler;
+import no.nordicsemi.android.meshprovisioner.MeshStatusCallbacks;
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultNoOperationMessageStateTests {
+
+    private static final int SRC = 0x0001;
+    private static final int NODE_ADDRESS = 0x0002;
+    private static final int CUSTOM_STATUS = 0x8270;
+    private static final byte[] APP_KEY = new byte[16];
+
+    private final ManualMeshScheduler mScheduler = new ManualMeshScheduler();
+    private final StatusMessageRegistry mRegistry = new StatusMessageRegistry();
+    private final ProvisionedMeshNode mNode = new ProvisionedMeshNode();
+    private final InternalTransportCallbacks mTransportCallbacks = mock(InternalTransportCallbacks.class);
+    private final MeshStatusCallbacks mStatusCallbacks = mock(MeshStatusCallbacks.class);
+    private MeshTransactionManager mTransactionManager;
+    private DefaultNoOperationMessageState mState;
+
+    @Before
+    public void setUp() {
+        when(mTransportCallbacks.getProvisionedNode(NODE_ADDRESS)).thenReturn(mNode);
+        mTransactionManager = new MeshTransactionManager(mScheduler, mRegistry, new MeshTransactionManager.TransactionCallbacks() {
+            @Override
+            public MeshMessageState onSendTransaction(@NonNull final MeshTransaction transaction) {
+                return mock(MeshMessageState.class);
+            }
+
+            @Override
+            public void onTransactionTimedOut(@NonNull final MeshTransaction transaction) {
+
+            }
+        });
+
+        final Context context = mock(Context.class);
+        mState = new DefaultNoOperationMessageState(context, new ConfigNodeReset(), new MeshTransport(context, mScheduler),
+                mock(InternalMeshMsgHandlerCallbacks.class));
+        mState.setTransportCallbacks(mTransportCallbacks);
+        mState.setStatusCallbacks(mStatusCallbacks);
+        mState.setTransactionManager(mTransactionManager);
+        mState.setStatusMessageRegistry(mRegistry);
+    }
+
+    @Test
+    public void status_is_created_by_the_factory_registered_for_its_opcode() {
+        final MeshMessage status = mock(MeshMessage.class);
+        mRegistry.register(CUSTOM_STATUS, message -> status);
+
+        mState.parseAccessMessage(createAccessMessage(CUSTOM_STATUS));
+        verify(mStatusCallbacks).onMeshMessageReceived(NODE_ADDRESS, status);
+    }
+
+    @Test
+    public void status_completes_the_outstanding_transaction_and_updates_the_node() {
+        mTransactionManager.send(SRC, NODE_ADDRESS, new ConfigNodeReset());
+        assertEquals(1, mTransactionManager.getActiveTransactionCount());
+
+        mState.parseAccessMessage(createAccessMessage(ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS));
+        assertEquals(0, mTransactionManager.getActiveTransactionCount());
+        verify(mTransportCallbacks).onMeshNodeReset(mNode);
+        verify(mStatusCallbacks).onMeshMessageReceived(eq(NODE_ADDRESS), isA(ConfigNodeResetStatus.class));
+    }
+
+    @Test
+    public void status_without_an_outstanding_transaction_does_not_update_the_node() {
+        mState.parseAccessMessage(createAccessMessage(ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS));
+
+        verify(mTransportCallbacks, never()).onMeshNodeReset(any(ProvisionedMeshNode.class));
+        verify(mTransportCallbacks, never()).updateMeshNetwork(any(MeshMessage.class));
+        //The status is still reported to the application
+        verify(mStatusCallbacks).onMeshMessageReceived(eq(NODE_ADDRESS), isA(ConfigNodeResetStatus.class));
+    }
+
+    @Test
+    public void vendor_status_is_matched_to_the_vendor_message_sent() {
+        final VendorModelMessageAcked request = new VendorModelMessageAcked(APP_KEY, 0x00590001, 0x0059, 0x01, new byte[0]);
+        mTransactionManager.send(SRC, NODE_ADDRESS, request);
+
+        mState.parseAccessMessage(createAccessMessage(StatusMessageRegistry.getVendorOpCode(0x0059, 0x02)));
+        assertEquals(0, mTransactionManager.getActiveTransactionCount());
+        verify(mStatusCallbacks).onMeshMessageReceived(eq(NODE_ADDRESS), isA(VendorModelMessageStatus.class));
+    }
+
+    @Test
+    public void unknown_status_is_only_reported_as_an_access_message() {
+        final AccessMessage message = createAccessMessage(CUSTOM_STATUS);
+        mState.parseAccessMessage(message);
+
+        verify(mStatusCallbacks, times(1)).onMeshMessageReceived(anyInt(), any(MeshMessage.class));
+        verify(mStatusCallbacks).onMeshMessageReceived(eq(NODE_ADDRESS), isA(GenericAccessMessageStatus.class));
+        verify(mTransportCallbacks, never()).updateMeshNetwork(any(MeshMessage.class));
+    }
+
+    private static AccessMessage createAccessMessage(final int opCode) {
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(NODE_ADDRESS);
+        message.setDst(SRC);
+        message.setOpCode(opCode);
+        message.setParameters(new byte[0]);
+        message.setAccessPdu(new byte[0]);
+        return message;
+    }
+}
@@ -22,16 +22,30 @@
 
 package no.nordicsemi.android.meshprovisioner.transport;
 
+import android.content.Context;
+
 import org.junit.Test;
+import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.engines.AESEngine;
+import org.spongycastle.crypto.modes.CCMBlockCipher;
+import org.spongycastle.crypto.params.AEADParameters;
+import org.spongycastle.crypto.params.KeyParameter;
 
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
+import no.nordicsemi.android.meshprovisioner.ManualMeshScheduler;
+import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
 
 /**
  * Example local unit test, which will execute on the development machine (host).
@@ -158,4 +172,152 @@ public class EncryptionTests {
         final String expectedNetworkId = "3ecaff672f673370";
         assertEquals(expectedNetworkId, networkIDText);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void ccm_with_offsets_isCorrect() throws InvalidCipherTextException {
+        //8.3.6, network payload of message #16
+        final byte[] encryptionKey = MeshParserUtils.toByteArray("0953fa93e7caac9638f58820220a398e");
+        final byte[] networkNonce = MeshParserUtils.toByteArray("000b0000061201000012345678");
+        final byte[] payload = MeshParserUtils.toByteArray("00030089511bf1d1a81c11dcef");
+        final byte[] expected = SecureUtils.encryptCCM(payload, encryptionKey, networkNonce, 4);
+
+        //Encrypt in place behind a network header
+        final byte[] pdu = new byte[8 + payload.length + 4];
+        System.arraycopy(payload, 0, pdu, 8, payload.length);
+        assertEquals(expected.length, SecureUtils.encryptCCM(pdu, 8, payload.length, encryptionKey, networkNonce, 4, pdu, 8));
+        assertArrayEquals(expected, Arrays.copyOfRange(pdu, 8, pdu.length));
+
+        final byte[] decrypted = new byte[8 + payload.length];
+        assertEquals(payload.length, SecureUtils.decryptCCM(pdu, 8, pdu.length - 8, encryptionKey, networkNonce, 4, decrypted, 8));
+        assertArrayEquals(payload, Arrays.copyOfRange(decrypted, 8, decrypted.length));
+    }
+
+    @Test
+    public void network_pdu_encryption_allocations() throws Exception {
+        final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+
+        //8.3.6, message #16
+        final byte[] encryptionKey = MeshParserUtils.toByteArray("0953fa93e7caac9638f58820220a398e");
+        final byte[] privacyKey = MeshParserUtils.toByteArray("8b84eedec100067d670971dd2aa700cf");
+        final byte[] ivIndex = MeshParserUtils.toByteArray("12345678");
+        final byte[] sequenceNumber = MeshParserUtils.toByteArray("000006");
+        final byte[] lowerTransportPdu = MeshParserUtils.toByteArray("0089511bf1d1a81c11dcef");
+        final byte[] expectedNetworkPdu = MeshParserUtils.toByteArray("0068e80e5da5af0e6b9be7f5a642f2f98680e61c3a8b47f228");
+        final byte ctlTtl = 0x0b;
+        final int src = 0x1201;
+        final int dst = 0x0003;
+
+        final MeshTransport meshTransport = new MeshTransport(mock(Context.class), new ManualMeshScheduler());
+
+        //Encoding and decoding as done by the network layer for every pdu sent and received
+        final PduOperation encode = () -> meshTransport.createNetworkPdu(MeshManagerApi.PDU_TYPE_NETWORK, (byte) 0x68, ctlTtl,
+                meshTransport.createNetworkNonce(ctlTtl, sequenceNumber, src, ivIndex), sequenceNumber, src, dst, ivIndex,
+                lowerTransportPdu, encryptionKey, privacyKey);
+        final PduOperation decode = () -> {
+            final byte[] networkHeader = meshTransport.deobfuscateNetworkHeader(expectedNetworkPdu, privacyKey, ivIndex);
+            final byte[] nonce = meshTransport.createNetworkNonce(networkHeader[0], sequenceNumber, src, ivIndex);
+            return meshTransport.decryptNetworkPdu(expectedNetworkPdu, networkHeader, encryptionKey, nonce, 4);
+        };
+        assertArrayEquals(expectedNetworkPdu, encode.run());
+        assertArrayEquals(lowerTransportPdu, Arrays.copyOfRange(decode.run(), 10, 10 + lowerTransportPdu.length));
+
+        final PduOperation encodeWithNewCiphers = () ->
+                encryptNetworkPduWithNewCiphers(expectedNetworkPdu, lowerTransportPdu, encryptionKey, privacyKey, ivIndex);
+        final PduOperation decodeWithNewCiphers = () ->
+                decryptNetworkPduWithNewCiphers(expectedNetworkPdu, encryptionKey, privacyKey, ivIndex);
+        assertArrayEquals(expectedNetworkPdu, encodeWithNewCiphers.run());
+        assertArrayEquals(decode.run(), decodeWithNewCiphers.run());
+
+        assertTrue(getAllocatedBytes(bean, encode) < getAllocatedBytes(bean, encodeWithNewCiphers));
+        assertTrue(getAllocatedBytes(bean, decode) < getAllocatedBytes(bean, decodeWithNewCiphers));
+    }
+
+    private interface PduOperation {
+        byte[] run() throws Exception;
+    }
+
+    /**
+     * Returns the average number of bytes allocated by the calling thread for a single run of the given operation
+     */
+    private static long getAllocatedBytes(final com.sun.management.ThreadMXBean bean, final PduOperation operation) throws Exception {
+        final int iterations = 2000;
+        final long threadId = Thread.currentThread().getId();
+        final long start = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (bean.getThreadAllocatedBytes(threadId) - start) / iterations;
+    }
+
+    /**
+     * Encrypts a network pdu the way it was done before ciphers were cached, creating new engines and intermediate buffers
+     *
+     * @param networkPdu network pdu the pdu type, ivi, nid and ctl, ttl, sequence number and source address are taken from
+     */
+    private static byte[] encryptNetworkPduWithNewCiphers(final byte[] networkPdu,
+                                                          final byte[] lowerTransportPdu,
+                                                          final byte[] encryptionKey,
+                                                          final byte[] privacyKey,
+                                                          final byte[] ivIndex) throws InvalidCipherTextException {
+        final byte[] networkHeader = decryptNetworkHeaderWithNewCiphers(networkPdu, privacyKey, ivIndex);
+        final byte[] payload = ByteBuffer.allocate(2 + lowerTransportPdu.length).putShort((short) 0x0003).put(lowerTransportPdu).array();
+        final byte[] encryptedPayload = new byte[payload.length + 4];
+        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
+        ccmBlockCipher.init(true, new AEADParameters(new KeyParameter(encryptionKey), 32, createNetworkNonce(networkHeader, ivIndex)));
+        ccmBlockCipher.processBytes(payload, 0, payload.length, encryptedPayload, 0);
+        ccmBlockCipher.doFinal(encryptedPayload, 0);
+
+        final byte[] pecb = createPecbWithNewCiphers(encryptedPayload, 0, privacyKey, ivIndex);
+        final byte[] header = new byte[6];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = (byte) (networkHeader[i] ^ pecb[i]);
+        }
+        return ByteBuffer.allocate(2 + header.length + encryptedPayload.length).put(networkPdu[0]).put(networkPdu[1])
+                .put(header).put(encryptedPayload).array();
+    }
+
+    /**
+     * Decrypts a network pdu the way it was done before ciphers were cached, creating new engines and intermediate buffers
+     */
+    private static byte[] decryptNetworkPduWithNewCiphers(final byte[] networkPdu,
+                                                          final byte[] encryptionKey,
+                                                          final byte[] privacyKey,
+                                                          final byte[] ivIndex) throws InvalidCipherTextException {
+        final byte[] networkHeader = decryptNetworkHeaderWithNewCiphers(networkPdu, privacyKey, ivIndex);
+        final byte[] encryptedPayload = Arrays.copyOfRange(networkPdu, 8, networkPdu.length);
+        final byte[] payload = new byte[encryptedPayload.length - 4];
+        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
+        ccmBlockCipher.init(false, new AEADParameters(new KeyParameter(encryptionKey), 32, createNetworkNonce(networkHeader, ivIndex)));
+        ccmBlockCipher.processBytes(encryptedPayload, 0, encryptedPayload.length, payload, 0);
+        ccmBlockCipher.doFinal(payload, 0);
+        return ByteBuffer.allocate(2 + networkHeader.length + payload.length).put(networkPdu[0]).put(networkPdu[1])
+                .put(networkHeader).put(payload).array();
+    }
+
+    private static byte[] decryptNetworkHeaderWithNewCiphers(final byte[] networkPdu, final byte[] privacyKey, final byte[] ivIndex) {
+        final byte[] pecb = createPecbWithNewCiphers(networkPdu, 8, privacyKey, ivIndex);
+        final byte[] networkHeader = new byte[6];
+        for (int i = 0; i < networkHeader.length; i++) {
+            networkHeader[i] = (byte) (networkPdu[2 + i] ^ pecb[i]);
+        }
+        return networkHeader;
+    }
+
+    private static byte[] createPecbWithNewCiphers(final byte[] data, final int privacyRandomOffset, final byte[] privacyKey, final byte[] ivIndex) {
+        final byte[] privacyRandom = Arrays.copyOfRange(data, privacyRandomOffset, privacyRandomOffset + 7);
+        final byte[] pecbInput = ByteBuffer.allocate(16).put(new byte[5]).put(ivIndex).put(privacyRandom).array();
+        final AESEngine aesEngine = new AESEngine();
+        aesEngine.init(true, new KeyParameter(privacyKey));
+        final byte[] pecb = new byte[16];
+        aesEngine.processBlock(pecbInput, 0, pecb, 0);
+        return pecb;
+    }
+
+    private static byte[] createNetworkNonce(final byte[] networkHeader, final byte[] ivIndex) {
+        return ByteBuffer.allocate(13).put((byte) 0x00).put(networkHeader).putShort((short) 0x0000).put(ivIndex).array();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class IntObjectMapTests {
+
+    private final IntObjectMap<String> mMap = new IntObjectMap<>();
+
+    @Test
+    public void value_is_replaced_and_removed() {
+        mMap.put(0x8002, "first");
+        mMap.put(0x8002, "second");
+        assertEquals("second", mMap.get(0x8002));
+        assertEquals(1, mMap.size());
+
+        mMap.remove(0x8002);
+        assertNull(mMap.get(0x8002));
+        assertEquals(0, mMap.size());
+    }
+
+    @Test
+    public void negative_key_is_never_found() {
+        mMap.put(0, "zero");
+        assertNull(mMap.get(-1));
+        mMap.remove(-1);
+        assertEquals(1, mMap.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative_key_is_rejected() {
+        mMap.put(-1, "invalid");
+    }
+
+    @Test
+    public void map_matches_a_hash_map_after_random_puts_and_removes() {
+        final Map<Integer, String> expected = new HashMap<>();
+        final Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            //A small key range makes the probe sequences collide and the removals move keys back
+            final int key = random.nextInt(512);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                mMap.remove(key);
+            } else {
+                expected.put(key, "value " + i);
+                mMap.put(key, "value " + i);
+            }
+        }
+
+        assertEquals(expected.size(), mMap.size());
+        for (int key = 0; key < 512; key++) {
+            assertEquals(expected.get(key), mMap.get(key));
+        }
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KeyRefreshProcedureTests {
+
+    private static final byte[] OLD_NET_KEY = MeshParserUtils.toByteArray("7dd7364cd842ad18c17c2b820c84c3d6");
+    private static final byte[] NEW_NET_KEY = MeshParserUtils.toByteArray("f7a2a44f8e8a8029064f173ddc1e2b00");
+    private static final byte[] OLD_APP_KEY = MeshParserUtils.toByteArray("63964771734fbd76e3b40519d1d94a48");
+    private static final byte[] NEW_APP_KEY = MeshParserUtils.toByteArray("5ac5425f6fb4fe3e9a1dd2a4a0bd4c1e");
+    private static final int NET_KEY_INDEX = 0x123;
+    private static final int APP_KEY_INDEX = 0x456;
+    private static final int STATUS_INVALID_NETKEY_INDEX = 0x04;
+
+    @Test
+    public void keys_are_refreshed_on_all_nodes() {
+        final NetworkKey networkKey = createNetworkKey();
+        final ApplicationKey appKey = createAppKey();
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<Integer> nodes = network.addNodes(10);
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final KeyRefreshProcedure procedure = new KeyRefreshProcedure(network, networkKey, Collections.singletonList(appKey), nodes, null);
+        procedure.setCallbacks(callbacks);
+        procedure.setMaxParallelNodes(3);
+        network.setProcedure(procedure);
+        procedure.start(NEW_NET_KEY, Collections.singletonList(NEW_APP_KEY));
+        network.run();
+
+        assertEquals(nodes, callbacks.completedNodes);
+        for (SimulatedNode node : network.getNodes()) {
+            assertArrayEquals(NEW_NET_KEY, node.netKey);
+            assertArrayEquals(NEW_APP_KEY, node.appKey);
+            assertEquals(0, node.phase);
+            assertNull(node.oldNetKey);
+            assertEquals(KeyRefreshProcedure.NODE_REVOKED, procedure.getNodeState(node.address));
+        }
+        //A net key update, an app key update and two phase transitions per node
+        assertEquals(40, procedure.getMessagesSent());
+        assertEquals(3, network.maxOutstanding);
+        assertEquals(NetworkKey.PHASE_0, networkKey.getPhase());
+        assertArrayEquals(NEW_NET_KEY, networkKey.getKey());
+        assertNull(networkKey.getOldKey());
+        assertArrayEquals(NEW_APP_KEY, appKey.getKey());
+        assertNull(appKey.getOldKey());
+        //Started, moved to phase 2 and revoked
+        assertEquals(Arrays.asList(NetworkKey.PHASE_1, NetworkKey.PHASE_2, NetworkKey.PHASE_0), callbacks.phases);
+        assertFalse(procedure.isActive());
+    }
+
+    @Test
+    public void unanswered_messages_are_sent_again() {
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<Integer> nodes = network.addNodes(2);
+        //The first two messages sent to the node are lost
+        network.getNode(nodes.get(1)).lostMessages = 2;
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final KeyRefreshProcedure procedure = new KeyRefreshProcedure(network, createNetworkKey(), Collections.singletonList(createAppKey()), nodes, null);
+        procedure.setCallbacks(callbacks);
+        procedure.setRetries(2);
+        network.setProcedure(procedure);
+        procedure.start(NEW_NET_KEY, Collections.singletonList(NEW_APP_KEY));
+        network.run();
+
+        assertEquals(nodes, callbacks.completedNodes);
+        assertTrue(callbacks.failedNodes.isEmpty());
+        assertEquals(8 + 2, procedure.getMessagesSent());
+    }
+
+    @Test
+    public void failing_nodes_are_excluded_once_quorum_is_reached() {
+        final NetworkKey networkKey = createNetworkKey();
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<Integer> nodes = network.addNodes(10);
+        final SimulatedNode rejecting = network.getNode(nodes.get(2));
+        rejecting.status = STATUS_INVALID_NETKEY_INDEX;
+        final SimulatedNode unreachable = network.getNode(nodes.get(7));
+        unreachable.lostMessages = Integer.MAX_VALUE;
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final KeyRefreshProcedure procedure = new KeyRefreshProcedure(network, networkKey, Collections.singletonList(createAppKey()), nodes, null);
+        procedure.setCallbacks(callbacks);
+        procedure.setQuorum(0.8f);
+        procedure.setRetries(1);
+        network.setProcedure(procedure);
+        procedure.start(NEW_NET_KEY, Collections.singletonList(NEW_APP_KEY));
+        network.run();
+
+        final List<Integer> expected = new ArrayList<>(nodes);
+        expected.remove(Integer.valueOf(rejecting.address));
+        expected.remove(Integer.valueOf(unreachable.address));
+        assertEquals(expected, callbacks.completedNodes);
+        assertEquals(Integer.valueOf(STATUS_INVALID_NETKEY_INDEX), callbacks.failedNodes.get(rejecting.address));
+        assertEquals(Integer.valueOf(-1), callbacks.failedNodes.get(unreachable.address));
+        assertEquals(KeyRefreshProcedure.NODE_FAILED, procedure.getNodeState(unreachable.address));
+        //The excluded nodes are left with the old keys
+        assertArrayEquals(OLD_NET_KEY, rejecting.netKey);
+        assertArrayEquals(OLD_NET_KEY, unreachable.netKey);
+        assertEquals(NetworkKey.PHASE_0, networkKey.getPhase());
+    }
+
+    @Test
+    public void key_refresh_fails_without_quorum() {
+        final NetworkKey networkKey = createNetworkKey();
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<Integer> nodes = network.addNodes(4);
+        network.getNode(nodes.get(0)).lostMessages = Integer.MAX_VALUE;
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final KeyRefreshProcedure procedure = new KeyRefreshProcedure(network, networkKey, Collections.singletonList(createAppKey()), nodes, null);
+        procedure.setCallbacks(callbacks);
+        procedure.setRetries(0);
+        network.setProcedure(procedure);
+        procedure.start(NEW_NET_KEY, Collections.singletonList(NEW_APP_KEY));
+        network.run();
+
+        assertEquals(nodes.subList(1, 4), callbacks.distributedNodes);
+        assertNull(callbacks.completedNodes);
+        //The keys remain in the first phase, messages are still sent with the old key
+        assertEquals(NetworkKey.PHASE_1, networkKey.getPhase());
+        assertArrayEquals(OLD_NET_KEY, networkKey.getOldKey());
+        for (int node : nodes.subList(1, 4)) {
+            assertEquals(1, network.getNode(node).phase);
+        }
+    }
+
+    @Test
+    public void interrupted_key_refresh_is_resumed() {
+        final NetworkKey networkKey = createNetworkKey();
+        final ApplicationKey appKey = createAppKey();
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<Integer> nodes = network.addNodes(6);
+        final InMemoryStore store = new InMemoryStore();
+
+        final KeyRefreshProcedure interrupted = new KeyRefreshProcedure(network, networkKey, Collections.singletonList(appKey), nodes, store);
+        interrupted.setMaxParallelNodes(2);
+        network.setProcedure(interrupted);
+        interrupted.start(NEW_NET_KEY, Collections.singletonList(NEW_APP_KEY));
+        //Interrupted after the first two nodes received the new keys and while the next two are being configured
+        network.run(5);
+        interrupted.cancel();
+        network.clear();
+        assertEquals(2, store.states.size());
+
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+        final KeyRefreshProcedure resumed = new KeyRefreshProcedure(network, networkKey, Collections.singletonList(appKey), nodes, store);
+        resumed.setCallbacks(callbacks);
+        network.setProcedure(resumed);
+        resumed.resume();
+        network.run();
+
+        assertEquals(nodes, callbacks.completedNodes);
+        //The nodes that received the new keys before the interruption are not updated again
+        assertEquals(1, network.getNode(nodes.get(0)).netKeyUpdates);
+        assertEquals(1, network.getNode(nodes.get(1)).netKeyUpdates);
+        assertEquals(2, network.getNode(nodes.get(2)).netKeyUpdates);
+        assertEquals(1, network.getNode(nodes.get(5)).netKeyUpdates);
+        for (SimulatedNode node : network.getNodes()) {
+            assertArrayEquals(NEW_NET_KEY, node.netKey);
+            assertEquals(0, node.phase);
+        }
+        assertTrue(store.states.isEmpty());
+    }
+
+    @Test
+    public void key_refresh_is_resumed_in_second_phase() {
+        final NetworkKey networkKey = createNetworkKey();
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<Integer> nodes = network.addNodes(3);
+        final InMemoryStore store = new InMemoryStore();
+
+        //The keys were distributed to the first two nodes and the first node was moved to the second phase
+        networkKey.setOldKey(OLD_NET_KEY);
+        networkKey.setKey(NEW_NET_KEY);
+        networkKey.setPhase(NetworkKey.PHASE_2);
+        for (int i = 0; i < 2; i++) {
+            final SimulatedNode node = network.getNode(nodes.get(i));
+            node.oldNetKey = OLD_NET_KEY;
+            node.netKey = NEW_NET_KEY;
+            node.phase = i == 0 ? 2 : 1;
+        }
+        store.store(NET_KEY_INDEX, nodes.get(0), KeyRefreshProcedure.NODE_SWITCHED);
+        store.store(NET_KEY_INDEX, nodes.get(1), KeyRefreshProcedure.NODE_DISTRIBUTED);
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final KeyRefreshProcedure procedure = new KeyRefreshProcedure(network, networkKey, Collections.<ApplicationKey>emptyList(), nodes, store);
+        procedure.setCallbacks(callbacks);
+        network.setProcedure(procedure);
+        procedure.resume();
+        network.run();
+
+        assertEquals(nodes.subList(0, 2), callbacks.completedNodes);
+        //The third node never received the new keys
+        assertEquals(KeyRefreshProcedure.NODE_FAILED, procedure.getNodeState(nodes.get(2)));
+        assertEquals(0, network.getNode(nodes.get(2)).messagesReceived);
+        assertEquals(NetworkKey.PHASE_0, networkKey.getPhase());
+    }
+
+    @Test
+    public void messages_are_assembled() {
+        final NetworkKey networkKey = createNetworkKey();
+        final ApplicationKey appKey = createAppKey();
+
+        final byte[] netKeyUpdate = new ConfigNetKeyUpdate(networkKey).getParameters();
+        assertEquals(18, netKeyUpdate.length);
+        assertEquals(0x23, netKeyUpdate[0]);
+        assertEquals(0x01, netKeyUpdate[1]);
+        assertArrayEquals(OLD_NET_KEY, Arrays.copyOfRange(netKeyUpdate, 2, 18));
+
+        final byte[] appKeyUpdate = new ConfigAppKeyUpdate(networkKey, appKey).getParameters();
+        assertEquals(19, appKeyUpdate.length);
+        assertArrayEquals(new byte[]{0x23, 0x61, 0x45}, Arrays.copyOf(appKeyUpdate, 3));
+        assertArrayEquals(OLD_APP_KEY, Arrays.copyOfRange(appKeyUpdate, 3, 19));
+
+        assertArrayEquals(new byte[]{0x23, 0x01, 0x03}, new ConfigKeyRefreshPhaseSet(networkKey, ConfigKeyRefreshPhaseSet.REVOKE_OLD_KEYS).getParameters());
+    }
+
+    private static NetworkKey createNetworkKey() {
+        return new NetworkKey(NET_KEY_INDEX, OLD_NET_KEY.clone());
+    }
+
+    private static ApplicationKey createAppKey() {
+        final ApplicationKey appKey = new ApplicationKey(APP_KEY_INDEX, OLD_APP_KEY.clone());
+        appKey.setBoundNetKeyIndex(NET_KEY_INDEX);
+        return appKey;
+    }
+
+    private static final class InMemoryStore implements KeyRefreshProcedureStore {
+
+        final Map<Integer, Integer> states = new HashMap<>();
+
+        @Override
+        public void load(final int netKeyIndex, @NonNull final Map<Integer, Integer> nodeStates) {
+            nodeStates.putAll(states);
+        }
+
+        @Override
+        public void store(final int netKeyIndex, final int address, final int state) {
+            states.put(address, state);
+        }
+
+        @Override
+        public void clear(final int netKeyIndex) {
+            states.clear();
+        }
+    }
+
+    /**
+     * Delivers the messages sent by the procedure to the simulated nodes and the responses or failed transactions back to the procedure
+     */
+    private static final class SimulatedNetwork implements KeyRefreshProcedure.MessageSender {
+
+        private final Map<Integer, SimulatedNode> mNodes = new HashMap<>();
+        private final ArrayDeque<Runnable> mEvents = new ArrayDeque<>();
+        private KeyRefreshProcedure mProcedure;
+        private int mOutstanding;
+        int maxOutstanding;
+
+        List<Integer> addNodes(final int count) {
+            final List<Integer> addresses = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final int address = 0x0002 + i;
+                mNodes.put(address, new SimulatedNode(address));
+                addresses.add(address);
+            }
+            return addresses;
+        }
+
+        SimulatedNode getNode(final int address) {
+            return mNodes.get(address);
+        }
+
+        List<SimulatedNode> getNodes() {
+            return new ArrayList<>(mNodes.values());
+        }
+
+        void setProcedure(final KeyRefreshProcedure procedure) {
+            mProcedure = procedure;
+        }
+
+        void run() {
+            run(Integer.MAX_VALUE);
+        }
+
+        void run(final int events) {
+            for (int i = 0; i < events && !mEvents.isEmpty(); i++) {
+                mEvents.poll().run();
+            }
+        }
+
+        void clear() {
+            mEvents.clear();
+            mOutstanding = 0;
+        }
+
+        @Override
+        public void sendMeshMessage(final int dst, @NonNull final MeshMessage meshMessage) {
+            maxOutstanding = Math.max(maxOutstanding, ++mOutstanding);
+            final SimulatedNode node = mNodes.get(dst);
+            final byte[] status = node.onMessage(meshMessage);
+            mEvents.add(() -> {
+                mOutstanding--;
+                if (status == null) {
+                    mProcedure.onTransactionFailed(dst);
+                } else {
+                    mProcedure.onMeshMessageReceived(dst, createStatus(dst, meshMessage.getOpCode(), status));
+                }
+            });
+        }
+
+        private static MeshMessage createStatus(final int src, final int opCode, final byte[] parameters) {
+            final AccessMessage message = new AccessMessage();
+            message.setSrc(src);
+            message.setParameters(parameters);
+            switch (opCode) {
+                case ConfigMessageOpCodes.CONFIG_NETKEY_UPDATE:
+                    return new ConfigNetKeyStatus(message);
+                case ConfigMessageOpCodes.CONFIG_APPKEY_UPDATE:
+                    return new ConfigAppKeyStatus(message);
+                default:
+                    return new ConfigKeyRefreshPhaseStatus(message);
+            }
+        }
+    }
+
+    /**
+     * Configuration server of a node holding a single network key and application key
+     */
+    private static final class SimulatedNode {
+
+        final int address;
+        byte[] netKey = OLD_NET_KEY;
+        byte[] oldNetKey;
+        byte[] appKey = OLD_APP_KEY;
+        int phase;
+        int status;
+        int lostMessages;
+        int messagesReceived;
+        int netKeyUpdates;
+
+        SimulatedNode(final int address) {
+            this.address = address;
+        }
+
+        /**
+         * Handles a message and returns the parameters of the status or null if the message was lost
+         */
+        byte[] onMessage(final MeshMessage meshMessage) {
+            if (lostMessages > 0) {
+                lostMessages--;
+                return null;
+            }
+            messagesReceived++;
+            final ByteBuffer buffer = ByteBuffer.wrap(meshMessage.getParameters()).order(ByteOrder.LITTLE_ENDIAN);
+            switch (meshMessage.getOpCode()) {
+                case ConfigMessageOpCodes.CONFIG_NETKEY_UPDATE: {
+                    final int netKeyIndex = buffer.getShort();
+                    if (status == 0) {
+                        netKeyUpdates++;
+                        final byte[] key = new byte[16];
+                        buffer.get(key);
+                        if (phase == 0) {
+                            oldNetKey = netKey;
+                            phase = 1;
+                        }
+                        netKey = key;
+                    }
+                    return new byte[]{(byte) status, (byte) netKeyIndex, (byte) (netKeyIndex >> 8)};
+                }
+                case ConfigMessageOpCodes.CONFIG_APPKEY_UPDATE: {
+                    final byte[] indexes = new byte[3];
+                    buffer.get(indexes);
+                    if (status == 0) {
+                        final byte[] key = new byte[16];
+                        buffer.get(key);
+                        appKey = key;
+                    }
+                    return new byte[]{(byte) status, indexes[0], indexes[1], indexes[2]};
+                }
+                default: {
+                    final int netKeyIndex = buffer.getShort();
+                    final int transition = buffer.get();
+                    if (status == 0) {
+                        if (transition == 2 && phase != 0) {
+                            phase = 2;
+                        } else if (transition == 3 && phase != 0) {
+                            phase = 0;
+                            oldNetKey = null;
+                        }
+                    }
+                    return new byte[]{(byte) status, (byte) netKeyIndex, (byte) (netKeyIndex >> 8), (byte) phase};
+                }
+            }
+        }
+    }
+
+    private static final class RecordingCallbacks implements KeyRefreshProcedure.KeyRefreshCallbacks {
+
+        final Map<Integer, Integer> failedNodes = new HashMap<>();
+        final List<Integer> phases = new ArrayList<>();
+        List<Integer> completedNodes;
+        List<Integer> distributedNodes;
+
+        @Override
+        public void onKeysChanged(@NonNull final NetworkKey networkKey, @NonNull final List<ApplicationKey> appKeys) {
+            phases.add(networkKey.getPhase());
+        }
+
+        @Override
+        public void onProgress(final int phase, final int completed, final int total) {
+            assertTrue(completed <= total);
+        }
+
+        @Override
+        public void onNodeFailed(final int address, final int status) {
+            failedNodes.put(address, status);
+        }
+
+        @Override
+        public void onKeyRefreshCompleted(@NonNull final List<Integer> nodes) {
+            completedNodes = nodes;
+        }
+
+        @Override
+        public void onKeyRefreshFailed(@NonNull final List<Integer> nodes) {
+            distributedNodes = nodes;
+        }
+    }
+}
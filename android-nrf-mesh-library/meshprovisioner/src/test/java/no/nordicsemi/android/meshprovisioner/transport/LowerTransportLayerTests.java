@@ -33,12 +33,24 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import no.nordicsemi.android.meshprovisioner.ManualMeshScheduler;
+import no.nordicsemi.android.meshprovisioner.Provisioner;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Example local unit test, which will execute on the development machine (host).
@@ -53,6 +65,17 @@ public class LowerTransportLayerTests {
     @Mock
     Context context;
 
+    private static final int PROVISIONER_ADDRESS = 0x0001;
+    private static final int SEGMENT_TTL = 5;
+    private static final long INCOMPLETE_TIMER_DELAY = 10 * 1000;
+    private static final byte[] NETWORK_PDU = new byte[29];
+
+    private final ManualMeshScheduler mScheduler = new ManualMeshScheduler();
+    private final List<ControlMessage> mBlockAcks = new ArrayList<>();
+    private int mIncompleteTimerExpiredCount;
+    private byte[] mIvIndex = new byte[4];
+    private byte[] mTransmitIvIndex = new byte[4];
+
     @Test
     public void create_unsegmented_access_message_isCorrect() {
         //Message #16
@@ -159,4 +182,191 @@ public class LowerTransportLayerTests {
         meshLayerTestBase.createLowerTransportControlPDU(controlMessage);
         assertEquals(expectedLowerTransportPdu, MeshParserUtils.bytesToHex(controlMessage.getLowerTransportControlPdu().get(0), false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void segments_received_out_of_order_are_reassembled() {
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 2, 2)));
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 2)));
+        final AccessMessage message = meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 2));
+
+        assertNotNull(message);
+        assertEquals(0x000100, MeshParserUtils.getSequenceNumber(message.getSequenceNumber()));
+        //All segments are acknowledged immediately once the message is reassembled
+        assertEquals(1, mBlockAcks.size());
+        assertEquals(0b111, getBlockAck(mBlockAcks.get(0)));
+        assertEquals(0x0002, mBlockAcks.get(0).getDst());
+    }
+
+    @Test
+    public void block_ack_is_sent_with_the_iv_index_during_normal_operation() {
+        mIvIndex = MeshParserUtils.toByteArray("12345678");
+        mTransmitIvIndex = mIvIndex;
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 1)));
+        assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+
+        assertEquals(1, mBlockAcks.size());
+        assertArrayEquals(MeshParserUtils.toByteArray("12345678"), mBlockAcks.get(0).getIvIndex());
+    }
+
+    @Test
+    public void block_ack_is_sent_with_the_previous_iv_index_during_an_iv_update() {
+        mIvIndex = MeshParserUtils.toByteArray("12345679");
+        mTransmitIvIndex = MeshParserUtils.toByteArray("12345678");
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 1)));
+        assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+
+        assertEquals(1, mBlockAcks.size());
+        assertArrayEquals(MeshParserUtils.toByteArray("12345678"), mBlockAcks.get(0).getIvIndex());
+    }
+
+    @Test
+    public void duplicate_segments_are_reassembled_once() {
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 1)));
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 1)));
+        assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+
+        //A retransmitted segment of the reassembled message is acknowledged again, as the block ack may have been lost
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+        assertEquals(2, mBlockAcks.size());
+        assertEquals(0b11, getBlockAck(mBlockAcks.get(1)));
+    }
+
+    @Test
+    public void incomplete_message_is_acknowledged_after_the_acknowledgement_timer() {
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 2)));
+
+        mScheduler.advance(150 + (50 * SEGMENT_TTL));
+        assertEquals(1, mBlockAcks.size());
+        assertEquals(0b010, getBlockAck(mBlockAcks.get(0)));
+
+        mScheduler.advance(INCOMPLETE_TIMER_DELAY);
+        assertEquals(1, mIncompleteTimerExpiredCount);
+    }
+
+    @Test
+    public void segments_from_several_sources_are_reassembled_independently() {
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 1)));
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0003, 0x000100, 0, 1)));
+        assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0003, 0x000100, 1, 1)));
+        assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+    }
+
+    @Test
+    public void oldest_session_is_evicted_when_the_session_table_is_full() {
+        final MeshTransport meshTransport = createSegmentReceiver();
+        //Sixteen sessions may be in progress at the same time, the seventeenth evicts the oldest one
+        for (int src = 0x0002; src < 0x0002 + 17; src++) {
+            assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(src, 0x000100, 0, 1)));
+        }
+
+        for (int src = 0x0003; src < 0x0002 + 17; src++) {
+            assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(src, 0x000100, 1, 1)));
+        }
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+    }
+
+    @Test
+    public void new_seq_auth_from_the_same_source_replaces_the_session() {
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 1)));
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000200, 0, 1)));
+        final AccessMessage message = meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000200, 1, 1));
+        assertNotNull(message);
+        assertEquals(0x000200, MeshParserUtils.getSequenceNumber(message.getSequenceNumber()));
+
+        //The timers of the replaced session were cancelled
+        mScheduler.advance(INCOMPLETE_TIMER_DELAY);
+        assertEquals(0, mIncompleteTimerExpiredCount);
+        assertEquals(1, mBlockAcks.size());
+
+        //A late segment of the replaced message does not complete it
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+    }
+
+    @Test
+    public void expiry_of_a_completed_session_does_not_remove_a_newer_session() {
+        final MeshTransport meshTransport = createSegmentReceiver();
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 0, 1)));
+        assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x000100, 1, 1)));
+
+        //The SeqZero of the next message wrapped around, so both messages share the same session key
+        mScheduler.advance(INCOMPLETE_TIMER_DELAY / 2);
+        assertNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x002100, 0, 1)));
+        mScheduler.advance(INCOMPLETE_TIMER_DELAY / 2 + 1);
+        assertNotNull(meshTransport.parseSegmentedAccessLowerTransportPDU(NETWORK_PDU, createSegment(0x0002, 0x002100, 1, 1)));
+    }
+
+    private MeshTransport createSegmentReceiver() {
+        final NetworkLayerCallbacks networkLayerCallbacks = mock(NetworkLayerCallbacks.class);
+        final Provisioner provisioner = mock(Provisioner.class);
+        when(networkLayerCallbacks.getProvisioner(anyInt())).thenReturn(provisioner);
+
+        final MeshTransport meshTransport = new MeshTransport(context, mScheduler);
+        meshTransport.mMeshNode = new ProvisionedMeshNode();
+        meshTransport.setNetworkLayerCallbacks(networkLayerCallbacks);
+        meshTransport.setUpperTransportLayerCallbacks(new UpperTransportLayerCallbacks() {
+            @Override
+            public byte[] getIvIndex() {
+                return mIvIndex;
+            }
+
+            @Override
+            public byte[] getTransmitIvIndex() {
+                return mTransmitIvIndex;
+            }
+
+            @Override
+            public byte[] getApplicationKey(final int aid) {
+                return null;
+            }
+        });
+        meshTransport.setLowerTransportLayerCallbacks(new LowerTransportLayerCallbacks() {
+            @Override
+            public void sendSegmentAcknowledgementMessage(final ControlMessage controlMessage) {
+                mBlockAcks.add(controlMessage);
+            }
+
+            @Override
+            public void onIncompleteTimerExpired() {
+                mIncompleteTimerExpiredCount++;
+            }
+        });
+        return meshTransport;
+    }
+
+    /**
+     * Creates a decrypted network pdu containing a segment of an access message sent to the provisioner
+     *
+     * @param src  source address of the message
+     * @param seq  sequence number of the first segment, the remaining segments use the following sequence numbers
+     * @param segO index of the segment
+     * @param segN index of the last segment
+     */
+    private static byte[] createSegment(final int src, final int seq, final int segO, final int segN) {
+        final int seqZero = seq & 0x1FFF;
+        final int segmentSeq = seq + segO;
+        final ByteBuffer buffer = ByteBuffer.allocate(26).order(ByteOrder.BIG_ENDIAN);
+        buffer.put((byte) 0x00); //Network pdu type
+        buffer.put((byte) 0x68); //IVI and NID
+        buffer.put((byte) SEGMENT_TTL);
+        buffer.put((byte) (segmentSeq >> 16)).put((byte) (segmentSeq >> 8)).put((byte) segmentSeq);
+        buffer.putShort((short) src);
+        buffer.putShort((short) PROVISIONER_ADDRESS);
+        buffer.put((byte) 0x80); //SEG, AKF = 0, AID = 0
+        buffer.put((byte) ((seqZero >> 6) & 0x7F));
+        buffer.put((byte) (((seqZero << 2) & 0xFC) | ((segO >> 3) & 0x03)));
+        buffer.put((byte) (((segO << 5) & 0xE0) | (segN & 0x1F)));
+        buffer.put(new byte[12]);
+        return buffer.array();
+    }
+
+    private static int getBlockAck(final ControlMessage blockAck) {
+        return ByteBuffer.wrap(blockAck.getTransportControlPdu(), 2, 4).order(ByteOrder.BIG_ENDIAN).getInt();
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.meshprovisioner.ManualMeshScheduler;
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.utils.ProxyFilterType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MeshTransactionManagerTests {
+
+    private static final int SRC = 0x0001;
+    private static final int FIRST_NODE = 0x0002;
+    private static final int SECOND_NODE = 0x0003;
+    private static final int THIRD_NODE = 0x0004;
+    private static final int GROUP_ADDRESS = 0xC000;
+    private static final byte[] APP_KEY = new byte[16];
+    private static final long TIMEOUT = 1000;
+
+    private final ManualMeshScheduler mScheduler = new ManualMeshScheduler();
+    private final StatusMessageRegistry mStatusMessageRegistry = new StatusMessageRegistry();
+    private final List<MeshTransaction> mSentTransactions = new ArrayList<>();
+    private final List<MeshTransaction> mTimedOutTransactions = new ArrayList<>();
+    private boolean mSegmented;
+    private boolean mRefuseSend;
+    private MeshTransactionManager mTransactionManager;
+
+    @Before
+    public void setUp() {
+        mTransactionManager = new MeshTransactionManager(mScheduler, mStatusMessageRegistry, new MeshTransactionManager.TransactionCallbacks() {
+            @Override
+            public MeshMessageState onSendTransaction(@NonNull final MeshTransaction transaction) {
+                mSentTransactions.add(transaction);
+                if (mRefuseSend)
+                    return null;
+
+                final MeshMessageState state = mock(MeshMessageState.class);
+                when(state.isSegmented()).thenReturn(mSegmented);
+                return state;
+            }
+
+            @Override
+            public void onTransactionTimedOut(@NonNull final MeshTransaction transaction) {
+                mTimedOutTransactions.add(transaction);
+            }
+        });
+        mTransactionManager.setTransactionTimeout(TIMEOUT);
+    }
+
+    @Test
+    public void window_limits_outstanding_transactions() {
+        mTransactionManager.setTransactionWindow(2);
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+        mTransactionManager.send(SRC, SECOND_NODE, new ConfigCompositionDataGet());
+        mTransactionManager.send(SRC, THIRD_NODE, new ConfigCompositionDataGet());
+
+        assertSentTo(FIRST_NODE, SECOND_NODE);
+        assertEquals(2, mTransactionManager.getActiveTransactionCount());
+        assertEquals(1, mTransactionManager.getPendingTransactionCount());
+
+        assertNotNull(mTransactionManager.complete(SECOND_NODE, ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS));
+        assertSentTo(FIRST_NODE, SECOND_NODE, THIRD_NODE);
+        assertEquals(0, mTransactionManager.getPendingTransactionCount());
+    }
+
+    @Test
+    public void message_with_the_same_key_waits_for_the_outstanding_transaction() {
+        final ConfigNetworkTransmitGet first = new ConfigNetworkTransmitGet();
+        final ConfigNetworkTransmitSet second = new ConfigNetworkTransmitSet(2, 1);
+        mTransactionManager.send(SRC, FIRST_NODE, first);
+        mTransactionManager.send(SRC, FIRST_NODE, second);
+        //A different status opcode to the same node is a different transaction
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigRelayGet());
+
+        assertEquals(2, mSentTransactions.size());
+        assertSame(first, mSentTransactions.get(0).getMeshMessage());
+        assertEquals(1, mTransactionManager.getPendingTransactionCount());
+
+        final MeshTransaction transaction = mTransactionManager.complete(FIRST_NODE, ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_STATUS);
+        assertSame(first, transaction.getMeshMessage());
+        assertSame(second, mSentTransactions.get(2).getMeshMessage());
+    }
+
+    @Test
+    public void status_from_another_node_does_not_complete_a_transaction() {
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+
+        assertNull(mTransactionManager.complete(SECOND_NODE, ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS));
+        assertNull(mTransactionManager.complete(FIRST_NODE, ConfigMessageOpCodes.CONFIG_RELAY_STATUS));
+        assertEquals(1, mTransactionManager.getActiveTransactionCount());
+    }
+
+    @Test
+    public void duplicate_status_completes_the_transaction_once() {
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+
+        //The message is resent and both attempts are answered
+        mScheduler.advance(TIMEOUT);
+        assertEquals(2, mSentTransactions.size());
+        assertNotNull(mTransactionManager.complete(FIRST_NODE, ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS));
+        assertNull(mTransactionManager.complete(FIRST_NODE, ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS));
+        assertEquals(0, mTransactionManager.getActiveTransactionCount());
+        assertEquals(0, mScheduler.getPendingCount());
+    }
+
+    @Test
+    public void transaction_is_resent_until_the_retries_are_used_up() {
+        mTransactionManager.setTransactionRetries(2);
+        mTransactionManager.setTransactionWindow(1);
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+        mTransactionManager.send(SRC, SECOND_NODE, new ConfigCompositionDataGet());
+
+        mScheduler.advance(TIMEOUT - 1);
+        assertSentTo(FIRST_NODE);
+        mScheduler.advance(1);
+        assertSentTo(FIRST_NODE, FIRST_NODE);
+        mScheduler.advance(TIMEOUT);
+        assertSentTo(FIRST_NODE, FIRST_NODE, FIRST_NODE);
+        assertEquals(3, mSentTransactions.get(0).getAttempts());
+        assertEquals(0, mTimedOutTransactions.size());
+
+        //Failing the transaction frees the window for the queued message
+        mScheduler.advance(TIMEOUT);
+        assertEquals(1, mTimedOutTransactions.size());
+        assertEquals(FIRST_NODE, mTimedOutTransactions.get(0).getDst());
+        assertSentTo(FIRST_NODE, FIRST_NODE, FIRST_NODE, SECOND_NODE);
+        assertNull(mTransactionManager.complete(FIRST_NODE, ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS));
+    }
+
+    @Test
+    public void transaction_that_could_not_be_sent_frees_the_window() {
+        mTransactionManager.setTransactionWindow(1);
+        mRefuseSend = true;
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+        assertEquals(0, mTransactionManager.getActiveTransactionCount());
+
+        mRefuseSend = false;
+        mTransactionManager.send(SRC, SECOND_NODE, new ConfigCompositionDataGet());
+        assertSentTo(FIRST_NODE, SECOND_NODE);
+        assertEquals(1, mTransactionManager.getActiveTransactionCount());
+    }
+
+    @Test
+    public void unacknowledged_and_group_messages_are_not_tracked() {
+        mTransactionManager.setTransactionWindow(1);
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+        mTransactionManager.send(SRC, SECOND_NODE, new GenericOnOffSetUnacknowledged(APP_KEY, true, 1));
+        mTransactionManager.send(SRC, GROUP_ADDRESS, new GenericOnOffGet(APP_KEY));
+
+        assertSentTo(FIRST_NODE, SECOND_NODE, GROUP_ADDRESS);
+        assertEquals(1, mTransactionManager.getActiveTransactionCount());
+        assertEquals(0, mTransactionManager.getPendingTransactionCount());
+    }
+
+    @Test
+    public void proxy_configuration_is_keyed_independently_of_the_destination() {
+        mTransactionManager.send(SRC, FIRST_NODE, new ProxyConfigSetFilterType(new ProxyFilterType(ProxyFilterType.WHITE_LIST_FILTER)));
+        mTransactionManager.send(SRC, SECOND_NODE, new ProxyConfigSetFilterType(new ProxyFilterType(ProxyFilterType.BLACK_LIST_FILTER)));
+
+        assertEquals(1, mSentTransactions.size());
+        assertNotNull(mTransactionManager.completeProxyConfiguration());
+        assertEquals(2, mSentTransactions.size());
+        assertNotNull(mTransactionManager.completeProxyConfiguration());
+        assertNull(mTransactionManager.completeProxyConfiguration());
+    }
+
+    @Test
+    public void transaction_key_combines_destination_and_status_opcode() {
+        final int status = ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS;
+        final ConfigCompositionDataGet message = new ConfigCompositionDataGet();
+        final int statusOpCode = MeshTransaction.getStatusOpCode(message, mStatusMessageRegistry);
+        assertEquals(status, statusOpCode);
+        assertEquals(MeshTransaction.getKey(FIRST_NODE, status), new MeshTransaction(SRC, FIRST_NODE, message, statusOpCode).getKey());
+        assertNotEquals(MeshTransaction.getKey(FIRST_NODE, status), MeshTransaction.getKey(SECOND_NODE, status));
+        assertNotEquals(MeshTransaction.getKey(FIRST_NODE, status), MeshTransaction.getKey(FIRST_NODE, ConfigMessageOpCodes.CONFIG_RELAY_STATUS));
+        //Vendor status opcodes are not known to the library, any 3-octet opcode matches an acknowledged vendor message
+        assertEquals(MeshTransaction.VENDOR_MODEL_STATUS, MeshTransaction.getStatusKey(0xC10059));
+        assertEquals(status, MeshTransaction.getStatusKey(status));
+    }
+
+    @Test
+    public void segmented_state_is_released_when_the_transaction_completes() {
+        mSegmented = true;
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+        final MeshMessageState state = mSentTransactions.get(0).getMeshMessageState();
+        assertSame(state, mTransactionManager.getSegmentedState(FIRST_NODE));
+
+        mTransactionManager.complete(FIRST_NODE, ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS);
+        assertNull(mTransactionManager.getSegmentedState(FIRST_NODE));
+        assertEquals(0, mTransactionManager.getSegmentedStateCount());
+    }
+
+    @Test
+    public void segmented_state_of_an_unacknowledged_message_expires() {
+        mSegmented = true;
+        mTransactionManager.send(SRC, FIRST_NODE, new GenericOnOffSetUnacknowledged(APP_KEY, true, 1));
+        mTransactionManager.send(SRC, SECOND_NODE, new GenericOnOffSetUnacknowledged(APP_KEY, true, 2));
+        mTransactionManager.send(SRC, GROUP_ADDRESS, new GenericOnOffSetUnacknowledged(APP_KEY, true, 3));
+        //No block acknowledgement is sent for a group address
+        assertEquals(2, mTransactionManager.getSegmentedStateCount());
+
+        mTransactionManager.onSegmentsAcknowledged(SECOND_NODE, mSentTransactions.get(1).getMeshMessageState());
+        assertNull(mTransactionManager.getSegmentedState(SECOND_NODE));
+        assertNotNull(mTransactionManager.getSegmentedState(FIRST_NODE));
+
+        mScheduler.advance(TIMEOUT);
+        assertEquals(0, mTransactionManager.getSegmentedStateCount());
+        assertEquals(0, mTimedOutTransactions.size());
+    }
+
+    @Test
+    public void acknowledgement_of_a_previous_message_does_not_release_the_current_state() {
+        mSegmented = true;
+        mTransactionManager.send(SRC, FIRST_NODE, new GenericOnOffSetUnacknowledged(APP_KEY, true, 1));
+        final MeshMessageState previous = mSentTransactions.get(0).getMeshMessageState();
+        mTransactionManager.send(SRC, FIRST_NODE, new GenericOnOffSetUnacknowledged(APP_KEY, true, 2));
+        final MeshMessageState current = mSentTransactions.get(1).getMeshMessageState();
+
+        mTransactionManager.onSegmentsAcknowledged(FIRST_NODE, previous);
+        assertSame(current, mTransactionManager.getSegmentedState(FIRST_NODE));
+    }
+
+    @Test
+    public void clear_cancels_all_transactions() {
+        mTransactionManager.setTransactionWindow(1);
+        mSegmented = true;
+        mTransactionManager.send(SRC, FIRST_NODE, new ConfigCompositionDataGet());
+        mTransactionManager.send(SRC, SECOND_NODE, new ConfigCompositionDataGet());
+
+        mTransactionManager.clear();
+        assertEquals(0, mTransactionManager.getActiveTransactionCount());
+        assertEquals(0, mTransactionManager.getPendingTransactionCount());
+        assertEquals(0, mTransactionManager.getSegmentedStateCount());
+        assertEquals(0, mScheduler.getPendingCount());
+
+        mScheduler.advance(TIMEOUT * 4);
+        assertEquals(0, mTimedOutTransactions.size());
+        assertSentTo(FIRST_NODE);
+    }
+
+    private void assertSentTo(final int... destinations) {
+        final List<Integer> expected = new ArrayList<>();
+        for (int dst : destinations) {
+            expected.add(dst);
+        }
+        final List<Integer> actual = new ArrayList<>();
+        for (MeshTransaction transaction : mSentTransactions) {
+            actual.add(transaction.getDst());
+        }
+        assertEquals(expected, actual);
+    }
+}
@@ -37,10 +37,22 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
+import no.nordicsemi.android.meshprovisioner.ManualMeshScheduler;
+import no.nordicsemi.android.meshprovisioner.MeshManagerApi;
+import no.nordicsemi.android.meshprovisioner.Provisioner;
+import no.nordicsemi.android.meshprovisioner.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
 import no.nordicsemi.android.meshprovisioner.utils.SecureUtils;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Example local unit test, which will execute on the development machine (host).
@@ -55,6 +67,12 @@ public class NetworkLayerTests {
     @Mock
     private Context context;
 
+    private static final int PROXY_SRC = 0x0001;
+    private static final SecureUtils.K2Output PROXY_CREDENTIALS =
+            SecureUtils.calculateK2(MeshParserUtils.toByteArray("d1aafb2a1a3c281cbdb0e960edfad852"), SecureUtils.K2_MASTER_INPUT);
+
+    private NetworkLayerCallbacks mNetworkLayerCallbacks;
+
     @Test
     public void create_network_pdu_isCorrect() {
         //Message #16
@@ -252,4 +270,82 @@ public class NetworkLayerTests {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void pdu_sent_with_the_previous_iv_index_is_decrypted() throws ExtendedInvalidCipherTextException {
+        //The IV Update has started, the node still sends with the previous IV Index, signalled by the IVI bit
+        final byte[] currentIvIndex = MeshParserUtils.toByteArray("12345679");
+        final byte[] previousIvIndex = MeshParserUtils.toByteArray("12345678");
+        final MeshTransport meshTransport = createReceiver(currentIvIndex);
+
+        final byte[] sequenceNumber = MeshParserUtils.toByteArray("000001");
+        final byte[] proxyPdu = createProxyConfigurationPdu(meshTransport, sequenceNumber, previousIvIndex);
+        final Message message = meshTransport.parseMeshMessage(proxyPdu);
+
+        assertNotNull(message);
+        assertEquals(PROXY_SRC, message.getSrc());
+        assertArrayEquals(sequenceNumber, message.getSequenceNumber());
+        assertArrayEquals(previousIvIndex, message.getIvIndex());
+    }
+
+    @Test
+    public void ttl_is_recorded_only_for_authenticated_pdus() throws ExtendedInvalidCipherTextException {
+        final byte[] ivIndex = MeshParserUtils.toByteArray("12345678");
+        final MeshTransport meshTransport = createReceiver(ivIndex);
+        final byte[] proxyPdu = createProxyConfigurationPdu(meshTransport, MeshParserUtils.toByteArray("000001"), ivIndex);
+
+        //A pdu with a corrupted mic is not authenticated
+        final byte[] corruptedPdu = proxyPdu.clone();
+        corruptedPdu[corruptedPdu.length - 1] ^= 0x01;
+        try {
+            meshTransport.parseMeshMessage(corruptedPdu);
+            fail("Pdu with a corrupted mic was decrypted");
+        } catch (ExtendedInvalidCipherTextException ex) {
+            verify(mNetworkLayerCallbacks, never()).onNetworkPduReceived(anyInt(), anyInt());
+        }
+
+        assertNotNull(meshTransport.parseMeshMessage(proxyPdu));
+        verify(mNetworkLayerCallbacks).onNetworkPduReceived(PROXY_SRC, 0);
+    }
+
+    private MeshTransport createReceiver(final byte[] ivIndex) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        final NetworkLayerCallbacks networkLayerCallbacks = mock(NetworkLayerCallbacks.class);
+        mNetworkLayerCallbacks = networkLayerCallbacks;
+        when(networkLayerCallbacks.getReceiveCredentials(anyInt())).thenReturn(new SecureUtils.K2Output[]{PROXY_CREDENTIALS});
+        when(networkLayerCallbacks.getProvisionedNode(anyInt())).thenReturn(node);
+        when(networkLayerCallbacks.getProvisioner()).thenReturn(mock(Provisioner.class));
+
+        final MeshTransport meshTransport = new MeshTransport(context, new ManualMeshScheduler());
+        meshTransport.setNetworkLayerCallbacks(networkLayerCallbacks);
+        meshTransport.setUpperTransportLayerCallbacks(new UpperTransportLayerCallbacks() {
+            @Override
+            public byte[] getIvIndex() {
+                return ivIndex;
+            }
+
+            @Override
+            public byte[] getTransmitIvIndex() {
+                return ivIndex;
+            }
+
+            @Override
+            public byte[] getApplicationKey(final int aid) {
+                return null;
+            }
+        });
+        return meshTransport;
+    }
+
+    /**
+     * Creates a proxy configuration pdu setting the filter type, sent by the proxy node with the given IV Index
+     */
+    private static byte[] createProxyConfigurationPdu(final MeshTransport meshTransport, final byte[] sequenceNumber, final byte[] ivIndex) {
+        final byte iviNid = (byte) (((ivIndex[3] & 0x01) << 7) | PROXY_CREDENTIALS.getNid());
+        final byte ctlTtl = (byte) 0x80;
+        final byte[] nonce = meshTransport.createProxyNonce(sequenceNumber, PROXY_SRC, ivIndex);
+        return meshTransport.createNetworkPdu(MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION, iviNid, ctlTtl, nonce, sequenceNumber,
+                PROXY_SRC, 0x0000, ivIndex, MeshParserUtils.toByteArray("0000"), PROXY_CREDENTIALS.getEncryptionKey(),
+                PROXY_CREDENTIALS.getPrivacyKey());
+    }
+}
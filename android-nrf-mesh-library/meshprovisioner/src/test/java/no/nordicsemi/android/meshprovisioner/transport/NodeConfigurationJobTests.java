@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import no.nordicsemi.android.meshprovisioner.models.SigModelParser;
+import no.nordicsemi.android.meshprovisioner.models.VendorModel;
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.utils.MeshParserUtils;
+import no.nordicsemi.android.meshprovisioner.utils.PublicationSettings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NodeConfigurationJobTests {
+
+    private static final int ON_OFF_SERVER = SigModelParser.GENERIC_ON_OFF_SERVER;
+    private static final int VENDOR_MODEL = 0x00590001;
+    private static final int GROUP_ADDRESS = 0xC000;
+    private static final int STATUS_INVALID_MODEL = 0x02;
+
+    private final NetworkKey mNetworkKey = new NetworkKey(0, MeshParserUtils.toByteArray("7dd7364cd842ad18c17c2b820c84c3d6"));
+    private final ApplicationKey mAppKey = new ApplicationKey(1, MeshParserUtils.toByteArray("63964771734fbd76e3b40519d1d94a48"));
+
+    @Test
+    public void only_missing_configuration_is_sent() {
+        final NodeConfigurationTemplate template = createTemplate();
+        final ApplicationKey otherAppKey = new ApplicationKey(2, MeshParserUtils.toByteArray("5ac5425f6fb4fe3e9a1dd2a4a0bd4c1e"));
+        template.addAppKey(otherAppKey);
+        template.addBinding(ON_OFF_SERVER, otherAppKey.getKeyIndex());
+
+        //The first element is already bound to the first app key and subscribed to the group
+        final ProvisionedMeshNode node = createNode(0x0002, 2);
+        node.getAddedApplicationKeys().put(mAppKey.getKeyIndex(), mAppKey);
+        final MeshModel model = node.getElements().get(0x0002).getMeshModels().get(ON_OFF_SERVER);
+        model.setBoundAppKey(mAppKey.getKeyIndex(), mAppKey);
+        model.addSubscriptionAddress(GROUP_ADDRESS);
+
+        final List<ConfigMessage> messages = template.createMessages(node);
+        final List<String> expected = Arrays.asList(
+                "AppKeyAdd 2",
+                "Bind 0002 1000 2",
+                "Bind 0002 00590001 1",
+                "Bind 0003 1000 1",
+                "Bind 0003 1000 2",
+                "Bind 0003 00590001 1",
+                "Subscribe 0003 1000",
+                "Publish 0002 00590001",
+                "Publish 0003 00590001");
+        assertEquals(expected, describe(messages));
+    }
+
+    @Test
+    public void configured_node_is_not_sent_any_messages() {
+        final ProvisionedMeshNode node = createNode(0x0002, 1);
+        final NodeConfigurationTemplate template = createTemplate();
+        node.getAddedApplicationKeys().put(mAppKey.getKeyIndex(), mAppKey);
+        for (MeshModel model : node.getElements().get(0x0002).getMeshModels().values()) {
+            model.setBoundAppKey(mAppKey.getKeyIndex(), mAppKey);
+            if (model.getModelId() == ON_OFF_SERVER) {
+                model.addSubscriptionAddress(GROUP_ADDRESS);
+            }
+        }
+        final PublicationSettings publication = new PublicationSettings(GROUP_ADDRESS, mAppKey.getKeyIndex(), false, 5, 0, 0, 1, 2);
+        template.setPublication(VENDOR_MODEL, publication);
+        node.getElements().get(0x0002).getMeshModels().get(VENDOR_MODEL).mPublicationSettings = publication;
+
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+        final NodeConfigurationJob job = new NodeConfigurationJob(network, template, Collections.singletonList(node));
+        job.setCallbacks(callbacks);
+        network.setJob(job);
+        job.start();
+
+        assertEquals(0, job.getMessagesSent());
+        assertEquals(Integer.valueOf(0), callbacks.messagesSent.get(0x0002));
+        assertEquals(Collections.singletonList(0x0002), callbacks.configured);
+        assertFalse(job.isActive());
+    }
+
+    @Test
+    public void provisioned_nodes_are_configured_in_parallel() {
+        final NodeConfigurationTemplate template = createTemplate();
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            //Freshly provisioned nodes with two elements each and no composition data yet
+            final int address = 0x0002 + 2 * i;
+            nodes.add(createProvisionedNode(address));
+            network.addNode(address, 2);
+        }
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final NodeConfigurationJob job = new NodeConfigurationJob(network, template, nodes);
+        job.setCallbacks(callbacks);
+        job.setMaxParallelNodes(5);
+        network.setJob(job);
+        job.start();
+        network.run();
+
+        assertEquals(20, callbacks.configured.size());
+        assertTrue(callbacks.failed.isEmpty());
+        //Composition data, app key, two bindings per element, a subscription and a publication per element
+        assertEquals(20 * 10, job.getMessagesSent());
+        assertEquals(5, network.maxOutstanding);
+        for (ProvisionedMeshNode node : nodes) {
+            final SimulatedNode simulatedNode = network.getNode(node.getUnicastAddress());
+            assertEquals(Collections.singleton(mAppKey.getKeyIndex()), simulatedNode.appKeys);
+            assertEquals(4, simulatedNode.bindings.size());
+            assertEquals(2, simulatedNode.subscriptions.size());
+            assertEquals(2, simulatedNode.publications.size());
+            assertEquals(NodeConfigurationJob.NODE_CONFIGURED, job.getNodeState(node.getUnicastAddress()));
+        }
+    }
+
+    @Test
+    public void failing_nodes_are_reported() {
+        final NodeConfigurationTemplate template = createTemplate();
+        final SimulatedNetwork network = new SimulatedNetwork();
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final int address = 0x0002 + i;
+            nodes.add(createProvisionedNode(address));
+            network.addNode(address, 1);
+        }
+        //The first message is lost once, the second node rejects the bindings and the third node does not respond at all
+        network.getNode(0x0002).lostMessages = 1;
+        network.getNode(0x0003).bindStatus = STATUS_INVALID_MODEL;
+        network.getNode(0x0004).lostMessages = Integer.MAX_VALUE;
+        final RecordingCallbacks callbacks = new RecordingCallbacks();
+
+        final NodeConfigurationJob job = new NodeConfigurationJob(network, template, nodes);
+        job.setCallbacks(callbacks);
+        job.setRetries(2);
+        network.setJob(job);
+        job.start();
+        network.run();
+
+        assertEquals(Arrays.asList(0x0002, 0x0005), callbacks.configured);
+        assertEquals(Arrays.asList(0x0003, 0x0004), callbacks.failed);
+        assertEquals(Integer.valueOf(STATUS_INVALID_MODEL), callbacks.failedNodes.get(0x0003));
+        assertEquals(Integer.valueOf(-1), callbacks.failedNodes.get(0x0004));
+        //Composition data, app key, two bindings, a subscription and a publication
+        assertEquals(Integer.valueOf(6 + 1), callbacks.messagesSent.get(0x0002));
+    }
+
+    private NodeConfigurationTemplate createTemplate() {
+        mAppKey.setBoundNetKeyIndex(mNetworkKey.getKeyIndex());
+        final NodeConfigurationTemplate template = new NodeConfigurationTemplate(mNetworkKey);
+        template.addAppKey(mAppKey);
+        template.addBinding(ON_OFF_SERVER, mAppKey.getKeyIndex());
+        template.addBinding(VENDOR_MODEL, mAppKey.getKeyIndex());
+        template.addSubscription(ON_OFF_SERVER, GROUP_ADDRESS);
+        template.setPublication(VENDOR_MODEL, new PublicationSettings(GROUP_ADDRESS, mAppKey.getKeyIndex(), false, 5, 0, 0, 1, 2));
+        return template;
+    }
+
+    private static ProvisionedMeshNode createProvisionedNode(final int address) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUnicastAddress(address);
+        return node;
+    }
+
+    /**
+     * Returns a node with elements containing a generic on off server and a vendor model
+     */
+    private static ProvisionedMeshNode createNode(final int address, final int elementCount) {
+        final ProvisionedMeshNode node = createProvisionedNode(address);
+        final Map<Integer, Element> elements = new LinkedHashMap<>();
+        for (int i = 0; i < elementCount; i++) {
+            final Map<Integer, MeshModel> models = new LinkedHashMap<>();
+            models.put(ON_OFF_SERVER, SigModelParser.getSigModel(ON_OFF_SERVER));
+            models.put(VENDOR_MODEL, new VendorModel(VENDOR_MODEL));
+            elements.put(address + i, new Element(address + i, 0, models));
+        }
+        node.setElements(elements);
+        return node;
+    }
+
+    private static List<String> describe(final List<ConfigMessage> messages) {
+        final List<String> descriptions = new ArrayList<>();
+        for (ConfigMessage message : messages) {
+            if (message instanceof ConfigAppKeyAdd) {
+                descriptions.add("AppKeyAdd " + ((ConfigAppKeyAdd) message).getAppKey().getKeyIndex());
+            } else if (message instanceof ConfigModelAppBind) {
+                final ConfigModelAppBind bind = (ConfigModelAppBind) message;
+                descriptions.add(String.format("Bind %04X %s %d", bind.getElementAddress(), formatModel(bind.getModelIdentifier()), bind.getAppKeyIndex()));
+            } else if (message instanceof ConfigModelSubscriptionAdd) {
+                final ConfigModelSubscriptionAdd subscription = (ConfigModelSubscriptionAdd) message;
+                descriptions.add(String.format("Subscribe %04X %s", subscription.getElementAddress(), formatModel(subscription.getModelIdentifier())));
+            } else if (message instanceof ConfigModelPublicationSet) {
+                final ConfigModelPublicationSet publication = (ConfigModelPublicationSet) message;
+                descriptions.add(String.format("Publish %04X %s", publication.getElementAddress(), formatModel(publication.getModelIdentifier())));
+            }
+        }
+        return descriptions;
+    }
+
+    private static String formatModel(final int modelIdentifier) {
+        return String.format(modelIdentifier > 0xFFFF ? "%08X" : "%04X", modelIdentifier);
+    }
+
+    /**
+     * Delivers the messages sent by the job to the simulated nodes and the responses or failed transactions back to the job
+     */
+    private static final class SimulatedNetwork implements NodeConfigurationJob.MessageSender {
+
+        private final Map<Integer, SimulatedNode> mNodes = new HashMap<>();
+        private final ArrayDeque<Runnable> mEvents = new ArrayDeque<>();
+        private NodeConfigurationJob mJob;
+        private int mOutstanding;
+        int maxOutstanding;
+
+        void addNode(final int address, final int elementCount) {
+            mNodes.put(address, new SimulatedNode(address, elementCount));
+        }
+
+        SimulatedNode getNode(final int address) {
+            return mNodes.get(address);
+        }
+
+        void setJob(final NodeConfigurationJob job) {
+            mJob = job;
+        }
+
+        void run() {
+            while (!mEvents.isEmpty()) {
+                mEvents.poll().run();
+            }
+        }
+
+        @Override
+        public void sendMeshMessage(final int dst, @NonNull final MeshMessage meshMessage) {
+            maxOutstanding = Math.max(maxOutstanding, ++mOutstanding);
+            final MeshMessage status = mNodes.get(dst).onMessage(meshMessage);
+            mEvents.add(() -> {
+                mOutstanding--;
+                if (status == null) {
+                    mJob.onTransactionFailed(dst);
+                } else {
+                    mJob.onMeshMessageReceived(dst, status);
+                }
+            });
+        }
+    }
+
+    /**
+     * Configuration server of a node with elements containing a generic on off server and a vendor model
+     */
+    private static final class SimulatedNode {
+
+        private final int mAddress;
+        private final int mElementCount;
+        final Set<Integer> appKeys = new HashSet<>();
+        final Set<String> bindings = new HashSet<>();
+        final Set<String> subscriptions = new HashSet<>();
+        final Set<String> publications = new HashSet<>();
+        int lostMessages;
+        int bindStatus;
+
+        SimulatedNode(final int address, final int elementCount) {
+            mAddress = address;
+            mElementCount = elementCount;
+        }
+
+        /**
+         * Handles a message and returns the status or null if the message was lost
+         */
+        MeshMessage onMessage(final MeshMessage meshMessage) {
+            if (lostMessages > 0) {
+                lostMessages--;
+                return null;
+            }
+            final byte[] parameters = meshMessage.getParameters();
+            switch (meshMessage.getOpCode()) {
+                case ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_GET:
+                    return new ConfigCompositionDataStatus(createAccessMessage(getCompositionData()));
+                case ConfigMessageOpCodes.CONFIG_APPKEY_ADD:
+                    appKeys.add(((ConfigAppKeyAdd) meshMessage).getAppKey().getKeyIndex());
+                    return new ConfigAppKeyStatus(createAccessMessage(createStatus(0, Arrays.copyOf(parameters, 3))));
+                case ConfigMessageOpCodes.CONFIG_MODEL_APP_BIND:
+                    if (bindStatus == 0)
+                        bindings.add(MeshParserUtils.bytesToHex(parameters, false));
+                    return new ConfigModelAppStatus(createAccessMessage(createStatus(bindStatus, parameters)));
+                case ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_ADD:
+                    subscriptions.add(MeshParserUtils.bytesToHex(parameters, false));
+                    return new ConfigModelSubscriptionStatus(createAccessMessage(createStatus(0, parameters)));
+                case ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_SET:
+                    publications.add(MeshParserUtils.bytesToHex(parameters, false));
+                    return new ConfigModelPublicationStatus(createAccessMessage(createStatus(0, parameters)));
+                default:
+                    throw new AssertionError("Unexpected opcode " + Integer.toHexString(meshMessage.getOpCode()));
+            }
+        }
+
+        private byte[] getCompositionData() {
+            final ByteBuffer buffer = ByteBuffer.allocate(12 + mElementCount * 10).order(ByteOrder.LITTLE_ENDIAN);
+            //Opcode and page number, followed by the company, product and version identifiers, the crpl and the features
+            buffer.put((byte) 0x02).put((byte) 0x00);
+            buffer.putShort((short) 0x0059).putShort((short) 0x0001).putShort((short) 0x0001).putShort((short) 0x0028).putShort((short) 0x0003);
+            for (int i = 0; i < mElementCount; i++) {
+                buffer.putShort((short) 0x0000).put((byte) 1).put((byte) 1);
+                buffer.putShort((short) ON_OFF_SERVER);
+                buffer.putShort((short) (VENDOR_MODEL >> 16)).putShort((short) VENDOR_MODEL);
+            }
+            return buffer.array();
+        }
+
+        private static byte[] createStatus(final int status, final byte[] parameters) {
+            final byte[] data = new byte[parameters.length + 1];
+            data[0] = (byte) status;
+            System.arraycopy(parameters, 0, data, 1, parameters.length);
+            return data;
+        }
+
+        private AccessMessage createAccessMessage(final byte[] parameters) {
+            final AccessMessage message = new AccessMessage();
+            message.setSrc(mAddress);
+            message.setParameters(parameters);
+            message.setAccessPdu(parameters);
+            return message;
+        }
+    }
+
+    private static final class RecordingCallbacks implements NodeConfigurationJob.NodeConfigurationCallbacks {
+
+        final Map<Integer, Integer> messagesSent = new HashMap<>();
+        final Map<Integer, Integer> failedNodes = new HashMap<>();
+        List<Integer> configured = new ArrayList<>();
+        List<Integer> failed = new ArrayList<>();
+
+        @Override
+        public void onNodeConfigured(final int address, final int messagesSent) {
+            this.messagesSent.put(address, messagesSent);
+        }
+
+        @Override
+        public void onNodeFailed(final int address, final int status) {
+            failedNodes.put(address, status);
+        }
+
+        @Override
+        public void onJobCompleted(@NonNull final List<Integer> configured, @NonNull final List<Integer> failed) {
+            this.configured = configured;
+            this.failed = failed;
+        }
+    }
+}
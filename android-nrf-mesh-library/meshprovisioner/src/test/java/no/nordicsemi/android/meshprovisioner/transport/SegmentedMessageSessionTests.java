@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentedMessageSessionTests {
+
+    private static final byte[] SEGMENT = new byte[16];
+    private static final byte[] NETWORK_PDU = new byte[29];
+
+    @Test
+    public void key_is_unique_per_source_and_seq_zero() {
+        assertNotEquals(SegmentedMessageSession.getKey(0x0002, 0x10), SegmentedMessageSession.getKey(0x0003, 0x10));
+        assertNotEquals(SegmentedMessageSession.getKey(0x0002, 0x10), SegmentedMessageSession.getKey(0x0002, 0x11));
+        assertNotEquals(SegmentedMessageSession.getKey(0x7FFF, 0x1FFF), SegmentedMessageSession.getKey(0x0001, 0x1FFF));
+        assertEquals(SegmentedMessageSession.getKey(0x0002, 0x10), new SegmentedMessageSession(0x0002, 0x0001, 0x10, 0x10, 1, 5).getKey());
+    }
+
+    @Test
+    public void segments_received_out_of_order_complete_the_block_ack() {
+        final SegmentedMessageSession session = new SegmentedMessageSession(0x0002, 0x0001, 0x10, 0x10, 2, 5);
+        assertTrue(session.addSegment(2, SEGMENT, NETWORK_PDU));
+        assertEquals(0b100, session.getBlockAck());
+        assertFalse(session.hasAllSegments());
+
+        assertTrue(session.addSegment(0, SEGMENT, NETWORK_PDU));
+        assertEquals(0b101, session.getBlockAck());
+        assertFalse(session.hasAllSegments());
+
+        assertTrue(session.addSegment(1, SEGMENT, NETWORK_PDU));
+        assertEquals(0b111, session.getBlockAck());
+        assertTrue(session.hasAllSegments());
+    }
+
+    @Test
+    public void duplicate_segment_does_not_change_the_block_ack() {
+        final SegmentedMessageSession session = new SegmentedMessageSession(0x0002, 0x0001, 0x10, 0x10, 1, 5);
+        assertTrue(session.addSegment(0, SEGMENT, NETWORK_PDU));
+        assertTrue(session.addSegment(0, SEGMENT, NETWORK_PDU));
+        assertEquals(0b01, session.getBlockAck());
+        assertFalse(session.hasAllSegments());
+    }
+
+    @Test
+    public void segment_out_of_range_is_rejected() {
+        final SegmentedMessageSession session = new SegmentedMessageSession(0x0002, 0x0001, 0x10, 0x10, 1, 5);
+        assertFalse(session.addSegment(2, SEGMENT, NETWORK_PDU));
+        assertEquals(0, session.getBlockAck());
+    }
+
+    @Test
+    public void completed_session_releases_segments_and_rejects_further_segments() {
+        final SegmentedMessageSession session = new SegmentedMessageSession(0x0002, 0x0001, 0x10, 0x10, 0, 5);
+        assertTrue(session.addSegment(0, SEGMENT, NETWORK_PDU));
+        assertTrue(session.hasAllSegments());
+
+        session.complete();
+        assertTrue(session.isCompleted());
+        assertNull(session.getSegments());
+        assertNull(session.getNetworkPdus());
+        assertFalse(session.addSegment(0, SEGMENT, NETWORK_PDU));
+        //The block ack is kept to acknowledge retransmitted segments
+        assertEquals(0b1, session.getBlockAck());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import org.junit.Test;
+
+import no.nordicsemi.android.meshprovisioner.opcodes.ApplicationMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.meshprovisioner.utils.ProxyFilterType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class StatusMessageRegistryTests {
+
+    private static final byte[] APP_KEY = new byte[16];
+
+    private final StatusMessageRegistry mRegistry = new StatusMessageRegistry();
+
+    @Test
+    public void acknowledged_messages_map_to_their_status() {
+        assertEquals(ConfigMessageOpCodes.CONFIG_APPKEY_STATUS, mRegistry.getStatusOpCode(ConfigMessageOpCodes.CONFIG_APPKEY_ADD));
+        assertEquals(ConfigMessageOpCodes.CONFIG_APPKEY_STATUS, mRegistry.getStatusOpCode(ConfigMessageOpCodes.CONFIG_APPKEY_DELETE));
+        assertEquals(ConfigMessageOpCodes.CONFIG_APPKEY_LIST, mRegistry.getStatusOpCode(ConfigMessageOpCodes.CONFIG_APPKEY_GET));
+        assertEquals(ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS, mRegistry.getStatusOpCode(ConfigMessageOpCodes.CONFIG_MODEL_APP_UNBIND));
+        assertEquals(ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS, mRegistry.getStatusOpCode(ConfigMessageOpCodes.CONFIG_NODE_RESET));
+        assertEquals(ConfigMessageOpCodes.HEALTH_FAULT_STATUS, mRegistry.getStatusOpCode(ApplicationMessageOpCodes.HEALTH_FAULT_TEST));
+        assertEquals(ApplicationMessageOpCodes.GENERIC_LEVEL_STATUS, mRegistry.getStatusOpCode(ApplicationMessageOpCodes.GENERIC_MOVE_SET));
+        assertEquals(ApplicationMessageOpCodes.SCENE_REGISTER_STATUS, mRegistry.getStatusOpCode(ApplicationMessageOpCodes.SCENE_STORE));
+        assertEquals(ApplicationMessageOpCodes.BLOB_BLOCK_STATUS, mRegistry.getStatusOpCode(ApplicationMessageOpCodes.BLOB_BLOCK_START));
+        assertEquals(ApplicationMessageOpCodes.BLOB_INFORMATION_STATUS, mRegistry.getStatusOpCode(ApplicationMessageOpCodes.BLOB_INFORMATION_GET));
+    }
+
+    @Test
+    public void unacknowledged_messages_have_no_status() {
+        assertEquals(StatusMessageRegistry.NO_STATUS, mRegistry.getStatusOpCode(ApplicationMessageOpCodes.GENERIC_ON_OFF_SET_UNACKNOWLEDGED));
+        assertEquals(StatusMessageRegistry.NO_STATUS, mRegistry.getStatusOpCode(ApplicationMessageOpCodes.BLOB_CHUNK_TRANSFER));
+        assertEquals(StatusMessageRegistry.NO_STATUS, mRegistry.getStatusOpCode(ConfigMessageOpCodes.CONFIG_APPKEY_STATUS));
+    }
+
+    @Test
+    public void status_parsers_are_registered_next_to_their_requests() {
+        final int[] requests = {
+                ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_GET,
+                ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_ADD,
+                ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_SET,
+                ApplicationMessageOpCodes.GENERIC_ON_OFF_SET,
+                ApplicationMessageOpCodes.LIGHT_HSL_GET,
+                ApplicationMessageOpCodes.TIME_ROLE_SET,
+                ApplicationMessageOpCodes.BLOB_TRANSFER_START
+        };
+        for (int request : requests) {
+            assertNotNull(mRegistry.get(mRegistry.getStatusOpCode(request)));
+        }
+    }
+
+    @Test
+    public void custom_status_and_request_can_be_registered() {
+        final StatusMessageRegistry.StatusMessageFactory factory = message -> mock(MeshMessage.class);
+        mRegistry.register(0x8270, factory);
+        mRegistry.registerRequest(0x826F, 0x8270);
+
+        assertSame(factory, mRegistry.get(0x8270));
+        assertEquals(0x8270, mRegistry.getStatusOpCode(0x826F));
+
+        mRegistry.unregister(0x8270);
+        assertNull(mRegistry.get(0x8270));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void status_with_an_invalid_opcode_is_rejected() {
+        mRegistry.register(0x1000000, message -> mock(MeshMessage.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void request_with_a_vendor_opcode_is_rejected() {
+        mRegistry.registerRequest(0xC15900, 0xC25900);
+    }
+
+    @Test
+    public void vendor_opcode_contains_the_company_identifier_in_little_endian() {
+        assertEquals(0xC15900, StatusMessageRegistry.getVendorOpCode(0x0059, 0x01));
+        assertEquals(0xFFFFFF, StatusMessageRegistry.getVendorOpCode(0xFFFF, 0x3F));
+        assertTrue(StatusMessageRegistry.isVendorOpCode(0xC15900));
+        assertFalse(StatusMessageRegistry.isVendorOpCode(ApplicationMessageOpCodes.GENERIC_ON_OFF_STATUS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void vendor_opcode_with_an_invalid_company_identifier_is_rejected() {
+        StatusMessageRegistry.getVendorOpCode(0x10000, 0x01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void vendor_opcode_with_more_than_six_bits_is_rejected() {
+        StatusMessageRegistry.getVendorOpCode(0x0059, 0x40);
+    }
+
+    @Test
+    public void transaction_status_depends_on_the_message_type() {
+        assertEquals(ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS,
+                MeshTransaction.getStatusOpCode(new ConfigCompositionDataGet(), mRegistry));
+        assertEquals(MeshTransaction.PROXY_FILTER_STATUS,
+                MeshTransaction.getStatusOpCode(new ProxyConfigSetFilterType(new ProxyFilterType(ProxyFilterType.WHITE_LIST_FILTER)), mRegistry));
+        assertEquals(MeshTransaction.VENDOR_MODEL_STATUS,
+                MeshTransaction.getStatusOpCode(new VendorModelMessageAcked(APP_KEY, 0x00590001, 0x0059, 0x01, new byte[0]), mRegistry));
+        assertEquals(MeshTransaction.NO_STATUS,
+                MeshTransaction.getStatusOpCode(new GenericOnOffSetUnacknowledged(APP_KEY, true, 1), mRegistry));
+    }
+}
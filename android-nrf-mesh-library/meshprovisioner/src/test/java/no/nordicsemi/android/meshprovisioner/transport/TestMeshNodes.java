@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.transport;
+
+import androidx.annotation.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import no.nordicsemi.android.meshprovisioner.models.SigModelParser;
+
+/**
+ * Creates provisioned nodes with elements and models, and changes their subscriptions, for tests outside of the transport package
+ */
+public final class TestMeshNodes {
+
+    private TestMeshNodes() {
+    }
+
+    /**
+     * Returns a node whose elements each contain a new instance of the given sig models
+     *
+     * @param unicastAddress unicast address of the node
+     * @param elementCount   number of elements
+     * @param modelIds       sig model identifiers of the models of each element
+     */
+    public static ProvisionedMeshNode createNode(final int unicastAddress, final int elementCount, final int... modelIds) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUnicastAddress(unicastAddress);
+        final Map<Integer, Element> elements = new LinkedHashMap<>();
+        for (int i = 0; i < elementCount; i++) {
+            final Map<Integer, MeshModel> models = new LinkedHashMap<>();
+            for (int modelId : modelIds) {
+                models.put(modelId, SigModelParser.getSigModel(modelId));
+            }
+            elements.put(unicastAddress + i, new Element(unicastAddress + i, 0, models));
+        }
+        node.setElements(elements);
+        return node;
+    }
+
+    /**
+     * Adds elements to a node, i.e. as if its composition data was received
+     *
+     * @param node         node
+     * @param elementCount number of elements to add
+     * @param modelIds     sig model identifiers of the models of each element
+     */
+    public static void addElements(@NonNull final ProvisionedMeshNode node, final int elementCount, final int... modelIds) {
+        final ProvisionedMeshNode elements = createNode(node.getUnicastAddress() + node.getElements().size(), elementCount, modelIds);
+        final Map<Integer, Element> allElements = new LinkedHashMap<>(node.getElements());
+        allElements.putAll(elements.getElements());
+        node.setElements(allElements);
+    }
+
+    /**
+     * Returns the model of an element of a node
+     *
+     * @param node           node
+     * @param elementAddress address of the element
+     * @param modelId        model identifier
+     */
+    public static MeshModel getModel(@NonNull final ProvisionedMeshNode node, final int elementAddress, final int modelId) {
+        return node.getElements().get(elementAddress).getMeshModels().get(modelId);
+    }
+
+    /**
+     * Subscribes a model to a group or virtual address, as a successful subscription status would
+     *
+     * @param model   model
+     * @param address group or virtual address
+     */
+    public static void subscribe(@NonNull final MeshModel model, final int address) {
+        model.addSubscriptionAddress(address);
+    }
+
+    /**
+     * Unsubscribes a model from a group or virtual address, as a successful subscription status would
+     *
+     * @param model   model
+     * @param address group or virtual address
+     */
+    public static void unsubscribe(@NonNull final MeshModel model, final int address) {
+        model.removeSubscriptionAddress(address);
+    }
+}
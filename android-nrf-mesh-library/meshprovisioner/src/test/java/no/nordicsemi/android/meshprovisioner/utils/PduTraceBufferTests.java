@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.meshprovisioner.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PduTraceBufferTests {
+
+    @Test
+    public void oldest_pdus_are_replaced() throws IOException {
+        final PduTraceBuffer buffer = new PduTraceBuffer(2, 4);
+        buffer.record(PduTraceBuffer.DIRECTION_OUT, new byte[]{0x01, 0x02}, 0, 2);
+        buffer.record(PduTraceBuffer.DIRECTION_IN, new byte[]{0x03, 0x04}, 0, 2);
+        buffer.record(PduTraceBuffer.DIRECTION_OUT, new byte[]{0x00, 0x05, 0x06, 0x07, 0x08, 0x09}, 1, 5);
+        assertEquals(2, buffer.size());
+
+        final StringBuilder dump = new StringBuilder();
+        buffer.dump(dump);
+        final String[] lines = dump.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].endsWith(" IN  2 0304"));
+        //Pdus longer than the slot size are truncated
+        assertTrue(lines[1], lines[1].endsWith(" OUT 5 05060708..."));
+    }
+
+    @Test
+    public void clear_removes_all_pdus() throws IOException {
+        final PduTraceBuffer buffer = new PduTraceBuffer();
+        buffer.record(PduTraceBuffer.DIRECTION_IN, new byte[]{0x01}, 0, 1);
+        buffer.clear();
+        assertEquals(0, buffer.size());
+
+        final StringBuilder dump = new StringBuilder();
+        buffer.dump(dump);
+        assertEquals("", dump.toString());
+    }
+}